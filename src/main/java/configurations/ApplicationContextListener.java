@@ -0,0 +1,57 @@
+package configurations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.caches.CacheInvalidationListener;
+import utils.sqls.PreparedStatementRegistry;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Слушатель жизненного цикла приложения
+ * <p>При запуске применяет миграции схемы {@link SchemaMigrations},
+ * строит реестр SQL-запросов {@link PreparedStatementRegistry}, проверяет планы запросов {@link QueryPlanCheck}
+ * и запускает слушатель межузловой инвалидации кэшей {@link CacheInvalidationListener}.
+ * При остановке приложения освобождает общие ресурсы:
+ * останавливает слушатель, пулы потоков и закрывает пул соединений с БД</p>
+ *
+ * @see ThreadPoolConfiguration
+ * @see DataSourceConfiguration
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebListener
+public class ApplicationContextListener implements ServletContextListener {
+
+    Logger logger = LoggerFactory.getLogger(ApplicationContextListener.class);
+    private CacheInvalidationListener cacheInvalidationListener;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        logger.info("Запуск приложения");
+        if (SchemaMigrations.isEnabled()) {
+            logger.info(String.format("Применено миграций схемы: %d", SchemaMigrations.migrate()));
+        }
+        logger.info(String.format("Зарегистрировано SQL-запросов: %d", PreparedStatementRegistry.size()));
+        if (QueryPlanCheck.isEnabled()) {
+            QueryPlanCheck.run();
+        }
+
+        if (CacheInvalidationListener.isEnabled()) {
+            cacheInvalidationListener = new CacheInvalidationListener();
+            cacheInvalidationListener.start();
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        logger.info("Остановка приложения: освобождение ресурсов");
+        if (cacheInvalidationListener != null) {
+            cacheInvalidationListener.close();
+        }
+        ThreadPoolConfiguration.shutdown();
+        DataSourceConfiguration.close();
+    }
+}
@@ -0,0 +1,66 @@
+package configurations;
+
+import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+import models.dtos.VersionedDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.caches.ReadThroughCache;
+import services.caches.SingleFlight;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Класс предоставляет общие для всех сервисов кэши DTO
+ * и группы объединения одновременных запросов ({@link SingleFlight})
+ * <p>Сервисы создаются каждым контроллером отдельно, а инвалидация и объединение
+ * должны затрагивать запросы любого из них, поэтому кэши и группы - статические.
+ * Параметры: {@code cache.enabled}, {@code cache.ttl-seconds},
+ * {@code cache.users.maximum-size}, {@code cache.projects.maximum-size}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CacheConfiguration {
+
+    static Logger logger = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private static final ReadThroughCache<VersionedDto<UserDto>> userCache;
+    private static final ReadThroughCache<VersionedDto<ProjectDto>> projectCache;
+    private static final SingleFlight<UUID, List<ProjectDto>> projectsByAdminFlight = new SingleFlight<>("projectsByAdminId");
+    private static final SingleFlight<UUID, List<ProjectDto>> projectsByUserFlight = new SingleFlight<>("projectsByUserId");
+
+    static {
+        boolean enabled = Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+                "CACHE_ENABLED", "cache.enabled", "true"));
+        Duration ttl = Duration.ofSeconds(PropertiesConfiguration.getLongSetting(
+                "CACHE_TTL_SECONDS", "cache.ttl-seconds", 60));
+
+        userCache = new ReadThroughCache<>("users", enabled,
+                PropertiesConfiguration.getLongSetting("CACHE_USERS_MAXIMUM_SIZE", "cache.users.maximum-size", 10_000),
+                ttl);
+        projectCache = new ReadThroughCache<>("projects", enabled,
+                PropertiesConfiguration.getLongSetting("CACHE_PROJECTS_MAXIMUM_SIZE", "cache.projects.maximum-size", 10_000),
+                ttl);
+
+        logger.info(String.format("Кэш DTO: enabled=%s, ttl=%ss", enabled, ttl.toSeconds()));
+    }
+
+    public static ReadThroughCache<VersionedDto<UserDto>> getUserCache() {
+        return userCache;
+    }
+
+    public static ReadThroughCache<VersionedDto<ProjectDto>> getProjectCache() {
+        return projectCache;
+    }
+
+    public static SingleFlight<UUID, List<ProjectDto>> getProjectsByAdminFlight() {
+        return projectsByAdminFlight;
+    }
+
+    public static SingleFlight<UUID, List<ProjectDto>> getProjectsByUserFlight() {
+        return projectsByUserFlight;
+    }
+}
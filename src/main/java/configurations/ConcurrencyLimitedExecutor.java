@@ -0,0 +1,221 @@
+package configurations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Обёртка над {@link ExecutorService}, ограничивающая
+ * число одновременно занятых соединений БД
+ * <p>Разрешение ({@link Lease}) выдаётся в порядке очереди до того, как задача займёт поток,
+ * и держится, пока занято соединение:</p>
+ * <ul>
+ *     <li>{@link #execute(Runnable)} - на время выполнения одной задачи;</li>
+ *     <li>{@link #leaseAsync()} - до {@link Lease#close()}: единица работы держит разрешение
+ *     до commit / rollback, курсор - до закрытия; их задачи выполняются в пуле
+ *     через {@link Lease#execute(Runnable)} без повторного ожидания.</li>
+ * </ul>
+ * <p>Ожидание разрешения не занимает поток. Каждый держатель разрешения
+ * выполняет не более одной задачи одновременно, поэтому при числе разрешений,
+ * равном размеру пула соединений, задачи в пуле не ждут соединение
+ * и пул потоков не может быть исчерпан задачами, стоящими за соединениями,
+ * пока держатели соединений ждут поток.</p>
+ * <p>Если в очереди ожидания больше {@code maxWaiting} запросов,
+ * новый отклоняется с {@link RejectedExecutionException}</p>
+ *
+ * @see ThreadPoolConfiguration
+ * @see UnitOfWork
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ConcurrencyLimitedExecutor extends AbstractExecutorService {
+
+    static Logger logger = LoggerFactory.getLogger(ConcurrencyLimitedExecutor.class);
+
+    private final ExecutorService delegate;
+    private final int maxWaiting;
+    private final Deque<CompletableFuture<Lease>> waiting = new ArrayDeque<>();
+    private int available;
+
+    public ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrency) {
+        this(delegate, maxConcurrency, Integer.MAX_VALUE);
+    }
+
+    public ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrency, int maxWaiting) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.available = maxConcurrency;
+        this.maxWaiting = maxWaiting;
+    }
+
+    /**
+     * Разрешение на одно соединение
+     * <p>Задачи держателя выполняются в пуле исполнителя без ожидания;
+     * {@link #close()} возвращает разрешение (повторный вызов ничего не делает)</p>
+     */
+    public static final class Lease implements Executor, AutoCloseable {
+
+        private final Executor executor;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(Executor executor, Runnable release) {
+            this.executor = executor;
+            this.release = release;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(command);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Получить разрешение у исполнителя
+     * <p>Для исполнителя без ограничения (например, последовательного исполнителя единицы работы,
+     * уже держащей разрешение) разрешение выдаётся сразу и ничего не ограничивает</p>
+     *
+     * @param executor исполнитель репозитория
+     * @return {@code CompletableFuture<Lease>}
+     * @throws RejectedExecutionException если очередь ожидания переполнена
+     */
+    public static CompletableFuture<Lease> leaseAsync(Executor executor) {
+        if (executor instanceof ConcurrencyLimitedExecutor limited) {
+            return limited.leaseAsync();
+        }
+        return CompletableFuture.completedFuture(unlimited(executor));
+    }
+
+    /**
+     * Разрешение, не ограничивающее исполнитель
+     *
+     * @param executor исполнитель задач держателя
+     * @return {@code Lease}
+     */
+    static Lease unlimited(Executor executor) {
+        return new Lease(executor, () -> { });
+    }
+
+    /**
+     * Получить разрешение на соединение
+     *
+     * @return {@code CompletableFuture<Lease>}, завершаемый, когда разрешение свободно
+     * @throws RejectedExecutionException если очередь ожидания переполнена
+     */
+    public CompletableFuture<Lease> leaseAsync() {
+        synchronized (waiting) {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(new Lease(delegate, this::release));
+            }
+            if (waiting.size() >= maxWaiting) {
+                logger.error(String.format("Очередь ожидания соединений переполнена: ожидают %d", waiting.size()));
+                throw new RejectedExecutionException("repository connections are saturated");
+            }
+            CompletableFuture<Lease> lease = new CompletableFuture<>();
+            waiting.add(lease);
+            return lease;
+        }
+    }
+
+    private void release() {
+        CompletableFuture<Lease> next;
+        synchronized (waiting) {
+            next = waiting.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        next.complete(new Lease(delegate, this::release));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        CompletableFuture<Lease> lease = leaseAsync();
+        if (lease.isDone()) {
+            dispatch(lease.join(), command);
+        }
+        else {
+            lease.thenAccept(granted -> {
+                try {
+                    dispatch(granted, command);
+                }
+                catch (RejectedExecutionException e) {
+                    logger.error("Задача отклонена после получения разрешения: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void dispatch(Lease lease, Runnable command) {
+        try {
+            lease.execute(() -> {
+                try {
+                    command.run();
+                }
+                finally {
+                    lease.close();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Число свободных разрешений
+     *
+     * @return {@code int}
+     */
+    public int availablePermits() {
+        synchronized (waiting) {
+            return available;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
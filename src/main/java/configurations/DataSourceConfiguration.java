@@ -0,0 +1,140 @@
+package configurations;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Конфигурационный класс пула соединений с БД
+ * <p>Создаёт единственный на приложение {@link HikariDataSource},
+ * из которого {@link JdbcConnection} заимствует соединения
+ * вместо открытия нового физического соединения на каждый запрос.</p>
+ * <p>Кэш подготовленных запросов драйвера настраивается параметрами
+ * {@code jdbc.prepare-threshold} и {@code jdbc.prepared-statement-cache.*};
+ * тексты запросов берутся из {@link utils.sqls.PreparedStatementRegistry}.
+ * Пакетные вставки переписываются драйвером в многострочные ({@code jdbc.rewrite-batched-inserts}).</p>
+ * <p>Параметры берутся из переменных окружения {@code JDBC_*},
+ * либо из application.properties ({@code jdbc.*})</p>
+ *
+ * @see JdbcConnection
+ * @see ApplicationContextListener
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class DataSourceConfiguration {
+
+    static Logger logger = LoggerFactory.getLogger(DataSourceConfiguration.class);
+    private static volatile HikariDataSource dataSource;
+
+    static String dbUrl = PropertiesConfiguration.getSetting("JDBC_URL", "jdbc.url", null);
+    static String user = PropertiesConfiguration.getSetting("JDBC_USERNAME", "jdbc.username", null);
+    static String pass = PropertiesConfiguration.getSetting("JDBC_PASSWORD", "jdbc.password", null);
+
+    /**
+     * Получить пул соединений
+     * <p>Пул создаётся при первом обращении</p>
+     *
+     * @return {@code DataSource}
+     * @throws IllegalStateException если пул уже закрыт
+     */
+    public static DataSource getDataSource() {
+        HikariDataSource current = dataSource;
+        if (current == null) {
+            synchronized (DataSourceConfiguration.class) {
+                current = dataSource;
+                if (current == null) {
+                    current = new HikariDataSource(buildConfig());
+                    dataSource = current;
+                    logger.info(String.format("Пул соединений %s инициализирован: maximumPoolSize=%d",
+                            current.getPoolName(), current.getMaximumPoolSize()));
+                }
+            }
+        }
+        if (current.isClosed()) {
+            logger.error("Пул соединений уже закрыт");
+            throw new IllegalStateException("DataSource is closed");
+        }
+        return current;
+    }
+
+    /**
+     * Открыть отдельное соединение с БД мимо пула
+     * <p>Для долгоживущих соединений (например, {@code LISTEN}),
+     * которые не должны занимать место в пуле и ограничиваться {@code maxLifetime}</p>
+     *
+     * @return {@code Connection}; закрывается вызывающим
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        return DriverManager.getConnection(dbUrl, user, pass);
+    }
+
+    /**
+     * Максимальный размер пула соединений
+     * <p>Используется для согласования размеров пулов потоков с пулом соединений</p>
+     *
+     * @return {@code int}
+     */
+    public static int getMaximumPoolSize() {
+        return PropertiesConfiguration.getIntSetting("JDBC_POOL_MAXIMUM_SIZE", "jdbc.pool.maximum-size", 10);
+    }
+
+    /**
+     * Закрыть пул соединений
+     * <p>Вызывается при остановке приложения</p>
+     */
+    public static void close() {
+        synchronized (DataSourceConfiguration.class) {
+            if (dataSource != null && !dataSource.isClosed()) {
+                logger.info(String.format("Закрытие пула соединений %s", dataSource.getPoolName()));
+                dataSource.close();
+            }
+        }
+    }
+
+    static HikariConfig buildConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(PropertiesConfiguration.getSetting("JDBC_POOL_NAME", "jdbc.pool.name", "servlets-pool"));
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(dbUrl);
+        config.setUsername(user);
+        config.setPassword(pass);
+
+        config.setMaximumPoolSize(getMaximumPoolSize());
+        config.setMinimumIdle(PropertiesConfiguration.getIntSetting(
+                "JDBC_POOL_MINIMUM_IDLE", "jdbc.pool.minimum-idle", 2));
+        config.setConnectionTimeout(PropertiesConfiguration.getLongSetting(
+                "JDBC_POOL_CONNECTION_TIMEOUT_MS", "jdbc.pool.connection-timeout-ms", 10_000));
+        config.setValidationTimeout(PropertiesConfiguration.getLongSetting(
+                "JDBC_POOL_VALIDATION_TIMEOUT_MS", "jdbc.pool.validation-timeout-ms", 5_000));
+        config.setIdleTimeout(PropertiesConfiguration.getLongSetting(
+                "JDBC_POOL_IDLE_TIMEOUT_MS", "jdbc.pool.idle-timeout-ms", 600_000));
+        config.setMaxLifetime(PropertiesConfiguration.getLongSetting(
+                "JDBC_POOL_MAX_LIFETIME_MS", "jdbc.pool.max-lifetime-ms", 1_800_000));
+        config.setLeakDetectionThreshold(PropertiesConfiguration.getLongSetting(
+                "JDBC_POOL_LEAK_DETECTION_THRESHOLD_MS", "jdbc.pool.leak-detection-threshold-ms", 0));
+
+        // кэш подготовленных запросов драйвера PostgreSQL на каждом соединении пула:
+        // после prepareThreshold выполнений одного текста запроса драйвер использует
+        // серверный подготовленный запрос без повторного разбора и планирования
+        config.addDataSourceProperty("prepareThreshold", PropertiesConfiguration.getIntSetting(
+                "JDBC_PREPARE_THRESHOLD", "jdbc.prepare-threshold", 5));
+        config.addDataSourceProperty("preparedStatementCacheQueries", PropertiesConfiguration.getIntSetting(
+                "JDBC_PREPARED_STATEMENT_CACHE_QUERIES", "jdbc.prepared-statement-cache.queries", 256));
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", PropertiesConfiguration.getIntSetting(
+                "JDBC_PREPARED_STATEMENT_CACHE_SIZE_MIB", "jdbc.prepared-statement-cache.size-mib", 5));
+
+        // пакет однотипных INSERT (addBatch / executeBatch) драйвер переписывает
+        // в многострочные INSERT ... VALUES (...), (...): меньше обменов с сервером на пакет
+        config.addDataSourceProperty("reWriteBatchedInserts", Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+                "JDBC_REWRITE_BATCHED_INSERTS", "jdbc.rewrite-batched-inserts", "true")));
+
+        return config;
+    }
+}
@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -12,9 +11,11 @@ import java.sql.Statement;
 
 /**
  * Класс для работы с JDBC
- * <p>Предоставляет интерфейс для работы с БД
- * ссконфигурированы настройки БД
- * и предоставлен пул потоков</p>
+ * <p>Предоставляет интерфейс для работы с БД.
+ * Соединение заимствуется из пула {@link DataSourceConfiguration}
+ * и возвращается в пул при вызове {@link #close()}.
+ * Внутри {@link UnitOfWork} используется соединение единицы работы:
+ * {@link #close()} закрывает только statement-ы, соединение остаётся открытым до commit / rollback</p>
  *
  * @author 4ndr33w
  * @version 1.0
@@ -22,26 +23,20 @@ import java.sql.Statement;
 public class JdbcConnection implements AutoCloseable{
 
     private final Connection connection;
+    private final boolean ownsConnection;
     private Statement statement;
     private PreparedStatement preparedStatement;
     private ResultSet resultSet;
     Logger logger = LoggerFactory.getLogger(JdbcConnection.class);
 
-    static String dbUrl = System.getenv("JDBC_URL") != null
-            ? System.getenv("JDBC_URL")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.url");
-
-    static String user = System.getenv("JDBC_USERNAME") != null
-            ? System.getenv("JDBC_USERNAME")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.username");
-
-    static String pass = System.getenv("JDBC_PASSWORD") != null
-            ? System.getenv("JDBC_PASSWORD")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.password");
-
     public JdbcConnection() throws SQLException {
-        connection = DriverManager.getConnection(dbUrl, user, pass);
+        connection = DataSourceConfiguration.getDataSource().getConnection();
+        ownsConnection = true;
+    }
 
+    public JdbcConnection(UnitOfWork unitOfWork) throws SQLException {
+        connection = unitOfWork.getConnection();
+        ownsConnection = false;
     }
 
     public Connection getConnection() throws SQLException {
@@ -63,6 +58,21 @@ public class JdbcConnection implements AutoCloseable{
         return this.preparedStatement;
     }
 
+    /**
+     * Подготовить запрос, возвращающий только указанные колонки вставленных строк
+     * <p>Драйвер добавляет {@code RETURNING} с этими колонками;
+     * значения читаются через {@code getGeneratedKeys()}, в том числе после {@code executeBatch()}</p>
+     *
+     * @param sql текст запроса
+     * @param columns возвращаемые колонки
+     * @return {@code PreparedStatement}
+     */
+    public PreparedStatement prepareStatementReturning(String sql, String... columns) throws SQLException {
+        closePreparedStatement();
+        this.preparedStatement = connection.prepareStatement(sql, columns);
+        return this.preparedStatement;
+    }
+
     public PreparedStatement prepareStatement(String sql) throws SQLException {
         closePreparedStatement();
         this.preparedStatement = connection.prepareStatement(sql);
@@ -74,7 +84,10 @@ public class JdbcConnection implements AutoCloseable{
 
         closeResultSet();
         closeStatement();
-        closeConnection();
+        closePreparedStatement();
+        if (ownsConnection) {
+            closeConnection();
+        }
     }
 
     private void closeResultSet() {
@@ -110,6 +123,7 @@ public class JdbcConnection implements AutoCloseable{
                 throw new RuntimeException(e);
             }
         }
+        this.preparedStatement = null;
     }
 
     private void closeConnection() {
@@ -40,4 +40,58 @@ public class PropertiesConfiguration {
     public static Properties getConstants(){
         return constants;
     }
+
+    /**
+     * Получить значение настройки
+     * <p>Переменная окружения {@code envName} имеет приоритет
+     * над параметром {@code propertyName} из application.properties</p>
+     *
+     * @param envName имя переменной окружения
+     * @param propertyName имя параметра в конфигурационном файле
+     * @param defaultValue значение по умолчанию, если настройка не задана
+     * @return {@code String}
+     */
+    public static String getSetting(String envName, String propertyName, String defaultValue) {
+        String value = System.getenv(envName);
+        if (value == null || value.isBlank()) {
+            value = properties.getProperty(propertyName);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Получить целочисленное значение настройки
+     *
+     * @see #getSetting(String, String, String)
+     * @return {@code int}
+     * @throws IllegalStateException если значение не является числом или не помещается в {@code int}
+     */
+    public static int getIntSetting(String envName, String propertyName, int defaultValue) {
+        long value = getLongSetting(envName, propertyName, defaultValue);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalStateException(String.format(
+                    "Numeric setting %s / %s is out of int range: %d", envName, propertyName, value));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Получить значение настройки типа {@code long}
+     *
+     * @see #getSetting(String, String, String)
+     * @return {@code long}
+     * @throws IllegalStateException если значение не является числом
+     */
+    public static long getLongSetting(String envName, String propertyName, long defaultValue) {
+        String value = getSetting(envName, propertyName, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalStateException(String.format("Invalid numeric setting %s / %s: %s", envName, propertyName, value), e);
+        }
+    }
 }
@@ -0,0 +1,174 @@
+package configurations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonCodec;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Проверка планов зарегистрированных запросов при запуске
+ * <p>Для каждого запроса {@link PreparedStatementRegistry} выполняет
+ * {@code EXPLAIN (GENERIC_PLAN, FORMAT JSON)} (PostgreSQL 16+) с {@code enable_seqscan = off}
+ * и пишет предупреждение, если в плане остался {@code Seq Scan}:
+ * при выключенном seqscan планировщик выбирает его только когда подходящего индекса нет.
+ * Запросы импорта (временные таблицы) и запросы, читающие всю таблицу
+ * ({@link #EXPECTED_SEQ_SCANS}), не проверяются.</p>
+ * <p>Ошибка одного {@code EXPLAIN} не прерывает проверку и запуск приложения.
+ * Включается параметром {@code jdbc.explain-check.enabled}</p>
+ *
+ * @see ApplicationContextListener
+ * @see SchemaMigrations
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class QueryPlanCheck {
+
+    static Logger logger = LoggerFactory.getLogger(QueryPlanCheck.class);
+
+    static final Set<SqlStatement> EXPECTED_SEQ_SCANS = EnumSet.of(
+            SqlStatement.USERS_FIND_ALL, SqlStatement.USERS_FIND_ALL_AGGREGATED);
+
+    /**
+     * Включена ли проверка планов при запуске
+     *
+     * @return {@code jdbc.explain-check.enabled}
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+                "JDBC_EXPLAIN_CHECK_ENABLED", "jdbc.explain-check.enabled", "true"));
+    }
+
+    /**
+     * Проверить планы всех зарегистрированных запросов
+     *
+     * @return количество запросов с последовательным сканированием
+     */
+    public static int run() {
+        int warnings = 0;
+        try (Connection connection = DataSourceConfiguration.getDataSource().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                for (SqlStatement key : SqlStatement.values()) {
+                    if (!isChecked(key)) {
+                        continue;
+                    }
+                    Set<String> relations = explain(connection, statement, key);
+                    if (!relations.isEmpty()) {
+                        warnings++;
+                        logger.warn(String.format("Запрос %s читает последовательным сканированием: %s",
+                                key, String.join(", ", relations)));
+                    }
+                }
+            }
+            finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException e) {
+            logger.warn(String.format("Проверка планов запросов не выполнена: %s", e.getMessage()));
+        }
+        logger.info(String.format("Проверка планов запросов: последовательных сканирований %d", warnings));
+        return warnings;
+    }
+
+    static boolean isChecked(SqlStatement key) {
+        return !key.name().startsWith("IMPORT_") && !EXPECTED_SEQ_SCANS.contains(key);
+    }
+
+    private static Set<String> explain(Connection connection, Statement statement, SqlStatement key) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (ResultSet resultSet = statement.executeQuery(
+                "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + toGenericPlanSql(PreparedStatementRegistry.get(key)))) {
+            resultSet.next();
+            return seqScanRelations(JsonCodec.mapper().readTree(resultSet.getString(1)));
+        }
+        catch (SQLException | IOException e) {
+            connection.rollback(savepoint);
+            logger.warn(String.format("EXPLAIN %s не выполнен: %s", key, e.getMessage()));
+            return Set.of();
+        }
+        finally {
+            connection.releaseSavepoint(savepoint);
+        }
+    }
+
+    /**
+     * Заменить параметры JDBC {@code ?} на {@code $1, $2, ...}
+     * <p>{@code EXPLAIN (GENERIC_PLAN)} принимает запрос только с нумерованными параметрами.
+     * {@code ?} внутри строковых литералов и идентификаторов в кавычках не заменяются</p>
+     *
+     * @param sql текст запроса из реестра
+     * @return {@code String}
+     */
+    static String toGenericPlanSql(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                result.append(c);
+            }
+            else if (c == '\'' || c == '"') {
+                quote = c;
+                result.append(c);
+            }
+            else if (c == '?') {
+                result.append('$').append(++parameter);
+            }
+            else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Таблицы, читаемые узлами {@code Seq Scan} плана
+     *
+     * @param plan результат {@code EXPLAIN (FORMAT JSON)}
+     * @return {@code Set<String>} имён таблиц; пустой, если последовательного сканирования нет
+     */
+    static Set<String> seqScanRelations(JsonNode plan) {
+        Set<String> relations = new LinkedHashSet<>();
+        collect(plan, relations);
+        return relations;
+    }
+
+    private static void collect(JsonNode node, Set<String> relations) {
+        if (node.isArray()) {
+            node.forEach(child -> collect(child, relations));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        if (node.has("Plan")) {
+            collect(node.get("Plan"), relations);
+        }
+        if (node.has("Plans")) {
+            collect(node.get("Plans"), relations);
+        }
+    }
+}
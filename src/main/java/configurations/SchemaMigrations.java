@@ -0,0 +1,239 @@
+package configurations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.sqls.SqlTables;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Версионные миграции схемы БД
+ * <p>Скрипты лежат в {@code db/migration/} и перечислены в файле {@code db/migration/index}
+ * в порядке применения; имя скрипта - {@code V<версия>__<описание>.sql}.
+ * Вместо имён таблиц скрипты используют подстановки {@link SqlTables#placeholders()}
+ * ({@code ${schema}}, {@code ${users_table}}, ...), поэтому применяются к схеме {@code jdbc.default-schema}.</p>
+ * <p>Применённые версии и контрольные суммы хранятся в {@code <схема>.schema_migrations}.
+ * Все новые скрипты выполняются в одной транзакции под {@code pg_advisory_xact_lock},
+ * поэтому несколько узлов, запущенных одновременно, применяют их один раз;
+ * при ошибке транзакция откатывается и запуск приложения прерывается.
+ * Изменённый после применения скрипт (контрольная сумма считается до подстановок) также прерывает запуск.</p>
+ * <p>Включается параметром {@code jdbc.migrations.enabled}.
+ * schema.sql (инициализация контейнера) создаёт актуальную схему, миграции на ней ничего не меняют</p>
+ *
+ * @see ApplicationContextListener
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SchemaMigrations {
+
+    static Logger logger = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    static final String LOCATION = "db/migration/";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+    private static final long LOCK_KEY = 0x5345_5256_4C45_5453L;
+
+    /**
+     * Скрипт миграции
+     */
+    static class Migration {
+
+        private final int version;
+        private final String description;
+        private final String sql;
+        private final String checksum;
+
+        Migration(int version, String description, String script, Map<String, String> placeholders) {
+            this.version = version;
+            this.description = description;
+            this.sql = substitute(script, placeholders);
+            this.checksum = sha256(script);
+        }
+
+        int getVersion() {
+            return version;
+        }
+        String getDescription() {
+            return description;
+        }
+        String getSql() {
+            return sql;
+        }
+        String getChecksum() {
+            return checksum;
+        }
+    }
+
+    /**
+     * Включены ли миграции при запуске
+     *
+     * @return {@code jdbc.migrations.enabled}
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+                "JDBC_MIGRATIONS_ENABLED", "jdbc.migrations.enabled", "true"));
+    }
+
+    /**
+     * Применить скрипты, которых ещё нет в {@code schema_migrations}
+     *
+     * @return количество применённых скриптов
+     * @throws IllegalStateException если скрипт не найден, изменён после применения или завершился ошибкой
+     */
+    public static int migrate() {
+        List<Migration> migrations = load(SqlTables.placeholders());
+        String history = SqlTables.SCHEMA + ".schema_migrations";
+
+        try (Connection connection = DataSourceConfiguration.getDataSource().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int applied = apply(connection, history, migrations);
+                connection.commit();
+                return applied;
+            }
+            catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Ошибка применения миграций схемы: %s", e.getMessage()));
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    private static int apply(Connection connection, String history, List<Migration> migrations) throws SQLException {
+        Map<Integer, String> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("SELECT pg_advisory_xact_lock(%d)", LOCK_KEY));
+            statement.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s (version integer PRIMARY KEY, description text not null, "
+                            + "checksum text not null, applied_at timestamptz default now())", history));
+            try (ResultSet resultSet = statement.executeQuery(
+                    String.format("SELECT version, checksum FROM %s", history))) {
+                while (resultSet.next()) {
+                    checksums.put(resultSet.getInt(1), resultSet.getString(2));
+                }
+            }
+        }
+
+        int applied = 0;
+        for (Migration migration : migrations) {
+            String checksum = checksums.get(migration.getVersion());
+            if (checksum != null) {
+                if (!checksum.equals(migration.getChecksum())) {
+                    throw new IllegalStateException(String.format(
+                            "Migration V%d was changed after it had been applied", migration.getVersion()));
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(migration.getSql());
+            }
+            try (PreparedStatement statement = connection.prepareStatement(String.format(
+                    "INSERT INTO %s (version, description, checksum) VALUES (?, ?, ?)", history))) {
+                statement.setInt(1, migration.getVersion());
+                statement.setString(2, migration.getDescription());
+                statement.setString(3, migration.getChecksum());
+                statement.executeUpdate();
+            }
+            applied++;
+            logger.info(String.format("Миграция V%d %s применена за %d мс",
+                    migration.getVersion(), migration.getDescription(), (System.nanoTime() - start) / 1_000_000));
+        }
+        return applied;
+    }
+
+    /**
+     * Прочитать скрипты из {@code db/migration/} в порядке {@code index}
+     *
+     * @param placeholders значения подстановок {@code ${...}}
+     * @return {@code List<Migration>} по возрастанию версий
+     * @throws IllegalStateException если скрипт не найден, имя не соответствует шаблону
+     * или версии в {@code index} не возрастают
+     */
+    static List<Migration> load(Map<String, String> placeholders) {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String line : read(LOCATION + "index").split("\\R")) {
+            String name = line.strip();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = FILE_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new IllegalStateException(String.format("Invalid migration file name: %s", name));
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= previous) {
+                throw new IllegalStateException(String.format("Migration versions are out of order: %s", name));
+            }
+            previous = version;
+            migrations.add(new Migration(version, matcher.group(2), read(LOCATION + name), placeholders));
+        }
+        return migrations;
+    }
+
+    /**
+     * Подставить значения вместо {@code ${имя}}
+     *
+     * @throws IllegalStateException если для подстановки нет значения
+     */
+    static String substitute(String sql, Map<String, String> placeholders) {
+        Matcher matcher = PLACEHOLDER.matcher(sql);
+        StringBuilder result = new StringBuilder(sql.length());
+        while (matcher.find()) {
+            String value = placeholders.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException(String.format("Unknown migration placeholder: %s", matcher.group()));
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String read(String resource) {
+        try (InputStream input = SchemaMigrations.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException(String.format("Migration resource not found: %s", resource));
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(String.format("Migration resource not readable: %s", resource), e);
+        }
+    }
+
+    private static String sha256(String sql) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(sql.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,30 +4,93 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Класс предоставляет Thread Pool
  * для процесса работы приложения в параллельных потоках
+ * <p>Все пулы именованные, ограничены по числу потоков и по размеру очереди:</p>
+ * <ul>
+ *     <li>{@code jdbc-worker} - обработка запросов сервлетов</li>
+ *     <li>{@code repository-worker} - блокирующие JDBC-вызовы репозиториев;
+ *     по умолчанию размер совпадает с размером пула соединений</li>
+ * </ul>
+ * <p>Задачи попадают в {@code repository-worker} только через {@link ConcurrencyLimitedExecutor}
+ * с числом разрешений, равным размеру пула соединений: разрешение получается до того,
+ * как задача займёт поток, а единица работы и курсор держат его до возврата соединения.
+ * Поэтому в пуле выполняются только задачи держателей соединений, и ни одна из них не ждёт
+ * соединение, занятое единицей работы, которой не достаётся потока. Инвариант не зависит
+ * от {@code executor.repository.pool-size}; вызовы репозиториев в обход
+ * {@link #getRepositoryExecutor()} его нарушают</p>
+ * <p>При переполнении очереди ({@code executor.repository.queue-capacity} - ожидающих разрешения,
+ * в обоих режимах) задача отклоняется с {@link RejectedExecutionException},
+ * которое сервлеты отдают клиенту как 503 Service Unavailable</p>
+ * <p>В режиме {@link ExecutionMode#VIRTUAL} ({@code executor.mode=virtual}) обработчики сервлетов
+ * и вызовы репозиториев выполняются в виртуальных потоках; число одновременно занятых
+ * соединений ограничено разрешениями {@link ConcurrencyLimitedExecutor} по размеру пула соединений.
+ * Единица работы и курсор держат разрешение до возврата соединения, а не на время одной задачи</p>
  *
  * @author 4ndr33w
  * @version 1.0
  */
 public class ThreadPoolConfiguration {
 
+    /**
+     * Режим выполнения задач
+     */
+    public enum ExecutionMode {
+        /** Ограниченные пулы платформенных потоков */
+        PLATFORM,
+        /** Виртуальный поток на задачу */
+        VIRTUAL
+    }
+
     static Logger logger = LoggerFactory.getLogger( ThreadPoolConfiguration.class);
+    private static final ExecutionMode executionMode;
     private static final ExecutorService dbExecutor;
+    private static final ExecutorService repositoryExecutor;
 
     static {
-        /*dbExecutor = Executors.newFixedThreadPool(
-                Runtime.getRuntime().availableProcessors(),
-                new ThreadFactoryBuilder().setNameFormat("jdbc-worker-%d").build()
-        );*/
-        dbExecutor = Executors.newFixedThreadPool(20,
-                new ThreadFactoryBuilder().setNameFormat("jdbc-worker-%d").build()
-        );
+        executionMode = ExecutionMode.valueOf(PropertiesConfiguration
+                .getSetting("EXECUTOR_MODE", "executor.mode", ExecutionMode.PLATFORM.name())
+                .toUpperCase());
+
+        int queueCapacity = PropertiesConfiguration.getIntSetting(
+                "EXECUTOR_REPOSITORY_QUEUE_CAPACITY", "executor.repository.queue-capacity", 500);
+
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            dbExecutor = newVirtualThreadExecutor("jdbc-worker-vt-");
+            repositoryExecutor = new ConcurrencyLimitedExecutor(
+                    newVirtualThreadExecutor("repository-worker-vt-"),
+                    DataSourceConfiguration.getMaximumPoolSize(),
+                    queueCapacity);
+            logger.info(String.format("Режим виртуальных потоков: одновременных обращений к БД не более %d, ожидающих не более %d",
+                    DataSourceConfiguration.getMaximumPoolSize(), queueCapacity));
+        }
+        else {
+            dbExecutor = newBoundedExecutor("jdbc-worker",
+                    PropertiesConfiguration.getIntSetting("EXECUTOR_SERVLET_POOL_SIZE", "executor.servlet.pool-size", 20),
+                    PropertiesConfiguration.getIntSetting("EXECUTOR_SERVLET_QUEUE_CAPACITY", "executor.servlet.queue-capacity", 1000));
+
+            repositoryExecutor = new ConcurrencyLimitedExecutor(
+                    newBoundedExecutor("repository-worker",
+                            PropertiesConfiguration.getIntSetting("EXECUTOR_REPOSITORY_POOL_SIZE", "executor.repository.pool-size",
+                                    DataSourceConfiguration.getMaximumPoolSize()),
+                            queueCapacity),
+                    DataSourceConfiguration.getMaximumPoolSize(),
+                    queueCapacity);
+        }
     }
+
+    public static ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
     public static ExecutorService getDbExecutor() {
         if (dbExecutor != null) {
             return dbExecutor;
@@ -36,4 +99,77 @@ public class ThreadPoolConfiguration {
             throw new IllegalStateException("dbExecutor is not initialized");
         }
     }
+
+    /**
+     * Пул потоков для асинхронных вызовов репозиториев
+     * <p>Передаётся явно в каждый {@code CompletableFuture.supplyAsync(...)},
+     * чтобы блокирующий JDBC не выполнялся в {@code ForkJoinPool.commonPool()}</p>
+     *
+     * @return {@code ExecutorService}
+     */
+    public static ExecutorService getRepositoryExecutor() {
+        if (repositoryExecutor != null) {
+            return repositoryExecutor;
+        } else {
+            logger.error("Ошибка инициализации Thread Pool");
+            throw new IllegalStateException("repositoryExecutor is not initialized");
+        }
+    }
+
+    /**
+     * Остановить все пулы потоков
+     * <p>Вызывается при остановке приложения</p>
+     */
+    public static void shutdown() {
+        shutdown("jdbc-worker", dbExecutor);
+        shutdown("repository-worker", repositoryExecutor);
+    }
+
+    /**
+     * Создать именованный пул фиксированного размера с ограниченной очередью
+     *
+     * @param name префикс имени потоков
+     * @param poolSize число потоков
+     * @param queueCapacity ёмкость очереди задач
+     * @return {@code ThreadPoolExecutor}, отклоняющий задачи при переполнении очереди
+     */
+    static ThreadPoolExecutor newBoundedExecutor(String name, int poolSize, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").build(),
+                (task, pool) -> {
+                    logger.error(String.format("Пул %s переполнен: активных потоков %d, задач в очереди %d",
+                            name, pool.getActiveCount(), pool.getQueue().size()));
+                    throw new RejectedExecutionException(String.format("%s pool is saturated", name));
+                });
+        logger.info(String.format("Пул потоков %s: размер %d, ёмкость очереди %d", name, poolSize, queueCapacity));
+        return executor;
+    }
+
+    /**
+     * Создать исполнитель, запускающий каждую задачу в новом виртуальном потоке
+     *
+     * @param namePrefix префикс имени потоков
+     * @return {@code ExecutorService}
+     */
+    static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+
+    private static void shutdown(String name, ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.error(String.format("Пул %s не остановлен за отведённое время", name));
+                executor.shutdownNow();
+            }
+        }
+        catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,219 @@
+package configurations;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Единица работы (Unit of Work) одной операции сервиса
+ * <p>Все вызовы репозиториев, привязанных к единице работы
+ * (см. {@code within(UnitOfWork)} у репозиториев), используют одно соединение из пула
+ * в одной транзакции. Соединение заимствуется при первом обращении к БД
+ * и возвращается в пул после {@link #commit()} или {@link #rollback()}.</p>
+ * <p>Задачи единицы работы выполняются последовательно
+ * ({@code MoreExecutors.newSequentialExecutor}) поверх пула репозиториев,
+ * поэтому соединение никогда не используется двумя потоками одновременно.
+ * {@link #execute(Work)} до начала операции получает разрешение пула репозиториев
+ * ({@link ConcurrencyLimitedExecutor.Lease}) и держит его до commit / rollback:
+ * число единиц работы с соединением не превышает размер пула соединений</p>
+ *
+ * @see JdbcConnection#JdbcConnection(UnitOfWork)
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class UnitOfWork {
+
+    /**
+     * Операция, выполняемая в рамках единицы работы
+     *
+     * @param <S> контекст операции
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    public interface Work<S, T> {
+        CompletableFuture<T> apply(S scope) throws Exception;
+    }
+
+    static Logger logger = LoggerFactory.getLogger(UnitOfWork.class);
+
+    private final Executor executor;
+    private final ConcurrencyLimitedExecutor.Lease lease;
+    private Connection connection;
+    private boolean finished;
+
+    /**
+     * Единица работы без разрешения пула репозиториев
+     * <p>Задачи передаются в {@code executor} как есть; для пула репозиториев
+     * используется {@link #execute(Work)}, получающий разрешение заранее</p>
+     *
+     * @param executor исполнитель задач
+     */
+    public UnitOfWork(Executor executor) {
+        this(ConcurrencyLimitedExecutor.unlimited(executor));
+    }
+
+    private UnitOfWork(ConcurrencyLimitedExecutor.Lease lease) {
+        this.lease = lease;
+        this.executor = MoreExecutors.newSequentialExecutor(lease);
+    }
+
+    /**
+     * Выполнить операцию в отдельной единице работы
+     * <p>При успешном завершении операции транзакция фиксируется,
+     * при ошибке - откатывается, а исходная ошибка передаётся дальше</p>
+     *
+     * @param work операция
+     * @return {@code CompletableFuture<T>}, завершаемый после commit / rollback
+     */
+    public static <T> CompletableFuture<T> execute(Work<UnitOfWork, T> work) {
+        return execute(ThreadPoolConfiguration.getRepositoryExecutor(), work);
+    }
+
+    /**
+     * Выполнить операцию в отдельной единице работы поверх указанного исполнителя
+     * <p>Операция начинается после получения разрешения исполнителя
+     * (см. {@link ConcurrencyLimitedExecutor#leaseAsync(Executor)}); ожидание не занимает поток</p>
+     *
+     * @param executor исполнитель задач единицы работы
+     * @param work операция
+     * @return {@code CompletableFuture<T>}, завершаемый после commit / rollback
+     */
+    public static <T> CompletableFuture<T> execute(Executor executor, Work<UnitOfWork, T> work) {
+        CompletableFuture<ConcurrencyLimitedExecutor.Lease> lease;
+        try {
+            lease = ConcurrencyLimitedExecutor.leaseAsync(executor);
+        }
+        catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return lease.thenCompose(granted -> run(new UnitOfWork(granted), work));
+    }
+
+    private static <T> CompletableFuture<T> run(UnitOfWork unitOfWork, Work<UnitOfWork, T> work) {
+        CompletableFuture<T> result;
+        try {
+            result = work.apply(unitOfWork);
+        }
+        catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result
+                .handle((value, error) -> {
+                    if (error == null) {
+                        return unitOfWork.commit().thenApply(ignored -> value);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    CompletableFuture<T> failed = new CompletableFuture<>();
+                    unitOfWork.rollback().whenComplete((ignored, rollbackError) -> {
+                        if (rollbackError != null) {
+                            logger.error("Ошибка отката транзакции: " + rollbackError.getMessage());
+                        }
+                        failed.completeExceptionally(cause);
+                    });
+                    return failed;
+                })
+                .thenCompose(future -> future);
+    }
+
+    /**
+     * Исполнитель задач единицы работы
+     *
+     * @return последовательный {@code Executor}
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Соединение единицы работы
+     * <p>Вызывается только из задач {@link #getExecutor()}</p>
+     *
+     * @return {@code Connection} с выключенным autocommit
+     * @throws IllegalStateException если единица работы уже завершена
+     */
+    Connection getConnection() throws SQLException {
+        if (finished) {
+            throw new IllegalStateException("Unit of work is already finished");
+        }
+        if (connection == null) {
+            connection = DataSourceConfiguration.getDataSource().getConnection();
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    /**
+     * Зафиксировать транзакцию и вернуть соединение в пул
+     *
+     * @return {@code CompletableFuture<Void>}
+     */
+    public CompletableFuture<Void> commit() {
+        return finishAsync(true);
+    }
+
+    /**
+     * Откатить транзакцию и вернуть соединение в пул
+     *
+     * @return {@code CompletableFuture<Void>}
+     */
+    public CompletableFuture<Void> rollback() {
+        return finishAsync(false);
+    }
+
+    /**
+     * Завершение ставится в очередь единицы работы после всех её задач;
+     * если пул переполнен, завершение выполняется в текущем потоке -
+     * к этому моменту задач единицы работы уже нет, а соединение нельзя оставлять занятым
+     */
+    private CompletableFuture<Void> finishAsync(boolean commit) {
+        try {
+            return CompletableFuture.runAsync(() -> finish(commit), executor);
+        }
+        catch (RejectedExecutionException e) {
+            return CompletableFuture.runAsync(() -> finish(commit), Runnable::run);
+        }
+    }
+
+    private void finish(boolean commit) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (connection == null) {
+            lease.close();
+            return;
+        }
+        try {
+            if (commit) {
+                connection.commit();
+            }
+            else {
+                connection.rollback();
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Ошибка завершения транзакции (%s): %s", commit ? "commit" : "rollback", e.getMessage()));
+            throw new CompletionException(e);
+        }
+        finally {
+            try {
+                connection.close();
+            }
+            catch (SQLException e) {
+                logger.error("Ошибка закрытия Connection");
+            }
+            connection = null;
+            lease.close();
+        }
+    }
+}
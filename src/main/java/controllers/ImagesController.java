@@ -0,0 +1,77 @@
+package controllers;
+
+import controllers.interfaces.BaseImageController;
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+import services.ImagesService;
+import services.interfaces.ImageService;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Класс контроллера изображений пользователей и проектов
+ *
+ * @see services.interfaces.ImageService
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImagesController implements BaseImageController {
+
+    private final ImageService imageService;
+
+    public ImagesController() {
+        this.imageService = new ImagesService();
+    }
+
+    /**
+     * Метаданные изображения: тип, размер, хэш
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code ImageDto}
+     */
+    @Override
+    public CompletableFuture<ImageDto> getMetadata(ImageOwner owner, UUID ownerId) {
+        return imageService.getMetadataAsync(owner, ownerId);
+    }
+
+    /**
+     * Фрагмент содержимого изображения
+     *
+     * @param owner тип владельца
+     * @param image метаданные версии изображения
+     * @param offset смещение от начала, с 0
+     * @param length длина фрагмента
+     * @return {@code byte[]}
+     */
+    @Override
+    public CompletableFuture<byte[]> readRange(ImageOwner owner, ImageDto image, long offset, int length) {
+        return imageService.readRangeAsync(owner, image, offset, length);
+    }
+
+    /**
+     * Сохранить изображение
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @param data содержимое
+     * @return {@code ImageDto} сохранённого изображения
+     */
+    @Override
+    public CompletableFuture<ImageDto> save(ImageOwner owner, UUID ownerId, byte[] data) {
+        return imageService.saveAsync(owner, ownerId, data);
+    }
+
+    /**
+     * Удалить изображение
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code true}
+     */
+    @Override
+    public CompletableFuture<Boolean> delete(ImageOwner owner, UUID ownerId) {
+        return imageService.deleteAsync(owner, ownerId);
+    }
+}
@@ -0,0 +1,42 @@
+package controllers;
+
+import controllers.interfaces.BaseImportController;
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+import services.DataImportService;
+import services.interfaces.ImportService;
+
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Класс контроллера массового импорта
+ *
+ * @see services.interfaces.ImportService
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImportController implements BaseImportController {
+
+    private final ImportService importService;
+
+    public ImportController() {
+        this.importService = new DataImportService();
+    }
+
+    /**
+     * Импортировать поток в таблицу
+     *
+     * @param entity целевая таблица
+     * @param format формат потока
+     * @param input поток тела запроса
+     * @return {@code ImportResultDto}
+     */
+    @Override
+    public CompletableFuture<ImportResultDto> importData(ImportEntity entity, ImportFormat format, InputStream input) {
+        Objects.requireNonNull(input);
+        return importService.importAsync(entity, format, input);
+    }
+}
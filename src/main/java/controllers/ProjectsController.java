@@ -2,6 +2,8 @@ package controllers;
 
 import controllers.interfaces.BaseProjectController;
 import models.dtos.ProjectDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.Project;
 import services.ProjectsService;
 import services.interfaces.ProjectService;
@@ -88,9 +90,11 @@ public class ProjectsController implements BaseProjectController<Project, Projec
      * Метод извлекает из CompletableFuture проект,
      * маппит его в объект типа ProjectDto
      * или null, если проект не найден.
+     * Вместе с DTO возвращается версия, с которой он был загружен
      * </p>
      * @param projectId
-     * @return {@code ProjectDto} или {@code null}
+     * @param current версия, прочитанная перед запросом, или {@code null}
+     * @return {@code VersionedDto<ProjectDto>} или {@code null}
      * @throws NullPointerException
      * @throws ExecutionException
      * @throws InterruptedException
@@ -98,10 +102,26 @@ public class ProjectsController implements BaseProjectController<Project, Projec
      * @throws RuntimeException
      */
     @Override
-    public CompletableFuture<ProjectDto> getByProjectId(UUID projectId) throws SQLException, DatabaseOperationException, NullPointerException,  RuntimeException{
+    public CompletableFuture<VersionedDto<ProjectDto>> getByProjectId(UUID projectId, VersionDto current) throws SQLException, DatabaseOperationException, NullPointerException,  RuntimeException{
         Objects.requireNonNull(projectId);
 
-        return projectService.getByIdAsync(projectId);
+        return projectService.getVersionedByIdAsync(projectId, current);
+    }
+
+    /**
+     * Получить версию проекта
+     * <p>
+     * Метки времени проекта и его участников
+     * для {@code ETag} / {@code Last-Modified}, без загрузки самого проекта
+     * </p>
+     * @param projectId
+     * @return {@code VersionDto} или {@code null}, если проект не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> getProjectVersion(UUID projectId) throws SQLException {
+        Objects.requireNonNull(projectId);
+
+        return projectService.getVersionAsync(projectId);
     }
 
     /**
@@ -185,6 +205,42 @@ public class ProjectsController implements BaseProjectController<Project, Projec
         return projectService.removeUserFromProjectAsync(userId, projectId);
     }
 
+    /**
+     * Добавить пользователей в проект одним запросом
+     *
+     * @param projectId
+     * @param userIds
+     * @return {@code ProjectDto} с итоговым составом участников
+     *
+     * @throws NullPointerException
+     * @throws IllegalArgumentException
+     */
+    @Override
+    public CompletableFuture<ProjectDto> addUsersToProject(UUID projectId, List<UUID> userIds) throws SQLException {
+        Objects.requireNonNull(projectId);
+        Objects.requireNonNull(userIds);
+
+        return projectService.addUsersToProjectAsync(projectId, userIds);
+    }
+
+    /**
+     * Удалить пользователей из проекта одним запросом
+     *
+     * @param projectId
+     * @param userIds
+     * @return {@code ProjectDto} с итоговым составом участников
+     *
+     * @throws NullPointerException
+     * @throws IllegalArgumentException
+     */
+    @Override
+    public CompletableFuture<ProjectDto> removeUsersFromProject(UUID projectId, List<UUID> userIds) throws SQLException {
+        Objects.requireNonNull(projectId);
+        Objects.requireNonNull(userIds);
+
+        return projectService.removeUsersFromProjectAsync(projectId, userIds);
+    }
+
     /**
      * Обновить данные проекта
      *
@@ -1,7 +1,11 @@
 package controllers;
 
 import controllers.interfaces.BaseUserController;
+import models.dtos.BulkResultDto;
+import models.dtos.PageDto;
 import models.dtos.UserDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.User;
 import services.UsersService;
 import services.interfaces.UserService;
@@ -13,6 +17,7 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,23 +53,88 @@ public class UsersController implements BaseUserController<User, UserDto> {
         return userService.getAllAsync();
     }
 
+    /**
+     * Получить страницу пользователей
+     * <p>
+     *     Пользователи упорядочены по {@code id};
+     *     курсор следующей страницы возвращается в {@code PageDto.next}
+     * </p>
+     * @param after курсор - {@code id} последнего пользователя предыдущей страницы, или {@code null}
+     * @param limit размер страницы
+     * @return {@code PageDto<UserDto>}
+     */
+    @Override
+    public CompletableFuture<PageDto<UserDto>> getPage(UUID after, int limit) throws SQLException {
+
+        return userService.getPageAsync(after, limit);
+    }
+
+    /**
+     * Передать всех пользователей порциями
+     * <p>
+     *     Следующая порция читается из БД только после завершения
+     *     {@code CompletableFuture}, возвращённого {@code sink} для предыдущей
+     * </p>
+     * @param batchSize размер порции
+     * @param sink получатель порции
+     * @return количество переданных пользователей
+     */
+    @Override
+    public CompletableFuture<Long> streamAll(int batchSize, Function<List<UserDto>, CompletableFuture<Void>> sink) throws SQLException {
+        Objects.requireNonNull(sink);
+
+        return userService.streamAllAsync(batchSize, sink);
+    }
+
+    /**
+     * Передать всех пользователей порциями Json, собранного в БД одним запросом
+     *
+     * @param batchSize размер порции
+     * @param sink получатель порции Json-объектов {@code UserDto}
+     * @return количество переданных пользователей
+     */
+    @Override
+    public CompletableFuture<Long> streamAllJson(int batchSize, Function<List<String>, CompletableFuture<Void>> sink) throws SQLException {
+        Objects.requireNonNull(sink);
+
+        return userService.streamAllJsonAsync(batchSize, sink);
+    }
+
     /**
      * Получить пользователя по ID
      * <p>
      *     Метод извлекает из {@link CompletableFuture} объект типа {@code User},
      *     маппит его в DTO {@code UserDto},
      *     или возвращает {@code null} если объект не найден.
+     *     Вместе с DTO возвращается версия, с которой он был загружен
      * </p>
      * @param userId
-     * @return {@code UserDto} или {@code null}
+     * @param current версия, прочитанная перед запросом, или {@code null}
+     * @return {@code VersionedDto<UserDto>} или {@code null}
      * @throws NullPointerException
      * @throws RuntimeException
      */
     @Override
-    public CompletableFuture<UserDto> getUser(UUID userId) throws NullPointerException, UserNotFoundException, DatabaseOperationException, ResultSetMappingException, SQLException {
+    public CompletableFuture<VersionedDto<UserDto>> getUser(UUID userId, VersionDto current) throws NullPointerException, UserNotFoundException, DatabaseOperationException, ResultSetMappingException, SQLException {
+        Objects.requireNonNull(userId);
+
+        return userService.getVersionedByIdAsync(userId, current);
+    }
+
+    /**
+     * Получить версию пользователя
+     * <p>
+     *     Метки времени пользователя и связанных с ним проектов
+     *     для {@code ETag} / {@code Last-Modified}, без загрузки самого пользователя
+     * </p>
+     * @param userId
+     * @return {@code VersionDto} или {@code null}, если пользователь не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> getUserVersion(UUID userId) throws SQLException {
         Objects.requireNonNull(userId);
 
-        return userService.getByIdAsync(userId);
+        return userService.getVersionAsync(userId);
     }
 
     /**
@@ -84,6 +154,22 @@ public class UsersController implements BaseUserController<User, UserDto> {
         return userService.createAsync(user);
     }
 
+    /**
+     * Создать пользователей пакетом
+     * <p>
+     * Метод передаёт в сервис список объектов типа {@code User};
+     * отклонённые строки не отменяют создание остальных
+     * </p>
+     * @param users
+     * @return {@code BulkResultDto} с результатом каждой строки
+     * @throws NullPointerException
+     */
+    @Override
+    public CompletableFuture<BulkResultDto> createBulk(List<User> users) throws SQLException {
+        Objects.requireNonNull(users);
+        return userService.createBulkAsync(users);
+    }
+
     /**
      * Удалить плльзователя
      * <p>
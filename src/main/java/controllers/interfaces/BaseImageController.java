@@ -0,0 +1,19 @@
+package controllers.interfaces;
+
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface BaseImageController {
+
+    CompletableFuture<ImageDto> getMetadata(ImageOwner owner, UUID ownerId);
+    CompletableFuture<byte[]> readRange(ImageOwner owner, ImageDto image, long offset, int length);
+    CompletableFuture<ImageDto> save(ImageOwner owner, UUID ownerId, byte[] data);
+    CompletableFuture<Boolean> delete(ImageOwner owner, UUID ownerId);
+}
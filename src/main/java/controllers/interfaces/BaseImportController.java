@@ -0,0 +1,17 @@
+package controllers.interfaces;
+
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface BaseImportController {
+
+    CompletableFuture<ImportResultDto> importData(ImportEntity entity, ImportFormat format, InputStream input);
+}
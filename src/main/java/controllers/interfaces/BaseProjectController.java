@@ -1,5 +1,8 @@
 package controllers.interfaces;
 
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
+
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
@@ -12,7 +15,8 @@ import java.util.concurrent.CompletableFuture;
 public interface BaseProjectController<E, D>  {
 
     CompletableFuture<D> create(E project) throws SQLException;
-    CompletableFuture<D> getByProjectId(UUID projectId) throws SQLException;
+    CompletableFuture<VersionedDto<D>> getByProjectId(UUID projectId, VersionDto current) throws SQLException;
+    CompletableFuture<VersionDto> getProjectVersion(UUID projectId) throws SQLException;
     CompletableFuture<Boolean> delete(UUID projectId) throws SQLException;
     CompletableFuture<D> update(D projectDto) throws SQLException;
 
@@ -21,5 +25,7 @@ public interface BaseProjectController<E, D>  {
 
     CompletableFuture<D> addUserToProject(UUID userId, UUID projectId) throws SQLException;
     CompletableFuture<D> removeUserFromProject(UUID userId, UUID projectId) throws SQLException;
+    CompletableFuture<D> addUsersToProject(UUID projectId, List<UUID> userIds) throws SQLException;
+    CompletableFuture<D> removeUsersFromProject(UUID projectId, List<UUID> userIds) throws SQLException;
 
 }
@@ -1,9 +1,15 @@
 package controllers.interfaces;
 
+import models.dtos.BulkResultDto;
+import models.dtos.PageDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
+
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * @author 4ndr33w
@@ -12,8 +18,13 @@ import java.util.concurrent.CompletableFuture;
 public interface BaseUserController<E, D> {
 
     CompletableFuture<List<D>> getAll() throws SQLException;
-    CompletableFuture<D> getUser(UUID userId) throws SQLException;
+    CompletableFuture<PageDto<D>> getPage(UUID after, int limit) throws SQLException;
+    CompletableFuture<Long> streamAll(int batchSize, Function<List<D>, CompletableFuture<Void>> sink) throws SQLException;
+    CompletableFuture<Long> streamAllJson(int batchSize, Function<List<String>, CompletableFuture<Void>> sink) throws SQLException;
+    CompletableFuture<VersionedDto<D>> getUser(UUID userId, VersionDto current) throws SQLException;
+    CompletableFuture<VersionDto> getUserVersion(UUID userId) throws SQLException;
     CompletableFuture<D> create(E entity) throws SQLException;
+    CompletableFuture<BulkResultDto> createBulk(List<E> entities) throws SQLException;
     CompletableFuture<Boolean> delete(UUID userId) throws SQLException;
     CompletableFuture<D> updateUser(D dto) throws SQLException;
 }
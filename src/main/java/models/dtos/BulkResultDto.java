@@ -0,0 +1,55 @@
+package models.dtos;
+
+import models.enums.BulkRowStatus;
+
+import java.util.List;
+
+/**
+ * Итог пакетной операции
+ * <p>Строки {@code rows} идут в порядке тела запроса;
+ * отклонённые строки не отменяют создание остальных</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class BulkResultDto {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<BulkRowResultDto> rows;
+
+    public BulkResultDto() {}
+
+    public BulkResultDto(List<BulkRowResultDto> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        this.created = (int) rows.stream().filter(row -> row.getStatus() == BulkRowStatus.CREATED).count();
+        this.rejected = total - created;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    public int getCreated() {
+        return created;
+    }
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    public int getRejected() {
+        return rejected;
+    }
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    public List<BulkRowResultDto> getRows() {
+        return rows;
+    }
+    public void setRows(List<BulkRowResultDto> rows) {
+        this.rows = rows;
+    }
+}
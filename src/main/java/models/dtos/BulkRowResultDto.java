@@ -0,0 +1,72 @@
+package models.dtos;
+
+import models.enums.BulkRowStatus;
+
+import java.util.UUID;
+
+/**
+ * Результат одной строки пакетной операции
+ * <p>{@code index} - позиция строки в теле запроса (с нуля);
+ * {@code id} заполняется для {@link BulkRowStatus#CREATED},
+ * {@code field} и {@code message} - для отклонённых строк</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class BulkRowResultDto {
+
+    private int index;
+    private BulkRowStatus status;
+    private UUID id;
+    private String field;
+    private String message;
+
+    public BulkRowResultDto() {}
+
+    public BulkRowResultDto(int index, BulkRowStatus status, UUID id, String field, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.field = field;
+        this.message = message;
+    }
+
+    public static BulkRowResultDto created(int index, UUID id) {
+        return new BulkRowResultDto(index, BulkRowStatus.CREATED, id, null, null);
+    }
+
+    public static BulkRowResultDto rejected(int index, BulkRowStatus status, String field, String message) {
+        return new BulkRowResultDto(index, status, null, field, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    public BulkRowStatus getStatus() {
+        return status;
+    }
+    public void setStatus(BulkRowStatus status) {
+        this.status = status;
+    }
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public String getField() {
+        return field;
+    }
+    public void setField(String field) {
+        this.field = field;
+    }
+    public String getMessage() {
+        return message;
+    }
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
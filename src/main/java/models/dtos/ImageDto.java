@@ -0,0 +1,57 @@
+package models.dtos;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Метаданные изображения без содержимого
+ * <p>{@code hash} - SHA-256 содержимого в hex; строгий {@code ETag} ответа</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImageDto {
+
+    private final UUID ownerId;
+    private final String contentType;
+    private final long size;
+    private final String hash;
+    private final Date updatedAt;
+
+    public ImageDto(UUID ownerId, String contentType, long size, String hash, Date updatedAt) {
+        this.ownerId = ownerId;
+        this.contentType = contentType;
+        this.size = size;
+        this.hash = hash;
+        this.updatedAt = updatedAt;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Строгий {@code ETag}: байты ответа одинаковы при одном хэше
+     *
+     * @return {@code "<hash>"}
+     */
+    public String getEtag() {
+        return "\"" + hash + "\"";
+    }
+}
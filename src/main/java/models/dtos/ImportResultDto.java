@@ -0,0 +1,91 @@
+package models.dtos;
+
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+
+/**
+ * Итог импорта
+ * <p>{@code copied} - строк загружено в промежуточную таблицу,
+ * {@code inserted} - добавлено в целевую таблицу,
+ * {@code skipped} - отброшено при слиянии (конфликт уникальности,
+ * незаполненные обязательные поля, ссылки на несуществующие записи).
+ * {@code rowsPerSecond} считается по загруженным строкам и общему времени загрузки и слияния</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImportResultDto {
+
+    private ImportEntity entity;
+    private ImportFormat format;
+    private long copied;
+    private long inserted;
+    private long skipped;
+    private long copyMillis;
+    private long mergeMillis;
+    private long rowsPerSecond;
+
+    public ImportResultDto() {}
+
+    public ImportResultDto(ImportEntity entity, ImportFormat format, long copied, long inserted,
+                           long copyNanos, long mergeNanos) {
+        this.entity = entity;
+        this.format = format;
+        this.copied = copied;
+        this.inserted = inserted;
+        this.skipped = copied - inserted;
+        this.copyMillis = copyNanos / 1_000_000;
+        this.mergeMillis = mergeNanos / 1_000_000;
+        long totalNanos = copyNanos + mergeNanos;
+        this.rowsPerSecond = totalNanos > 0 ? Math.round(copied * 1_000_000_000d / totalNanos) : copied;
+    }
+
+    public ImportEntity getEntity() {
+        return entity;
+    }
+    public void setEntity(ImportEntity entity) {
+        this.entity = entity;
+    }
+    public ImportFormat getFormat() {
+        return format;
+    }
+    public void setFormat(ImportFormat format) {
+        this.format = format;
+    }
+    public long getCopied() {
+        return copied;
+    }
+    public void setCopied(long copied) {
+        this.copied = copied;
+    }
+    public long getInserted() {
+        return inserted;
+    }
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+    public long getSkipped() {
+        return skipped;
+    }
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+    public long getCopyMillis() {
+        return copyMillis;
+    }
+    public void setCopyMillis(long copyMillis) {
+        this.copyMillis = copyMillis;
+    }
+    public long getMergeMillis() {
+        return mergeMillis;
+    }
+    public void setMergeMillis(long mergeMillis) {
+        this.mergeMillis = mergeMillis;
+    }
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
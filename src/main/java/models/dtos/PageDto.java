@@ -0,0 +1,39 @@
+package models.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Страница keyset-пагинации
+ * <p>{@code next} - курсор следующей страницы (передаётся в параметре {@code after}),
+ * {@code null} на последней странице</p>
+ *
+ * @param <T> тип элементов страницы
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class PageDto<T> {
+
+    private List<T> items;
+    private UUID next;
+
+    public PageDto() {}
+
+    public PageDto(List<T> items, UUID next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    public UUID getNext() {
+        return next;
+    }
+    public void setNext(UUID next) {
+        this.next = next;
+    }
+}
@@ -19,7 +19,7 @@ public class ProjectDto {
     protected String description;
     protected Date createdAt = new Date();
     protected Date updatedAt = new Date();
-    protected byte[] image;
+    protected String imageUrl;
     private UUID adminId;
     private ProjectStatus projectStatus;
     private List<UUID> projectUsersIds;
@@ -31,7 +31,7 @@ public class ProjectDto {
             String description,
             Date createdAt,
             Date updatedAt,
-            byte[] image,
+            String imageUrl,
             UUID adminId,
             ProjectStatus projectStatus,
             List<UUID> projectUsersIds) {
@@ -40,7 +40,7 @@ public class ProjectDto {
         this.description = description;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
-        this.image = image;
+        this.imageUrl = imageUrl;
         this.adminId = adminId;
         this.projectStatus = projectStatus;
         this.projectUsersIds = projectUsersIds;
@@ -50,7 +50,7 @@ public class ProjectDto {
             String description,
             Date createdAt,
             Date updatedAt,
-            byte[] image,
+            String imageUrl,
             UUID adminId,
             ProjectStatus projectStatus,
             List<UUID> projectUsersIds) {
@@ -58,7 +58,7 @@ public class ProjectDto {
         this.description = description;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
-        this.image = image;
+        this.imageUrl = imageUrl;
         this.adminId = adminId;
         this.projectStatus = projectStatus;
         this.projectUsersIds = projectUsersIds;
@@ -94,11 +94,16 @@ public class ProjectDto {
     public void setUpdatedAt(Date updatedAt) {
         this.updatedAt = updatedAt;
     }
-    public byte[] getImage() {
-        return image;
+    /**
+     * Ссылка на изображение проекта
+     *
+     * @return {@code /api/v1/projects/image?id=...&v=<hash>} или {@code null}, если изображения нет
+     */
+    public String getImageUrl() {
+        return imageUrl;
     }
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
     }
     public UUID getAdminId() {
         return adminId;
@@ -20,7 +20,7 @@ public class UserDto {
     private String lastName;
     private String phoneNumber;
     private UserRoles userRole;
-    private byte[] userImage;
+    private String imageUrl;
     private Date createdAt;
     List<ProjectDto> projects;
 
@@ -69,11 +69,16 @@ public class UserDto {
     public void setUserRole(UserRoles userRole) {
         this.userRole = userRole;
     }
-    public byte[] getUserImage() {
-        return userImage;
+    /**
+     * Ссылка на изображение пользователя
+     *
+     * @return {@code /api/v1/users/image?id=...&v=<hash>} или {@code null}, если изображения нет
+     */
+    public String getImageUrl() {
+        return imageUrl;
     }
-    public void setUserImage(byte[] userImage) {
-        this.userImage = userImage;
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
     }
     public Date getCreatedAt() {
         return createdAt;
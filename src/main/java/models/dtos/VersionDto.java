@@ -0,0 +1,42 @@
+package models.dtos;
+
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Версия ресурса для условных запросов ({@code ETag} / {@code Last-Modified})
+ * <p>{@code ETag} слабый ({@code W/"..."}): тело ответа может отдаваться сжатым,
+ * но при одной версии оно семантически одинаково.
+ * Тег строится из метки последнего изменения (с микросекундами)
+ * и числа связанных строк, поэтому меняется и при удалении связей,
+ * которое метки времени не сдвигает</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class VersionDto {
+
+    private final long lastModified;
+    private final String etag;
+
+    public VersionDto(Timestamp lastModified, long rowCount) {
+        Objects.requireNonNull(lastModified);
+        long micros = lastModified.getTime() / 1000 * 1_000_000 + lastModified.getNanos() / 1000;
+
+        this.lastModified = lastModified.getTime();
+        this.etag = String.format("W/\"%s-%s\"", Long.toHexString(micros), Long.toHexString(rowCount));
+    }
+
+    /**
+     * Время последнего изменения
+     *
+     * @return миллисекунды от начала эпохи
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,46 @@
+package models.dtos;
+
+/**
+ * DTO вместе с версией, прочитанной в той же загрузке
+ * <p>Версия читается раньше DTO, поэтому тег никогда не новее тела.
+ * Валидаторы ответа ({@code ETag} / {@code Last-Modified}) строятся из этой версии,
+ * а не из версии, прочитанной отдельно: закэшированное тело отдаётся со своим тегом</p>
+ *
+ * @param <T> тип DTO
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class VersionedDto<T> {
+
+    private final T body;
+    private final VersionDto version;
+
+    public VersionedDto(T body, VersionDto version) {
+        this.body = body;
+        this.version = version;
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public VersionDto getVersion() {
+        return version;
+    }
+
+    /**
+     * Версия старше {@code current}: тело могло измениться после загрузки
+     * <p>Метки последнего изменения сравниваются, совпадающие метки с разными тегами
+     * (удалены связанные строки) тоже считаются устаревшими</p>
+     *
+     * @param current версия, прочитанная из БД позже, {@code null} - сравнивать не с чем
+     * @return {@code boolean}
+     */
+    public boolean isOlderThan(VersionDto current) {
+        if (current == null || version == null) {
+            return false;
+        }
+        return version.getLastModified() < current.getLastModified()
+                || version.getLastModified() == current.getLastModified() && !version.getEtag().equals(current.getEtag());
+    }
+}
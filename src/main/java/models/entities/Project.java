@@ -21,6 +21,7 @@ public class Project {
     private Date createdAt = new Date();
     private Date updatedAt = new Date();
     private byte[] image;
+    private String imageHash;
     private UUID adminId;
     private ProjectStatus projectStatus = ProjectStatus.ACTIVE;
     private List<UserDto> projectUsers;
@@ -73,6 +74,7 @@ public class Project {
         this.createdAt = project.getCreatedAt();
         this.updatedAt = project.getUpdatedAt();
         this.image = project.getImage();
+        this.imageHash = project.getImageHash();
         this.adminId = project.getAdminId();
         this.projectStatus = project.getProjectStatus();
         this.projectUsers = projectUsers;
@@ -104,6 +106,7 @@ public class Project {
         this.createdAt = project.getCreatedAt();
         this.updatedAt = project.getUpdatedAt();
         this.image = project.getImage();
+        this.imageHash = project.getImageHash();
         this.adminId = project.getAdminId();
         this.projectStatus = project.getProjectStatus();
         this.projectUsers = project.getProjectUsers();
@@ -145,6 +148,12 @@ public class Project {
     public void setImage(byte[] image) {
         this.image = image;
     }
+    public String getImageHash() {
+        return imageHash;
+    }
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
     public UUID getAdminId() {
         return adminId;
     }
@@ -24,6 +24,7 @@ public class User {
     private String phoneNumber;
     private UserRoles userRole;
     private byte[] userImage;
+    private String imageHash;
 
     private Date createdAt = new Date();
     private Date updatedAt = new Date();
@@ -97,6 +98,7 @@ public class User {
         this.phoneNumber = user.phoneNumber;
         this.userRole = user.userRole;
         this.userImage = user.userImage;
+        this.imageHash = user.imageHash;
         this.createdAt = user.createdAt == null ? new Date() : createdAt;
         this.updatedAt = user.updatedAt == null ? new Date() : createdAt;
         this.lastLoginDate = user.lastLoginDate == null ? new Date() : createdAt;
@@ -151,6 +153,12 @@ public class User {
     public void setUserImage(byte[] userImage) {
         this.userImage = userImage;
     }
+    public String getImageHash() {
+        return imageHash;
+    }
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
     public UUID getId() {
         return id;
     }
@@ -0,0 +1,13 @@
+package models.enums;
+
+/**
+ * Результат обработки одной строки пакетной операции
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum BulkRowStatus {
+    CREATED,
+    CONFLICT,
+    INVALID
+}
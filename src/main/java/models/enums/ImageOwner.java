@@ -0,0 +1,64 @@
+package models.enums;
+
+import java.util.UUID;
+
+/**
+ * Владелец изображения
+ * <p>{@code ownerType} - значение колонки {@code images.owner_type},
+ * {@code path} - эндпойнт отдачи изображения</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum ImageOwner {
+    USER("user", "/api/v1/users/image"),
+    PROJECT("project", "/api/v1/projects/image");
+
+    private final String ownerType;
+    private final String path;
+
+    ImageOwner(String ownerType, String path) {
+        this.ownerType = ownerType;
+        this.path = path;
+    }
+
+    public String getOwnerType() {
+        return ownerType;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Ссылка на изображение владельца
+     * <p>Параметр {@code v} - хэш содержимого: ссылка меняется вместе с изображением,
+     * поэтому ответ по ней можно кэшировать на клиенте</p>
+     *
+     * @param ownerId идентификатор владельца
+     * @param hash хэш изображения
+     * @return {@code String} или {@code null}, если изображения нет
+     */
+    public String urlFor(UUID ownerId, String hash) {
+        if (ownerId == null || hash == null) {
+            return null;
+        }
+        return String.format("%s?id=%s&v=%s", path, ownerId, hash);
+    }
+
+    /**
+     * Владелец по пути эндпойнта
+     *
+     * @param path путь запроса
+     * @return {@code ImageOwner}
+     * @throws IllegalArgumentException для неизвестного пути
+     */
+    public static ImageOwner fromPath(String path) {
+        for (ImageOwner owner : values()) {
+            if (owner.path.equals(path)) {
+                return owner;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image path: " + path);
+    }
+}
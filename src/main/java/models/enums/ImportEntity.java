@@ -0,0 +1,47 @@
+package models.enums;
+
+import java.util.List;
+
+/**
+ * Таблица, в которую выполняется импорт
+ * <p>{@code fields} - поля строки NDJSON и порядок колонок CSV</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum ImportEntity {
+    USERS("users", List.of("userName", "firstName", "lastName", "email", "password", "phoneNumber")),
+    PROJECT_USERS("project_users", List.of("projectId", "userId"));
+
+    private final String parameter;
+    private final List<String> fields;
+
+    ImportEntity(String parameter, List<String> fields) {
+        this.parameter = parameter;
+        this.fields = fields;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Таблица по значению параметра запроса {@code entity}
+     *
+     * @param parameter {@code users} или {@code project_users}
+     * @return {@code ImportEntity}
+     * @throws IllegalArgumentException для неизвестного значения
+     */
+    public static ImportEntity fromParameter(String parameter) {
+        for (ImportEntity entity : values()) {
+            if (entity.parameter.equals(parameter)) {
+                return entity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown import entity: " + parameter);
+    }
+}
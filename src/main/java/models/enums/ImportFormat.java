@@ -0,0 +1,30 @@
+package models.enums;
+
+/**
+ * Формат тела запроса импорта
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Формат по заголовку {@code Content-Type}
+     * <p>{@code text/csv} - CSV со строкой заголовка;
+     * {@code application/x-ndjson} - по Json-объекту на строку</p>
+     *
+     * @param contentType значение заголовка, может содержать параметры ({@code ; charset=...})
+     * @return {@code ImportFormat}
+     * @throws IllegalArgumentException для другого типа содержимого
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase();
+        return switch (mediaType) {
+            case "text/csv" -> CSV;
+            case "application/x-ndjson", "application/jsonl" -> NDJSON;
+            default -> throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        };
+    }
+}
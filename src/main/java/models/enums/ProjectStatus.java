@@ -10,5 +10,22 @@ public enum ProjectStatus {
     FAILED,
     CANCELLED,
     ACTIVE,
-    EXPIRED
+    EXPIRED;
+
+    private static final ProjectStatus[] VALUES = values();
+
+    /**
+     * Значение по порядковому номеру, хранимому в БД
+     * <p>{@code values()} копирует массив при каждом вызове, поэтому таблица кэшируется</p>
+     *
+     * @param ordinal порядковый номер
+     * @return {@code ProjectStatus}
+     * @throws IllegalArgumentException при неизвестном номере
+     */
+    public static ProjectStatus fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException(String.format("Unknown ProjectStatus ordinal: %d", ordinal));
+        }
+        return VALUES[ordinal];
+    }
 }
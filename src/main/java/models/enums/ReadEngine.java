@@ -0,0 +1,33 @@
+package models.enums;
+
+import java.util.Locale;
+
+/**
+ * Способ чтения пользователей с проектами
+ * <p>{@code COMPOSED} - пользователи, проекты и участники читаются отдельными запросами
+ * и собираются в Java; {@code AGGREGATE} - граф собирается в БД одним запросом
+ * ({@code json_agg}) и отдаётся готовым Json</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum ReadEngine {
+    COMPOSED,
+    AGGREGATE;
+
+    /**
+     * Способ чтения по имени без учёта регистра
+     *
+     * @param name {@code composed} / {@code aggregate}
+     * @return {@code ReadEngine}
+     * @throws IllegalArgumentException если имя не известно
+     */
+    public static ReadEngine parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Unknown read engine: %s", name));
+        }
+    }
+}
@@ -6,5 +6,22 @@ package models.enums;
  */
 public enum UserRoles {
     USER,
-    ADMIN
+    ADMIN;
+
+    private static final UserRoles[] VALUES = values();
+
+    /**
+     * Значение по порядковому номеру, хранимому в БД
+     * <p>{@code values()} копирует массив при каждом вызове, поэтому таблица кэшируется</p>
+     *
+     * @param ordinal порядковый номер
+     * @return {@code UserRoles}
+     * @throws IllegalArgumentException при неизвестном номере
+     */
+    public static UserRoles fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException(String.format("Unknown UserRoles ordinal: %d", ordinal));
+        }
+        return VALUES[ordinal];
+    }
 }
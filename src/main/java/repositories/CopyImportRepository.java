@@ -0,0 +1,181 @@
+package repositories;
+
+import configurations.JdbcConnection;
+import configurations.PropertiesConfiguration;
+import configurations.ThreadPoolConfiguration;
+import configurations.UnitOfWork;
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repositories.interfaces.ImportRepository;
+import utils.StaticConstants;
+import utils.exceptions.DataParsingException;
+import utils.exceptions.DatabaseOperationException;
+import utils.sqls.NdjsonCsvTranscoder;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Репозиторий массового импорта через {@code COPY ... FROM STDIN}
+ * <p>Импорт выполняется в одной транзакции:
+ * <ol>
+ *     <li>создаётся временная промежуточная таблица ({@code ON COMMIT DROP});</li>
+ *     <li>поток копируется в неё {@link CopyManager}: CSV передаётся как есть,
+ *     NDJSON преобразуется в CSV построчно ({@link NdjsonCsvTranscoder}).
+ *     Данные идут через буфер {@code jdbc.copy.buffer-size}, поэтому память не зависит от размера входа;</li>
+ *     <li>промежуточная таблица сливается с целевой одним {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING}.</li>
+ * </ol>
+ * На время слияния построчные уведомления инвалидации кэшей отключены;
+ * после импорта связей отправляется одно уведомление о полной инвалидации</p>
+ *
+ * @see SqlStatement#IMPORT_USERS_COPY
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CopyImportRepository implements ImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = PropertiesConfiguration.getIntSetting(
+            "JDBC_COPY_BUFFER_SIZE", "jdbc.copy.buffer-size", 65_536);
+
+    Logger logger = LoggerFactory.getLogger(CopyImportRepository.class);
+
+    private final Executor executor;
+    private final UnitOfWork unitOfWork;
+
+    public CopyImportRepository() {
+        this(ThreadPoolConfiguration.getRepositoryExecutor(), null);
+    }
+
+    public CopyImportRepository(UnitOfWork unitOfWork) {
+        this(unitOfWork.getExecutor(), unitOfWork);
+    }
+
+    private CopyImportRepository(Executor executor, UnitOfWork unitOfWork) {
+        this.executor = executor;
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public ImportRepository within(UnitOfWork unitOfWork) {
+        return new CopyImportRepository(unitOfWork);
+    }
+
+    /**
+     * Импорт потока в таблицу
+     * <p>Промежуточная таблица живёт до конца транзакции, поэтому вне единицы работы
+     * импорт выполняется в собственной единице работы</p>
+     */
+    @Override
+    public CompletableFuture<ImportResultDto> importAsync(ImportEntity entity, ImportFormat format, InputStream input) {
+        Objects.requireNonNull(entity, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(format, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(input, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        if (unitOfWork == null) {
+            return UnitOfWork.execute(scope -> within(scope).importAsync(entity, format, input));
+        }
+        return CompletableFuture.supplyAsync(() -> importData(entity, format, input), executor);
+    }
+    private ImportResultDto importData(ImportEntity entity, ImportFormat format, InputStream input) {
+        boolean users = entity == ImportEntity.USERS;
+
+        try (JdbcConnection jdbcConnection = new JdbcConnection(unitOfWork)) {
+            Connection connection = jdbcConnection.getConnection();
+            execute(connection, PreparedStatementRegistry.get(users
+                    ? SqlStatement.IMPORT_USERS_CREATE_STAGING
+                    : SqlStatement.IMPORT_PROJECT_USERS_CREATE_STAGING));
+
+            long copyStart = System.nanoTime();
+            long copied = copy(connection.unwrap(PGConnection.class).getCopyAPI(),
+                    PreparedStatementRegistry.get(users ? SqlStatement.IMPORT_USERS_COPY : SqlStatement.IMPORT_PROJECT_USERS_COPY),
+                    entity, format, input);
+            long copyNanos = System.nanoTime() - copyStart;
+
+            long mergeStart = System.nanoTime();
+            long inserted;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(PreparedStatementRegistry.get(SqlStatement.IMPORT_SUPPRESS_ROW_NOTIFICATIONS));
+                inserted = statement.executeLargeUpdate(PreparedStatementRegistry.get(users
+                        ? SqlStatement.IMPORT_USERS_MERGE
+                        : SqlStatement.IMPORT_PROJECT_USERS_MERGE));
+                // новые пользователи не затрагивают кэши; новые связи меняют закэшированные проекты и пользователей
+                if (!users && inserted > 0) {
+                    statement.execute(PreparedStatementRegistry.get(SqlStatement.IMPORT_NOTIFY_ALL));
+                }
+            }
+            long mergeNanos = System.nanoTime() - mergeStart;
+
+            ImportResultDto result = new ImportResultDto(entity, format, copied, inserted, copyNanos, mergeNanos);
+            logger.info(String.format("Импорт %s (%s): загружено %d, добавлено %d, %d строк/с (copy %d мс, merge %d мс)",
+                    entity.getParameter(), format, copied, inserted, result.getRowsPerSecond(),
+                    result.getCopyMillis(), result.getMergeMillis()));
+            return result;
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: import %s: error: %s", entity.getParameter(), e.getMessage()));
+            // класс 22 - ошибки данных: некорректный CSV, неверная кодировка и т.п.
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                throw new DataParsingException(e.getMessage(), e);
+            }
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+        catch (IOException e) {
+            logger.error(String.format("Repository: import %s: error: %s", entity.getParameter(), e.getMessage()));
+            throw new DataParsingException("Ошибка чтения данных объекта", e);
+        }
+    }
+
+    /**
+     * Копирование потока в промежуточную таблицу
+     * <p>Если копирование прервано ошибкой чтения или разбора,
+     * {@code COPY} отменяется, чтобы соединение вернулось в обычный режим до rollback</p>
+     *
+     * @return количество загруженных строк
+     */
+    private long copy(CopyManager copyManager, String copySql, ImportEntity entity,
+                      ImportFormat format, InputStream input) throws SQLException, IOException {
+        if (format == ImportFormat.CSV) {
+            return copyManager.copyIn(copySql, input, COPY_BUFFER_SIZE);
+        }
+
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(copyManager.copyIn(copySql), COPY_BUFFER_SIZE);
+        try {
+            Writer writer = new OutputStreamWriter(copyStream, StandardCharsets.UTF_8);
+            NdjsonCsvTranscoder.transcode(input, writer, entity.getFields());
+            return copyStream.endCopy();
+        }
+        finally {
+            if (copyStream.isActive()) {
+                try {
+                    copyStream.cancelCopy();
+                }
+                catch (SQLException e) {
+                    logger.error(String.format("Ошибка отмены COPY: %s", e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package repositories;
+
+import configurations.JdbcConnection;
+import configurations.ThreadPoolConfiguration;
+import configurations.UnitOfWork;
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repositories.interfaces.ImageRepository;
+import utils.StaticConstants;
+import utils.exceptions.DatabaseOperationException;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Репозиторий изображений пользователей и проектов
+ * <p>Содержимое читается фрагментами ({@code substring} по {@code bytea}),
+ * поэтому ни ответ целиком, ни изображение целиком в памяти не собираются</p>
+ *
+ * @see SqlStatement#IMAGES_READ_RANGE
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImagesRepository implements ImageRepository {
+
+    Logger logger = LoggerFactory.getLogger(ImagesRepository.class);
+
+    private final Executor executor;
+    private final UnitOfWork unitOfWork;
+
+    public ImagesRepository() {
+        this(ThreadPoolConfiguration.getRepositoryExecutor(), null);
+    }
+
+    public ImagesRepository(UnitOfWork unitOfWork) {
+        this(unitOfWork.getExecutor(), unitOfWork);
+    }
+
+    private ImagesRepository(Executor executor, UnitOfWork unitOfWork) {
+        this.executor = executor;
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public ImageRepository within(UnitOfWork unitOfWork) {
+        return new ImagesRepository(unitOfWork);
+    }
+
+    private JdbcConnection openConnection() throws SQLException {
+        return unitOfWork != null ? new JdbcConnection(unitOfWork) : new JdbcConnection();
+    }
+
+    @Override
+    public CompletableFuture<ImageDto> findMetadataAsync(ImageOwner owner, UUID ownerId) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> findMetadata(owner, ownerId), executor);
+    }
+    private ImageDto findMetadata(ImageOwner owner, UUID ownerId) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.IMAGES_FIND_METADATA);
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
+            statement.setString(1, owner.getOwnerType());
+            statement.setObject(2, ownerId, Types.OTHER);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                Timestamp updatedAt = resultSet.getTimestamp(4);
+                return new ImageDto(
+                        ownerId,
+                        resultSet.getString(1),
+                        resultSet.getLong(2),
+                        resultSet.getString(3),
+                        updatedAt != null ? new Date(updatedAt.getTime()) : null);
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: images: error: %s", e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readRangeAsync(ImageOwner owner, UUID ownerId, String hash, long offset, int length) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(hash, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> readRange(owner, ownerId, hash, offset, length), executor);
+    }
+    private byte[] readRange(ImageOwner owner, UUID ownerId, String hash, long offset, int length) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.IMAGES_READ_RANGE);
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
+            // substring() считает байты с 1; bytea не длиннее 1 ГБ, поэтому int достаточно
+            statement.setInt(1, Math.toIntExact(offset + 1));
+            statement.setInt(2, length);
+            statement.setString(3, owner.getOwnerType());
+            statement.setObject(4, ownerId, Types.OTHER);
+            statement.setString(5, hash);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBytes(1) : null;
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: images: error: %s", e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveAsync(ImageOwner owner, UUID ownerId, String contentType, String hash, byte[] data) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(contentType, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(hash, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(data, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> save(owner, ownerId, contentType, hash, data), executor);
+    }
+    private boolean save(ImageOwner owner, UUID ownerId, String contentType, String hash, byte[] data) {
+        try (JdbcConnection connection = openConnection()) {
+            if (setOwnerHash(connection, owner, ownerId, hash) == 0) {
+                return false;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    PreparedStatementRegistry.get(SqlStatement.IMAGES_UPSERT))) {
+                statement.setString(1, owner.getOwnerType());
+                statement.setObject(2, ownerId, Types.OTHER);
+                statement.setString(3, contentType);
+                statement.setLong(4, data.length);
+                statement.setString(5, hash);
+                statement.setBytes(6, data);
+                statement.executeUpdate();
+            }
+            return true;
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: images: save error: %s", e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(ImageOwner owner, UUID ownerId) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> delete(owner, ownerId), executor);
+    }
+    private boolean delete(ImageOwner owner, UUID ownerId) {
+        try (JdbcConnection connection = openConnection()) {
+            setOwnerHash(connection, owner, ownerId, null);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    PreparedStatementRegistry.get(SqlStatement.IMAGES_DELETE))) {
+                statement.setString(1, owner.getOwnerType());
+                statement.setObject(2, ownerId, Types.OTHER);
+                return statement.executeUpdate() > 0;
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: images: delete error: %s", e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private int setOwnerHash(JdbcConnection connection, ImageOwner owner, UUID ownerId, String hash) throws SQLException {
+        SqlStatement sql = owner == ImageOwner.USER ? SqlStatement.USERS_SET_IMAGE_HASH : SqlStatement.PROJECTS_SET_IMAGE_HASH;
+        try (PreparedStatement statement = connection.prepareStatement(PreparedStatementRegistry.get(sql))) {
+            statement.setString(1, hash);
+            statement.setObject(2, ownerId, Types.OTHER);
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package repositories;
 
 import configurations.JdbcConnection;
-import configurations.PropertiesConfiguration;
+import configurations.ThreadPoolConfiguration;
+import configurations.UnitOfWork;
 import models.dtos.ProjectDto;
 import models.dtos.UserDto;
+import models.dtos.VersionDto;
 import models.entities.Project;
+import models.entities.User;
 import repositories.interfaces.ProjectUserRepository;
-import repositories.interfaces.UserRepository;
 import utils.StaticConstants;
 import utils.exceptions.*;
 import utils.mappers.ProjectMapper;
+import utils.mappers.RowMapper;
 import utils.mappers.UserMapper;
-import utils.sqls.SqlQueryPreparedStrings;
-import utils.sqls.SqlQueryStrings;
+import utils.sqls.ArrayParameters;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -22,13 +26,15 @@ import java.sql.Timestamp;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.Date;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,31 +46,35 @@ import static utils.mappers.ProjectMapper.mapResultSetToProject;
  */
 public class ProjectRepository implements repositories.interfaces.ProjectRepository {
 
-    String schema = System.getenv("JDBC_DEFAULT_SCHEMA") != null
-            ? System.getenv("JDBC_DEFAULT_SCHEMA")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.default-schema");
-
-    String projectsTable = System.getenv("JDBC_PROJECTS_TABLE") != null
-            ? System.getenv("JDBC_PROJECTS_TABLE")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.projects-table");
-
-    String projectUsersTable = System.getenv("JDBC_PROJECT_USERS_TABLE") != null
-            ? System.getenv("JDBC_PROJECT_USERS_TABLE")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.project-users-table");
-
-    String tableName = String.format("%s.%s", schema, projectsTable);
     Logger logger = LoggerFactory.getLogger(ProjectRepository.class);
 
-    private final SqlQueryStrings sqlQueryStrings;
-    private final SqlQueryPreparedStrings sqlQueryPreparedStrings;
     private final ProjectUserRepository projectUserRepository;
-    private final UserRepository userRepository;
+    private final Executor executor;
+    private final UnitOfWork unitOfWork;
 
     public ProjectRepository() {
-        sqlQueryStrings = new SqlQueryStrings();
-        projectUserRepository = new ProjectUsersRepositoryImpl();
-        userRepository = new UsersRepository();
-        sqlQueryPreparedStrings = new SqlQueryPreparedStrings();
+        this(ThreadPoolConfiguration.getRepositoryExecutor());
+    }
+
+    public ProjectRepository(Executor executor) {
+        this.executor = executor;
+        this.unitOfWork = null;
+        projectUserRepository = new ProjectUsersRepositoryImpl(executor);
+    }
+
+    public ProjectRepository(UnitOfWork unitOfWork) {
+        this.executor = unitOfWork.getExecutor();
+        this.unitOfWork = unitOfWork;
+        projectUserRepository = new ProjectUsersRepositoryImpl(unitOfWork);
+    }
+
+    @Override
+    public repositories.interfaces.ProjectRepository within(UnitOfWork unitOfWork) {
+        return new ProjectRepository(unitOfWork);
+    }
+
+    private JdbcConnection openConnection() throws SQLException {
+        return unitOfWork != null ? new JdbcConnection(unitOfWork) : new JdbcConnection();
     }
 
     @Override
@@ -77,12 +87,12 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private Project create(Project project) throws SQLException, DatabaseOperationException {
-        String queryString = sqlQueryPreparedStrings.createProjectString(tableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_CREATE);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatementReturningGeneratedKey(queryString)) {
 
             setPreparedStatementToCreateProject(statement, project);
@@ -110,9 +120,8 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
         statement.setString(2, project.getDescription());
         statement.setTimestamp(3, created);
         statement.setTimestamp(4, created);
-        statement.setBytes(5, project.getImage());
-        statement.setObject(6, project.getAdminId(), Types.OTHER);
-        statement.setInt(7, project.getProjectStatus().ordinal());
+        statement.setObject(5, project.getAdminId(), Types.OTHER);
+        statement.setInt(6, project.getProjectStatus().ordinal());
     }
 
     @Override
@@ -126,20 +135,21 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private List<Project> findByAdminId(UUID adminId) throws SQLException, NoProjectsFoundException, RuntimeException {
-        String queryString = sqlQueryPreparedStrings.findProjectsByAdminIdString(tableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_BY_ADMIN_ID);
         List<Project> projects = new ArrayList<>();
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
              PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
             statement.setObject(1, adminId, Types.OTHER);
 
             ResultSet resultSet = statement.executeQuery();
+            RowMapper<Project> mapper = ProjectMapper.ROWS.bind(resultSet);
 
             while (resultSet.next()) {
-                Project project = mapResultSetToProject(resultSet);
+                Project project = mapper.map(resultSet);
 
                 projects.add(project);
             }
@@ -161,18 +171,18 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
     }
 
     private List<Project> findByUserId(UUID userId) throws SQLException, NoProjectsFoundException, RuntimeException {
-        String projectUsersTableName = String.format("%s.%s", schema, projectUsersTable);
-        String queryString = sqlQueryPreparedStrings.findProjectsByUserIdString(projectUsersTableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_BY_USER_ID);
         List<Project> projects = new ArrayList<>();
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
              PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
             statement.setObject(1, userId, Types.OTHER);
 
             ResultSet resultSet = statement.executeQuery();
+            RowMapper<Project> mapper = ProjectMapper.ROWS.bind(resultSet);
 
             while (resultSet.next()) {
-                Project project = mapResultSetToProject(resultSet);
+                Project project = mapper.map(resultSet);
 
                 projects.add(project);
             }
@@ -187,6 +197,17 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
         return projects;
     }
 
+    /**
+     * Асинхронный поиск проекта по {@code id} вместе с участниками проекта
+     * <p>
+     *     Загрузка участников выстраивается цепочкой {@code thenCompose},
+     *     а не ожидается блокирующим {@code join()} внутри потока пула репозиториев:
+     *     иначе при ограниченном пуле потоки ожидали бы задачи, стоящие в очереди того же пула
+     * </p>
+     *
+     * @param id идентификатор проекта
+     * @return {@code CompletableFuture<Project>} или {@code null} внутри, если проект не найден
+     */
     @Override
     public CompletableFuture<Project> findByIdAsync(UUID id) throws SQLException {
         Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
@@ -198,12 +219,22 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
                 throw new RuntimeException(e);
             }
 
-        });
+        }, executor)
+                .thenCompose(project -> {
+                    if (project == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return loadProjectUsers(id)
+                            .thenApply(users -> {
+                                project.setProjectUsers(users);
+                                return project;
+                            });
+                });
     }
     private Project findById(UUID id) throws SQLException {
-        String sql = sqlQueryPreparedStrings.findByIdString(tableName);
+        String sql = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
              PreparedStatement statement = jdbcConnection.prepareStatement(sql)) {
 
             statement.setObject(1, id, Types.OTHER);
@@ -213,10 +244,7 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
                 return null;
             }
 
-            var project = mapResultSetToProject(resultSet);
-            List<UserDto> users = loadProjectUsers(id).join();
-            project.setProjectUsers(users);
-            return project;
+            return mapResultSetToProject(resultSet);
 
         } catch (SQLException e) {
             String message = String.format("%s; id: %s", StaticConstants.PROJECT_NOT_FOUND_EXCEPTION_MESSAGE, id);
@@ -226,36 +254,82 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
         }
     }
     private CompletableFuture<List<UserDto>> loadProjectUsers(UUID projectId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String projectUsersTableName = String.format("%s.%s", schema, projectUsersTable);
-            String queryString = sqlQueryStrings
-                    .selectUserIdsFromProjectUsersTableByProjectId(
-                            projectUsersTableName,
-                            projectId.toString());
+        return findMembersByProjectIdsAsync(List.of(projectId))
+                .thenApply(members -> members.getOrDefault(projectId, new ArrayList<>()));
+    }
+
+    /**
+     * Загрузка участников проектов одним запросом
+     * <p>Вместо выборки id участников и отдельного запроса на каждого пользователя
+     * выполняется один JOIN по {@code project_users} и {@code users}
+     * на одном соединении</p>
+     *
+     * @param projectIds идентификаторы проектов
+     * @return {@code CompletableFuture<Map<UUID, List<UserDto>>>}
+     */
+    @Override
+    public CompletableFuture<Map<UUID, List<UserDto>>> findMembersByProjectIdsAsync(List<UUID> projectIds) {
+        Objects.requireNonNull(projectIds, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-            try (JdbcConnection jdbcConnection = new JdbcConnection();
-                 var resultSet = jdbcConnection.executeQuery(queryString)) {
+        if (projectIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        return CompletableFuture.supplyAsync(() -> findMembersByProjectIds(projectIds), executor);
+    }
+    private Map<UUID, List<UserDto>> findMembersByProjectIds(List<UUID> projectIds) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_MEMBERS_BY_PROJECT_IDS);
 
-                List<CompletableFuture<UserDto>> userFutures = new ArrayList<>();
+        try (JdbcConnection jdbcConnection = openConnection();
+             PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
 
+            Map<UUID, List<UserDto>> members = new HashMap<>();
+            ArrayParameters.forEachResultByIds(statement, projectIds, resultSet -> {
+                RowMapper<User> mapper = UserMapper.ROWS.bind(resultSet);
+                int projectIdColumn = resultSet.findColumn("member_project_id");
                 while (resultSet.next()) {
-                    UUID userId = (UUID) resultSet.getObject("user_id");
-                    userFutures.add(
-                            userRepository.findByIdAsync(userId)
-                                    .thenApply(UserMapper::toDto)
-                    );
+                    UUID projectId = resultSet.getObject(projectIdColumn, UUID.class);
+                    members.computeIfAbsent(projectId, id -> new ArrayList<>())
+                            .add(UserMapper.toDto(mapper.map(resultSet)));
                 }
+            });
+            return members;
+
+        } catch (Exception e) {
+            throw new CompletionException("Failed to load project users", e);
+        }
+    }
 
-                return CompletableFuture.allOf(userFutures.toArray(new CompletableFuture[0]))
-                        .thenApply(v -> userFutures.stream()
-                                .map(CompletableFuture::join)
-                                .collect(Collectors.toList()))
-                        .join();
+    /**
+     * Версия проекта для условного GET
+     * <p>Один запрос по меткам времени проекта и его участников,
+     * без маппинга строк и без загрузки участников</p>
+     *
+     * @param id идентификатор проекта
+     * @return {@code CompletableFuture<VersionDto>} или {@code null}, если проект не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> findVersionByIdAsync(UUID id) {
+        Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-            } catch (Exception e) {
-                throw new CompletionException("Failed to load project users", e);
+        return CompletableFuture.supplyAsync(() -> findVersionById(id), executor);
+    }
+    private VersionDto findVersionById(UUID id) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_VERSION_BY_ID);
+
+        try (JdbcConnection jdbcConnection = openConnection();
+             PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
+
+            statement.setObject(1, id, Types.OTHER);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getTimestamp("last_modified") == null) {
+                    return null;
+                }
+                return new VersionDto(resultSet.getTimestamp("last_modified"), resultSet.getLong("row_count"));
             }
-        });
+        }
+        catch (SQLException e) {
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
     }
 
     @Override
@@ -268,12 +342,12 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private boolean delete(UUID id) throws SQLException, RuntimeException {
-        String queryString = sqlQueryPreparedStrings.deleteByIdString(tableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_DELETE_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
         PreparedStatement statement = jdbcConnection.prepareStatement(queryString);) {
 
             statement.setObject(1, id, Types.OTHER);
@@ -362,12 +436,12 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private Project update(Project project) throws SQLException, ProjectNotFoundException {
-        String updateQuery = sqlQueryPreparedStrings.updateProjectByIdString(tableName);
+        String updateQuery = PreparedStatementRegistry.get(SqlStatement.PROJECTS_UPDATE_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
         PreparedStatement statement = jdbcConnection.prepareStatement(updateQuery)) {
             setPreparedStatementToUpdateProject(statement, project);
 
@@ -392,9 +466,8 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
         statement.setString(1, project.getName());
         statement.setString(2, project.getDescription());
         statement.setTimestamp(3, updated);
-        statement.setBytes(4, project.getImage());
-        statement.setInt(5, project.getProjectStatus().ordinal());
-        statement.setObject(6, project.getId(), Types.OTHER);
+        statement.setInt(4, project.getProjectStatus().ordinal());
+        statement.setObject(5, project.getId(), Types.OTHER);
     }
 
 
@@ -411,25 +484,15 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
-    private List<Project> findAllByIds(List<UUID> userIds) throws SQLException, RuntimeException {
-        String queryString = sqlQueryPreparedStrings.findAllByIdsString(tableName, userIds.size());
+    private List<Project> findAllByIds(List<UUID> projectIds) throws SQLException, RuntimeException {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_ALL_BY_IDS);
 
-        try (JdbcConnection connection = new JdbcConnection();
-             PreparedStatement statement = connection.getConnection().prepareStatement(queryString)) {
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
 
-            for (int i = 0; i < userIds.size(); i++) {
-                statement.setObject(i + 1, userIds.get(i));
-            }
-
-            ResultSet resultSet = statement.executeQuery();
-            List<Project> result = new ArrayList<>();
-
-            while (resultSet.next()) {
-                result.add(ProjectMapper.mapResultSetToProject(resultSet));
-            }
-            return result;
+            return ArrayParameters.queryByIds(statement, projectIds, ProjectMapper.ROWS);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -443,25 +506,15 @@ public class ProjectRepository implements repositories.interfaces.ProjectReposit
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private List<Project> findByAdminIds(List<UUID> adminIds) throws SQLException, RuntimeException {
-        String queryString = sqlQueryPreparedStrings.findProjectsByAdminsIdsString(tableName, adminIds.size());
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECTS_FIND_BY_ADMIN_IDS);
 
-        try (JdbcConnection connection = new JdbcConnection();
-             PreparedStatement statement = connection.getConnection().prepareStatement(queryString)) {
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
 
-            for (int i = 0; i < adminIds.size(); i++) {
-                statement.setObject(i + 1, adminIds.get(i));
-            }
-
-            ResultSet resultSet = statement.executeQuery();
-            List<Project> result = new ArrayList<>();
-
-            while (resultSet.next()) {
-                result.add(ProjectMapper.mapResultSetToProject(resultSet));
-            }
-            return result;
+            return ArrayParameters.queryByIds(statement, adminIds, ProjectMapper.ROWS);
         }
         catch (SQLException e) {
             throw new RuntimeException(e);
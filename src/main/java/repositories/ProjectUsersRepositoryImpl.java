@@ -1,16 +1,21 @@
 package repositories;
 
 import configurations.JdbcConnection;
-import configurations.PropertiesConfiguration;
+import configurations.ThreadPoolConfiguration;
+import configurations.UnitOfWork;
 
 import models.dtos.ProjectUsersDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repositories.interfaces.ProjectUserRepository;
 import utils.StaticConstants;
+import utils.exceptions.DatabaseOperationException;
 import utils.exceptions.ProjectUserNotFoundException;
 import utils.mappers.ProjectUserMapper;
-import utils.sqls.SqlQueryPreparedStrings;
+import utils.mappers.RowMapper;
+import utils.sqls.ArrayParameters;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -25,8 +30,8 @@ import java.util.UUID;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-import static utils.mappers.ProjectUserMapper.mapResultSetToProjectUser;
 
 /**
  * Вспомогательный репозиторий для работы с
@@ -38,20 +43,33 @@ import static utils.mappers.ProjectUserMapper.mapResultSetToProjectUser;
 public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
 
     Logger logger = LoggerFactory.getLogger(ProjectUsersRepositoryImpl.class);
-    private final SqlQueryPreparedStrings sqlQueryPreparedStrings;
+    private final Executor executor;
+    private final UnitOfWork unitOfWork;
 
-    static String schema = System.getenv("JDBC_DEFAULT_SCHEMA") != null
-            ? System.getenv("JDBC_DEFAULT_SCHEMA")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.default-schema");
+    public ProjectUsersRepositoryImpl() {
+        this(ThreadPoolConfiguration.getRepositoryExecutor());
+    }
 
-    static String projectUsersTable = System.getenv("JDBC_PROJECT_USERS_TABLE") != null
-            ? System.getenv("JDBC_PROJECT_USERS_TABLE")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.project-users-table");
+    public ProjectUsersRepositoryImpl(Executor executor) {
+        this(executor, null);
+    }
 
-    String tableName = String.format("%s.%s", schema, projectUsersTable);
+    public ProjectUsersRepositoryImpl(UnitOfWork unitOfWork) {
+        this(unitOfWork.getExecutor(), unitOfWork);
+    }
 
-    public ProjectUsersRepositoryImpl() {
-        sqlQueryPreparedStrings = new SqlQueryPreparedStrings();
+    private ProjectUsersRepositoryImpl(Executor executor, UnitOfWork unitOfWork) {
+        this.executor = executor;
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public ProjectUserRepository within(UnitOfWork unitOfWork) {
+        return new ProjectUsersRepositoryImpl(unitOfWork);
+    }
+
+    private JdbcConnection openConnection() throws SQLException {
+        return unitOfWork != null ? new JdbcConnection(unitOfWork) : new JdbcConnection();
     }
 
     /**
@@ -69,19 +87,20 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
 
         return CompletableFuture.supplyAsync(() -> {
             return findByUserId(userId);
-        });
+        }, executor);
     }
     private List<ProjectUsersDto> findByUserId(UUID userId) {
-        String queryString = sqlQueryPreparedStrings.findProjectUsersByUserId(tableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_FIND_BY_USER_ID);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatement(queryString)) {
             statement.setObject(1, userId.toString(), Types.OTHER);
             ResultSet resultSet = statement.executeQuery();
 
             List<ProjectUsersDto> projectUsers = new ArrayList<>();
+            RowMapper<ProjectUsersDto> mapper = ProjectUserMapper.ROWS.bind(resultSet);
             while (resultSet.next()) {
-                projectUsers.add(mapResultSetToProjectUser(resultSet));
+                projectUsers.add(mapper.map(resultSet));
             }
             return projectUsers;
         }
@@ -105,19 +124,20 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
 
         return CompletableFuture.supplyAsync(() -> {
             return findByProjectId(projectId);
-        });
+        }, executor);
     }
     private List<ProjectUsersDto> findByProjectId(UUID projectId) {
-        String queryString = sqlQueryPreparedStrings.findProjectUsersByProjectId(tableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_FIND_BY_PROJECT_ID);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatement(queryString)) {
             statement.setObject(1, projectId.toString(), Types.OTHER);
             ResultSet resultSet = statement.executeQuery();
 
             List<ProjectUsersDto> projectUsers = new ArrayList<>();
+            RowMapper<ProjectUsersDto> mapper = ProjectUserMapper.ROWS.bind(resultSet);
             while (resultSet.next()) {
-                projectUsers.add(mapResultSetToProjectUser(resultSet));
+                projectUsers.add(mapper.map(resultSet));
             }
             return projectUsers;
         }
@@ -149,12 +169,12 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private boolean deleteUserFromProject(UUID userId, UUID projectId) throws SQLException, RuntimeException {
-        String query = sqlQueryPreparedStrings.removeProjectUser(tableName);
+        String query = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_REMOVE);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setObject(1, projectId.toString(), Types.OTHER);
@@ -188,12 +208,12 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private boolean addUserToProject(UUID userId, UUID projectId) throws SQLException, RuntimeException {
-        String query = sqlQueryPreparedStrings.addProjectUser(tableName);
+        String query = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_ADD);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setObject(1, projectId.toString(), Types.OTHER);
@@ -217,25 +237,15 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private List<ProjectUsersDto> findByProjectIds(List<UUID> projectIds) throws SQLException, RuntimeException, NullPointerException  {
-        String queryString = sqlQueryPreparedStrings.findProjectUsersByProjectIds(tableName, projectIds.size());
-
-        try (JdbcConnection connection = new JdbcConnection();
-             PreparedStatement statement = connection.getConnection().prepareStatement(queryString)) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_FIND_BY_PROJECT_IDS);
 
-            for (int i = 0; i < projectIds.size(); i++) {
-                statement.setObject(i + 1, projectIds.get(i));
-            }
-
-            ResultSet resultSet = statement.executeQuery();
-            List<ProjectUsersDto> result = new ArrayList<>();
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
 
-            while (resultSet.next()) {
-                result.add(ProjectUserMapper.mapResultSetToProjectUser(resultSet));
-            }
-            return result;
+            return ArrayParameters.queryByIds(statement, projectIds, ProjectUserMapper.ROWS);
         }
     }
 
@@ -250,26 +260,65 @@ public class ProjectUsersRepositoryImpl implements ProjectUserRepository {
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executor);
     }
     private List<ProjectUsersDto> findByUserIds(List<UUID> userIds) throws SQLException, RuntimeException, NullPointerException, ProjectUserNotFoundException  {
-        String queryString = sqlQueryPreparedStrings.findProjectUsersByUserIds(tableName, userIds.size());
+        String queryString = PreparedStatementRegistry.get(SqlStatement.PROJECT_USERS_FIND_BY_USER_IDS);
 
-        try (JdbcConnection connection = new JdbcConnection();
-             PreparedStatement statement = connection.getConnection().prepareStatement(queryString)) {
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
 
-            for (int i = 0; i < userIds.size(); i++) {
-                statement.setObject(i + 1, userIds.get(i));
-            }
+            return ArrayParameters.queryByIds(statement, userIds, ProjectUserMapper.ROWS);
+        }
+    }
 
-            ResultSet resultSet = statement.executeQuery();
-            List<ProjectUsersDto> result = new ArrayList<>();
+    @Override
+    public CompletableFuture<Integer> addUsersToProjectAsync(UUID projectId, List<UUID> userIds) {
+        Objects.requireNonNull(projectId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(userIds, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-            while (resultSet.next()) {
-                result.add(ProjectUserMapper.mapResultSetToProjectUser(resultSet));
+        return CompletableFuture.supplyAsync(() ->
+                executeMembershipBatch(SqlStatement.PROJECT_USERS_ADD_IF_VALID, projectId, userIds), executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteUsersFromProjectAsync(UUID projectId, List<UUID> userIds) {
+        Objects.requireNonNull(projectId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(userIds, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() ->
+                executeMembershipBatch(SqlStatement.PROJECT_USERS_REMOVE, projectId, userIds), executor);
+    }
+
+    /**
+     * Выполнить запрос для каждого пользователя одним пакетом
+     * <p>Оба запроса принимают параметры {@code project_id}, {@code user_id}</p>
+     *
+     * @return сумма затронутых строк
+     */
+    private int executeMembershipBatch(SqlStatement sqlStatement, UUID projectId, List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(PreparedStatementRegistry.get(sqlStatement))) {
+
+            for (UUID userId : userIds) {
+                statement.setObject(1, projectId, Types.OTHER);
+                statement.setObject(2, userId, Types.OTHER);
+                statement.addBatch();
+            }
+
+            int affected = 0;
+            for (int count : statement.executeBatch()) {
+                affected += Math.max(count, 0);
             }
-            return result;
+            return affected;
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: %s: error: %s", sqlStatement, e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
         }
     }
 }
-
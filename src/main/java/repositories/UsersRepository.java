@@ -1,21 +1,32 @@
 package repositories;
 
+import com.google.common.collect.Lists;
+import configurations.ConcurrencyLimitedExecutor;
 import configurations.JdbcConnection;
 import configurations.PropertiesConfiguration;
+import configurations.ThreadPoolConfiguration;
+import configurations.UnitOfWork;
+import models.dtos.VersionDto;
 import models.entities.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repositories.interfaces.EntityCursor;
 import repositories.interfaces.UserRepository;
 import utils.StaticConstants;
 import utils.exceptions.*;
 import utils.mappers.UserMapper;
-import utils.sqls.SqlQueryPreparedStrings;
+import utils.mappers.RowMapper;
+import utils.sqls.ArrayParameters;
+import utils.sqls.PreparedStatementRegistry;
+import utils.sqls.SqlStatement;
 import utils.sqls.SqlQueryStrings;
 
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static utils.mappers.UserMapper.mapResultSetToUser;
 
@@ -25,22 +36,38 @@ import static utils.mappers.UserMapper.mapResultSetToUser;
  */
 public class UsersRepository implements UserRepository{
 
-    static String usersSchema = System.getenv("JDBC_DEFAULT_SCHEMA") != null
-            ? System.getenv("JDBC_DEFAULT_SCHEMA")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.default-schema");
+    private static final int BATCH_SIZE = PropertiesConfiguration.getIntSetting(
+            "JDBC_BATCH_SIZE", "jdbc.batch-size", 1000);
 
-    static String usersTable = System.getenv("JDBC_USERS_TABLE") != null
-            ? System.getenv("JDBC_USERS_TABLE")
-            : PropertiesConfiguration.getProperties().getProperty("jdbc.users-table");
-
-    private final String usersTableName = String.format("%s.%s", usersSchema, usersTable);
-
-    private final SqlQueryPreparedStrings sqlQueryPreparedStrings;
+    private final Executor executor;
+    private final UnitOfWork unitOfWork;
 
     Logger logger = LoggerFactory.getLogger(UsersRepository.class);
 
     public UsersRepository() {
-        sqlQueryPreparedStrings = new SqlQueryPreparedStrings();
+        this(ThreadPoolConfiguration.getRepositoryExecutor());
+    }
+
+    public UsersRepository(Executor executor) {
+        this(executor, null);
+    }
+
+    public UsersRepository(UnitOfWork unitOfWork) {
+        this(unitOfWork.getExecutor(), unitOfWork);
+    }
+
+    private UsersRepository(Executor executor, UnitOfWork unitOfWork) {
+        this.executor = executor;
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public UserRepository within(UnitOfWork unitOfWork) {
+        return new UsersRepository(unitOfWork);
+    }
+
+    private JdbcConnection openConnection() throws SQLException {
+        return unitOfWork != null ? new JdbcConnection(unitOfWork) : new JdbcConnection();
     }
 
     /**
@@ -68,7 +95,7 @@ public class UsersRepository implements UserRepository{
             catch (SQLException e) {
                 logger.error(String.format("%s; %s", StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e.getCause()));
                 throw new DatabaseOperationException(StaticConstants.UNABLE_TO_LOAD_DB_DRIVER);
-            }})
+            }}, executor)
                 .exceptionally(ex -> {
                     if(ex.getCause() instanceof DatabaseOperationException) {
                         throw new DatabaseOperationException(ex.getCause().getMessage());
@@ -84,14 +111,15 @@ public class UsersRepository implements UserRepository{
                 });
     }
     private List<User> findAll() throws SQLException, NoUsersFoundException, ResultSetMappingException {
-        String queryString = sqlQueryPreparedStrings.findAllQueryString(usersTableName);
-        try (JdbcConnection connection = new JdbcConnection();
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_ALL);
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatementReturningGeneratedKey(queryString)) {
 
             ResultSet resultSet = statement.executeQuery();
             List<User> users = new ArrayList<>();
+            RowMapper<User> mapper = UserMapper.ROWS.bind(resultSet);
             while (resultSet.next()) {
-                users.add(mapResultSetToUser(resultSet));
+                users.add(mapper.map(resultSet));
             }
             if (users.isEmpty()) {
                 return Collections.emptyList();
@@ -119,12 +147,12 @@ public class UsersRepository implements UserRepository{
                 throw new NullPointerException(StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
             }
             return create(user);
-        });
+        }, executor);
     }
     private User create(User user) throws UserAlreadyExistException {
-        String queryString = sqlQueryPreparedStrings.createUserPreparedQueryString(usersTableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_CREATE);
 
-        try (JdbcConnection connection = new JdbcConnection();
+        try (JdbcConnection connection = openConnection();
              PreparedStatement statement = connection.prepareStatementReturningGeneratedKey(queryString)) {
 
             setPreparedStatementToCreateUser(statement, user);
@@ -147,6 +175,90 @@ public class UsersRepository implements UserRepository{
             throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
         }
     }
+    /**
+     * Пакетное создание пользователей
+     * <p>Строки отправляются пакетами по {@code jdbc.batch-size};
+     * при {@code jdbc.rewrite-batched-inserts} драйвер отправляет пакет многострочным {@code INSERT}.
+     * Конфликтующие строки пропускаются ({@code ON CONFLICT DO NOTHING}), поэтому
+     * {@code RETURNING id, user_name} возвращает только вставленные строки,
+     * и {@code id} сопоставляется строке по уникальному логину</p>
+     *
+     * @param users пользователи с уникальными в пределах списка логинами
+     * @return {@code CompletableFuture<List<UUID>>}; {@code null} на месте пропущенной строки
+     */
+    @Override
+    public CompletableFuture<List<UUID>> createBatchAsync(List<User> users) {
+        Objects.requireNonNull(users, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> users.isEmpty() ? List.<UUID>of() : createBatch(users), executor);
+    }
+    private List<UUID> createBatch(List<User> users) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_CREATE_SKIP_CONFLICTS);
+        Map<String, UUID> createdIds = new HashMap<>();
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatementReturning(queryString, "id", "user_name")) {
+
+            for (List<User> batch : Lists.partition(users, BATCH_SIZE)) {
+                for (User user : batch) {
+                    setPreparedStatementToCreateUser(statement, user);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        createdIds.put(keys.getString("user_name"), keys.getObject("id", UUID.class));
+                    }
+                }
+            }
+        }
+        catch (SQLException e) {
+            logger.error(String.format("Repository: createBatch: error: %s", e.getMessage()));
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+
+        return users.stream().map(user -> createdIds.get(user.getUserName())).toList();
+    }
+
+    @Override
+    public CompletableFuture<List<User>> findByUserNamesOrEmailsAsync(List<String> userNames, List<String> emails) {
+        Objects.requireNonNull(userNames, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(emails, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> findByUserNamesOrEmails(userNames, emails), executor);
+    }
+    private List<User> findByUserNamesOrEmails(List<String> userNames, List<String> emails) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_BY_USER_NAMES_OR_EMAILS);
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(queryString)) {
+
+            Array userNamesArray = connection.getConnection().createArrayOf("text", userNames.toArray());
+            Array emailsArray = connection.getConnection().createArrayOf("text", emails.toArray());
+            try {
+                statement.setArray(1, userNamesArray);
+                statement.setArray(2, emailsArray);
+
+                List<User> users = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    RowMapper<User> mapper = UserMapper.ROWS.bind(resultSet);
+                    while (resultSet.next()) {
+                        users.add(mapper.map(resultSet));
+                    }
+                }
+                return users;
+            }
+            finally {
+                userNamesArray.free();
+                emailsArray.free();
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
     private void setPreparedStatementToCreateUser(PreparedStatement statement, User user) throws SQLException {
 
         long updatedTime = user.getUpdatedAt().getTime();
@@ -160,8 +272,7 @@ public class UsersRepository implements UserRepository{
         statement.setString(5, user.getPassword());
         statement.setString(6, user.getPhoneNumber());
         statement.setTimestamp(7, created);
-        statement.setBytes(8, user.getUserImage());
-        statement.setTimestamp(9, created);
+        statement.setTimestamp(8, created);
     }
 
     /**
@@ -208,15 +319,15 @@ public class UsersRepository implements UserRepository{
             } catch (SQLException e) {
                 throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE);
             }
-        });
+        }, executor);
     }
     private boolean delete(UUID id) throws SQLException, DatabaseOperationException, NullPointerException, UserNotFoundException {
         if (id == null) {
             throw new NullPointerException(StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         }
-        String queryString = sqlQueryPreparedStrings.deleteByIdString(usersTableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_DELETE_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
         PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
             statement.setObject(1, id, Types.OTHER);
             int affectedRows = statement.executeUpdate();
@@ -238,12 +349,12 @@ public class UsersRepository implements UserRepository{
         return CompletableFuture.supplyAsync(() -> {
             Objects.requireNonNull(id);
             return findById(id);
-        });
+        }, executor);
     }
     private User findById(UUID id) throws UserNotFoundException, DatabaseOperationException {
-        String queryString = sqlQueryPreparedStrings.findByIdString(usersTableName);
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
         PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
             statement.setObject(1, id, Types.OTHER);
             var resultSet  = statement.executeQuery();
@@ -259,6 +370,39 @@ public class UsersRepository implements UserRepository{
         }
     }
 
+    /**
+     * Версия пользователя для условного GET
+     * <p>Один запрос по меткам времени пользователя и связанных с ним проектов,
+     * без маппинга строк и без загрузки проектов</p>
+     *
+     * @param id идентификатор пользователя
+     * @return {@code CompletableFuture<VersionDto>} или {@code null}, если пользователь не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> findVersionByIdAsync(UUID id) {
+        Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return CompletableFuture.supplyAsync(() -> findVersionById(id), executor);
+    }
+    private VersionDto findVersionById(UUID id) {
+        String queryString = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_VERSION_BY_ID);
+
+        try (JdbcConnection jdbcConnection = openConnection();
+             PreparedStatement statement = jdbcConnection.prepareStatement(queryString)) {
+
+            statement.setObject(1, id, Types.OTHER);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getTimestamp("last_modified") == null) {
+                    return null;
+                }
+                return new VersionDto(resultSet.getTimestamp("last_modified"), resultSet.getLong("row_count"));
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
     @Override
     public CompletableFuture<User> updateAsync(User user) throws NullPointerException, UserNotFoundException, DatabaseOperationException, SQLException, CompletionException {
         Objects.requireNonNull(user, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
@@ -269,12 +413,12 @@ public class UsersRepository implements UserRepository{
             } catch (SQLException e) {
                 throw new CompletionException(e);
             }
-        });
+        }, executor);
     }
     private User update(User user) throws SQLException, UserNotFoundException{
-        String updateQuery = sqlQueryPreparedStrings.updateUsertByIdString(usersTableName);
+        String updateQuery = PreparedStatementRegistry.get(SqlStatement.USERS_UPDATE_BY_ID);
 
-        try (JdbcConnection jdbcConnection = new JdbcConnection();
+        try (JdbcConnection jdbcConnection = openConnection();
              PreparedStatement statement = jdbcConnection.prepareStatement(updateQuery)) {
 
             setPreparedStatementToUpdateUser(statement, user);
@@ -309,9 +453,8 @@ public class UsersRepository implements UserRepository{
         statement.setString(2, user.getLastName());
         statement.setString(3, user.getPhoneNumber());
         statement.setTimestamp(4, updated);
-        statement.setBytes(5, user.getUserImage());
-        statement.setTimestamp(6, lastLogin);
-        statement.setObject(7, user.getId(), Types.OTHER);
+        statement.setTimestamp(5, lastLogin);
+        statement.setObject(6, user.getId(), Types.OTHER);
     }
 
     @Override
@@ -321,23 +464,15 @@ public class UsersRepository implements UserRepository{
                 return Collections.emptyList();
             }
             return findAllByIds(userIds);
-        });
+        }, executor);
     }
     private List<User> findAllByIds(List<UUID> userIds) {
-        String sql = sqlQueryPreparedStrings.findAllByIdsString(usersTableName, userIds.size());
+        String sql = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_ALL_BY_IDS);
 
-        try (JdbcConnection connection = new JdbcConnection();
-             PreparedStatement statement = connection.getConnection().prepareStatement(sql)) {
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            setPreparedStatementToFindByIds(statement, userIds);
-
-            ResultSet resultSet = statement.executeQuery();
-            List<User> result = new ArrayList<>();
-
-            while (resultSet.next()) {
-                result.add(UserMapper.mapResultSetToUser(resultSet));
-            }
-            return result;
+            return ArrayParameters.queryByIds(statement, userIds, UserMapper.ROWS);
         }
         catch (SQLException e) {
             throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
@@ -346,10 +481,185 @@ public class UsersRepository implements UserRepository{
             throw new RuntimeException(e);
         }
     }
-    private void setPreparedStatementToFindByIds(PreparedStatement statement, List<UUID> userIds) throws SQLException {
 
-        for (int i = 0; i < userIds.size(); i++) {
-            statement.setObject(i + 1, userIds.get(i), Types.OTHER);
+    @Override
+    public CompletableFuture<List<User>> findPageAsync(UUID after, int limit) {
+        return CompletableFuture.supplyAsync(() -> findPage(after, limit), executor);
+    }
+    private List<User> findPage(UUID after, int limit) {
+        String sql = PreparedStatementRegistry.get(after == null
+                ? SqlStatement.USERS_FIND_FIRST_PAGE
+                : SqlStatement.USERS_FIND_PAGE_AFTER);
+
+        try (JdbcConnection connection = openConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                statement.setObject(index++, after, Types.OTHER);
+            }
+            statement.setInt(index, limit);
+
+            List<User> users = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                RowMapper<User> mapper = UserMapper.ROWS.bind(resultSet);
+                while (resultSet.next()) {
+                    users.add(mapper.map(resultSet));
+                }
+            }
+            return users;
+        }
+        catch (SQLException e) {
+            throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<EntityCursor<User>> openCursorAsync(int fetchSize) {
+        return openAsync(fetchSize, SqlStatement.USERS_FIND_ALL, UserMapper.ROWS::bind);
+    }
+
+    @Override
+    public CompletableFuture<EntityCursor<String>> openAggregatedCursorAsync(int fetchSize) {
+        return openAsync(fetchSize, SqlStatement.USERS_FIND_ALL_AGGREGATED, resultSet -> row -> row.getString(1));
+    }
+
+    /**
+     * Открыть курсор после получения разрешения пула репозиториев
+     * <p>Разрешение держится до закрытия курсора, вне единицы работы соединение курсора
+     * учитывается в ограничении {@link ConcurrencyLimitedExecutor}</p>
+     */
+    private <T> CompletableFuture<EntityCursor<T>> openAsync(int fetchSize, SqlStatement query, RowMapperBinder<T> binder) {
+        return ConcurrencyLimitedExecutor.leaseAsync(executor).thenCompose(lease -> {
+            RowCursor<T> cursor = new RowCursor<>(lease, fetchSize, query, binder);
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        cursor.open();
+                        return cursor;
+                    }
+                    catch (SQLException e) {
+                        cursor.closeNow();
+                        throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+                    }
+                }, lease);
+            }
+            catch (RejectedExecutionException e) {
+                cursor.closeNow();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Привязка маппера строк к {@code ResultSet} курсора
+     */
+    private interface RowMapperBinder<T> {
+        RowMapper<T> bind(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Курсор по выборке пользователей
+     * <p>PostgreSQL читает строки порциями по {@code fetchSize} только при выключенном autocommit:
+     * внутри единицы работы он уже выключен, для собственного соединения репозитория
+     * выключается на время жизни курсора.
+     * Чтение и закрытие выполняются задачами исполнителя репозитория,
+     * поэтому внутри единицы работы не пересекаются с её другими запросами.
+     * Разрешение исполнителя возвращается при закрытии курсора</p>
+     */
+    private class RowCursor<T> implements EntityCursor<T> {
+
+        private final ConcurrencyLimitedExecutor.Lease lease;
+        private final int fetchSize;
+        private final SqlStatement query;
+        private final RowMapperBinder<T> binder;
+        private JdbcConnection connection;
+        private ResultSet resultSet;
+        private RowMapper<T> mapper;
+        private boolean autoCommitChanged;
+        private boolean exhausted;
+        private boolean closed;
+
+        RowCursor(ConcurrencyLimitedExecutor.Lease lease, int fetchSize, SqlStatement query, RowMapperBinder<T> binder) {
+            this.lease = lease;
+            this.fetchSize = fetchSize;
+            this.query = query;
+            this.binder = binder;
+        }
+
+        void open() throws SQLException {
+            connection = openConnection();
+            Connection jdbcConnection = connection.getConnection();
+            if (jdbcConnection.getAutoCommit()) {
+                jdbcConnection.setAutoCommit(false);
+                autoCommitChanged = true;
+            }
+            PreparedStatement statement = connection.prepareStatement(PreparedStatementRegistry.get(query));
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+            mapper = binder.bind(resultSet);
+        }
+
+        @Override
+        public CompletableFuture<List<T>> nextBatchAsync() {
+            return CompletableFuture.supplyAsync(this::nextBatch, lease);
+        }
+
+        private List<T> nextBatch() {
+            if (closed || exhausted) {
+                return List.of();
+            }
+            try {
+                List<T> batch = new ArrayList<>(fetchSize);
+                while (batch.size() < fetchSize && resultSet.next()) {
+                    batch.add(mapper.map(resultSet));
+                }
+                exhausted = batch.size() < fetchSize;
+                return batch;
+            }
+            catch (SQLException e) {
+                throw new DatabaseOperationException(StaticConstants.DATABASE_ACCESS_EXCEPTION_MESSAGE, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                lease.execute(this::closeNow);
+            }
+            catch (RejectedExecutionException e) {
+                closeNow();
+            }
+        }
+
+        void closeNow() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (autoCommitChanged) {
+                    Connection jdbcConnection = connection.getConnection();
+                    jdbcConnection.rollback();
+                    jdbcConnection.setAutoCommit(true);
+                }
+            }
+            catch (SQLException e) {
+                logger.error("Ошибка закрытия курсора: " + e.getMessage());
+            }
+            finally {
+                try {
+                    if (connection != null) {
+                        connection.close();
+                    }
+                }
+                finally {
+                    lease.close();
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package repositories.interfaces;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Курсор для последовательного чтения большой выборки порциями
+ * <p>Порция читается из серверного курсора БД ({@code setFetchSize}),
+ * поэтому в памяти одновременно находится не больше одной порции.
+ * Курсор должен быть закрыт после чтения последней порции или при ошибке</p>
+ *
+ * @param <T> тип сущности
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface EntityCursor<T> extends AutoCloseable {
+
+    /**
+     * Прочитать следующую порцию
+     *
+     * @return {@code CompletableFuture<List<T>>}; пустой список - выборка прочитана полностью
+     */
+    CompletableFuture<List<T>> nextBatchAsync();
+
+    @Override
+    void close();
+}
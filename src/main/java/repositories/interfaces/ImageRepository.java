@@ -0,0 +1,74 @@
+package repositories.interfaces;
+
+import configurations.UnitOfWork;
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Репозиторий изображений пользователей и проектов
+ * <p>Содержимое хранится в отдельной таблице {@code images}, строка владельца
+ * содержит только {@code image_hash}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface ImageRepository {
+
+    /**
+     * Метаданные изображения без содержимого
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code CompletableFuture<ImageDto>} или {@code null}, если изображения нет
+     */
+    CompletableFuture<ImageDto> findMetadataAsync(ImageOwner owner, UUID ownerId);
+
+    /**
+     * Фрагмент содержимого изображения
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @param hash хэш версии, из которой читается фрагмент
+     * @param offset смещение от начала, с 0
+     * @param length длина фрагмента
+     * @return {@code CompletableFuture<byte[]>} или {@code null}, если изображение удалено или заменено
+     */
+    CompletableFuture<byte[]> readRangeAsync(ImageOwner owner, UUID ownerId, String hash, long offset, int length);
+
+    /**
+     * Сохранить изображение и его хэш в строке владельца
+     * <p>Два запроса: вызывается в единице работы</p>
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @param contentType тип содержимого
+     * @param hash хэш содержимого
+     * @param data содержимое
+     * @return {@code CompletableFuture<Boolean>}: {@code false}, если владелец не найден
+     */
+    CompletableFuture<Boolean> saveAsync(ImageOwner owner, UUID ownerId, String contentType, String hash, byte[] data);
+
+    /**
+     * Удалить изображение и сбросить хэш в строке владельца
+     * <p>Два запроса: вызывается в единице работы</p>
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code CompletableFuture<Boolean>}: {@code false}, если изображения не было
+     */
+    CompletableFuture<Boolean> deleteAsync(ImageOwner owner, UUID ownerId);
+
+    /**
+     * Репозиторий, выполняющий запросы в рамках единицы работы:
+     * в её транзакции и на её соединении
+     *
+     * @param unitOfWork единица работы
+     * @return {@code ImageRepository}
+     */
+    default ImageRepository within(UnitOfWork unitOfWork) {
+        return this;
+    }
+}
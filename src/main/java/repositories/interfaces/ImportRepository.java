@@ -0,0 +1,38 @@
+package repositories.interfaces;
+
+import configurations.UnitOfWork;
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Репозиторий массового импорта
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface ImportRepository {
+
+    /**
+     * Загрузить поток в промежуточную таблицу и слить с целевой
+     *
+     * @param entity целевая таблица
+     * @param format формат потока
+     * @param input поток данных; читается блокирующе до конца
+     * @return {@code CompletableFuture<ImportResultDto>}
+     */
+    CompletableFuture<ImportResultDto> importAsync(ImportEntity entity, ImportFormat format, InputStream input);
+
+    /**
+     * Репозиторий, выполняющий импорт в рамках единицы работы
+     *
+     * @param unitOfWork единица работы
+     * @return {@code ImportRepository}
+     */
+    default ImportRepository within(UnitOfWork unitOfWork) {
+        return this;
+    }
+}
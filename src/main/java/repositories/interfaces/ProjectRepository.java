@@ -1,10 +1,14 @@
 package repositories.interfaces;
 
+import configurations.UnitOfWork;
 import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+import models.dtos.VersionDto;
 import models.entities.Project;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -23,4 +27,33 @@ public interface ProjectRepository extends BaseRepository<Project> {
     CompletableFuture<List<Project>> findByUserIdAsync(UUID userId);
     CompletableFuture<List<Project>> findByAdminIdsAsync(List<UUID> adminIds) throws SQLException;
     CompletableFuture<List<Project>> findByProjectIdsAsync(List<UUID> projectIds) throws SQLException;
+
+    /**
+     * Участники проектов, загруженные одним запросом
+     *
+     * @param projectIds идентификаторы проектов
+     * @return {@code CompletableFuture<Map<UUID, List<UserDto>>>} - участники, сгруппированные по id проекта;
+     * проекты без участников в карте отсутствуют
+     */
+    CompletableFuture<Map<UUID, List<UserDto>>> findMembersByProjectIdsAsync(List<UUID> projectIds);
+
+    /**
+     * Версия проекта с учётом его участников: метки времени без чтения и маппинга строк
+     *
+     * @param id идентификатор проекта
+     * @return {@code CompletableFuture<VersionDto>}; {@code null}, если проект не найден
+     * @see VersionDto
+     */
+    CompletableFuture<VersionDto> findVersionByIdAsync(UUID id);
+
+    /**
+     * Репозиторий, выполняющий запросы в рамках единицы работы:
+     * в её транзакции и на её соединении
+     *
+     * @param unitOfWork единица работы
+     * @return {@code ProjectRepository}
+     */
+    default ProjectRepository within(UnitOfWork unitOfWork) {
+        return this;
+    }
 }
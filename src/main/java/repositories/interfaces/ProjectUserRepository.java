@@ -1,5 +1,6 @@
 package repositories.interfaces;
 
+import configurations.UnitOfWork;
 import models.dtos.ProjectUsersDto;
 
 import java.sql.SQLException;
@@ -24,4 +25,33 @@ public interface ProjectUserRepository {
     CompletableFuture<List<ProjectUsersDto>> findByProjectIdsAsync(List<UUID> projectIds) throws SQLException;
     CompletableFuture<List<ProjectUsersDto>> findByUserIdsAsync(List<UUID> userIds) throws SQLException;
 
+    /**
+     * Добавить пользователей в проект одним пакетом ({@code addBatch / executeBatch})
+     * <p>Несуществующие пользователи, администратор проекта и уже добавленные участники пропускаются</p>
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code CompletableFuture<Integer>} - количество добавленных связей
+     */
+    CompletableFuture<Integer> addUsersToProjectAsync(UUID projectId, List<UUID> userIds);
+
+    /**
+     * Удалить пользователей из проекта одним пакетом ({@code addBatch / executeBatch})
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code CompletableFuture<Integer>} - количество удалённых связей
+     */
+    CompletableFuture<Integer> deleteUsersFromProjectAsync(UUID projectId, List<UUID> userIds);
+
+    /**
+     * Репозиторий, выполняющий запросы в рамках единицы работы:
+     * в её транзакции и на её соединении
+     *
+     * @param unitOfWork единица работы
+     * @return {@code ProjectUserRepository}
+     */
+    default ProjectUserRepository within(UnitOfWork unitOfWork) {
+        return this;
+    }
 }
@@ -1,5 +1,7 @@
 package repositories.interfaces;
 
+import configurations.UnitOfWork;
+import models.dtos.VersionDto;
 import models.entities.User;
 
 import java.util.List;
@@ -17,4 +19,75 @@ import java.util.concurrent.CompletableFuture;
 public interface UserRepository extends BaseRepository<User> {
 
     CompletableFuture<List<User>> findAllByIdsAsync(List<UUID> userIds);
+
+    /**
+     * Страница пользователей по возрастанию {@code id} (keyset-пагинация)
+     *
+     * @param after {@code id} последнего пользователя предыдущей страницы; {@code null} - первая страница
+     * @param limit размер страницы
+     * @return {@code CompletableFuture<List<User>>}
+     */
+    CompletableFuture<List<User>> findPageAsync(UUID after, int limit);
+
+    /**
+     * Открыть курсор по всем пользователям
+     * <p>Курсор читает строки на соединении репозитория;
+     * внутри единицы работы - на её соединении и в её транзакции</p>
+     *
+     * @param fetchSize размер порции
+     * @return {@code CompletableFuture<EntityCursor<User>>}
+     */
+    CompletableFuture<EntityCursor<User>> openCursorAsync(int fetchSize);
+
+    /**
+     * Открыть курсор по всем пользователям с проектами, собранными в БД одним запросом
+     * <p>Каждая строка - готовый Json {@code UserDto} с проектами и {@code id} их участников
+     * ({@code json_agg}); курсор выполняется на собственном соединении репозитория</p>
+     *
+     * @param fetchSize размер порции
+     * @return {@code CompletableFuture<EntityCursor<String>>}
+     * @see utils.sqls.SqlStatement#USERS_FIND_ALL_AGGREGATED
+     */
+    CompletableFuture<EntityCursor<String>> openAggregatedCursorAsync(int fetchSize);
+
+    /**
+     * Пакетное создание пользователей
+     * <p>Строки вставляются пакетами {@code addBatch / executeBatch};
+     * строка, нарушающая уникальность {@code user_name} / {@code email}, пропускается
+     * и не прерывает пакет. Логины в {@code users} должны быть уникальны</p>
+     *
+     * @param users пользователи
+     * @return {@code CompletableFuture<List<UUID>>} - {@code id} созданных пользователей
+     * в порядке {@code users}; {@code null} на месте пропущенной строки
+     */
+    CompletableFuture<List<UUID>> createBatchAsync(List<User> users);
+
+    /**
+     * Пользователи с любым из логинов или email
+     *
+     * @param userNames логины
+     * @param emails email
+     * @return {@code CompletableFuture<List<User>>}
+     */
+    CompletableFuture<List<User>> findByUserNamesOrEmailsAsync(List<String> userNames, List<String> emails);
+
+    /**
+     * Версия пользователя: метки времени без чтения и маппинга строк
+     *
+     * @param id идентификатор пользователя
+     * @return {@code CompletableFuture<VersionDto>}; {@code null}, если пользователь не найден
+     * @see VersionDto
+     */
+    CompletableFuture<VersionDto> findVersionByIdAsync(UUID id);
+
+    /**
+     * Репозиторий, выполняющий запросы в рамках единицы работы:
+     * в её транзакции и на её соединении
+     *
+     * @param unitOfWork единица работы
+     * @return {@code UserRepository}
+     */
+    default UserRepository within(UnitOfWork unitOfWork) {
+        return this;
+    }
 }
@@ -0,0 +1,57 @@
+package services;
+
+import configurations.UnitOfWork;
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+import repositories.CopyImportRepository;
+import repositories.interfaces.ImportRepository;
+import services.caches.CacheInvalidation;
+import services.interfaces.ImportService;
+import utils.StaticConstants;
+
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервис массового импорта пользователей и участников проектов
+ * <p>Импорт выполняется в одной единице работы: при ошибке промежуточная таблица
+ * и уже слитые строки откатываются целиком</p>
+ *
+ * @see CopyImportRepository
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class DataImportService implements ImportService {
+
+    private final ImportRepository importRepository;
+
+    public DataImportService() {
+        this(new CopyImportRepository());
+    }
+
+    public DataImportService(ImportRepository importRepository) {
+        this.importRepository = importRepository;
+    }
+
+    /**
+     * Импорт потока в таблицу
+     * <p>После импорта связей локальные кэши очищаются полностью:
+     * новые связи затрагивают произвольное число закэшированных проектов и пользователей.
+     * Другие экземпляры приложения получают уведомление {@code all} через LISTEN/NOTIFY</p>
+     */
+    @Override
+    public CompletableFuture<ImportResultDto> importAsync(ImportEntity entity, ImportFormat format, InputStream input) {
+        Objects.requireNonNull(entity, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(format, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(input, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return UnitOfWork.execute(unitOfWork -> importRepository.within(unitOfWork).importAsync(entity, format, input))
+                .whenComplete((result, error) -> {
+                    if (entity == ImportEntity.PROJECT_USERS && result != null && result.getInserted() > 0) {
+                        CacheInvalidation.invalidateAll();
+                    }
+                });
+    }
+}
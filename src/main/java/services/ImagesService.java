@@ -0,0 +1,188 @@
+package services;
+
+import configurations.UnitOfWork;
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+import repositories.ImagesRepository;
+import repositories.interfaces.ImageRepository;
+import services.caches.CacheInvalidation;
+import services.interfaces.ImageService;
+import utils.StaticConstants;
+import utils.exceptions.ImageNotFoundException;
+import utils.exceptions.InvalidImageException;
+import utils.exceptions.ProjectNotFoundException;
+import utils.exceptions.UserNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сервис изображений пользователей и проектов
+ * <p>Хэш содержимого (SHA-256) - одновременно версия в ссылке DTO и {@code ETag} ответа.
+ * Тип содержимого определяется по сигнатуре файла, а не по заголовку запроса:
+ * принимаются только png / jpeg / gif / webp, поэтому эндпойнт не отдаёт
+ * под видом изображения произвольные данные (например, html или svg)</p>
+ *
+ * @see ImagesRepository
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImagesService implements ImageService {
+
+    private final ImageRepository imageRepository;
+
+    public ImagesService() {
+        this(new ImagesRepository());
+    }
+
+    public ImagesService(ImageRepository imageRepository) {
+        this.imageRepository = imageRepository;
+    }
+
+    @Override
+    public CompletableFuture<ImageDto> getMetadataAsync(ImageOwner owner, UUID ownerId) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return imageRepository.findMetadataAsync(owner, ownerId)
+                .thenApply(image -> {
+                    if (image == null) {
+                        throw new ImageNotFoundException(StaticConstants.IMAGE_NOT_FOUND_EXCEPTION_MESSAGE);
+                    }
+                    return image;
+                });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readRangeAsync(ImageOwner owner, ImageDto image, long offset, int length) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(image, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return imageRepository.readRangeAsync(owner, image.getOwnerId(), image.getHash(), offset, length)
+                .thenApply(chunk -> {
+                    if (chunk == null) {
+                        throw new ImageNotFoundException(StaticConstants.IMAGE_NOT_FOUND_EXCEPTION_MESSAGE);
+                    }
+                    return chunk;
+                });
+    }
+
+    /**
+     * Сохранить изображение
+     * <p>Хэш в строке владельца и содержимое меняются в одной единице работы.
+     * Повторная загрузка того же содержимого даёт тот же хэш, и ссылка в DTO не меняется</p>
+     */
+    @Override
+    public CompletableFuture<ImageDto> saveAsync(ImageOwner owner, UUID ownerId, byte[] data) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(data, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        String contentType = detectContentType(data);
+        if (contentType == null) {
+            throw new InvalidImageException(StaticConstants.UNSUPPORTED_IMAGE_EXCEPTION_MESSAGE);
+        }
+        String hash = hash(data);
+
+        return UnitOfWork.execute(unitOfWork -> imageRepository.within(unitOfWork)
+                        .saveAsync(owner, ownerId, contentType, hash, data))
+                .thenApply(saved -> {
+                    if (!saved) {
+                        throw ownerNotFound(owner);
+                    }
+                    return new ImageDto(ownerId, contentType, data.length, hash, new Date());
+                })
+                .whenComplete((image, error) -> invalidate(owner, ownerId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(ImageOwner owner, UUID ownerId) {
+        Objects.requireNonNull(owner, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(ownerId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        return UnitOfWork.execute(unitOfWork -> imageRepository.within(unitOfWork).deleteAsync(owner, ownerId))
+                .thenApply(deleted -> {
+                    if (!deleted) {
+                        throw new ImageNotFoundException(StaticConstants.IMAGE_NOT_FOUND_EXCEPTION_MESSAGE);
+                    }
+                    return true;
+                })
+                .whenComplete((deleted, error) -> invalidate(owner, ownerId));
+    }
+
+    /**
+     * Тип изображения по сигнатуре
+     *
+     * @param data содержимое
+     * @return {@code image/png}, {@code image/jpeg}, {@code image/gif}, {@code image/webp}
+     * или {@code null}, если сигнатура не распознана
+     */
+    public static String detectContentType(byte[] data) {
+        if (startsWith(data, 0, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})) {
+            return "image/png";
+        }
+        if (startsWith(data, 0, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})) {
+            return "image/jpeg";
+        }
+        if (startsWith(data, 0, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(data, 0, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+            return "image/gif";
+        }
+        if (startsWith(data, 0, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                && startsWith(data, 8, "WEBP".getBytes(StandardCharsets.US_ASCII))) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    /**
+     * SHA-256 содержимого в hex
+     *
+     * @param data содержимое
+     * @return {@code String} из 64 символов
+     */
+    public static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] signature) {
+        if (data.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (data[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RuntimeException ownerNotFound(ImageOwner owner) {
+        return owner == ImageOwner.USER
+                ? new UserNotFoundException(StaticConstants.USER_NOT_FOUND_EXCEPTION_MESSAGE)
+                : new ProjectNotFoundException(StaticConstants.PROJECT_NOT_FOUND_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * Ссылка на изображение входит в DTO владельца
+     */
+    private static void invalidate(ImageOwner owner, UUID ownerId) {
+        if (owner == ImageOwner.USER) {
+            CacheInvalidation.userUpdated(ownerId);
+        }
+        else {
+            CacheInvalidation.projectChanged(ownerId);
+        }
+    }
+}
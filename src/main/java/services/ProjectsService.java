@@ -1,8 +1,12 @@
 package services;
 
+import configurations.CacheConfiguration;
+import configurations.UnitOfWork;
 import models.dtos.ProjectDto;
 import models.dtos.ProjectUsersDto;
 import models.dtos.UserDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +15,7 @@ import repositories.ProjectUsersRepositoryImpl;
 import repositories.UsersRepository;
 import repositories.interfaces.ProjectUserRepository;
 import repositories.interfaces.UserRepository;
+import services.caches.CacheInvalidation;
 import services.interfaces.ProjectService;
 import utils.StaticConstants;
 import utils.exceptions.DatabaseOperationException;
@@ -21,6 +26,7 @@ import utils.mappers.ProjectMapper;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -46,12 +52,45 @@ public class ProjectsService implements ProjectService {
         this.projectUserRepository = new ProjectUsersRepositoryImpl();
     }
 
+    ProjectsService(repositories.interfaces.ProjectRepository projectRepository,
+                            UserRepository userRepository,
+                            ProjectUserRepository projectUserRepository) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.projectUserRepository = projectUserRepository;
+    }
+
+    /**
+     * Выполнить операцию сервиса в единице работы
+     * <p>Все запросы операции идут через одно соединение в одной транзакции;
+     * транзакция фиксируется при успехе и откатывается при ошибке</p>
+     *
+     * @param operation операция над сервисом, привязанным к единице работы
+     * @return {@code CompletableFuture<T>}
+     * @see UnitOfWork
+     */
+    private <T> CompletableFuture<T> inUnitOfWork(UnitOfWork.Work<ProjectsService, T> operation) {
+        return UnitOfWork.execute(unitOfWork -> operation.apply(new ProjectsService(
+                projectRepository.within(unitOfWork),
+                userRepository.within(unitOfWork),
+                projectUserRepository.within(unitOfWork))));
+    }
+
+    /**
+     * Проекты, в которых участвует пользователь
+     * <p>Одновременные запросы по одному {@code userId} выполняют одну загрузку
+     * ({@link CacheConfiguration#getProjectsByUserFlight()}); результат не кэшируется</p>
+     */
     @Override
     public CompletableFuture<List<ProjectDto>> getProjectsByUserIdAsync(UUID userId) throws SQLException, NoProjectsFoundException, NullPointerException, RuntimeException {
         Objects.requireNonNull(userId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
+        return CacheConfiguration.getProjectsByUserFlight()
+                .execute(userId, () -> inUnitOfWork(service -> service.getProjectsByUserId(userId)));
+    }
+    private CompletableFuture<List<ProjectDto>> getProjectsByUserId(UUID userId) throws SQLException {
         var projectUsers = projectUserRepository.findByUserIdAsync(userId);
-        var userProjects = projectRepository.findByProjectIdsAsync(projectUsers.join().stream().map(ProjectUsersDto::getProjectId).toList());
+        var userProjects = projectUsers.thenCompose(this::findProjectsOfProjectUsers);
         var map = getMapOfProjectUsersIdsGroupedByProjects(projectUsers);
 
         return userProjects.thenCombine(map, (projects, usersMap) -> {
@@ -74,6 +113,18 @@ public class ProjectsService implements ProjectService {
             return userProject;
         });
     }
+    private CompletableFuture<List<Project>> findProjectsOfProjectUsers(List<ProjectUsersDto> projectUsers) {
+        if (projectUsers.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        try {
+            return projectRepository.findByProjectIdsAsync(projectUsers.stream().map(ProjectUsersDto::getProjectId).toList());
+        }
+        catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
     private CompletableFuture<Map<UUID, List<UUID>>> getMapOfProjectUsersIdsGroupedByProjects(CompletableFuture<List<ProjectUsersDto>> projectUsersFuture) throws SQLException {
         try {
             return projectUsersFuture
@@ -95,10 +146,19 @@ public class ProjectsService implements ProjectService {
         }
     }
 
+    /**
+     * Проекты, администратором которых является пользователь
+     * <p>Одновременные запросы по одному {@code adminId} выполняют одну загрузку
+     * ({@link CacheConfiguration#getProjectsByAdminFlight()}); результат не кэшируется</p>
+     */
     @Override
     public CompletableFuture<List<ProjectDto>> getByAdminIdAsync(UUID adminId) throws SQLException, NoProjectsFoundException, NullPointerException {
         Objects.requireNonNull(adminId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
+        return CacheConfiguration.getProjectsByAdminFlight()
+                .execute(adminId, () -> inUnitOfWork(service -> service.getByAdminId(adminId)));
+    }
+    private CompletableFuture<List<ProjectDto>> getByAdminId(UUID adminId) throws SQLException {
         CompletableFuture<List<Project>> projectsFuture = projectRepository.findByAdminIdAsync(adminId);
         var projectIds = getProjectIds(projectsFuture);
         var projectUsersFuture = projectIds
@@ -138,6 +198,10 @@ public class ProjectsService implements ProjectService {
         Objects.requireNonNull(userId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         Objects.requireNonNull(projectId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
+        return inUnitOfWork(service -> service.addUserToProject(userId, projectId))
+                .whenComplete((project, error) -> CacheInvalidation.projectChanged(projectId, userId));
+    }
+    private CompletableFuture<ProjectDto> addUserToProject(UUID userId, UUID projectId) throws SQLException {
         return projectRepository.findByIdAsync(projectId)
                 .thenCompose(project -> {
                     if (project == null) {
@@ -180,6 +244,10 @@ public class ProjectsService implements ProjectService {
         Objects.requireNonNull(userId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         Objects.requireNonNull(projectId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
+        return inUnitOfWork(service -> service.removeUserFromProject(userId, projectId))
+                .whenComplete((project, error) -> CacheInvalidation.projectChanged(projectId, userId));
+    }
+    private CompletableFuture<ProjectDto> removeUserFromProject(UUID userId, UUID projectId) throws SQLException {
         return projectRepository.findByIdAsync(projectId)
                 .thenCompose(project -> {
                     if (project == null) {
@@ -217,16 +285,114 @@ public class ProjectsService implements ProjectService {
                 });
     }
 
+    /**
+     * Добавить пользователей в проект
+     * <p>
+     *     Все связи вставляются одним пакетом в одной единице работы, затем один раз
+     *     загружается проект с итоговым составом участников: число запросов не зависит
+     *     от количества пользователей. Несуществующие пользователи, уже добавленные участники
+     *     и администратор проекта пропускаются запросом вставки, не прерывая пакет
+     * </p>
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code ProjectDto} с итоговым составом участников
+     */
+    @Override
+    public CompletableFuture<ProjectDto> addUsersToProjectAsync(UUID projectId, List<UUID> userIds) {
+        List<UUID> distinctIds = validateMembershipBatch(projectId, userIds);
+
+        return inUnitOfWork(service -> service.changeMembers(projectId, distinctIds,
+                service.projectUserRepository.addUsersToProjectAsync(projectId, distinctIds)))
+                .whenComplete((project, error) -> CacheInvalidation.projectChanged(projectId, distinctIds.toArray(new UUID[0])));
+    }
+
+    /**
+     * Удалить пользователей из проекта
+     * <p>
+     *     Все связи удаляются одним пакетом в одной единице работы,
+     *     затем один раз загружается проект с итоговым составом участников
+     * </p>
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code ProjectDto} с итоговым составом участников
+     */
+    @Override
+    public CompletableFuture<ProjectDto> removeUsersFromProjectAsync(UUID projectId, List<UUID> userIds) {
+        List<UUID> distinctIds = validateMembershipBatch(projectId, userIds);
+
+        return inUnitOfWork(service -> service.changeMembers(projectId, distinctIds,
+                service.projectUserRepository.deleteUsersFromProjectAsync(projectId, distinctIds)))
+                .whenComplete((project, error) -> CacheInvalidation.projectChanged(projectId, distinctIds.toArray(new UUID[0])));
+    }
+    private CompletableFuture<ProjectDto> changeMembers(UUID projectId, List<UUID> userIds, CompletableFuture<Integer> change) {
+        return change
+                .thenCompose(changed -> {
+                    logger.info(String.format("Service: changeMembers: project %s, changed rows: %d", projectId, changed));
+                    try {
+                        return projectRepository.findByIdAsync(projectId);
+                    }
+                    catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenApply(project -> {
+                    if (project == null) {
+                        throw new ProjectNotFoundException(StaticConstants.PROJECT_NOT_FOUND_EXCEPTION_MESSAGE);
+                    }
+                    return ProjectMapper.toDto(project);
+                });
+    }
+    private static List<UUID> validateMembershipBatch(UUID projectId, List<UUID> userIds) {
+        Objects.requireNonNull(projectId, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        Objects.requireNonNull(userIds, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        if (userIds.isEmpty() || userIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(StaticConstants.ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE);
+        }
+        return userIds.stream().distinct().toList();
+    }
+
     @Override
     public CompletableFuture<ProjectDto> createAsync(Project project) throws SQLException, DatabaseOperationException, NullPointerException,  RuntimeException {
         Objects.requireNonNull(project, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-        return projectRepository.createAsync(project)
-                .thenApply(ProjectMapper::toDto);
+        return inUnitOfWork(service -> service.projectRepository.createAsync(project)
+                .thenApply(ProjectMapper::toDto))
+                .whenComplete((created, error) -> CacheInvalidation.projectCreated(created));
     }
 
+    /**
+     * Проект по {@code id} через кэш {@link CacheConfiguration#getProjectCache()}
+     * <p>Одновременные промахи по одному {@code id} выполняют одну загрузку</p>
+     */
     @Override
     public CompletableFuture<ProjectDto> getByIdAsync(UUID id) throws SQLException, RuntimeException, ProjectNotFoundException {
+        return getVersionedByIdAsync(id, null).thenApply(VersionedDto::getBody);
+    }
+
+    /**
+     * Проект с версией через кэш {@link CacheConfiguration#getProjectCache()}
+     * <p>Версия и проект читаются в одной единице работы (версия - первой) и кэшируются вместе,
+     * поэтому валидаторы ответа соответствуют отданному телу.
+     * Закэшированный проект старше {@code current} загружается заново</p>
+     */
+    @Override
+    public CompletableFuture<VersionedDto<ProjectDto>> getVersionedByIdAsync(UUID id, VersionDto current) {
+        Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        return CacheConfiguration.getProjectCache().get(id,
+                () -> inUnitOfWork(service -> service.getVersionedById(id)),
+                cached -> cached.isOlderThan(current));
+    }
+    private CompletableFuture<VersionedDto<ProjectDto>> getVersionedById(UUID id) throws SQLException {
+        return projectRepository.findVersionByIdAsync(id)
+                .thenCompose(version -> {
+                    try {
+                        return getById(id).thenApply(project -> new VersionedDto<>(project, version));
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+    private CompletableFuture<ProjectDto> getById(UUID id) throws SQLException {
         return projectRepository.findByIdAsync(id)
                 .thenCompose(project -> {
                     if (project == null) {
@@ -236,23 +402,38 @@ public class ProjectsService implements ProjectService {
                     });
     }
 
+    /**
+     * Версия проекта для условного GET
+     * <p>Один запрос вне единицы работы: транзакция на одно чтение не нужна</p>
+     *
+     * @param id идентификатор проекта
+     * @return {@code VersionDto} или {@code null}, если проект не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> getVersionAsync(UUID id) {
+        Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        return projectRepository.findVersionByIdAsync(id);
+    }
+
     @Override
     public CompletableFuture<Boolean> deleteByIdAsync(UUID id) throws SQLException, NullPointerException {
         Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-        return projectRepository.deleteAsync(id);
+        return inUnitOfWork(service -> service.projectRepository.deleteAsync(id))
+                .whenComplete((deleted, error) -> CacheInvalidation.projectChanged(id));
     }
 
     @Override
     public CompletableFuture<ProjectDto> updateByIdAsync(ProjectDto projectDto) throws SQLException, NullPointerException {
         Objects.requireNonNull(projectDto, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-        return projectRepository.updateAsync(ProjectMapper.mapToEntity(projectDto, List.of()))
+        return inUnitOfWork(service -> service.projectRepository.updateAsync(ProjectMapper.mapToEntity(projectDto, List.of()))
                 .thenApply(updatedProject -> {
                     if (updatedProject == null) {
                         throw new ProjectNotFoundException(StaticConstants.PROJECT_NOT_FOUND_EXCEPTION_MESSAGE);
                     }
                     return ProjectMapper.toDto(updatedProject);
-                });
+                }))
+                .whenComplete((updated, error) -> CacheInvalidation.projectChanged(projectDto.getId()));
     }
 }
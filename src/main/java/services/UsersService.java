@@ -1,14 +1,24 @@
 package services;
 
+import configurations.CacheConfiguration;
+import configurations.UnitOfWork;
+import models.dtos.BulkResultDto;
+import models.dtos.BulkRowResultDto;
+import models.dtos.PageDto;
 import models.dtos.ProjectDto;
 import models.dtos.ProjectUsersDto;
 import models.dtos.UserDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.Project;
 import models.entities.User;
+import models.enums.BulkRowStatus;
 import org.slf4j.Logger;
 import repositories.ProjectRepository;
 import repositories.UsersRepository;
+import repositories.interfaces.EntityCursor;
 import repositories.interfaces.UserRepository;
+import services.caches.CacheInvalidation;
 import services.interfaces.UserService;
 import utils.StaticConstants;
 import utils.exceptions.*;
@@ -19,7 +29,6 @@ import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -39,6 +48,9 @@ public class UsersService implements UserService {
     private final repositories.interfaces.ProjectUserRepository projectUserRepository;
     private final Logger logger;
 
+    private static final Comparator<ProjectDto> BY_CREATED_AT =
+            Comparator.comparing(ProjectDto::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
     public UsersService() {
         this.userRepository = new UsersRepository();
         this.projectsRepository = new ProjectRepository();
@@ -53,9 +65,65 @@ public class UsersService implements UserService {
         this.projectUserRepository = new repositories.ProjectUsersRepositoryImpl();
     }
 
+    public UsersService(UserRepository userRepository,
+                        repositories.interfaces.ProjectRepository projectsRepository,
+                        repositories.interfaces.ProjectUserRepository projectUserRepository) {
+        this.userRepository = userRepository;
+        this.projectsRepository = projectsRepository;
+        this.projectUserRepository = projectUserRepository;
+        logger = org.slf4j.LoggerFactory.getLogger(UsersService.class);
+    }
+
+    /**
+     * Выполнить операцию сервиса в единице работы
+     * <p>Все запросы операции идут через одно соединение в одной транзакции;
+     * транзакция фиксируется при успехе и откатывается при ошибке</p>
+     *
+     * @param operation операция над сервисом, привязанным к единице работы
+     * @return {@code CompletableFuture<T>}
+     * @see UnitOfWork
+     */
+    private <T> CompletableFuture<T> inUnitOfWork(UnitOfWork.Work<UsersService, T> operation) {
+        return UnitOfWork.execute(unitOfWork -> operation.apply(new UsersService(
+                userRepository.within(unitOfWork),
+                projectsRepository.within(unitOfWork),
+                projectUserRepository.within(unitOfWork))));
+    }
+
+    /**
+     * Пользователь по {@code id} через кэш {@link CacheConfiguration#getUserCache()}
+     * <p>Одновременные промахи по одному {@code id} выполняют одну загрузку</p>
+     */
     @Override
     public CompletableFuture<UserDto> getByIdAsync(UUID id) throws NullPointerException, UserNotFoundException, DatabaseOperationException, ResultSetMappingException, SQLException  {
+        return getVersionedByIdAsync(id, null).thenApply(VersionedDto::getBody);
+    }
+
+    /**
+     * Пользователь с версией через кэш {@link CacheConfiguration#getUserCache()}
+     * <p>Версия и пользователь читаются в одной единице работы (версия - первой) и кэшируются вместе,
+     * поэтому валидаторы ответа соответствуют отданному телу.
+     * Закэшированный пользователь старше {@code current} (уведомление об изменении ещё не дошло)
+     * загружается заново</p>
+     */
+    @Override
+    public CompletableFuture<VersionedDto<UserDto>> getVersionedByIdAsync(UUID id, VersionDto current) {
         Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        return CacheConfiguration.getUserCache().get(id,
+                () -> inUnitOfWork(service -> service.getVersionedById(id)),
+                cached -> cached.isOlderThan(current));
+    }
+    private CompletableFuture<VersionedDto<UserDto>> getVersionedById(UUID id) throws SQLException {
+        return userRepository.findVersionByIdAsync(id)
+                .thenCompose(version -> {
+                    try {
+                        return getById(id).thenApply(user -> new VersionedDto<>(user, version));
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+    private CompletableFuture<UserDto> getById(UUID id) throws SQLException {
         return userRepository.findByIdAsync(id)
                 .thenCompose(user -> {
                     if (user == null) {
@@ -72,6 +140,19 @@ public class UsersService implements UserService {
                 });
     }
 
+    /**
+     * Версия пользователя для условного GET
+     * <p>Один запрос вне единицы работы: транзакция на одно чтение не нужна</p>
+     *
+     * @param id идентификатор пользователя
+     * @return {@code VersionDto} или {@code null}, если пользователь не найден
+     */
+    @Override
+    public CompletableFuture<VersionDto> getVersionAsync(UUID id) {
+        Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        return userRepository.findVersionByIdAsync(id);
+    }
+
     /**
      * Метод для создания нового пользователя
      * @param user
@@ -81,19 +162,131 @@ public class UsersService implements UserService {
     public CompletableFuture<UserDto> createAsync(User user) throws DatabaseOperationException, NullPointerException, CompletionException, UserAlreadyExistException, SQLException {
         Objects.requireNonNull(user, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-        return userRepository.createAsync(user).thenApply(UserMapper::toDto);
+        return inUnitOfWork(service -> service.userRepository.createAsync(user).thenApply(UserMapper::toDto));
+    }
+
+    /**
+     * Пакетное создание пользователей
+     * <p>
+     *     Строки без {@code userName} / {@code email} / {@code password}
+     *     и повторы логина или email внутри запроса отклоняются до обращения к БД.
+     *     Остальные строки вставляются пакетами в одной единице работы;
+     *     строки, конфликтующие с существующими пользователями, БД пропускает,
+     *     а поле конфликта определяется одним запросом по их логинам и email
+     * </p>
+     * @param users пользователи в порядке тела запроса
+     * @return {@code BulkResultDto} с результатом каждой строки
+     */
+    @Override
+    public CompletableFuture<BulkResultDto> createBulkAsync(List<User> users) {
+        Objects.requireNonNull(users, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        BulkRowResultDto[] rows = new BulkRowResultDto[users.size()];
+        List<Integer> accepted = validateBulkRows(users, rows);
+        if (accepted.isEmpty()) {
+            return CompletableFuture.completedFuture(new BulkResultDto(Arrays.asList(rows)));
+        }
+        return inUnitOfWork(service -> service.createBulk(users, accepted, rows))
+                .thenApply(ignored -> new BulkResultDto(Arrays.asList(rows)));
+    }
+    private CompletableFuture<Void> createBulk(List<User> users, List<Integer> accepted, BulkRowResultDto[] rows) {
+        List<User> candidates = accepted.stream().map(users::get).toList();
+
+        return userRepository.createBatchAsync(candidates)
+                .thenCompose(ids -> {
+                    List<Integer> skipped = new ArrayList<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        int index = accepted.get(i);
+                        if (ids.get(i) != null) {
+                            rows[index] = BulkRowResultDto.created(index, ids.get(i));
+                        }
+                        else {
+                            skipped.add(index);
+                        }
+                    }
+                    if (skipped.isEmpty()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    return userRepository.findByUserNamesOrEmailsAsync(
+                                    skipped.stream().map(index -> users.get(index).getUserName()).toList(),
+                                    skipped.stream().map(index -> users.get(index).getEmail()).toList())
+                            .thenAccept(existing -> skipped.forEach(index ->
+                                    rows[index] = conflictRow(index, users.get(index), existing)));
+                });
+    }
+
+    /**
+     * Отклонить строки, которые нельзя отправлять в БД
+     *
+     * @param users строки запроса
+     * @param rows результаты строк; заполняются для отклонённых
+     * @return позиции строк, допущенных к вставке
+     */
+    static List<Integer> validateBulkRows(List<User> users, BulkRowResultDto[] rows) {
+        Set<String> userNames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int index = 0; index < users.size(); index++) {
+            User user = users.get(index);
+            String missing = user == null ? "user"
+                    : isBlank(user.getUserName()) ? "userName"
+                    : isBlank(user.getEmail()) ? "email"
+                    : isBlank(user.getPassword()) ? "password"
+                    : null;
+
+            if (missing != null) {
+                rows[index] = BulkRowResultDto.rejected(index, BulkRowStatus.INVALID, missing, StaticConstants.REQUIRED_FIELD_IS_MISSING_MESSAGE);
+            }
+            else if (userNames.contains(user.getUserName())) {
+                rows[index] = BulkRowResultDto.rejected(index, BulkRowStatus.CONFLICT, "userName", StaticConstants.DUPLICATE_VALUE_IN_REQUEST_MESSAGE);
+            }
+            else if (emails.contains(user.getEmail())) {
+                rows[index] = BulkRowResultDto.rejected(index, BulkRowStatus.CONFLICT, "email", StaticConstants.DUPLICATE_VALUE_IN_REQUEST_MESSAGE);
+            }
+            else {
+                userNames.add(user.getUserName());
+                emails.add(user.getEmail());
+                accepted.add(index);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Результат строки, пропущенной БД из-за конфликта уникальности
+     *
+     * @param index позиция строки
+     * @param user строка запроса
+     * @param existing существующие пользователи с теми же логинами / email
+     * @return {@code BulkRowResultDto} со статусом {@code CONFLICT}
+     */
+    static BulkRowResultDto conflictRow(int index, User user, List<User> existing) {
+        String field = existing.stream().anyMatch(e -> user.getUserName().equals(e.getUserName())) ? "userName"
+                : existing.stream().anyMatch(e -> user.getEmail().equals(e.getEmail())) ? "email"
+                : null;
+
+        return BulkRowResultDto.rejected(index, BulkRowStatus.CONFLICT, field, StaticConstants.USER_ALREADY_EXISTS_EXCEPTION_MESSAGE);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     @Override
     public CompletableFuture<Boolean> deleteByIdAsync(UUID id)throws SQLException, DatabaseOperationException, NullPointerException, UserNotFoundException, CompletionException {
         Objects.requireNonNull(id, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
-        return userRepository.deleteAsync(id);
+        return inUnitOfWork(service -> service.userRepository.deleteAsync(id))
+                .whenComplete((deleted, error) -> CacheInvalidation.userDeleted(id));
     }
 
     @Override
     public CompletableFuture<List<UserDto>> getAllAsync() throws SQLException, DatabaseOperationException, CompletionException, NoUsersFoundException, ResultSetMappingException {
 
+        return inUnitOfWork(UsersService::getAll);
+    }
+    private CompletableFuture<List<UserDto>> getAll() throws SQLException {
         return userRepository.findAllAsync()
                 .thenCompose(users -> {
                     if(users.isEmpty()) throw new NoUsersFoundException(StaticConstants.USERS_NOT_FOUND_EXCEPTION_MESSAGE);
@@ -108,23 +301,182 @@ public class UsersService implements UserService {
                 });
     }
 
-    private CompletableFuture<List<User>> combineProjectsWithUsers(List<User> users) throws SQLException, ExecutionException, InterruptedException {
+    /**
+     * Страница пользователей (keyset-пагинация по {@code id})
+     * <p>
+     *     Из БД читается {@code limit + 1} запись: лишняя запись означает,
+     *     что следующая страница есть, и курсором становится {@code id} последней записи страницы
+     * </p>
+     * @param after курсор предыдущей страницы или {@code null}
+     * @param limit размер страницы
+     * @return {@code PageDto<UserDto>}
+     */
+    @Override
+    public CompletableFuture<PageDto<UserDto>> getPageAsync(UUID after, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException(StaticConstants.ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE);
+        }
+        return inUnitOfWork(service -> service.getPage(after, limit));
+    }
+    private CompletableFuture<PageDto<UserDto>> getPage(UUID after, int limit) {
+        return userRepository.findPageAsync(after, limit + 1)
+                .thenCompose(users -> {
+                    boolean hasNext = users.size() > limit;
+                    List<User> page = hasNext ? users.subList(0, limit) : users;
+                    UUID next = hasNext ? page.get(page.size() - 1).getId() : null;
+
+                    if (page.isEmpty()) {
+                        return CompletableFuture.completedFuture(new PageDto<UserDto>(List.of(), null));
+                    }
+                    try {
+                        return combineProjectsWithUsers(page)
+                                .thenApply(combined -> new PageDto<>(
+                                        combined.stream().map(UserMapper::toDto).toList(), next));
+                    }
+                    catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Передача всех пользователей порциями через курсор БД
+     * <p>
+     *     Каждая порция дополняется проектами и передаётся в {@code sink};
+     *     следующая порция читается только после завершения {@code CompletableFuture} от {@code sink},
+     *     поэтому в памяти находится не больше одной порции.
+     *     Курсор и соединение единицы работы заняты на всё время передачи
+     * </p>
+     * @param batchSize размер порции ({@code setFetchSize})
+     * @param sink получатель порции
+     * @return количество переданных пользователей
+     */
+    @Override
+    public CompletableFuture<Long> streamAllAsync(int batchSize, Function<List<UserDto>, CompletableFuture<Void>> sink) throws SQLException {
+        Objects.requireNonNull(sink, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(StaticConstants.ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE);
+        }
+        return inUnitOfWork(service -> service.userRepository.openCursorAsync(batchSize)
+                .thenCompose(cursor -> service.streamBatches(cursor, sink, 0L)
+                        .whenComplete((count, error) -> cursor.close())));
+    }
+    private CompletableFuture<Long> streamBatches(EntityCursor<User> cursor,
+                                                  Function<List<UserDto>, CompletableFuture<Void>> sink,
+                                                  long streamed) {
+        return cursor.nextBatchAsync()
+                .thenCompose(users -> {
+                    if (users.isEmpty()) {
+                        return CompletableFuture.completedFuture(streamed);
+                    }
+                    try {
+                        return combineProjectsWithUsers(users)
+                                .thenCompose(combined -> sink.apply(combined.stream().map(UserMapper::toDto).toList()))
+                                .thenCompose(ignored -> streamBatches(cursor, sink, streamed + users.size()));
+                    }
+                    catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Передача всех пользователей порциями готового Json, собранного в БД
+     * <p>
+     *     Альтернатива {@link #streamAllAsync}: пользователи, их проекты и участники проектов
+     *     читаются одним запросом ({@code json_agg}) без композиции в Java,
+     *     строки курсора передаются в {@code sink} без маппинга и сериализации.
+     *     Один запрос видит согласованный снимок данных, поэтому единица работы не нужна.
+     *     Json совпадает с сериализацией {@code UserDto} из {@link #streamAllAsync},
+     *     включая порядок проектов и {@code projectUsersIds}
+     * </p>
+     * @param batchSize размер порции ({@code setFetchSize})
+     * @param sink получатель порции Json-объектов {@code UserDto}
+     * @return количество переданных пользователей
+     */
+    @Override
+    public CompletableFuture<Long> streamAllJsonAsync(int batchSize, Function<List<String>, CompletableFuture<Void>> sink) throws SQLException {
+        Objects.requireNonNull(sink, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(StaticConstants.ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE);
+        }
+        return userRepository.openAggregatedCursorAsync(batchSize)
+                .thenCompose(cursor -> streamJsonBatches(cursor, sink, 0L)
+                        .whenComplete((count, error) -> cursor.close()));
+    }
+    private CompletableFuture<Long> streamJsonBatches(EntityCursor<String> cursor,
+                                                      Function<List<String>, CompletableFuture<Void>> sink,
+                                                      long streamed) {
+        return cursor.nextBatchAsync()
+                .thenCompose(users -> users.isEmpty()
+                        ? CompletableFuture.completedFuture(streamed)
+                        : sink.apply(users).thenCompose(ignored -> streamJsonBatches(cursor, sink, streamed + users.size())));
+    }
+
+    /**
+     * Составление композиции пользователей с их проектами
+     * <p>
+     *     Запросы к репозиториям объединяются через {@code CompletableFuture.allOf},
+     *     без блокирующих {@code get()}: метод вызывается из цепочек {@code thenCompose},
+     *     то есть в потоке ограниченного пула репозиториев.
+     *     Результат совпадает с {@link #streamAllJsonAsync}: сначала проекты, где пользователь администратор,
+     *     затем проекты, где он участник, каждая группа по {@code createdAt};
+     *     {@code projectUsersIds} - участники проекта в порядке добавления
+     * </p>
+     */
+    private CompletableFuture<List<User>> combineProjectsWithUsers(List<User> users) throws SQLException {
 
         List<UUID> userIds = users.stream().map(User::getId).toList();
-        Map<UUID, List<ProjectDto>> adminProjectsMap = getAdminProjectsMap(userIds);
-        Map<UUID, List<ProjectUsersDto>> userProjectsMap = getUserProjectsMap (userIds );
-        List<UUID> allProjectIds = !userProjectsMap.isEmpty() ? getProjectIds(userProjectsMap) : new ArrayList<>();
-        Map<UUID, ProjectDto> projectsMap = !allProjectIds.isEmpty() ?  projectsMap (allProjectIds ) : new HashMap<>();
+        CompletableFuture<Map<UUID, List<ProjectDto>>> adminProjectsMapFuture = getAdminProjectsMap(userIds);
+        CompletableFuture<Map<UUID, List<ProjectUsersDto>>> userProjectsMapFuture = getUserProjectsMap(userIds);
+        CompletableFuture<Map<UUID, ProjectDto>> projectsMapFuture = userProjectsMapFuture
+                .thenCompose(userProjectsMap -> {
+                    List<UUID> allProjectIds = !userProjectsMap.isEmpty() ? getProjectIds(userProjectsMap) : new ArrayList<>();
+                    if (allProjectIds.isEmpty()) {
+                        return CompletableFuture.completedFuture(new HashMap<>());
+                    }
+                    try {
+                        return projectsMap(allProjectIds);
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+        CompletableFuture<Map<UUID, List<UUID>>> projectMembersMapFuture = adminProjectsMapFuture
+                .thenCombine(userProjectsMapFuture, (adminProjectsMap, userProjectsMap) -> {
+                    List<UUID> allProjectIds = new ArrayList<>();
+                    adminProjectsMap.values().forEach(projects -> projects.forEach(project -> allProjectIds.add(project.getId())));
+                    allProjectIds.addAll(getProjectIds(userProjectsMap));
+                    return allProjectIds.stream().distinct().toList();
+                })
+                .thenCompose(allProjectIds -> {
+                    if (allProjectIds.isEmpty()) {
+                        return CompletableFuture.completedFuture(Map.of());
+                    }
+                    try {
+                        return getProjectMembersMap(allProjectIds);
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
 
         return CompletableFuture
-                .supplyAsync(() -> {
+                .allOf(adminProjectsMapFuture, userProjectsMapFuture, projectsMapFuture, projectMembersMapFuture)
+                .thenApply(v -> {
+                    Map<UUID, List<ProjectDto>> adminProjectsMap = adminProjectsMapFuture.join();
+                    Map<UUID, List<ProjectUsersDto>> userProjectsMap = userProjectsMapFuture.join();
+                    Map<UUID, ProjectDto> projectsMap = projectsMapFuture.join();
+                    Map<UUID, List<UUID>> projectMembersMap = projectMembersMapFuture.join();
+
                     return users.stream()
                             .map(user -> {
                                 List<ProjectDto> userProjects = new ArrayList<>();
 
                                 if(adminProjectsMap.size() > 0)
                                 {
-                                    userProjects.addAll(adminProjectsMap.getOrDefault(user.getId(), List.of()));
+                                    userProjects.addAll(adminProjectsMap.getOrDefault(user.getId(), List.of())
+                                            .stream()
+                                            .sorted(BY_CREATED_AT)
+                                            .toList());
                                 }
                                 if (userProjectsMap.size() > 0) {
                                     userProjects.addAll(
@@ -132,9 +484,12 @@ public class UsersService implements UserService {
                                                     .stream()
                                                     .map(pu -> projectsMap.get(pu.getProjectId()))
                                                     .filter(Objects::nonNull)
+                                                    .sorted(BY_CREATED_AT)
                                                     .toList()
                                     );
                                 }
+                                userProjects.forEach(project -> project.setProjectUsersIds(
+                                        projectMembersMap.getOrDefault(project.getId(), List.of())));
                                 if (!userProjects.isEmpty()) {
                                     user.setProjects(userProjects);
                                 }
@@ -145,11 +500,25 @@ public class UsersService implements UserService {
                 });
     }
 
-    Map<UUID, List<ProjectUsersDto>> getUserProjectsMap (List<UUID> userIds) throws SQLException, ExecutionException, InterruptedException {
+    CompletableFuture<Map<UUID, List<ProjectUsersDto>>> getUserProjectsMap (List<UUID> userIds) throws SQLException {
 
-        return projectUserRepository.findByUserIdsAsync(userIds).get()
-                .stream()
-                .collect(Collectors.groupingBy(ProjectUsersDto::getUserId));
+        return projectUserRepository.findByUserIdsAsync(userIds)
+                .thenApply(projectUsers -> projectUsers
+                        .stream()
+                        .collect(Collectors.groupingBy(ProjectUsersDto::getUserId)));
+    }
+
+    /**
+     * Участники проектов в порядке добавления ({@code project_users.created_at})
+     */
+    CompletableFuture<Map<UUID, List<UUID>>> getProjectMembersMap (List<UUID> projectIds) throws SQLException {
+
+        return projectUserRepository.findByProjectIdsAsync(projectIds)
+                .thenApply(projectUsers -> projectUsers
+                        .stream()
+                        .collect(Collectors.groupingBy(
+                                ProjectUsersDto::getProjectId,
+                                Collectors.mapping(ProjectUsersDto::getUserId, Collectors.toList()))));
     }
 
     List<UUID> getProjectIds (Map<UUID, List<ProjectUsersDto>> userProjectsMap) {
@@ -162,49 +531,60 @@ public class UsersService implements UserService {
                 .toList();
     }
 
-    Map<UUID, ProjectDto> projectsMap (List<UUID> projectIds ) throws SQLException, ExecutionException, InterruptedException {
+    CompletableFuture<Map<UUID, ProjectDto>> projectsMap (List<UUID> projectIds ) throws SQLException {
         return findProjectDtos(projectIds)
-                .stream()
-                .collect(Collectors.toMap(ProjectDto::getId, Function.identity()));
+                .thenApply(projectDtos -> projectDtos
+                        .stream()
+                        .collect(Collectors.toMap(ProjectDto::getId, Function.identity())));
     }
-    private List<ProjectDto> findProjectDtos(List<UUID> projectIds) throws SQLException, ExecutionException, InterruptedException {
+    private CompletableFuture<List<ProjectDto>> findProjectDtos(List<UUID> projectIds) throws SQLException {
 
-        var projects = projectsRepository.findByProjectIdsAsync(projectIds).get();
-
-        if(!projects.isEmpty()) {
-            return projects.stream().map(ProjectMapper::toDto).toList();
-        }
-        return List.of();
+        return projectsRepository.findByProjectIdsAsync(projectIds)
+                .thenApply(projects -> {
+                    if(!projects.isEmpty()) {
+                        return projects.stream().map(ProjectMapper::toDto).toList();
+                    }
+                    return List.<ProjectDto>of();
+                });
     }
 
-    Map<UUID, List<ProjectDto>> getAdminProjectsMap (List<UUID> userIds) throws SQLException, ExecutionException, InterruptedException {
+    CompletableFuture<Map<UUID, List<ProjectDto>>> getAdminProjectsMap (List<UUID> userIds) throws SQLException {
 
-        Map<UUID, List<ProjectDto>> adminProjectMap = findAllProjectsByAdminIds(userIds)
-                .stream()
-                .collect(Collectors.groupingBy(ProjectDto::getAdminId));
+        return findAllProjectsByAdminIds(userIds)
+                .thenApply(projectDtos -> {
+                    Map<UUID, List<ProjectDto>> adminProjectMap = projectDtos
+                            .stream()
+                            .collect(Collectors.groupingBy(ProjectDto::getAdminId));
 
-        if(adminProjectMap.isEmpty()) {
-            return Map.of();
-        }
-        else {
-            return adminProjectMap;
-        }
+                    if(adminProjectMap.isEmpty()) {
+                        return Map.of();
+                    }
+                    else {
+                        return adminProjectMap;
+                    }
+                });
     }
 
-    private List<ProjectDto> findAllProjectsByAdminIds(List<UUID> adminIds) throws SQLException, ExecutionException, InterruptedException {
+    private CompletableFuture<List<ProjectDto>> findAllProjectsByAdminIds(List<UUID> adminIds) throws SQLException {
         Objects.requireNonNull(adminIds, "AdminIds cannot be null");
 
-        var projectsByAdminIdsOptional = projectsRepository.findByAdminIdsAsync(adminIds).get();
-        if(projectsByAdminIdsOptional.size() > 0) {
-            return projectsByAdminIdsOptional.stream().map(ProjectMapper::toDto).toList();
-        }
-        return List.of();
+        return projectsRepository.findByAdminIdsAsync(adminIds)
+                .thenApply(projectsByAdminIds -> {
+                    if(projectsByAdminIds.size() > 0) {
+                        return projectsByAdminIds.stream().map(ProjectMapper::toDto).toList();
+                    }
+                    return List.<ProjectDto>of();
+                });
     }
 
     @Override
     public CompletableFuture<UserDto> updateByIdAsync(UserDto userDto) throws SQLException {
         Objects.requireNonNull(userDto, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
 
+        return inUnitOfWork(service -> service.updateById(userDto))
+                .whenComplete((updated, error) -> CacheInvalidation.userUpdated(userDto.getId()));
+    }
+    private CompletableFuture<UserDto> updateById(UserDto userDto) throws SQLException {
         return userRepository.updateAsync(UserMapper.mapToEntity(userDto))
                 .thenCompose(updatedUser -> {
                     if (updatedUser == null) {
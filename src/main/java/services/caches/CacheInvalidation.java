@@ -0,0 +1,100 @@
+package services.caches;
+
+import configurations.CacheConfiguration;
+import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Правила инвалидации кэшей DTO после записи в БД
+ * <p>{@code UserDto} содержит DTO проектов пользователя (как администратора и как участника)
+ * со списками участников, {@code ProjectDto} - {@code id} администратора и участников.
+ * Поэтому изменение проекта затрагивает всех пользователей, в DTO которых он есть,
+ * а удаление пользователя - проекты и пользователей, в DTO которых он упоминается</p>
+ *
+ * @see CacheConfiguration
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CacheInvalidation {
+
+    /**
+     * Изменены поля пользователя; DTO проектов содержат только его {@code id}
+     *
+     * @param userId идентификатор пользователя
+     */
+    public static void userUpdated(UUID userId) {
+        CacheConfiguration.getUserCache().invalidate(userId);
+    }
+
+    /**
+     * Пользователь удалён вместе с его проектами и участием в чужих проектах
+     *
+     * @param userId идентификатор пользователя
+     */
+    public static void userDeleted(UUID userId) {
+        CacheConfiguration.getUserCache().invalidate(userId);
+        CacheConfiguration.getProjectCache().invalidateIf(project -> references(project.getBody(), userId));
+        CacheConfiguration.getUserCache().invalidateIf(user -> projects(user.getBody()).stream()
+                .anyMatch(project -> references(project, userId)));
+        forgetFlights();
+    }
+
+    /**
+     * Проект создан: он появляется в DTO администратора
+     *
+     * @param project созданный проект
+     */
+    public static void projectCreated(ProjectDto project) {
+        if (project != null) {
+            CacheConfiguration.getUserCache().invalidate(project.getAdminId());
+        }
+        forgetFlights();
+    }
+
+    /**
+     * Проект изменён или удалён, либо изменён состав его участников
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds пользователи, чьё участие изменилось и в DTO которых проекта могло не быть
+     */
+    public static void projectChanged(UUID projectId, UUID... userIds) {
+        CacheConfiguration.getUserCache().invalidateAll(Arrays.asList(userIds));
+        forgetFlights();
+        if (projectId == null) {
+            return;
+        }
+        CacheConfiguration.getProjectCache().invalidate(projectId);
+        CacheConfiguration.getUserCache().invalidateIf(user -> projects(user.getBody()).stream()
+                .anyMatch(project -> projectId.equals(project.getId())));
+    }
+
+    /**
+     * Очистить все кэши: уведомления об изменениях могли быть потеряны
+     */
+    public static void invalidateAll() {
+        CacheConfiguration.getUserCache().invalidateAll();
+        CacheConfiguration.getProjectCache().invalidateAll();
+        forgetFlights();
+    }
+
+    /**
+     * Выполняемые загрузки списков проектов могли прочитать данные до записи
+     */
+    private static void forgetFlights() {
+        CacheConfiguration.getProjectsByAdminFlight().forgetAll();
+        CacheConfiguration.getProjectsByUserFlight().forgetAll();
+    }
+
+    private static boolean references(ProjectDto project, UUID userId) {
+        return userId.equals(project.getAdminId())
+                || project.getProjectUsersIds() != null && project.getProjectUsersIds().contains(userId);
+    }
+
+    private static List<ProjectDto> projects(UserDto user) {
+        return user.getProjects() != null ? user.getProjects() : List.of();
+    }
+}
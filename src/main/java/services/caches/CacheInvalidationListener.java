@@ -0,0 +1,185 @@
+package services.caches;
+
+import configurations.DataSourceConfiguration;
+import configurations.PropertiesConfiguration;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Слушатель межузловой инвалидации кэшей
+ * <p>Триггеры таблиц (schema.sql) после фиксации изменения отправляют {@code pg_notify}
+ * в канал {@value #CHANNEL} с полезной нагрузкой {@code <таблица>,<операция>,<id>[,<связанный id>]}.
+ * Слушатель держит отдельное соединение pgjdbc (вне пула), выполняет {@code LISTEN}
+ * и в фоновом потоке применяет уведомления к локальным кэшам через {@link CacheInvalidation},
+ * поэтому запись на любом узле удаляет устаревшие записи на всех.</p>
+ * <p>Уведомления, отправленные пока соединения нет, теряются:
+ * при ошибке соединения и при каждом переподключении кэши очищаются полностью</p>
+ *
+ * @see configurations.ApplicationContextListener
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CacheInvalidationListener implements AutoCloseable {
+
+    public static final String CHANNEL = "servlets_cache_invalidation";
+
+    static Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private static final LongAdder received = new LongAdder();
+    private static final LongAdder reconnects = new LongAdder();
+    private static volatile boolean connected;
+
+    private final int pollTimeoutMillis = PropertiesConfiguration.getIntSetting(
+            "CACHE_INVALIDATION_POLL_TIMEOUT_MS", "cache.invalidation.poll-timeout-ms", 1000);
+    private final long reconnectDelayMillis = PropertiesConfiguration.getLongSetting(
+            "CACHE_INVALIDATION_RECONNECT_DELAY_MS", "cache.invalidation.reconnect-delay-ms", 5000);
+
+    private final Thread thread;
+    private volatile boolean running;
+
+    public CacheInvalidationListener() {
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Включена ли инвалидация через {@code LISTEN / NOTIFY}
+     *
+     * @return {@code cache.invalidation.enabled}
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+                "CACHE_INVALIDATION_ENABLED", "cache.invalidation.enabled", "true"));
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info(String.format("Слушатель инвалидации кэшей запущен: канал %s", CHANNEL));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(pollTimeoutMillis + 1000L);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DataSourceConfiguration.openDedicatedConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                connected = true;
+                CacheInvalidation.invalidateAll();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        received.increment();
+                        dispatch(notification.getParameter());
+                    }
+                }
+            }
+            catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.error(String.format("Соединение слушателя инвалидации кэшей потеряно: %s", e.getMessage()));
+            }
+            finally {
+                if (connected) {
+                    connected = false;
+                    CacheInvalidation.invalidateAll();
+                }
+            }
+            if (running) {
+                reconnects.increment();
+                sleepBeforeReconnect();
+            }
+        }
+        logger.info("Слушатель инвалидации кэшей остановлен");
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(reconnectDelayMillis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Применить уведомление к локальным кэшам
+     *
+     * @param payload {@code <таблица>,<операция>,<id>[,<связанный id>]};
+     *                {@code all,<операция>} после импорта очищает кэши полностью
+     */
+    static void dispatch(String payload) {
+        String[] parts = payload == null ? new String[0] : payload.split(",");
+        if (parts.length > 0 && "all".equals(parts[0])) {
+            CacheInvalidation.invalidateAll();
+            return;
+        }
+        if (parts.length < 3) {
+            logger.warn(String.format("Некорректное уведомление инвалидации: %s", payload));
+            return;
+        }
+        try {
+            UUID id = UUID.fromString(parts[2]);
+            UUID relatedId = parts.length > 3 ? UUID.fromString(parts[3]) : null;
+
+            switch (parts[0]) {
+                case "users" -> {
+                    if ("DELETE".equals(parts[1])) {
+                        CacheInvalidation.userDeleted(id);
+                    }
+                    else {
+                        CacheInvalidation.userUpdated(id);
+                    }
+                }
+                case "projects", "project_users" -> CacheInvalidation.projectChanged(id, relatedId);
+                default -> logger.warn(String.format("Уведомление инвалидации для неизвестной таблицы: %s", payload));
+            }
+        }
+        catch (IllegalArgumentException e) {
+            logger.warn(String.format("Некорректное уведомление инвалидации: %s", payload));
+        }
+    }
+
+    /**
+     * Снимок состояния слушателя для эндпойнта метрик
+     *
+     * @return {@code Map<String, Object>}
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("connected", connected);
+        snapshot.put("notificationsReceived", received.sum());
+        snapshot.put("reconnects", reconnects.sum());
+        return snapshot;
+    }
+}
@@ -0,0 +1,185 @@
+package services.caches;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш DTO по идентификатору со сквозным чтением (read-through)
+ * <p>В кэше хранятся {@code CompletableFuture} загрузки, а не готовые значения:
+ * одновременные промахи по одному {@code id} получают одну и ту же загрузку,
+ * поэтому в БД уходит один запрос. Ошибка загрузки (в т.ч. "не найден") не кэшируется.</p>
+ * <p>Размер ограничен {@code maximumSize}, время жизни записи - {@code ttl} с момента загрузки.
+ * Инвалидация вызывается после завершения записи в БД: загрузка, начатая раньше,
+ * удаляется вместе с записью и в кэше не остаётся</p>
+ *
+ * @param <V> тип DTO
+ * @see configurations.CacheConfiguration
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ReadThroughCache<V> {
+
+    private final String name;
+    private final boolean enabled;
+    private final Cache<UUID, CompletableFuture<V>> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    public ReadThroughCache(String name, boolean enabled, long maximumSize, Duration ttl) {
+        this.name = name;
+        this.enabled = enabled;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Получить значение из кэша или загрузить его
+     *
+     * @param id идентификатор
+     * @param loader загрузка из БД; вызывается не больше одного раза на промах
+     * @return {@code CompletableFuture<V>} - копия загрузки, её завершение вызывающим кэш не затрагивает
+     */
+    public CompletableFuture<V> get(UUID id, Supplier<CompletableFuture<V>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        boolean[] loaded = new boolean[1];
+        CompletableFuture<V> future;
+        try {
+            future = cache.get(id, () -> {
+                loaded[0] = true;
+                return loader.get();
+            });
+        }
+        catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            return CompletableFuture.failedFuture(e.getCause());
+        }
+
+        if (loaded[0]) {
+            CompletableFuture<V> loading = future;
+            loading.whenComplete((value, error) -> {
+                if (error != null) {
+                    cache.asMap().remove(id, loading);
+                }
+            });
+        }
+        return future.copy();
+    }
+
+    /**
+     * Получить значение из кэша или загрузить его; устаревшее значение загружается заново
+     * <p>Если закэшированное значение удовлетворяет {@code stale}, запись удаляется
+     * и выполняется одна повторная загрузка; её результат возвращается без повторной проверки</p>
+     *
+     * @param id идентификатор
+     * @param loader загрузка из БД
+     * @param stale условие устаревания значения
+     * @return {@code CompletableFuture<V>}
+     */
+    public CompletableFuture<V> get(UUID id, Supplier<CompletableFuture<V>> loader, Predicate<V> stale) {
+        return get(id, loader).thenCompose(value -> {
+            if (!enabled || !stale.test(value)) {
+                return CompletableFuture.completedFuture(value);
+            }
+            invalidate(id);
+            return get(id, loader);
+        });
+    }
+
+    /**
+     * Удалить запись
+     *
+     * @param id идентификатор
+     */
+    public void invalidate(UUID id) {
+        if (id != null) {
+            invalidations.increment();
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Удалить записи
+     *
+     * @param ids идентификаторы
+     */
+    public void invalidateAll(Collection<UUID> ids) {
+        if (ids != null) {
+            ids.forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Удалить все записи
+     */
+    public void invalidateAll() {
+        invalidations.add(cache.size());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Удалить записи, значение которых удовлетворяет условию
+     * <p>Незавершённые загрузки удаляются все: их результат мог быть прочитан
+     * до записи, вызвавшей инвалидацию</p>
+     *
+     * @param predicate условие по значению
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        cache.asMap().entrySet().removeIf(entry -> {
+            CompletableFuture<V> future = entry.getValue();
+            boolean stale = !future.isDone()
+                    || !future.isCompletedExceptionally() && predicate.test(future.getNow(null));
+            if (stale) {
+                invalidations.increment();
+            }
+            return stale;
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Снимок статистики кэша для эндпойнта метрик
+     *
+     * @return {@code Map<String, Object>}
+     */
+    public Map<String, Object> snapshot() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("size", cache.size());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("hitRate", stats.hitRate());
+        snapshot.put("evictions", stats.evictionCount());
+        snapshot.put("invalidations", invalidations.sum());
+        snapshot.put("loadFailures", stats.loadExceptionCount());
+        return snapshot;
+    }
+}
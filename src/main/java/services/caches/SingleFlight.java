@@ -0,0 +1,105 @@
+package services.caches;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых запросов (single-flight)
+ * <p>Пока выполняется загрузка по ключу, все запросы с тем же ключом получают
+ * её результат или её ошибку, а не запускают свою. Запись удаляется
+ * сразу по завершении загрузки - результат не кэшируется,
+ * следующий запрос после завершения выполнит новую загрузку</p>
+ *
+ * @param <K> ключ запроса
+ * @param <V> тип результата
+ * @see configurations.CacheConfiguration
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Выполнить загрузку или присоединиться к уже выполняемой
+     *
+     * @param key ключ запроса
+     * @param loader загрузка; вызывается только если загрузки по ключу нет
+     * @return {@code CompletableFuture<V>} - копия загрузки, её завершение вызывающим другие запросы не затрагивает
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            joined.increment();
+            return current.copy();
+        }
+        started.increment();
+
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        }
+        catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        // запись удаляется до завершения: пришедшие после завершения запросы начинают новую загрузку
+        loading.whenComplete((value, error) -> {
+            flights.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            }
+            else {
+                flight.complete(value);
+            }
+        });
+        return flight.copy();
+    }
+
+    /**
+     * Отсоединить все выполняемые загрузки
+     * <p>Уже присоединившиеся запросы получат их результат,
+     * новые запросы начнут новую загрузку; вызывается после записи в БД,
+     * чтобы запрос, пришедший после записи, не получил прочитанные до неё данные</p>
+     */
+    public void forgetAll() {
+        flights.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Число выполняемых сейчас загрузок
+     *
+     * @return {@code int}
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Снимок статистики для эндпойнта метрик
+     *
+     * @return {@code Map<String, Object>}
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("started", started.sum());
+        snapshot.put("joined", joined.sum());
+        snapshot.put("inFlight", flights.size());
+        return snapshot;
+    }
+}
@@ -0,0 +1,54 @@
+package services.interfaces;
+
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface ImageService {
+
+    /**
+     * Метаданные изображения
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code CompletableFuture<ImageDto>}; нет изображения - исключение {@link utils.exceptions.ImageNotFoundException}
+     */
+    CompletableFuture<ImageDto> getMetadataAsync(ImageOwner owner, UUID ownerId);
+
+    /**
+     * Фрагмент содержимого версии изображения {@code hash}
+     *
+     * @param image метаданные, полученные {@link #getMetadataAsync}
+     * @param offset смещение от начала, с 0
+     * @param length длина фрагмента
+     * @param owner тип владельца
+     * @return {@code CompletableFuture<byte[]>}; изображение удалено или заменено -
+     * исключение {@link utils.exceptions.ImageNotFoundException}
+     */
+    CompletableFuture<byte[]> readRangeAsync(ImageOwner owner, ImageDto image, long offset, int length);
+
+    /**
+     * Сохранить изображение владельца
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @param data содержимое
+     * @return {@code CompletableFuture<ImageDto>} с метаданными сохранённого изображения
+     */
+    CompletableFuture<ImageDto> saveAsync(ImageOwner owner, UUID ownerId, byte[] data);
+
+    /**
+     * Удалить изображение владельца
+     *
+     * @param owner тип владельца
+     * @param ownerId идентификатор владельца
+     * @return {@code CompletableFuture<Boolean>}; нет изображения - исключение {@link utils.exceptions.ImageNotFoundException}
+     */
+    CompletableFuture<Boolean> deleteAsync(ImageOwner owner, UUID ownerId);
+}
@@ -0,0 +1,25 @@
+package services.interfaces;
+
+import models.dtos.ImportResultDto;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public interface ImportService {
+
+    /**
+     * Массовый импорт в таблицу
+     *
+     * @param entity целевая таблица
+     * @param format формат потока
+     * @param input поток данных
+     * @return {@code CompletableFuture<ImportResultDto>} с числом строк и скоростью загрузки
+     */
+    CompletableFuture<ImportResultDto> importAsync(ImportEntity entity, ImportFormat format, InputStream input);
+}
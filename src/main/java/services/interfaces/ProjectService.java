@@ -1,6 +1,8 @@
 package services.interfaces;
 
 import models.dtos.ProjectDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.Project;
 
 import java.sql.SQLException;
@@ -19,4 +21,39 @@ public interface ProjectService extends BaseService<ProjectDto, Project>{
 
     CompletableFuture<ProjectDto> addUserToProjectAsync(UUID userId, UUID projectId) throws SQLException;
     CompletableFuture<ProjectDto> removeUserFromProjectAsync(UUID userId, UUID projectId) throws SQLException;
+
+    /**
+     * Добавить пользователей в проект в одной транзакции
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code CompletableFuture<ProjectDto>} с итоговым составом участников
+     */
+    CompletableFuture<ProjectDto> addUsersToProjectAsync(UUID projectId, List<UUID> userIds) throws SQLException;
+
+    /**
+     * Удалить пользователей из проекта в одной транзакции
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return {@code CompletableFuture<ProjectDto>} с итоговым составом участников
+     */
+    CompletableFuture<ProjectDto> removeUsersFromProjectAsync(UUID projectId, List<UUID> userIds) throws SQLException;
+
+    /**
+     * Версия проекта для условного GET
+     *
+     * @param id идентификатор
+     * @return {@code CompletableFuture<VersionDto>}; {@code null}, если не найден
+     */
+    CompletableFuture<VersionDto> getVersionAsync(UUID id) throws SQLException;
+
+    /**
+     * Проект вместе с версией, с которой он был загружен
+     *
+     * @param id идентификатор
+     * @param current версия, прочитанная перед запросом; закэшированный проект старше неё загружается заново
+     * @return {@code CompletableFuture<VersionedDto<ProjectDto>>}
+     */
+    CompletableFuture<VersionedDto<ProjectDto>> getVersionedByIdAsync(UUID id, VersionDto current) throws SQLException;
 }
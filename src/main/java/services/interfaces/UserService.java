@@ -1,12 +1,17 @@
 package services.interfaces;
 
+import models.dtos.BulkResultDto;
+import models.dtos.PageDto;
 import models.dtos.UserDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 import models.entities.User;
 
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * @author 4ndr33w
@@ -15,4 +20,32 @@ import java.util.concurrent.CompletableFuture;
 public interface UserService extends BaseService<UserDto, User> {
 
     CompletableFuture<List<UserDto>> getAllAsync() throws SQLException;
+    CompletableFuture<PageDto<UserDto>> getPageAsync(UUID after, int limit) throws SQLException;
+    CompletableFuture<Long> streamAllAsync(int batchSize, Function<List<UserDto>, CompletableFuture<Void>> sink) throws SQLException;
+    CompletableFuture<Long> streamAllJsonAsync(int batchSize, Function<List<String>, CompletableFuture<Void>> sink) throws SQLException;
+
+    /**
+     * Версия пользователя для условного GET
+     *
+     * @param id идентификатор
+     * @return {@code CompletableFuture<VersionDto>}; {@code null}, если не найден
+     */
+    CompletableFuture<VersionDto> getVersionAsync(UUID id) throws SQLException;
+
+    /**
+     * Пользователь вместе с версией, с которой он был загружен
+     *
+     * @param id идентификатор
+     * @param current версия, прочитанная перед запросом; закэшированный пользователь старше неё загружается заново
+     * @return {@code CompletableFuture<VersionedDto<UserDto>>}
+     */
+    CompletableFuture<VersionedDto<UserDto>> getVersionedByIdAsync(UUID id, VersionDto current) throws SQLException;
+
+    /**
+     * Пакетное создание пользователей
+     *
+     * @param users пользователи в порядке тела запроса
+     * @return {@code CompletableFuture<BulkResultDto>} с результатом каждой строки
+     */
+    CompletableFuture<BulkResultDto> createBulkAsync(List<User> users) throws SQLException;
 }
@@ -1,7 +1,5 @@
 package servlets;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import models.dtos.ProjectDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import servlets.abstractions.BaseServlet;
@@ -13,6 +11,8 @@ import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -43,6 +43,13 @@ public class AddRemoveUsersToProjectServlet extends BaseServlet {
      *         <li>{@code userid}</li>
      *     </ul>
      * </p>
+     * <p>
+     *     без параметра {@code userid} тело запроса читается как Json-массив
+     *     идентификаторов пользователей, и все они добавляются в проект одной транзакцией:
+     * </p>
+     * <pre>{@code
+     * ["41096054-cbd7-4308-8411-905ae6f03aa6", "a8f5d1e2-7c3b-4f6a-9e1d-2b4c6a8e0f13"]
+     * }</pre>
      * @param req
      * @param resp
      *
@@ -52,9 +59,9 @@ public class AddRemoveUsersToProjectServlet extends BaseServlet {
      * @throws Exception
      */
     @Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
-        actionHandler(req, models.enums.ActionType.POST);
+        actionHandler(req, resp, models.enums.ActionType.POST);
     }
 
     /**
@@ -67,6 +74,10 @@ public class AddRemoveUsersToProjectServlet extends BaseServlet {
      *         <li>{@code userId}</li>
      *     </ul>
      * </p>
+     * <p>
+     *     без параметра {@code userid} тело запроса читается как Json-массив
+     *     идентификаторов пользователей, и все они удаляются из проекта одной транзакцией
+     * </p>
      * @param req
      * @param resp
      *
@@ -76,70 +87,64 @@ public class AddRemoveUsersToProjectServlet extends BaseServlet {
      * @throws Exception
      */
     @Override
-    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
-        actionHandler(req, models.enums.ActionType.DELETE);
+        actionHandler(req, resp, models.enums.ActionType.DELETE);
     }
 
-    private void actionHandler(HttpServletRequest req, models.enums.ActionType actionType) {
-        AsyncContext asyncContext = req.startAsync();
-
-        executor.execute(() -> {
-            String projectIdString = asyncContext.getRequest().getParameter("projectid");
-            String userIdString = asyncContext.getRequest().getParameter("userid");
-            try {
-                if (projectIdString == null || userIdString == null ) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_BAD_REQUEST,
-                            "/api/v1/projects/users",
-                            StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
-                            asyncContext);
-                }
-                else {
-                    boolean projectIdValidation = utils.validateId(projectIdString);
-                    boolean userIdValidation = utils.validateId(userIdString);
-
-                    if (!projectIdValidation || !userIdValidation) {
-                        throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                    }
-                    UUID projectId = UUID.fromString(projectIdString);
-                    UUID userId = UUID.fromString(userIdString);
-
-                    CompletableFuture<?> result = null;
-
-                    switch (actionType) {
-                        case POST -> {
-                            result = projectController.addUserToProject(userId, projectId );
-                            break;
-                        }
-                        case DELETE -> {
-                            result = projectController.removeUserFromProject(userId, projectId );
-                            break;
-                        }
-                    }
-
-                    if(result.isCompletedExceptionally()) {
-                        handleAsyncError(asyncContext, (Exception) result.get(),"/api/v1/projects/users");
-                    }
-                    else {
-                        var updatedProject = (ProjectDto) result.get();
-                        String jsonResponse = new ObjectMapper().writeValueAsString(updatedProject);
-
-                        asyncSuccesfulResponse(
-                                HttpServletResponse.SC_OK,
-                                jsonResponse,
-                                asyncContext);
-                    }
-                }
+    private void actionHandler(HttpServletRequest req, HttpServletResponse resp, models.enums.ActionType actionType) throws IOException {
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        String projectIdString = asyncContext.getRequest().getParameter("projectid");
+        String userIdString = asyncContext.getRequest().getParameter("userid");
+
+        if (projectIdString == null) {
+            asyncErrorResponse(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "/api/v1/projects/users",
+                    StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
+                    asyncContext);
+            return;
+        }
+        if (userIdString == null) {
+            batchActionHandler(asyncContext, projectIdString, actionType);
+            return;
+        }
+        respondAsync(asyncContext, "/api/v1/projects/users", HttpServletResponse.SC_OK, () -> {
+            boolean projectIdValidation = utils.validateId(projectIdString);
+            boolean userIdValidation = utils.validateId(userIdString);
+
+            if (!projectIdValidation || !userIdValidation) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects/users");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
+            UUID projectId = UUID.fromString(projectIdString);
+            UUID userId = UUID.fromString(userIdString);
+
+            CompletableFuture<?> result = switch (actionType) {
+                case POST -> projectController.addUserToProject(userId, projectId );
+                case DELETE -> projectController.removeUserFromProject(userId, projectId );
+            };
+
+            return result;
+        });
+    }
+
+    /**
+     * Пакетное изменение состава участников:
+     * список {@code userId} читается из тела запроса,
+     * в ответ один раз возвращается проект с итоговым составом участников
+     */
+    private void batchActionHandler(AsyncContext asyncContext, String projectIdString, models.enums.ActionType actionType) {
+        respondAsync(asyncContext, "/api/v1/projects/users", HttpServletResponse.SC_OK, () -> {
+            if (!utils.validateId(projectIdString)) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
+            UUID projectId = UUID.fromString(projectIdString);
+
+            return thenCall(readBodyValuesAsync(asyncContext, UUID.class), (List<UUID> userIds) -> switch (actionType) {
+                case POST -> projectController.addUsersToProject(projectId, userIds);
+                case DELETE -> projectController.removeUsersFromProject(projectId, userIds);
+            });
         });
     }
 }
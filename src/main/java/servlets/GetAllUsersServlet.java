@@ -1,19 +1,30 @@
 package servlets;
 
+import configurations.PropertiesConfiguration;
 import controllers.UsersController;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import controllers.interfaces.BaseUserController;
+import models.dtos.UserDto;
+import models.entities.User;
+import models.enums.ReadEngine;
 import servlets.abstractions.BaseServlet;
-import utils.Utils;
+import utils.StaticConstants;
+import utils.exceptions.InvalidIdExceptionMessage;
+import utils.exceptions.NoUsersFoundException;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.UUID;
 
 /**
  * Servlet для получения списка всех пользователей
+ * <p>Без параметров список отдаётся потоком: Json-массив пишется в ответ порциями
+ * по мере чтения из курсора БД. С параметрами {@code after} / {@code limit}
+ * возвращается одна страница keyset-пагинации с курсором следующей страницы</p>
+ * <p>Способ чтения потока ({@link ReadEngine}) задаётся параметром {@code servlet.users.all.read-engine};
+ * для сравнения способов его можно переопределить в запросе параметром {@code engine}</p>
  *
  * @author 4ndr33w
  * @version 1.0
@@ -21,7 +32,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @WebServlet(urlPatterns = "/api/v1/users/all", asyncSupported = true)
 public class GetAllUsersServlet extends BaseServlet {
 
-    private final controllers.interfaces.BaseUserController userController;
+    private static final String PATH = "/api/v1/users/all";
+    private static final int DEFAULT_PAGE_SIZE = PropertiesConfiguration.getIntSetting(
+            "SERVLET_PAGE_DEFAULT_LIMIT", "servlet.page.default-limit", 100);
+    private static final int MAX_PAGE_SIZE = PropertiesConfiguration.getIntSetting(
+            "SERVLET_PAGE_MAX_LIMIT", "servlet.page.max-limit", 1000);
+    private static final int STREAM_BATCH_SIZE = PropertiesConfiguration.getIntSetting(
+            "SERVLET_STREAM_BATCH_SIZE", "servlet.stream.batch-size", 500);
+    private static final ReadEngine STREAM_READ_ENGINE = ReadEngine.parse(PropertiesConfiguration.getSetting(
+            "SERVLET_USERS_ALL_READ_ENGINE", "servlet.users.all.read-engine", "composed"));
+
+    private final BaseUserController<User, UserDto> userController;
 
     public GetAllUsersServlet() {
         super();
@@ -34,40 +55,75 @@ public class GetAllUsersServlet extends BaseServlet {
 
     /**
      * HTTP GET запрос
-     * метод возвращает список всех пользователей
+     * <p>{@code GET /api/v1/users/all} - все пользователи потоковым Json-массивом</p>
+     * <p>{@code GET /api/v1/users/all?engine=composed|aggregate} - то же,
+     * с явным выбором способа чтения {@link ReadEngine}</p>
+     * <p>{@code GET /api/v1/users/all?limit=N&after=<uuid>} - страница
+     * {@code {"items": [...], "next": "<uuid>"}}; {@code next} передаётся
+     * в {@code after} для следующей страницы и равен {@code null} на последней</p>
      *
      * @param req
      * @param resp
-     *     * @return 200 OK
+     * @return 200 OK
      * @return 400 Bad Request
-     *     * @throws RuntimeException
+     * @return 404 Not Found
      */
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
 
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-                var usersFuture = userController.getAll();
-                var users = usersFuture.get();
-                String jsonResponse = new ObjectMapper().writeValueAsString(users);
+        String after = req.getParameter("after");
+        String limit = req.getParameter("limit");
+        String engine = req.getParameter("engine");
+        AsyncContext asyncContext = req.startAsync(req, resp);
 
-                asyncSuccesfulResponse(
-                        HttpServletResponse.SC_OK,
-                        jsonResponse,
-                        asyncContext);
+        if (after == null && limit == null) {
+            ReadEngine readEngine;
+            try {
+                readEngine = engine != null ? ReadEngine.parse(engine) : STREAM_READ_ENGINE;
+            }
+            catch (IllegalArgumentException e) {
+                asyncErrorResponse(HttpServletResponse.SC_BAD_REQUEST, PATH, e.getMessage(), asyncContext, e);
+                return;
             }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/users/all");
+            if (readEngine == ReadEngine.AGGREGATE) {
+                respondJsonStreamAsync(asyncContext, PATH, sink ->
+                        userController.streamAllJson(STREAM_BATCH_SIZE, sink).thenApply(this::requireUsers));
             }
-            finally {
-                asyncContext.complete();
+            else {
+                this.<UserDto>respondStreamAsync(asyncContext, PATH, sink ->
+                        userController.streamAll(STREAM_BATCH_SIZE, sink).thenApply(this::requireUsers));
             }
-        });
+            return;
+        }
+        respondAsync(asyncContext, PATH, HttpServletResponse.SC_OK, () ->
+                userController.getPage(parseCursor(after), parseLimit(limit)));
     }
 
-    @Override
-    public void destroy() {
-        executor.shutdownNow();
+    private long requireUsers(long count) {
+        if (count == 0) {
+            throw new NoUsersFoundException(StaticConstants.USERS_NOT_FOUND_EXCEPTION_MESSAGE);
+        }
+        return count;
+    }
+
+    private UUID parseCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        if (!utils.validateId(after)) {
+            throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
+        }
+        return UUID.fromString(after);
+    }
+
+    private int parseLimit(String limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int value = Integer.parseInt(limit);
+        if (value < 1) {
+            throw new IllegalArgumentException(StaticConstants.ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE);
+        }
+        return Math.min(value, MAX_PAGE_SIZE);
     }
 }
@@ -17,7 +17,6 @@ import java.util.List;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import utils.exceptions.InvalidIdExceptionMessage;
 import utils.exceptions.NoProjectsFoundException;
 import utils.exceptions.ProjectNotFoundException;
@@ -82,59 +81,31 @@ public class GetProjectByUserIdServlet extends BaseServlet {
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
         String id = req.getParameter("id");
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-
-                if (id == null) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_BAD_REQUEST,
-                            "/api/v1/projects/user",
-                            StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
-                            asyncContext);
-                    return;
-                }
-                boolean idValidation = utils.validateId(id);
-                if(!idValidation) {
-                    throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                }
-
-                var result = projectController.getByUserId(UUID.fromString(id));
-
-                if (result.isCompletedExceptionally()) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_NOT_FOUND,
-                            "/api/v1/projects/user",
-                            StaticConstants.PROJECTS_NOT_FOUND_EXCEPTION_MESSAGE,
-                            asyncContext);
-                    return;
-
-                }
-                List<ProjectDto> projects = (List<ProjectDto>) result.join();
-
-                if(projects == null || projects.isEmpty()) {
-                    throw new NoProjectsFoundException(StaticConstants.PROJECTS_NOT_FOUND_EXCEPTION_MESSAGE);
-                }
-                else{
-
-                    ObjectMapper mapper = new ObjectMapper();
-                    String jsonResponse = mapper.writeValueAsString(projects);
-
-                    asyncSuccesfulResponse(HttpServletResponse.SC_OK,
-                            jsonResponse,
-                            asyncContext);
-                }
-            }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e, "/api/v1/projects/user");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        if (id == null) {
+            asyncErrorResponse(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "/api/v1/projects/user",
+                    StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
+                    asyncContext);
+            return;
+        }
+        respondAsync(asyncContext, "/api/v1/projects/user", HttpServletResponse.SC_OK, () -> {
+            boolean idValidation = utils.validateId(id);
+            if(!idValidation) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
 
-        });
+            return projectController.getByUserId(UUID.fromString(id))
+                    .thenApply(result -> {
+                        List<ProjectDto> projects = (List<ProjectDto>) result;
 
+                        if(projects == null || projects.isEmpty()) {
+                            throw new NoProjectsFoundException(StaticConstants.PROJECTS_NOT_FOUND_EXCEPTION_MESSAGE);
+                        }
+                        return projects;
+                    });
+        });
     }
 }
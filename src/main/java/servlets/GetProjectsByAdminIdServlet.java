@@ -1,6 +1,5 @@
 package servlets;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 //import controllers.ProjectControllerSynchronous;
 import controllers.ProjectsController;
 //import controllers.interfaces.ProjectControllerInterface;
@@ -84,47 +83,31 @@ public class GetProjectsByAdminIdServlet extends BaseServlet {
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
         String id = req.getParameter("id");
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-                if (id == null) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_BAD_REQUEST,
-                            "/api/v1/projects/admin",
-                            StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
-                            asyncContext);
-                    return;
-                }
-                boolean idValidation = utils.validateId(id);
-                if(!idValidation) {
-                    throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                }
-                var result = projectController.getByAdminId(UUID.fromString(id));
+        AsyncContext asyncContext = req.startAsync(req, resp);
 
-                List<ProjectDto> projects = (List<ProjectDto>) result.get();
+        if (id == null) {
+            asyncErrorResponse(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "/api/v1/projects/admin",
+                    StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
+                    asyncContext);
+            return;
+        }
+        respondAsync(asyncContext, "/api/v1/projects/admin", HttpServletResponse.SC_OK, () -> {
+            boolean idValidation = utils.validateId(id);
+            if(!idValidation) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
+            }
 
-                if(projects == null || projects.isEmpty()) {
-                    throw new NoProjectsFoundException(StaticConstants.PROJECTS_NOT_FOUND_EXCEPTION_MESSAGE);
-                }
-                else {
-                    ObjectMapper mapper = new ObjectMapper();
-                    String jsonResponse = mapper.writeValueAsString(projects);
+            return projectController.getByAdminId(UUID.fromString(id))
+                    .thenApply(result -> {
+                        List<ProjectDto> projects = (List<ProjectDto>) result;
 
-                    asyncSuccesfulResponse(
-                            HttpServletResponse.SC_OK,
-                            jsonResponse,
-                            asyncContext);
-                }
-            }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects/admin");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
+                        if(projects == null || projects.isEmpty()) {
+                            throw new NoProjectsFoundException(StaticConstants.PROJECTS_NOT_FOUND_EXCEPTION_MESSAGE);
+                        }
+                        return projects;
+                    });
         });
-
     }
 }
@@ -0,0 +1,268 @@
+package servlets;
+
+import configurations.PropertiesConfiguration;
+import controllers.ImagesController;
+import controllers.interfaces.BaseImageController;
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+import servlets.abstractions.BaseServlet;
+import servlets.abstractions.ByteRange;
+import servlets.abstractions.ConditionalRequests;
+import servlets.abstractions.ResponseStreamWriteListener;
+import servlets.abstractions.StreamAbortListener;
+import utils.StaticConstants;
+import utils.exceptions.ImageNotFoundException;
+import utils.exceptions.InvalidIdExceptionMessage;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Сервлет изображений пользователей и проектов:
+ * {@code /api/v1/users/image?id=} и {@code /api/v1/projects/image?id=}
+ * <p>DTO пользователей и проектов содержат только ссылку {@code imageUrl} с хэшем версии
+ * ({@code &v=<hash>}); содержимое отдаётся здесь с {@code Content-Type}, {@code Content-Length},
+ * строгим {@code ETag} (хэш содержимого) и поддержкой {@code Range} / {@code If-Range}.
+ * Ответ по ссылке с актуальным хэшем неизменен и кэшируется клиентом без перепроверки</p>
+ * <p>Тело читается из БД фрагментами по {@code servlet.images.chunk-bytes}: следующий фрагмент
+ * запрашивается, когда предыдущий передан контейнеру, поэтому память не зависит от размера изображения,
+ * а медленный клиент не накапливает ответ в буфере.
+ * По тайм-ауту {@code servlet.stream.timeout-ms} отдача прерывается ({@link StreamAbortListener})</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebServlet(urlPatterns = {"/api/v1/users/image", "/api/v1/projects/image"}, asyncSupported = true)
+public class ImagesServlet extends BaseServlet {
+
+    private static final long MAX_IMAGE_SIZE = PropertiesConfiguration.getLongSetting(
+            "SERVLET_IMAGES_MAX_BYTES", "servlet.images.max-bytes", 5_242_880);
+    private static final int CHUNK_SIZE = PropertiesConfiguration.getIntSetting(
+            "SERVLET_IMAGES_CHUNK_BYTES", "servlet.images.chunk-bytes", 65_536);
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final BaseImageController imageController;
+
+    public ImagesServlet() {
+        super();
+        imageController = new ImagesController();
+    }
+
+    /**
+     * HTTP GET запрос
+     * метод возвращает содержимое изображения
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK
+     * @return 206 Partial Content при {@code Range}
+     * @return 304 Not Modified
+     * @return 400 Bad Request
+     * @return 404 Not Found
+     * @return 416 Range Not Satisfiable
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+
+        String path = req.getServletPath();
+        String id = req.getParameter("id");
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        StreamAbortListener abortListener = StreamAbortListener.register(asyncContext, path);
+
+        CompletableFuture<ImageDto> metadata;
+        try {
+            metadata = imageController.getMetadata(ImageOwner.fromPath(path), parseId(id));
+        }
+        catch (Exception e) {
+            handleAsyncError(asyncContext, e, path);
+            return;
+        }
+
+        metadata.whenCompleteAsync((image, error) -> {
+            if (abortListener.isAborted()) {
+                return;
+            }
+            if (error != null) {
+                handleAsyncError(asyncContext, error instanceof Exception ex ? ex : new CompletionException(error), path);
+                return;
+            }
+            try {
+                respondImage(asyncContext, path, image, abortListener);
+            }
+            catch (Exception e) {
+                handleAsyncError(asyncContext, e, path);
+            }
+        }, responseExecutor);
+    }
+
+    /**
+     * HTTP PUT запрос
+     * Загрузка изображения; тело - содержимое файла (png / jpeg / gif / webp)
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK с {@code ImageDto}
+     * @return 400 Bad Request - некорректный {@code id}, пустое тело или тело больше {@code servlet.images.max-bytes}
+     * @return 404 Not Found - пользователь / проект не найден
+     * @return 415 Unsupported Media Type
+     */
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) {
+
+        String path = req.getServletPath();
+        String id = req.getParameter("id");
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        respondAsync(asyncContext, path, HttpServletResponse.SC_OK, () -> {
+            ImageOwner owner = ImageOwner.fromPath(path);
+            UUID ownerId = parseId(id);
+
+            return thenCall(readBodyBytesAsync(asyncContext, MAX_IMAGE_SIZE),
+                    data -> imageController.save(owner, ownerId, data));
+        });
+    }
+
+    /**
+     * HTTP DELETE запрос
+     * Удаление изображения
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK
+     * @return 400 Bad Request
+     * @return 404 Not Found
+     */
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) {
+
+        String path = req.getServletPath();
+        String id = req.getParameter("id");
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        respondAsync(asyncContext, path, HttpServletResponse.SC_OK, () ->
+                imageController.delete(ImageOwner.fromPath(path), parseId(id))
+                        .thenApply(deleted -> StaticConstants.REQUEST_COMPLETER_SUCCESSFULLY_MESSAGE));
+    }
+
+    private UUID parseId(String id) {
+        if (!utils.validateId(id)) {
+            throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
+        }
+        return UUID.fromString(id);
+    }
+
+    /**
+     * Заголовки и тело ответа по метаданным изображения
+     */
+    private void respondImage(AsyncContext asyncContext, String path, ImageDto image,
+                              StreamAbortListener abortListener) throws IOException {
+        HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        long lastModified = image.getUpdatedAt() != null ? image.getUpdatedAt().getTime() : 0;
+
+        response.setHeader("ETag", image.getEtag());
+        if (lastModified > 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Cache-Control", image.getHash().equals(request.getParameter("v"))
+                ? IMMUTABLE
+                : "public, no-cache");
+
+        if (ConditionalRequests.isNotModified(request, image.getEtag(), lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            completeQuietly(asyncContext);
+            return;
+        }
+
+        ByteRange range = ConditionalRequests.isRangeApplicable(request, image.getEtag(), lastModified)
+                ? ByteRange.parse(request.getHeader("Range"), image.getSize())
+                : null;
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader("Content-Range", range.contentRange(image.getSize()));
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            completeQuietly(asyncContext);
+            return;
+        }
+
+        long first = range != null ? range.getFirst() : 0;
+        long length = range != null ? range.length() : image.getSize();
+
+        ImageOwner owner = ImageOwner.fromPath(path);
+        CompletableFuture<byte[]> firstChunk = imageController.readRange(owner, image, first, chunkLength(length));
+
+        firstChunk.whenCompleteAsync((chunk, error) -> {
+            if (abortListener.isAborted()) {
+                return;
+            }
+            if (error != null) {
+                // статус ещё не отправлен: изображение заменено или удалено после чтения метаданных
+                handleAsyncError(asyncContext, error instanceof Exception ex ? ex : new CompletionException(error), path);
+                return;
+            }
+            try {
+                if (range != null) {
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader("Content-Range", range.contentRange(image.getSize()));
+                }
+                else {
+                    response.setStatus(HttpServletResponse.SC_OK);
+                }
+                response.setContentType(image.getContentType());
+                response.setContentLengthLong(length);
+
+                ServletOutputStream outputStream = response.getOutputStream();
+                ResponseStreamWriteListener listener = new ResponseStreamWriteListener(outputStream, CHUNK_SIZE);
+                outputStream.setWriteListener(listener);
+                abortListener.aborted().whenComplete((ignored, abortError) -> {
+                    if (abortError != null) {
+                        listener.abort(abortError);
+                    }
+                });
+
+                streamChunks(listener, owner, image, first + chunk.length, length - chunk.length, chunk)
+                        .thenCompose(ignored -> listener.close())
+                        .whenComplete((ignored, streamError) -> {
+                            if (streamError != null) {
+                                logger.error(String.format("Ошибка отдачи изображения %s: %s", path, streamError.getMessage()));
+                            }
+                            completeQuietly(asyncContext);
+                        });
+            }
+            catch (Exception e) {
+                handleAsyncError(asyncContext, e, path);
+            }
+        }, responseExecutor);
+    }
+
+    /**
+     * Записать фрагмент и, когда он передан контейнеру, прочитать следующий
+     */
+    private CompletableFuture<Void> streamChunks(ResponseStreamWriteListener listener, ImageOwner owner, ImageDto image,
+                                                 long offset, long remaining, byte[] chunk) {
+        CompletableFuture<Void> written = listener.write(chunk);
+        if (remaining <= 0) {
+            return written;
+        }
+        return written
+                .thenCompose(ignored -> imageController.readRange(owner, image, offset, chunkLength(remaining)))
+                .thenCompose(next -> {
+                    if (next.length == 0) {
+                        throw new ImageNotFoundException(StaticConstants.IMAGE_NOT_FOUND_EXCEPTION_MESSAGE);
+                    }
+                    return streamChunks(listener, owner, image, offset + next.length, remaining - next.length, next);
+                });
+    }
+
+    private static int chunkLength(long remaining) {
+        return (int) Math.min(CHUNK_SIZE, remaining);
+    }
+}
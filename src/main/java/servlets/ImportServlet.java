@@ -0,0 +1,69 @@
+package servlets;
+
+import configurations.PropertiesConfiguration;
+import controllers.ImportController;
+import controllers.interfaces.BaseImportController;
+import models.enums.ImportEntity;
+import models.enums.ImportFormat;
+import servlets.abstractions.BaseServlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Сервлет массового импорта через {@code COPY}
+ * <p>{@code POST /api/v1/import?entity=users} или {@code ?entity=project_users};
+ * тело - CSV со строкой заголовка ({@code text/csv}) или NDJSON ({@code application/x-ndjson}).
+ * Колонки CSV:
+ * <ul>
+ *     <li>{@code users}: {@code user_name, first_name, last_name, email, password, phone}</li>
+ *     <li>{@code project_users}: {@code project_id, user_id}</li>
+ * </ul>
+ * Поля NDJSON - см. {@link ImportEntity#getFields()}.</p>
+ * <p>В отличие от остальных эндпойнтов тело читается не {@code ReadListener}-ом,
+ * а блокирующе в потоке единицы работы: {@code COPY} потребляет {@code InputStream}
+ * по мере передачи в БД, поэтому тело не накапливается в памяти, а скорость
+ * приёма ограничена скоростью записи в БД. Соединение и поток заняты на всё время импорта</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebServlet(urlPatterns = "/api/v1/import", asyncSupported = true)
+public class ImportServlet extends BaseServlet {
+
+    private static final String PATH = "/api/v1/import";
+    private static final long TIMEOUT = PropertiesConfiguration.getLongSetting(
+            "SERVLET_IMPORT_TIMEOUT_MS", "servlet.import.timeout-ms", 3_600_000);
+
+    private final BaseImportController importController;
+
+    public ImportServlet() {
+        super();
+        importController = new ImportController();
+    }
+
+    /**
+     * HTTP POST запрос
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK с {@code ImportResultDto}: загружено / добавлено / пропущено строк и строк в секунду
+     * @return 400 Bad Request при неизвестном {@code entity}, типе содержимого или некорректных данных
+     * @return 500 Internal Server Error
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+
+        String entity = req.getParameter("entity");
+        String contentType = req.getContentType();
+
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        asyncContext.setTimeout(TIMEOUT);
+        respondAsync(asyncContext, PATH, HttpServletResponse.SC_OK, () -> importController.importData(
+                ImportEntity.fromParameter(entity),
+                ImportFormat.fromContentType(contentType),
+                asyncContext.getRequest().getInputStream()));
+    }
+}
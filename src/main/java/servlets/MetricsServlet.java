@@ -0,0 +1,52 @@
+package servlets;
+
+import configurations.CacheConfiguration;
+import services.caches.CacheInvalidationListener;
+import servlets.abstractions.BaseServlet;
+import servlets.filters.CompressionMetrics;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servlet метрик приложения
+ * <p>Возвращает снимок метрик по разделам: {@code compression}, {@code cache}, {@code singleFlight}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebServlet(urlPatterns = "/api/v1/metrics", asyncSupported = true)
+public class MetricsServlet extends BaseServlet {
+
+    /**
+     * HTTP GET запрос
+     * метод возвращает текущие значения метрик
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondAsync(asyncContext, "/api/v1/metrics", HttpServletResponse.SC_OK, () -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("compression", CompressionMetrics.snapshot());
+            metrics.put("cache", Map.of(
+                    "users", CacheConfiguration.getUserCache().snapshot(),
+                    "projects", CacheConfiguration.getProjectCache().snapshot(),
+                    "invalidationListener", CacheInvalidationListener.snapshot()));
+            metrics.put("singleFlight", Map.of(
+                    CacheConfiguration.getProjectsByAdminFlight().getName(), CacheConfiguration.getProjectsByAdminFlight().snapshot(),
+                    CacheConfiguration.getProjectsByUserFlight().getName(), CacheConfiguration.getProjectsByUserFlight().snapshot()));
+            return CompletableFuture.completedFuture(metrics);
+        });
+    }
+}
@@ -2,6 +2,7 @@ package servlets;
 
 import controllers.ProjectsController;
 import controllers.interfaces.BaseProjectController;
+import models.dtos.ErrorDto;
 import models.dtos.ProjectDto;
 import models.entities.Project;
 
@@ -9,6 +10,7 @@ import servlets.abstractions.BaseServlet;
 import utils.StaticConstants;
 import utils.Utils;
 import utils.exceptions.InvalidIdExceptionMessage;
+import utils.exceptions.ProjectNotFoundException;
 import utils.exceptions.RequiredParameterException;
 
 import javax.servlet.AsyncContext;
@@ -20,7 +22,6 @@ import java.io.IOException;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import utils.mappers.ProjectMapper;
 
 /**
@@ -52,10 +53,16 @@ public class ProjectsServlet extends BaseServlet {
      *         <li>{@code Id}</li>
      *     </ul>
      * </p>
+     * <p>
+     *     ответ содержит {@code ETag} и {@code Last-Modified};
+     *     при совпадении {@code If-None-Match} / {@code If-Modified-Since}
+     *     возвращается 304 без загрузки проекта
+     * </p>
      *
      * @param req
      * @param resp
      * @return 200 OK
+     * @return 304 Not Modified
      * @return 400 Bad Request
      * @return 404 Not Found
      * @throws RuntimeException
@@ -65,37 +72,12 @@ public class ProjectsServlet extends BaseServlet {
 
         String id = req.getParameter("id");
 
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-                if (id == null) {
-                    throw new RequiredParameterException(StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE);
-                }
-
-                boolean idValidation = utils.validateId(id);
-                if (!idValidation) {
-                    throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                }
-                UUID projectId = UUID.fromString(id);
-
-                var result = projectController.getByProjectId(projectId);
-                ProjectDto project = (ProjectDto) result.get();
-
-                String jsonResponse = new ObjectMapper().writeValueAsString(project);
-
-                asyncSuccesfulResponse(
-                        HttpServletResponse.SC_OK,
-                        jsonResponse,
-                        asyncContext);
-            } catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
-        });
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondConditionalAsync(asyncContext, "/api/v1/projects", () -> {
+            UUID projectId = parseProjectId(id);
+
+            return projectController.getProjectVersion(projectId);
+        }, current -> projectController.getByProjectId(UUID.fromString(id), current));
     }
 
     /**
@@ -109,7 +91,6 @@ public class ProjectsServlet extends BaseServlet {
      *  "description": "Default Project Description"
      *  "adminId": "41096054-cbd7-4308-8411-905ae6f03aa6"
      *  "projectStatus": 0
-     *  "image": null
      * }
      * }</pre>
      *
@@ -124,30 +105,9 @@ public class ProjectsServlet extends BaseServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
 
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-                Project project = parseProjectFromRequest((HttpServletRequest) asyncContext.getRequest());
-
-                var result = projectController.create(project);
-
-                ProjectDto projectDto = (ProjectDto) result.get();
-                String jsonResponse = new ObjectMapper().writeValueAsString(projectDto);
-
-                asyncSuccesfulResponse(
-                        HttpServletResponse.SC_ACCEPTED,
-                        jsonResponse,
-                        asyncContext);
-
-            } catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
-        });
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondAsync(asyncContext, "/api/v1/projects", HttpServletResponse.SC_ACCEPTED, () ->
+                thenCall(readBodyAsync(asyncContext, Project.class), projectController::create));
     }
 
     /**
@@ -174,38 +134,20 @@ public class ProjectsServlet extends BaseServlet {
     protected void doDelete(HttpServletRequest req, HttpServletResponse resp) {
 
         String id = req.getParameter("id");
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            try {
-                if (id == null) {
-                    throw new RequiredParameterException(StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE);
-                }
-
-                boolean idValidation = utils.validateId(id);
-                if (!idValidation) {
-                    throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                }
-                UUID projectId = UUID.fromString(id);
-
-                var result = projectController.delete(projectId);
-                Boolean isDeleted = (Boolean) result.get();
-
-                if (isDeleted) {
-                    printResponse(
-                            HttpServletResponse.SC_OK,
-                            "/api/v1/projects",
-                            StaticConstants.REQUEST_COMPLETER_SUCCESSFULLY_MESSAGE,
-                            resp);
-                }
-
-            } catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondAsync(asyncContext, "/api/v1/projects", HttpServletResponse.SC_OK, () -> {
+            UUID projectId = parseProjectId(id);
+
+            return projectController.delete(projectId)
+                    .thenApply(isDeleted -> {
+                        if (!(Boolean) isDeleted) {
+                            throw new ProjectNotFoundException(StaticConstants.PROJECT_NOT_FOUND_EXCEPTION_MESSAGE);
+                        }
+                        return new ErrorDto(
+                                HttpServletResponse.SC_OK,
+                                "/api/v1/projects",
+                                StaticConstants.REQUEST_COMPLETER_SUCCESSFULLY_MESSAGE);
+                    });
         });
     }
 
@@ -214,42 +156,27 @@ public class ProjectsServlet extends BaseServlet {
 
         String id = req.getParameter("id");
 
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-            if (id == null) {
-                throw new RequiredParameterException(StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE);
-            }
-
-            boolean idValidation = utils.validateId(id);
-            if (!idValidation) {
-                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-            }
-            UUID projectId = UUID.fromString(id);
-
-            try {
-                Project project = parseProjectFromRequest(req);
-                project.setId(projectId);
-                ProjectDto projectDto = ProjectMapper.toDto(project);
-
-                var result = projectController.update(projectDto);
-
-                ProjectDto updatedProject = (ProjectDto) result.get();
-
-                String jsonResponse = new ObjectMapper().writeValueAsString(updatedProject);
-
-                asyncSuccesfulResponse(
-                        HttpServletResponse.SC_ACCEPTED,
-                        jsonResponse,
-                        asyncContext);
-            }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/projects");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondAsync(asyncContext, "/api/v1/projects", HttpServletResponse.SC_ACCEPTED, () -> {
+            UUID projectId = parseProjectId(id);
+
+            return thenCall(readBodyAsync(asyncContext, Project.class), project -> {
+                        project.setId(projectId);
+                        ProjectDto projectDto = ProjectMapper.toDto(project);
+                        return projectController.update(projectDto);
+                    });
         });
     }
+
+    private UUID parseProjectId(String id) {
+        if (id == null) {
+            throw new RequiredParameterException(StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE);
+        }
+
+        boolean idValidation = utils.validateId(id);
+        if (!idValidation) {
+            throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
+        }
+        return UUID.fromString(id);
+    }
 }
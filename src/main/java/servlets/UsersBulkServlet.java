@@ -0,0 +1,62 @@
+package servlets;
+
+import configurations.PropertiesConfiguration;
+import controllers.UsersController;
+import controllers.interfaces.BaseUserController;
+import models.dtos.UserDto;
+import models.entities.User;
+import servlets.abstractions.BaseServlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Сервлет пакетного создания пользователей
+ * <p>Тело запроса - Json-массив пользователей ({@code application/json})
+ * или по одному Json-объекту на строку ({@code application/x-ndjson}) для больших импортов.
+ * Ответ содержит результат каждой строки в порядке тела запроса:
+ * {@code id} созданного пользователя, либо причину отказа
+ * (не заполнено обязательное поле, повтор логина / email в запросе или в БД)</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebServlet(urlPatterns = "/api/v1/users/bulk", asyncSupported = true)
+public class UsersBulkServlet extends BaseServlet {
+
+    private static final String PATH = "/api/v1/users/bulk";
+    private static final long MAX_BODY_SIZE = PropertiesConfiguration.getLongSetting(
+            "SERVLET_BULK_MAX_BODY_BYTES", "servlet.bulk.max-body-bytes", 67_108_864);
+
+    private final BaseUserController<User, UserDto> userController;
+
+    public UsersBulkServlet() {
+        super();
+        userController = new UsersController();
+    }
+
+    /**
+     * HTTP POST запрос
+     * <pre>{@code
+     * [
+     *  {"userName": "Andr33w", "email": "McFly@123.ru", "password": "123"},
+     *  {"userName": "Doc", "email": "Brown@123.ru", "password": "456"}
+     * ]
+     * }</pre>
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK с {@code BulkResultDto}
+     * @return 400 Bad Request при некорректном теле
+     * @return 500 Internal Server Error
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        respondAsync(asyncContext, PATH, HttpServletResponse.SC_OK, () ->
+                thenCall(readBodyValuesAsync(asyncContext, User.class, MAX_BODY_SIZE), userController::createBulk));
+    }
+}
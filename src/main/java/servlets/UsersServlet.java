@@ -1,7 +1,5 @@
 package servlets;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import controllers.UsersController;
 import models.dtos.UserDto;
 import models.entities.User;
@@ -44,45 +42,46 @@ public class UsersServlet extends BaseServlet {
         userController = new UsersController();
     }
 
+    /**
+     * HTTP GET запрос
+     * метод возвращает DTO-объект пользователя {@code UserDto}
+     * <p>
+     *     ответ содержит {@code ETag} и {@code Last-Modified};
+     *     при совпадении {@code If-None-Match} / {@code If-Modified-Since}
+     *     возвращается 304 без загрузки пользователя и его проектов
+     * </p>
+     *
+     * @param req
+     * @param resp
+     * @return 200 OK
+     * @return 304 Not Modified
+     * @return 400 Bad Request
+     * @return 404 Not Found
+     */
     @Override
-    protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
         String id = req.getParameter("id");
-        AsyncContext asyncContext = req.startAsync();
-        executor.execute(() -> {
-
-            try {
-                if (id == null) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_BAD_REQUEST,
-                            "/api/v1/users",
-                            StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
-                            asyncContext);
-                }
-                boolean idValidation = utils.validateId(id);
-
-                if (!idValidation) {
-                    throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                }
-                UUID userId = UUID.fromString(id);
-                var userDto = (UserDto) userController.getUser(userId).get();
-
-                String jsonResponse = new ObjectMapper().writeValueAsString(userDto);
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        if (id == null) {
+            asyncErrorResponse(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "/api/v1/users",
+                    StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
+                    asyncContext);
+            return;
+        }
+        respondConditionalAsync(asyncContext, "/api/v1/users", () -> {
+            boolean idValidation = utils.validateId(id);
 
-                asyncSuccesfulResponse(
-                        HttpServletResponse.SC_OK,
-                        jsonResponse,
-                        asyncContext);
+            if (!idValidation) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
-            catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/users");
-            }
-            finally {
-                if (asyncContext != null) {
-                    asyncContext.complete();
-                }
-            }
-        });
+            UUID userId = UUID.fromString(id);
+
+            return userController.getUserVersion(userId);
+        }, current -> userController.getUser(UUID.fromString(id), current));
     }
 
     /**
@@ -99,7 +98,6 @@ public class UsersServlet extends BaseServlet {
      *  "lastName": "McFly"
      *  "phoneNumber": "+79211234567"
      *  "userRole": 0
-     *  "userImage": null
      * }
      * }</pre>
      *
@@ -114,34 +112,10 @@ public class UsersServlet extends BaseServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
 
-        AsyncContext asyncContext = req.startAsync();
-
-        executor.execute(() -> {
-            try {
-                User user = parseUserFromRequest((HttpServletRequest) asyncContext.getRequest());
+        AsyncContext asyncContext = req.startAsync(req, resp);
 
-                var result = userController.create(user);
-
-                if(result.isCompletedExceptionally()) {
-                    handleAsyncError(asyncContext, (Exception) result.get(),"/api/v1/users");
-                }
-                else {
-                    var createdUser = result.get();
-                    String jsonResponse = new ObjectMapper().writeValueAsString(createdUser);
-
-                    asyncSuccesfulResponse(
-                            HttpServletResponse.SC_OK,
-                            jsonResponse,
-                            asyncContext);
-                }
-
-            }  catch (Exception e) {
-                handleAsyncError(asyncContext, e,"/api/v1/users");
-            }
-            finally {
-                asyncContext.complete();
-            }
-        });
+        respondAsync(asyncContext, "/api/v1/users", HttpServletResponse.SC_OK, () ->
+                thenCall(readBodyAsync(asyncContext, User.class), userController::create));
     }
 
     private void validateUser(User user) throws IllegalArgumentException {
@@ -183,49 +157,33 @@ public class UsersServlet extends BaseServlet {
      * @throws utils.exceptions.DatabaseOperationException
      */
     @Override
-    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
         String id = req.getParameter("id");
-        AsyncContext asyncContext = req.startAsync();
-
-        executor.execute(() -> {
-            try {
-                if (id == null) {
-                    asyncErrorResponse(
-                            HttpServletResponse.SC_BAD_REQUEST,
-                            "/api/v1/users",
-                            StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
-                            asyncContext);
-                }
-
-                else {
-                    boolean idValidation = utils.validateId(id);
-                    if (!idValidation) {
-                        throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
-                    }
-                    UUID userId = UUID.fromString(id);
-
-                    var isDeleted = (Boolean) userController.delete(userId).get();
-
-                    if (isDeleted) {
-                        asyncSuccesfulResponse(
-                                HttpServletResponse.SC_OK,
-                                StaticConstants.REQUEST_COMPLETER_SUCCESSFULLY_MESSAGE,
-                                asyncContext);
-                    }
-                }
-            }
-            catch (Exception e) {
-                handleAsyncError(
-                        asyncContext,
-                        e,
-                        "/api/v1/users");
-            }
-            finally {
-                if(asyncContext != null) {
-                    asyncContext.complete();
-                }
+        AsyncContext asyncContext = req.startAsync(req, resp);
+
+        if (id == null) {
+            asyncErrorResponse(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "/api/v1/users",
+                    StaticConstants.ID_REQUIRED_AS_PARAMETER_ERROR_MESSAGE,
+                    asyncContext);
+            return;
+        }
+        respondAsync(asyncContext, "/api/v1/users", HttpServletResponse.SC_OK, () -> {
+            boolean idValidation = utils.validateId(id);
+            if (!idValidation) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
+            UUID userId = UUID.fromString(id);
+
+            return userController.delete(userId)
+                    .thenApply(isDeleted -> {
+                        if (!(Boolean) isDeleted) {
+                            throw new UserNotFoundException(StaticConstants.USER_NOT_FOUND_EXCEPTION_MESSAGE);
+                        }
+                        return StaticConstants.REQUEST_COMPLETER_SUCCESSFULLY_MESSAGE;
+                    });
         });
     }
 
@@ -234,42 +192,18 @@ public class UsersServlet extends BaseServlet {
 
         String id = req.getParameter("id");
 
-        AsyncContext asyncContext = req.startAsync();
-
-        executor.execute(() -> {
-            if(utils.validateId(id)) {
-                UUID userId = UUID.fromString(id);
-
-                try {
-                    User user = parseUserFromRequest( (HttpServletRequest) asyncContext.getRequest() );
-                    user.setId(userId);
-                    UserDto updatedUser = (UserDto) userController.updateUser(UserMapper.toDto(user)).get();
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-                    String jsonResponse = objectMapper.writeValueAsString(updatedUser);
+        AsyncContext asyncContext = req.startAsync(req, resp);
 
-                    asyncSuccesfulResponse(
-                            HttpServletResponse.SC_ACCEPTED,
-                            jsonResponse,
-                            asyncContext);
-                }
-                catch (Exception e) {
-                    handleAsyncError(
-                            asyncContext,
-                            e,
-                            "/api/v1/users");
-                }
-                finally {
-                    if(asyncContext != null) {
-                        asyncContext.complete();
-                    }
-                }
+        respondAsync(asyncContext, "/api/v1/users", HttpServletResponse.SC_ACCEPTED, () -> {
+            if (!utils.validateId(id)) {
+                throw new InvalidIdExceptionMessage(StaticConstants.INVALID_ID_FORMAT_EXCEPTION_MESSAGE);
             }
-        });
-    }
+            UUID userId = UUID.fromString(id);
 
-    @Override
-    public void destroy() {
-        executor.shutdownNow();
+            return thenCall(readBodyAsync(asyncContext, User.class), user -> {
+                        user.setId(userId);
+                        return userController.updateUser(UserMapper.toDto(user));
+                    });
+        });
     }
 }
@@ -1,14 +1,18 @@
 package servlets.abstractions;
 
+import configurations.PropertiesConfiguration;
 import models.dtos.ErrorDto;
-import models.entities.Project;
-import models.entities.User;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
 
+import utils.JsonCodec;
 import utils.StaticConstants;
 import utils.Utils;
 import utils.exceptions.*;
 
 import javax.servlet.AsyncContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -16,13 +20,20 @@ import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * @author 4ndr33w
@@ -32,17 +43,248 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
 
     protected Logger logger = LoggerFactory.getLogger(BaseServlet.class);
-    protected ObjectMapper objectMapper = new ObjectMapper();
+    protected final ObjectMapper objectMapper = JsonCodec.mapper();
     protected Utils utils;
 
     protected static ExecutorService executor;
 
+    private static final int IO_BUFFER_SIZE = PropertiesConfiguration.getIntSetting(
+            "SERVLET_IO_BUFFER_SIZE", "servlet.io.buffer-size", 8192);
+    private static final long MAX_REQUEST_BODY_SIZE = PropertiesConfiguration.getLongSetting(
+            "SERVLET_REQUEST_MAX_BODY_BYTES", "servlet.request.max-body-bytes", 10_485_760);
+    protected static final long STREAM_TIMEOUT = PropertiesConfiguration.getLongSetting(
+            "SERVLET_STREAM_TIMEOUT_MS", "servlet.stream.timeout-ms", 600_000);
+    protected static final Executor responseExecutor = BaseServlet::executeResponse;
+
     public BaseServlet() {
         super();
         utils = new Utils();
         executor = configurations.ThreadPoolConfiguration.getDbExecutor();
     }
 
+    /**
+     * Вызов контроллера, возвращающий тело ответа
+     * <p>Может бросить исключение ещё до получения {@code CompletableFuture},
+     * например при валидации параметров запроса</p>
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    protected interface AsyncCall<T> {
+        CompletableFuture<T> call() throws Exception;
+    }
+
+    /**
+     * Шаг цепочки {@code CompletableFuture}, вызывающий контроллер
+     *
+     * @param <T> тип входного значения
+     * @param <R> тип результата
+     */
+    @FunctionalInterface
+    protected interface AsyncStep<T, R> {
+        CompletableFuture<R> apply(T value) throws Exception;
+    }
+
+    /**
+     * Вызов контроллера, передающий результат порциями в {@code sink}
+     *
+     * @param <T> тип элемента
+     */
+    @FunctionalInterface
+    protected interface StreamCall<T> {
+        CompletableFuture<Long> call(Function<List<T>, CompletableFuture<Void>> sink) throws Exception;
+    }
+
+    /**
+     * Неблокирующая обработка запроса
+     * <p>Ни один поток не ожидает результата контроллера: ответ записывается
+     * и {@link AsyncContext#complete()} вызывается из колбэка завершения
+     * {@code CompletableFuture} в пуле потоков сервлетов, поэтому поток репозитория
+     * освобождается сразу после получения данных из БД</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param path путь эндпойнта для ответа об ошибке
+     * @param statusCode код успешного ответа
+     * @param call вызов контроллера, возвращающий DTO ответа
+     */
+    protected <T> void respondAsync(AsyncContext asyncContext, String path, int statusCode, AsyncCall<T> call) {
+        respondAsync(asyncContext, path, statusCode, call, body -> body, body -> null);
+    }
+
+    /**
+     * Неблокирующая обработка условного GET-запроса
+     * <p>Сначала читается только версия ресурса ({@code ETag} / {@code Last-Modified}).
+     * Если у клиента актуальная версия ({@code If-None-Match} / {@code If-Modified-Since}),
+     * отправляется {@code 304 Not Modified} без обращения к контроллеру за телом;
+     * иначе тело загружается и отправляется с валидаторами версии, загруженной вместе с ним
+     * ({@link VersionedDto}): тело из кэша отдаётся со своим тегом, а не с только что прочитанным.
+     * Прочитанная версия передаётся контроллеру, чтобы тело из кэша старше неё было загружено заново</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param path путь эндпойнта для ответа об ошибке
+     * @param versionCall вызов контроллера, возвращающий версию ресурса,
+     *                    {@code null} - ресурс не найден, ответ строится обычным вызовом
+     * @param call вызов контроллера, возвращающий DTO ответа с его версией по прочитанной версии
+     * @see ConditionalRequests
+     */
+    protected <T> void respondConditionalAsync(AsyncContext asyncContext, String path,
+                                               AsyncCall<VersionDto> versionCall, AsyncStep<VersionDto, VersionedDto<T>> call) {
+        CompletableFuture<VersionDto> version;
+        try {
+            version = versionCall.call();
+        }
+        catch (Exception e) {
+            handleAsyncError(asyncContext, e, path);
+            return;
+        }
+
+        version.whenCompleteAsync((current, error) -> {
+            if (error != null) {
+                handleAsyncError(asyncContext, error instanceof Exception ex ? ex : new CompletionException(error), path);
+                return;
+            }
+            if (current != null
+                    && ConditionalRequests.isNotModified((HttpServletRequest) asyncContext.getRequest(), current)) {
+                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                ConditionalRequests.setValidators(response, current);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                completeQuietly(asyncContext);
+                return;
+            }
+            respondAsync(asyncContext, path, HttpServletResponse.SC_OK, () -> call.apply(current), VersionedDto::getBody, VersionedDto::getVersion);
+        }, responseExecutor);
+    }
+
+    private <T> void respondAsync(AsyncContext asyncContext, String path, int statusCode, AsyncCall<T> call,
+                                  Function<T, Object> bodyOf, Function<T, VersionDto> versionOf) {
+        CompletableFuture<T> response;
+        try {
+            response = call.call();
+        }
+        catch (Exception e) {
+            handleAsyncError(asyncContext, e, path);
+            return;
+        }
+
+        response.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                handleAsyncError(asyncContext, error instanceof Exception ex ? ex : new CompletionException(error), path);
+                return;
+            }
+            try {
+                VersionDto version = versionOf.apply(result);
+                if (version != null) {
+                    ConditionalRequests.setValidators((HttpServletResponse) asyncContext.getResponse(), version);
+                }
+                asyncJsonResponse(statusCode, bodyOf.apply(result), asyncContext);
+            }
+            catch (Exception e) {
+                handleAsyncError(asyncContext, e, path);
+            }
+        }, responseExecutor);
+    }
+
+    /**
+     * Неблокирующая потоковая отдача Json-массива
+     * <p>Каждая порция от контроллера сериализуется и отправляется клиенту сразу;
+     * следующая порция запрашивается, когда предыдущая передана контейнеру,
+     * поэтому память ограничена размером порции, а не размером всего ответа.
+     * Ошибка до отправки первой порции возвращается обычным ответом об ошибке,
+     * после - только логируется: статус уже отправлен клиенту.
+     * Запрос ограничен тайм-аутом {@code servlet.stream.timeout-ms}: по тайм-ауту или ошибке запроса
+     * отдача прерывается ({@link StreamAbortListener}), и цепочка порций закрывает курсор</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param path путь эндпойнта для ответа об ошибке
+     * @param call вызов контроллера
+     * @see JsonArrayResponseStream
+     */
+    protected <T> void respondStreamAsync(AsyncContext asyncContext, String path, StreamCall<T> call) {
+        streamAsync(asyncContext, path, stream -> call.call(stream::writeBatch));
+    }
+
+    /**
+     * Неблокирующая потоковая отдача Json-массива из элементов, уже сериализованных в Json
+     * <p>Как {@link #respondStreamAsync(AsyncContext, String, StreamCall)},
+     * но строки от контроллера пишутся в ответ как есть, без сериализации</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param path путь эндпойнта для ответа об ошибке
+     * @param call вызов контроллера, передающий порции Json-объектов
+     */
+    protected void respondJsonStreamAsync(AsyncContext asyncContext, String path, StreamCall<String> call) {
+        streamAsync(asyncContext, path, stream -> call.call(stream::writeJsonBatch));
+    }
+
+    private interface StreamStart {
+        CompletableFuture<Long> start(JsonArrayResponseStream stream) throws Exception;
+    }
+
+    private void streamAsync(AsyncContext asyncContext, String path, StreamStart call) {
+        JsonArrayResponseStream stream = new JsonArrayResponseStream(asyncContext, IO_BUFFER_SIZE);
+        StreamAbortListener abortListener = StreamAbortListener.register(asyncContext, path);
+        abortListener.aborted().whenComplete((ignored, error) -> {
+            if (error != null) {
+                stream.abort(error);
+            }
+        });
+        CompletableFuture<Long> streamed;
+        try {
+            streamed = call.start(stream);
+        }
+        catch (Exception e) {
+            handleAsyncError(asyncContext, e, path);
+            return;
+        }
+
+        streamed.thenCompose(count -> stream.finish())
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error == null) {
+                        completeQuietly(asyncContext);
+                    }
+                    else if (stream.isAborted()) {
+                        logger.debug(String.format("Цепочка потоковой отдачи %s остановлена после прерывания", path));
+                    }
+                    else if (!stream.isStarted()) {
+                        handleAsyncError(asyncContext, error instanceof Exception ex ? ex : new CompletionException(error), path);
+                    }
+                    else {
+                        logger.error(String.format("Ошибка потоковой отдачи %s: %s", path, error.getMessage()));
+                        completeQuietly(asyncContext);
+                    }
+                }, responseExecutor);
+    }
+
+    /**
+     * Завершить асинхронный контекст, если он ещё не завершён
+     *
+     * @param asyncContext асинхронный контекст запроса
+     */
+    protected void completeQuietly(AsyncContext asyncContext) {
+        if (asyncContext == null) {
+            return;
+        }
+        try {
+            asyncContext.complete();
+        }
+        catch (IllegalStateException e) {
+            logger.debug("AsyncContext уже завершён");
+        }
+    }
+
+    /**
+     * Запись ответа выполняется в пуле сервлетов; если он переполнен -
+     * в потоке, завершившем {@code CompletableFuture}, чтобы ответ не потерялся
+     */
+    private static void executeResponse(Runnable task) {
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
     protected void printResponse(int statusCode, String path, String message, HttpServletResponse resp) throws IOException {
         resp.setContentType("application/json");
         resp.setCharacterEncoding("UTF-8");
@@ -54,7 +296,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
         resp.setContentType("application/json");
         try {
             logger.error(error.toString());
-            String jsonResponse = objectMapper.writeValueAsString(error);
+            String jsonResponse = JsonCodec.ERROR_WRITER.writeValueAsString(error);
             resp.setStatus(statusCode);
             PrintWriter out = resp.getWriter();
             out.print(jsonResponse);
@@ -68,12 +310,35 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
             out.flush();
         }
     }
-    protected void asyncSuccesfulResponse(int statusCode, String response, AsyncContext asyncContext) throws IOException {
+    /**
+     * Неблокирующая запись успешного ответа
+     * <p>DTO сериализуется {@code JsonGenerator}-ом прямо в байты тела ответа,
+     * без промежуточной строки: {@link ResponseChunkOutputStream} передаёт контейнеру
+     * порции по {@code servlet.io.buffer-size} байт по мере заполнения.
+     * Асинхронный контекст завершается, когда всё тело передано контейнеру</p>
+     */
+    protected void asyncJsonResponse(int statusCode, Object value, AsyncContext asyncContext) throws IOException {
+
+        ResponseChunkOutputStream outputStream = new ResponseChunkOutputStream(asyncContext, statusCode, IO_BUFFER_SIZE);
+        ObjectWriter writer = JsonCodec.writerForValue(value);
+        try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+            writer.writeValue(generator, value);
+        }
+        catch (IOException e) {
+            if (!outputStream.isStarted()) {
+                throw e;
+            }
+            logger.error("Ошибка сериализации ответа: " + e.getMessage());
+            completeQuietly(asyncContext);
+            return;
+        }
 
-        asyncContext.getResponse().setContentType("application/json");
-        asyncContext.getResponse().setCharacterEncoding("UTF-8");
-        ((HttpServletResponse) asyncContext.getResponse()).setStatus(HttpServletResponse.SC_OK);
-        asyncContext.getResponse().getWriter().write(response);
+        outputStream.written().whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.error("Ошибка отправки ответа: " + error.getMessage());
+            }
+            completeQuietly(asyncContext);
+        });
     }
 
     protected void asyncErrorResponse(int statusCode, String path, String message, AsyncContext asyncContext) throws IOException {
@@ -83,7 +348,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
                     path,
                     message);
 
-            String jsonResponse = new ObjectMapper().writeValueAsString(error);
+            String jsonResponse = JsonCodec.ERROR_WRITER.writeValueAsString(error);
 
             asyncContext.getResponse().setContentType("application/json");
             asyncContext.getResponse().setCharacterEncoding("UTF-8");
@@ -95,9 +360,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
             logger.error("Ошибка сервера: " + e.getCause().getMessage());
             handleAsyncError(asyncContext, e,path);
         }
-        if(asyncContext != null) {
-            asyncContext.complete();
-        }
+        completeQuietly(asyncContext);
     }
 
     protected void asyncErrorResponse(int statusCode, String path, String message, AsyncContext asyncContext, Exception e) {
@@ -107,23 +370,21 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
                     path,
                     message);
 
-            String jsonResponse = new ObjectMapper().writeValueAsString(error);
+            String jsonResponse = JsonCodec.ERROR_WRITER.writeValueAsString(error);
 
             asyncContext.getResponse().setContentType("application/json");
             asyncContext.getResponse().setCharacterEncoding("UTF-8");
             ((HttpServletResponse) asyncContext.getResponse()).setStatus(statusCode);
             asyncContext.getResponse().getWriter().write(jsonResponse);
             logger.error(error.toString());
-            logger.error("Ошибка сервера: " + e.getCause().getMessage());
+            logger.error("Ошибка сервера: " + (e.getCause() != null ? e.getCause() : e).getMessage());
         }
         catch (Exception ex) {
-            logger.error("Ошибка сервера: " + ex.getCause().getMessage());
+            logger.error("Ошибка сервера: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage());
             handleAsyncError(asyncContext, e,path);
         }
         finally {
-            if(asyncContext != null) {
-                asyncContext.complete();
-            }
+            completeQuietly(asyncContext);
         }
     }
 
@@ -135,7 +396,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
                 message);
         resp.setContentType("application/json");
         try {
-            String jsonResponse = objectMapper.writeValueAsString(error);
+            String jsonResponse = JsonCodec.ERROR_WRITER.writeValueAsString(error);
             resp.setStatus(statusCode);
             PrintWriter out = resp.getWriter();
             out.print(jsonResponse);
@@ -159,30 +420,107 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
         }
     }
 
-    protected Project parseProjectFromRequest(HttpServletRequest req) {
+    /**
+     * Неблокирующее чтение Json-тела запроса
+     * <p>Вызывается в потоке контейнера после {@code req.startAsync()}</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param type тип объекта тела запроса
+     * @return {@code CompletableFuture<T>}, завершаемый после получения всего тела;
+     * при ошибке разбора - исключением {@link DataParsingException}
+     * @see JsonBodyReadListener
+     */
+    protected <T> CompletableFuture<T> readBodyAsync(AsyncContext asyncContext, Class<T> type) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-            return objectMapper.readValue(req.getInputStream(), Project.class);
-        } catch (Exception e) {
-            logger.error(String.format("Servlet: Error. Парсинг не удался. Request path: %s\nException: %s", "/projects", e.getMessage()));
-            throw new DataParsingException("Ошибка чтения данных объекта", e);
+            ServletInputStream inputStream = asyncContext.getRequest().getInputStream();
+            JsonBodyReadListener<T> listener = new JsonBodyReadListener<>(
+                    inputStream, JsonCodec.readerFor(type), IO_BUFFER_SIZE, MAX_REQUEST_BODY_SIZE);
+            inputStream.setReadListener(listener);
+            return listener.result();
+        }
+        catch (Exception e) {
+            logger.error(String.format("Servlet: Error. Парсинг не удался. Exception: %s", e.getMessage()));
+            return CompletableFuture.failedFuture(new DataParsingException("Ошибка чтения данных объекта", e));
         }
     }
 
-    protected User parseUserFromRequest(HttpServletRequest req) throws IOException {
+    /**
+     * Неблокирующее чтение списка объектов из тела запроса
+     * с ограничением {@code servlet.request.max-body-bytes}
+     *
+     * @see #readBodyValuesAsync(AsyncContext, Class, long)
+     */
+    protected <T> CompletableFuture<List<T>> readBodyValuesAsync(AsyncContext asyncContext, Class<T> type) {
+        return readBodyValuesAsync(asyncContext, type, MAX_REQUEST_BODY_SIZE);
+    }
 
+    /**
+     * Неблокирующее чтение списка объектов из тела запроса
+     * <p>Тело - Json-массив или NDJSON (по объекту на строку)</p>
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param type тип элемента
+     * @param maxBodySize максимальный размер тела в байтах
+     * @return {@code CompletableFuture<List<T>>}; при ошибке разбора - исключение {@link DataParsingException}
+     * @see JsonBodyReadListener#forValues
+     */
+    protected <T> CompletableFuture<List<T>> readBodyValuesAsync(AsyncContext asyncContext, Class<T> type, long maxBodySize) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-            return objectMapper.readValue(req.getInputStream(), User.class);
+            ServletInputStream inputStream = asyncContext.getRequest().getInputStream();
+            JsonBodyReadListener<List<T>> listener = JsonBodyReadListener.forValues(
+                    inputStream, JsonCodec.readerFor(type), IO_BUFFER_SIZE, maxBodySize);
+            inputStream.setReadListener(listener);
+            return listener.result();
         }
         catch (Exception e) {
-            logger.error(String.format("Servlet: Error. Парсинг не удался. Request path: %s\nException: %s", "/projects", e.getMessage()));
-            throw new DataParsingException("Ошибка чтения данных объекта", e);
+            logger.error(String.format("Servlet: Error. Парсинг не удался. Exception: %s", e.getMessage()));
+            return CompletableFuture.failedFuture(new DataParsingException("Ошибка чтения данных объекта", e));
         }
     }
 
+    /**
+     * Неблокирующее чтение тела запроса как массива байтов
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param maxBodySize максимальный размер тела в байтах
+     * @return {@code CompletableFuture<byte[]>}; пустое или слишком большое тело - исключение {@link DataParsingException}
+     * @see BytesBodyReadListener
+     */
+    protected CompletableFuture<byte[]> readBodyBytesAsync(AsyncContext asyncContext, long maxBodySize) {
+        try {
+            ServletInputStream inputStream = asyncContext.getRequest().getInputStream();
+            BytesBodyReadListener listener = new BytesBodyReadListener(
+                    inputStream, asyncContext.getRequest().getContentLengthLong(), IO_BUFFER_SIZE, maxBodySize);
+            if (!listener.result().isDone()) {
+                inputStream.setReadListener(listener);
+            }
+            return listener.result();
+        }
+        catch (Exception e) {
+            logger.error(String.format("Servlet: Error. Чтение тела не удалось. Exception: %s", e.getMessage()));
+            return CompletableFuture.failedFuture(new DataParsingException("Ошибка чтения тела запроса", e));
+        }
+    }
+
+    /**
+     * Продолжить цепочку вызовом контроллера,
+     * объявляющим проверяемые исключения
+     *
+     * @param future предыдущий шаг цепочки
+     * @param step вызов контроллера
+     * @return {@code CompletableFuture<R>}
+     */
+    protected <T, R> CompletableFuture<R> thenCall(CompletableFuture<T> future, AsyncStep<T, R> step) {
+        return future.thenCompose(value -> {
+            try {
+                return step.apply(value);
+            }
+            catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
     protected void handleAsyncError(AsyncContext asyncContext, Exception e, String path) {
         try {
 
@@ -194,7 +532,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
                 counter++;
                 if (counter > 10) break;
             }
-            String message = cause.getMessage();
+            String message = cause != null ? cause.getMessage() : e.getMessage();
             int statusCode = -1;
 
             if (e instanceof SQLException) {
@@ -210,6 +548,10 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
             if (e instanceof InterruptedException) {
                 statusCode = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
             }
+            if (e instanceof RejectedExecutionException) {
+                message = StaticConstants.SERVICE_OVERLOADED_EXCEPTION_MESSAGE;
+                statusCode = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+            }
             if (e instanceof NullPointerException) {
                 message = StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE;
                 statusCode = HttpServletResponse.SC_BAD_REQUEST;
@@ -274,6 +616,14 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
                 message = StaticConstants.USER_NOT_FOUND_EXCEPTION_MESSAGE;
                 statusCode = HttpServletResponse.SC_NOT_FOUND;
             }
+            if (e instanceof ImageNotFoundException) {
+                message = StaticConstants.IMAGE_NOT_FOUND_EXCEPTION_MESSAGE;
+                statusCode = HttpServletResponse.SC_NOT_FOUND;
+            }
+            if (e instanceof InvalidImageException) {
+                message = StaticConstants.UNSUPPORTED_IMAGE_EXCEPTION_MESSAGE;
+                statusCode = HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
+            }
             if (e instanceof ProjectUpdateException) {
                 message = "Failed to update project";
                 statusCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
@@ -292,9 +642,7 @@ public abstract class BaseServlet extends HttpServlet implements AutoCloseable{
             asyncErrorResponse(statusCode, path, message, asyncContext, e);
         }
         finally {
-            if (asyncContext != null) {
-                asyncContext.complete();
-            }
+            completeQuietly(asyncContext);
         }
     }
 
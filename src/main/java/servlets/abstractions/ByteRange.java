@@ -0,0 +1,101 @@
+package servlets.abstractions;
+
+/**
+ * Диапазон байтов заголовка {@code Range} (RFC 9110, раздел 14)
+ * <p>Поддерживается один диапазон: {@code bytes=first-last}, {@code bytes=first-}
+ * и {@code bytes=-suffix}. Несколько диапазонов, другие единицы и некорректный
+ * заголовок игнорируются - отдаётся всё тело, как разрешает RFC</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public final class ByteRange {
+
+    /**
+     * Диапазон вне тела: ответ {@code 416 Range Not Satisfiable}
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT = "bytes=";
+
+    private final long first;
+    private final long last;
+
+    private ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Разобрать заголовок {@code Range}
+     *
+     * @param header значение заголовка или {@code null}
+     * @param size размер тела
+     * @return {@code ByteRange}, {@link #UNSATISFIABLE}
+     * или {@code null}, если отдаётся всё тело
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null) {
+            return null;
+        }
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, UNIT, 0, UNIT.length())) {
+            return null;
+        }
+        String spec = value.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+
+        try {
+            String firstPart = spec.substring(0, dash).trim();
+            String lastPart = spec.substring(dash + 1).trim();
+
+            if (firstPart.isEmpty()) {
+                long suffix = Long.parseLong(lastPart);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long first = Long.parseLong(firstPart);
+            long last = lastPart.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lastPart);
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(first, Math.min(last, size - 1));
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    public long length() {
+        return last - first + 1;
+    }
+
+    /**
+     * Значение заголовка {@code Content-Range}
+     *
+     * @param size размер тела
+     * @return {@code bytes first-last/size}; для {@link #UNSATISFIABLE} - без диапазона, только размер
+     */
+    public String contentRange(long size) {
+        return this == UNSATISFIABLE
+                ? String.format("bytes */%d", size)
+                : String.format("bytes %d-%d/%d", first, last, size);
+    }
+}
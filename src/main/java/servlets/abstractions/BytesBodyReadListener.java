@@ -0,0 +1,107 @@
+package servlets.abstractions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.exceptions.DataParsingException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующее чтение тела запроса как массива байтов
+ * <p>Как и {@link JsonBodyReadListener}, читает только когда контейнер сообщает
+ * о готовности данных, и прерывает чтение, как только тело превысило {@code maxBodySize}.
+ * При известном {@code Content-Length} больше лимита тело не читается вовсе</p>
+ *
+ * @see BaseServlet#readBodyBytesAsync(javax.servlet.AsyncContext, long)
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class BytesBodyReadListener implements ReadListener {
+
+    Logger logger = LoggerFactory.getLogger(BytesBodyReadListener.class);
+
+    private final ServletInputStream inputStream;
+    private final long maxBodySize;
+    private final byte[] buffer;
+    private final ByteArrayOutputStream body;
+    private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+
+    /**
+     * @param inputStream поток тела запроса
+     * @param contentLength {@code Content-Length} запроса или {@code -1}
+     * @param bufferSize размер буфера чтения
+     * @param maxBodySize максимальный размер тела в байтах
+     */
+    public BytesBodyReadListener(ServletInputStream inputStream, long contentLength, int bufferSize, long maxBodySize) {
+        this.inputStream = inputStream;
+        this.maxBodySize = maxBodySize;
+        this.buffer = new byte[bufferSize];
+        this.body = new ByteArrayOutputStream(contentLength > 0 && contentLength <= maxBodySize
+                ? (int) contentLength
+                : bufferSize);
+        if (contentLength > maxBodySize) {
+            fail(tooLarge());
+        }
+    }
+
+    /**
+     * Тело запроса
+     *
+     * @return {@code CompletableFuture<byte[]>}, завершаемый исключением {@link DataParsingException}
+     * при пустом или слишком большом теле
+     */
+    public CompletableFuture<byte[]> result() {
+        return result;
+    }
+
+    @Override
+    public void onDataAvailable() {
+        try {
+            while (!result.isDone() && inputStream.isReady() && !inputStream.isFinished()) {
+                int length = inputStream.read(buffer);
+                if (length <= 0) {
+                    continue;
+                }
+                if (body.size() + (long) length > maxBodySize) {
+                    throw tooLarge();
+                }
+                body.write(buffer, 0, length);
+            }
+        }
+        catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onAllDataRead() {
+        if (result.isDone()) {
+            return;
+        }
+        if (body.size() == 0) {
+            fail(new DataParsingException("Request body is empty"));
+            return;
+        }
+        result.complete(body.toByteArray());
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+    }
+
+    private DataParsingException tooLarge() {
+        return new DataParsingException(String.format("Request body exceeds %d bytes", maxBodySize));
+    }
+
+    private void fail(Throwable t) {
+        logger.error(String.format("Servlet: Error. Чтение тела не удалось. Exception: %s", t.getMessage()));
+        result.completeExceptionally(t instanceof DataParsingException
+                ? t
+                : new DataParsingException("Ошибка чтения тела запроса", t));
+    }
+}
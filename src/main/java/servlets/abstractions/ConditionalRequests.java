@@ -0,0 +1,113 @@
+package servlets.abstractions;
+
+import models.dtos.VersionDto;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Утильный класс условных запросов (RFC 9110, раздел 13)
+ * <p>{@code If-None-Match} имеет приоритет: если он передан, {@code If-Modified-Since} не проверяется.
+ * Теги сравниваются слабым сравнением, так как {@link VersionDto} выдаёт слабые теги</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ConditionalRequests {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * Записать валидаторы версии в заголовки ответа
+     * <p>{@code Cache-Control: no-cache} - клиент может хранить ответ,
+     * но обязан проверять его условным запросом</p>
+     *
+     * @param response ответ
+     * @param version версия ресурса
+     */
+    public static void setValidators(HttpServletResponse response, VersionDto version) {
+        response.setHeader("ETag", version.getEtag());
+        response.setDateHeader("Last-Modified", version.getLastModified());
+        response.setHeader("Cache-Control", "private, no-cache");
+    }
+
+    /**
+     * Проверить, есть ли у клиента актуальная версия ресурса
+     *
+     * @param request запрос
+     * @param version текущая версия ресурса
+     * @return {@code true} - можно ответить {@code 304 Not Modified}
+     */
+    public static boolean isNotModified(HttpServletRequest request, VersionDto version) {
+        return isNotModified(request, version.getEtag(), version.getLastModified());
+    }
+
+    /**
+     * Проверить, есть ли у клиента актуальная версия ресурса
+     *
+     * @param request запрос
+     * @param etag тег текущей версии
+     * @param lastModified время изменения текущей версии, мс
+     * @return {@code true} - можно ответить {@code 304 Not Modified}
+     */
+    public static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, etag);
+        }
+
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+        // Last-Modified передаётся с точностью до секунды
+        return ifModifiedSince >= 0 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * Проверить {@code If-Range}: применять ли {@code Range} к текущей версии
+     * <p>Тег сравнивается строгим сравнением, слабый тег не совпадает никогда;
+     * дата должна точно совпадать с {@code Last-Modified}.
+     * Если условие не выполнено, отдаётся всё тело</p>
+     *
+     * @param request запрос
+     * @param etag строгий тег текущей версии
+     * @param lastModified время изменения текущей версии, мс
+     * @return {@code true} - заголовка нет или версия не изменилась
+     */
+    public static boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith(WEAK_PREFIX) || ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader("If-Range") == lastModified / 1000 * 1000;
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaqueTag = opaqueTag(etag);
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,165 @@
+package servlets.abstractions;
+
+
+import utils.JsonCodec;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Потоковый Json-массив в теле ответа
+ * <p>Элементы сериализуются и отправляются порциями по мере их получения из БД.
+ * Заголовки ответа и {@code [} пишутся с первой порцией: пока ничего не отправлено,
+ * вместо массива ещё можно вернуть ответ об ошибке ({@link #isStarted()})</p>
+ *
+ * @see BaseServlet#respondStreamAsync(AsyncContext, String, BaseServlet.StreamCall)
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonArrayResponseStream {
+
+    private final AsyncContext asyncContext;
+    private final int chunkSize;
+    private volatile ResponseStreamWriteListener listener;
+    private volatile boolean started;
+    private volatile Throwable aborted;
+
+    public JsonArrayResponseStream(AsyncContext asyncContext, int chunkSize) {
+        this.asyncContext = asyncContext;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Отправлено ли уже начало массива
+     *
+     * @return {@code boolean}
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Прервана ли отдача ({@link #abort(Throwable)})
+     *
+     * @return {@code boolean}
+     */
+    public boolean isAborted() {
+        return aborted != null;
+    }
+
+    /**
+     * Прервать отдачу
+     * <p>Ожидающая и все последующие порции завершаются ошибкой {@code t},
+     * поэтому цепочка чтения из БД останавливается и закрывает курсор</p>
+     *
+     * @param t причина
+     */
+    public void abort(Throwable t) {
+        aborted = t;
+        ResponseStreamWriteListener writer = listener;
+        if (writer != null) {
+            writer.abort(t);
+        }
+    }
+
+    /**
+     * Отправить порцию элементов массива
+     *
+     * @param items элементы
+     * @return {@code CompletableFuture<Void>}, завершаемый после передачи порции контейнеру
+     */
+    public CompletableFuture<Void> writeBatch(List<?> items) {
+        if (aborted != null) {
+            return CompletableFuture.failedFuture(aborted);
+        }
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunkSize);
+            boolean first = !started;
+            for (Object item : items) {
+                buffer.write(first ? '[' : ',');
+                first = false;
+                JsonCodec.writerForValue(item).writeValue(buffer, item);
+            }
+            return start().write(buffer.toByteArray());
+        }
+        catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Отправить порцию элементов массива, уже сериализованных в Json
+     *
+     * @param items Json-объекты элементов
+     * @return {@code CompletableFuture<Void>}, завершаемый после передачи порции контейнеру
+     */
+    public CompletableFuture<Void> writeJsonBatch(List<String> items) {
+        if (aborted != null) {
+            return CompletableFuture.failedFuture(aborted);
+        }
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunkSize);
+            boolean first = !started;
+            for (String item : items) {
+                buffer.write(first ? '[' : ',');
+                first = false;
+                buffer.write(item.getBytes(StandardCharsets.UTF_8));
+            }
+            return start().write(buffer.toByteArray());
+        }
+        catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Завершить массив
+     *
+     * @return {@code CompletableFuture<Void>}, завершаемый после передачи всего тела контейнеру
+     */
+    public CompletableFuture<Void> finish() {
+        if (aborted != null) {
+            return CompletableFuture.failedFuture(aborted);
+        }
+        try {
+            byte[] end = started ? "]".getBytes(StandardCharsets.UTF_8) : "[]".getBytes(StandardCharsets.UTF_8);
+            ResponseStreamWriteListener writer = start();
+            writer.write(end);
+            return writer.close();
+        }
+        catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private ResponseStreamWriteListener start() throws IOException {
+        if (listener == null) {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.setStatus(HttpServletResponse.SC_OK);
+
+            ServletOutputStream outputStream = response.getOutputStream();
+            listener = new ResponseStreamWriteListener(outputStream, chunkSize);
+            started = true;
+            outputStream.setWriteListener(listener);
+            if (aborted != null) {
+                listener.abort(aborted);
+            }
+        }
+        return listener;
+    }
+}
@@ -0,0 +1,202 @@
+package servlets.abstractions;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.exceptions.DataParsingException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующее чтение Json-тела запроса
+ * <p>Данные читаются только когда контейнер сообщает об их готовности
+ * ({@link #onDataAvailable()}) и сразу подаются в неблокирующий парсер Jackson
+ * ({@code NonBlockingJsonParser}); полученные токены накапливаются в {@link TokenBuffer}.
+ * После {@link #onAllDataRead()} из буфера токенов собирается объект,
+ * и {@link #result()} завершается. Поток на время загрузки тела не занимается</p>
+ * <p>{@link #forValues} собирает список: тело - Json-массив
+ * или последовательность Json-объектов, разделённых переводами строк (NDJSON)</p>
+ *
+ * @param <T> тип объекта тела запроса
+ * @see BaseServlet#readBodyAsync(javax.servlet.AsyncContext, Class)
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonBodyReadListener<T> implements ReadListener {
+
+    /**
+     * Сборка результата из буфера токенов
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    interface BodyMapper<T> {
+        T map(ObjectReader reader, JsonParser parser) throws IOException;
+    }
+
+    Logger logger = LoggerFactory.getLogger(JsonBodyReadListener.class);
+
+    private final ServletInputStream inputStream;
+    private final ObjectReader reader;
+    private final BodyMapper<T> mapper;
+    private final long maxBodySize;
+    private final byte[] buffer;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private long bytesRead;
+
+    /**
+     * @param inputStream поток тела запроса
+     * @param reader {@code ObjectReader} типа {@code T}, см. {@link utils.JsonCodec#readerFor(Class)}
+     * @param bufferSize размер буфера чтения
+     * @param maxBodySize максимальный размер тела в байтах
+     */
+    public JsonBodyReadListener(ServletInputStream inputStream, ObjectReader reader,
+                                int bufferSize, long maxBodySize) throws IOException {
+        this(inputStream, reader, bufferSize, maxBodySize, ObjectReader::readValue);
+    }
+
+    private JsonBodyReadListener(ServletInputStream inputStream, ObjectReader reader,
+                                 int bufferSize, long maxBodySize, BodyMapper<T> mapper) throws IOException {
+        this.inputStream = inputStream;
+        this.reader = reader;
+        this.mapper = mapper;
+        this.maxBodySize = maxBodySize;
+        this.buffer = new byte[bufferSize];
+
+        this.parser = reader.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(parser);
+    }
+
+    /**
+     * Чтение списка значений: Json-массива или NDJSON
+     *
+     * @param inputStream поток тела запроса
+     * @param reader {@code ObjectReader} типа элемента
+     * @param bufferSize размер буфера чтения
+     * @param maxBodySize максимальный размер тела в байтах
+     * @return {@code JsonBodyReadListener<List<E>>}
+     */
+    public static <E> JsonBodyReadListener<List<E>> forValues(ServletInputStream inputStream, ObjectReader reader,
+                                                             int bufferSize, long maxBodySize) throws IOException {
+        return new JsonBodyReadListener<>(inputStream, reader, bufferSize, maxBodySize, JsonBodyReadListener::readValues);
+    }
+
+    /**
+     * Корневой массив разворачивается; последовательность корневых значений (NDJSON)
+     * читается до конца ввода
+     */
+    private static <E> List<E> readValues(ObjectReader reader, JsonParser parser) throws IOException {
+        List<E> values = new ArrayList<>();
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            token = parser.nextToken();
+        }
+        while (token != null && token != JsonToken.END_ARRAY) {
+            values.add(reader.readValue(parser));
+            token = parser.nextToken();
+        }
+        return values;
+    }
+
+    /**
+     * Результат разбора тела запроса
+     *
+     * @return {@code CompletableFuture<T>}, завершаемый исключением {@link DataParsingException}
+     * при некорректном или слишком большом теле
+     */
+    public CompletableFuture<T> result() {
+        return result;
+    }
+
+    @Override
+    public void onDataAvailable() {
+        try {
+            while (!result.isDone() && inputStream.isReady() && !inputStream.isFinished()) {
+                int length = inputStream.read(buffer);
+                if (length <= 0) {
+                    continue;
+                }
+                bytesRead += length;
+                if (bytesRead > maxBodySize) {
+                    throw new DataParsingException(String.format("Request body exceeds %d bytes", maxBodySize));
+                }
+                feeder.feedInput(buffer, 0, length);
+                drainTokens();
+            }
+        }
+        catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onAllDataRead() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            feeder.endOfInput();
+            drainTokens();
+            if (tokens.firstToken() == null) {
+                throw new DataParsingException("Request body is empty");
+            }
+            result.complete(mapper.map(reader, tokens.asParser(reader)));
+        }
+        catch (Exception e) {
+            fail(e);
+        }
+        finally {
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+        closeQuietly();
+    }
+
+    /**
+     * Переложить все готовые токены из парсера в буфер
+     * <p>Парсер хранит ссылку на переданный массив, поэтому буфер чтения
+     * переиспользуется только после того, как парсер вернул {@code NOT_AVAILABLE}</p>
+     */
+    private void drainTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+        }
+    }
+
+    private void fail(Throwable t) {
+        logger.error(String.format("Servlet: Error. Парсинг не удался. Exception: %s", t.getMessage()));
+        result.completeExceptionally(t instanceof DataParsingException
+                ? t
+                : new DataParsingException("Ошибка чтения данных объекта", t));
+    }
+
+    private void closeQuietly() {
+        try {
+            parser.close();
+            tokens.close();
+        }
+        catch (IOException e) {
+            logger.debug("Ошибка закрытия парсера: " + e.getMessage());
+        }
+    }
+}
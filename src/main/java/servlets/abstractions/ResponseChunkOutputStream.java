@@ -0,0 +1,129 @@
+package servlets.abstractions;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Поток байтов тела ответа, отдаваемый контейнеру порциями фиксированного размера
+ * <p>{@code JsonGenerator} пишет закодированный Json прямо в этот поток, без промежуточной строки.
+ * Политика сброса: порция передаётся в {@link ResponseStreamWriteListener}, как только
+ * заполнен буфер размером {@code chunkSize}; {@link #flush()} неполную порцию не отправляет,
+ * остаток уходит при {@link #close()}, после чего поток контейнера закрывается. Если всё тело уместилось в одну порцию,
+ * ответ получает {@code Content-Length}, иначе отдаётся chunked-кодированием.
+ * Статус ответа выставляется вместе с заголовками перед первой порцией</p>
+ *
+ * @see BaseServlet#asyncJsonResponse(int, Object, AsyncContext)
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ResponseChunkOutputStream extends OutputStream {
+
+    private final AsyncContext asyncContext;
+    private final int statusCode;
+    private final int chunkSize;
+    private byte[] chunk;
+    private int position;
+    private ResponseStreamWriteListener listener;
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    private boolean closed;
+
+    public ResponseChunkOutputStream(AsyncContext asyncContext, int statusCode, int chunkSize) {
+        this.asyncContext = asyncContext;
+        this.statusCode = statusCode;
+        this.chunkSize = chunkSize;
+        this.chunk = new byte[chunkSize];
+    }
+
+    /**
+     * Передана ли контейнеру хотя бы одна порция (заголовки ответа уже отправлены)
+     *
+     * @return {@code boolean}
+     */
+    public boolean isStarted() {
+        return listener != null;
+    }
+
+    /**
+     * Завершается, когда всё тело передано контейнеру
+     *
+     * @return {@code CompletableFuture<Void>}
+     */
+    public CompletableFuture<Void> written() {
+        return lastWrite;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        chunk[position++] = (byte) b;
+        if (position == chunkSize) {
+            emitFullChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int length = Math.min(len, chunkSize - position);
+            System.arraycopy(b, off, chunk, position, length);
+            position += length;
+            off += length;
+            len -= length;
+            if (position == chunkSize) {
+                emitFullChunk();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (listener == null) {
+            start(position);
+        }
+        if (position > 0) {
+            emit(Arrays.copyOf(chunk, position));
+        }
+        lastWrite = listener.close();
+        chunk = null;
+    }
+
+    private void emitFullChunk() throws IOException {
+        emit(chunk);
+        chunk = new byte[chunkSize];
+        position = 0;
+    }
+
+    private void emit(byte[] data) throws IOException {
+        if (listener == null) {
+            start(-1);
+        }
+        lastWrite = listener.write(data);
+    }
+
+    private void start(int contentLength) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        if (contentLength >= 0) {
+            response.setContentLength(contentLength);
+        }
+        response.setStatus(statusCode);
+
+        ServletOutputStream outputStream = response.getOutputStream();
+        listener = new ResponseStreamWriteListener(outputStream, chunkSize);
+        outputStream.setWriteListener(listener);
+    }
+}
@@ -0,0 +1,155 @@
+package servlets.abstractions;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующая потоковая запись тела ответа
+ * <p>Тело заранее неизвестно: порции добавляются через {@link #write(byte[])} по мере готовности.
+ * Порции пишутся, пока {@link ServletOutputStream#isReady()} возвращает {@code true};
+ * {@code CompletableFuture} порции завершается, когда она целиком передана контейнеру,
+ * что позволяет производителю не готовить следующую порцию, пока клиент не принял предыдущую</p>
+ *
+ * @see JsonArrayResponseStream
+ * @see ResponseChunkOutputStream
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ResponseStreamWriteListener implements WriteListener {
+
+    private final ServletOutputStream outputStream;
+    private final int chunkSize;
+    private final Deque<PendingWrite> queue = new ArrayDeque<>();
+    private boolean writePossible;
+    private Throwable error;
+
+    public ResponseStreamWriteListener(ServletOutputStream outputStream, int chunkSize) {
+        this.outputStream = outputStream;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Добавить порцию в очередь записи
+     *
+     * @param data байты порции; {@code null} - закрытие потока, см. {@link #close()}
+     * @return {@code CompletableFuture<Void>}, завершаемый после передачи порции контейнеру
+     */
+    public CompletableFuture<Void> write(byte[] data) {
+        PendingWrite pending = new PendingWrite(data);
+        List<PendingWrite> written;
+        synchronized (this) {
+            if (error != null) {
+                return CompletableFuture.failedFuture(error);
+            }
+            queue.add(pending);
+            if (!writePossible) {
+                return pending.future;
+            }
+            written = drain();
+        }
+        completeAll(written);
+        return pending.future;
+    }
+
+    /**
+     * Закрыть поток ответа после записи всех порций очереди
+     * <p>Нужно, чтобы обёртки потока (например, сжатие) дописали хвост данных</p>
+     *
+     * @return {@code CompletableFuture<Void>}, завершаемый после закрытия потока
+     */
+    public CompletableFuture<Void> close() {
+        return write(null);
+    }
+
+    @Override
+    public void onWritePossible() {
+        List<PendingWrite> written;
+        synchronized (this) {
+            writePossible = true;
+            written = drain();
+        }
+        completeAll(written);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        abort(t);
+    }
+
+    /**
+     * Прервать запись: порции в очереди и все последующие завершаются ошибкой {@code t}
+     * <p>Вызывается контейнером при ошибке записи и сервлетом при тайм-ауте запроса,
+     * чтобы производитель порций остановился и освободил свои ресурсы</p>
+     *
+     * @param t причина
+     */
+    public void abort(Throwable t) {
+        List<PendingWrite> failed;
+        synchronized (this) {
+            failed = fail(t);
+        }
+        failed.forEach(pending -> pending.future.completeExceptionally(t));
+    }
+
+    /**
+     * Записать очередь, пока контейнер принимает данные;
+     * вызывается под блокировкой, а {@code CompletableFuture} записанных порций
+     * завершаются уже после её снятия
+     */
+    private List<PendingWrite> drain() {
+        List<PendingWrite> written = new ArrayList<>();
+        try {
+            while (!queue.isEmpty()) {
+                if (!outputStream.isReady()) {
+                    writePossible = false;
+                    break;
+                }
+                PendingWrite head = queue.peek();
+                if (head.data == null) {
+                    outputStream.close();
+                    written.add(queue.poll());
+                    continue;
+                }
+                int length = Math.min(chunkSize, head.data.length - head.offset);
+                outputStream.write(head.data, head.offset, length);
+                head.offset += length;
+                if (head.offset >= head.data.length) {
+                    written.add(queue.poll());
+                }
+            }
+        }
+        catch (IOException e) {
+            List<PendingWrite> failed = fail(e);
+            failed.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+        return written;
+    }
+
+    private List<PendingWrite> fail(Throwable t) {
+        error = t;
+        List<PendingWrite> failed = new ArrayList<>(queue);
+        queue.clear();
+        return failed;
+    }
+
+    private static void completeAll(List<PendingWrite> written) {
+        written.forEach(pending -> pending.future.complete(null));
+    }
+
+    private static class PendingWrite {
+        private final byte[] data;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int offset;
+
+        PendingWrite(byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package servlets.abstractions;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Прерывание потоковой отдачи по тайм-ауту или ошибке асинхронного запроса
+ * <p>Без него при тайм-ауте контейнер завершает запрос, а цепочка порций
+ * продолжает ждать записи, которая никогда не завершится, и держит курсор и соединение БД.
+ * {@link #aborted()} завершается ошибкой в {@code onTimeout} / {@code onError},
+ * после чего асинхронный контекст завершается; при обычном завершении запроса - без ошибки</p>
+ *
+ * @see BaseServlet#STREAM_TIMEOUT
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class StreamAbortListener implements AsyncListener {
+
+    static Logger logger = LoggerFactory.getLogger(StreamAbortListener.class);
+
+    private final String path;
+    private final CompletableFuture<Void> aborted = new CompletableFuture<>();
+
+    public StreamAbortListener(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Зарегистрировать слушатель и тайм-аут {@code servlet.stream.timeout-ms} в асинхронном контексте
+     *
+     * @param asyncContext асинхронный контекст запроса
+     * @param path путь эндпойнта для журнала
+     * @return {@code StreamAbortListener}
+     */
+    public static StreamAbortListener register(AsyncContext asyncContext, String path) {
+        StreamAbortListener listener = new StreamAbortListener(path);
+        asyncContext.setTimeout(BaseServlet.STREAM_TIMEOUT);
+        asyncContext.addListener(listener);
+        return listener;
+    }
+
+    /**
+     * Завершается ошибкой при тайм-ауте или ошибке запроса
+     *
+     * @return {@code CompletableFuture<Void>}
+     */
+    public CompletableFuture<Void> aborted() {
+        return aborted;
+    }
+
+    /**
+     * Прерван ли запрос
+     *
+     * @return {@code boolean}
+     */
+    public boolean isAborted() {
+        return aborted.isCompletedExceptionally();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        aborted.complete(null);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        abort(event, new TimeoutException(String.format("Stream %s timed out", path)));
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        abort(event, event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void abort(AsyncEvent event, Throwable cause) {
+        logger.error(String.format("Потоковая отдача %s прервана: %s", path, cause != null ? cause.getMessage() : null));
+        aborted.completeExceptionally(cause != null ? cause : new TimeoutException(path));
+        try {
+            event.getAsyncContext().complete();
+        }
+        catch (IllegalStateException e) {
+            logger.debug("AsyncContext уже завершён");
+        }
+    }
+}
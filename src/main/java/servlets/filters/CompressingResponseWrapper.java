@@ -0,0 +1,107 @@
+package servlets.filters;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Обёртка ответа, отдающая тело через {@link CompressingServletOutputStream}
+ * <p>{@code Content-Length} придерживается до решения о сжатии: у сжатого ответа
+ * размер другой, и контейнер отдаёт его chunked-кодированием.
+ * Ответы через {@link #getWriter()} (короткие ответы об ошибках) не сжимаются</p>
+ *
+ * @see CompressionFilter
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ContentEncoding encoding;
+    private final DeflaterPool deflaterPool;
+    private final int threshold;
+    private final int bufferSize;
+
+    private CompressingServletOutputStream outputStream;
+    private boolean writerUsed;
+    private long contentLength = -1;
+
+    public CompressingResponseWrapper(HttpServletResponse response, ContentEncoding encoding,
+                                      DeflaterPool deflaterPool, int threshold, int bufferSize) {
+        super(response);
+        this.encoding = encoding;
+        this.deflaterPool = deflaterPool;
+        this.threshold = threshold;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writerUsed) {
+            return super.getOutputStream();
+        }
+        if (outputStream == null) {
+            outputStream = new CompressingServletOutputStream(
+                    super.getOutputStream(), (HttpServletResponse) getResponse(),
+                    encoding, deflaterPool, threshold, bufferSize);
+            if (contentLength >= 0) {
+                outputStream.declareContentLength(contentLength);
+            }
+        }
+        return outputStream;
+    }
+
+    /**
+     * Дописать тело, если сервлет не закрыл поток: отправить буферизованные байты,
+     * хвост deflate и трейлер gzip
+     *
+     * @see CompressingServletOutputStream#close()
+     */
+    public void finish() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Освободить ресурсы сжатия, если тело не было закрыто
+     *
+     * @see CompressingServletOutputStream#abort()
+     */
+    public void abort() {
+        if (outputStream != null) {
+            outputStream.abort();
+        }
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream == null && !writerUsed) {
+            writerUsed = true;
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+        return super.getWriter();
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (writerUsed) {
+            super.setContentLengthLong(length);
+        }
+        else if (outputStream == null) {
+            contentLength = length;
+        }
+        else if (!outputStream.declareContentLength(length)) {
+            super.setContentLengthLong(length);
+        }
+    }
+}
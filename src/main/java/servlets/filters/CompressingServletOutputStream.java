@@ -0,0 +1,277 @@
+package servlets.filters;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Сжимающий поток тела ответа
+ * <p>Пока размер тела неизвестен, первые байты копятся в буфере размером с порог:
+ * тело меньше порога отдаётся как есть (с {@code Content-Length}), больше - сжимается.
+ * Если {@code Content-Length} объявлен заранее, решение принимается сразу по нему.</p>
+ * <p>Поток совместим с неблокирующим выводом ({@code WriteListener}): каждый вызов
+ * {@link #write(byte[], int, int)} и {@link #close()} делает не больше одной записи
+ * в поток контейнера, а {@link #isReady()} и {@link #setWriteListener(WriteListener)}
+ * делегируются ему. Хвост сжатых данных пишется при {@link #close()}.
+ * Если ответ прерван и {@link #close()} не будет вызван, {@link #abort()}
+ * возвращает {@code Deflater} в пул</p>
+ *
+ * @see CompressionFilter
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompressingServletOutputStream extends ServletOutputStream {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private enum State { UNDECIDED, COMPRESSING, PASSTHROUGH, CLOSED }
+
+    private final ServletOutputStream target;
+    private final HttpServletResponse response;
+    private final ContentEncoding encoding;
+    private final DeflaterPool deflaterPool;
+    private final int threshold;
+    private final byte[] deflateBuffer;
+    private final OutputBuffer output;
+
+    private State state = State.UNDECIDED;
+    private long declaredLength = -1;
+    private byte[] pending;
+    private int pendingSize;
+
+    private Deflater deflater;
+    private CRC32 crc;
+    private long bytesIn;
+    private long bytesOut;
+    private long cpuTime;
+
+    public CompressingServletOutputStream(ServletOutputStream target, HttpServletResponse response,
+                                          ContentEncoding encoding, DeflaterPool deflaterPool,
+                                          int threshold, int bufferSize) {
+        this.target = target;
+        this.response = response;
+        this.encoding = encoding;
+        this.deflaterPool = deflaterPool;
+        this.threshold = threshold;
+        this.deflateBuffer = new byte[bufferSize];
+        this.output = new OutputBuffer(bufferSize);
+    }
+
+    /**
+     * Объявленный размер тела; учитывается, пока не записано ни одного байта
+     *
+     * @param length размер в байтах
+     * @return {@code false}, если решение о сжатии уже принято и размер нужно передать контейнеру
+     */
+    boolean declareContentLength(long length) {
+        if (state != State.UNDECIDED || pendingSize > 0) {
+            return false;
+        }
+        declaredLength = length;
+        return true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return target.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        target.setWriteListener(writeListener);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        switch (state) {
+            case UNDECIDED -> {
+                if (declaredLength >= 0) {
+                    decide(declaredLength >= threshold);
+                    write(b, off, len);
+                }
+                else if (pendingSize + len < threshold) {
+                    buffer(b, off, len);
+                }
+                else {
+                    decide(true);
+                    compress(b, off, len);
+                }
+            }
+            case COMPRESSING -> compress(b, off, len);
+            case PASSTHROUGH -> target.write(b, off, len);
+            case CLOSED -> throw new IOException("Stream is closed");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (state == State.PASSTHROUGH) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        switch (state) {
+            case UNDECIDED -> {
+                if (declaredLength < 0) {
+                    declaredLength = pendingSize;
+                }
+                decide(declaredLength >= threshold);
+                close();
+            }
+            case COMPRESSING -> {
+                state = State.CLOSED;
+                try {
+                    long start = CompressionMetrics.currentCpuTime();
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        deflate();
+                    }
+                    if (encoding == ContentEncoding.GZIP) {
+                        writeTrailer();
+                    }
+                    cpuTime += CompressionMetrics.currentCpuTime() - start;
+                    writeOutput();
+                    CompressionMetrics.compressed(bytesIn, bytesOut, cpuTime);
+                }
+                finally {
+                    deflaterPool.release(deflater);
+                    deflater = null;
+                }
+                target.close();
+            }
+            case PASSTHROUGH -> {
+                state = State.CLOSED;
+                target.close();
+            }
+            case CLOSED -> {
+            }
+        }
+    }
+
+    /**
+     * Прервать поток без записи хвоста: вернуть {@code Deflater} в пул
+     * <p>Вызывается по завершении асинхронного запроса и при исключении синхронной обработки;
+     * после {@link #close()} ничего не делает</p>
+     */
+    public synchronized void abort() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        state = State.CLOSED;
+        pending = null;
+        pendingSize = 0;
+        if (deflater != null) {
+            deflaterPool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private void buffer(byte[] b, int off, int len) {
+        if (pending == null) {
+            pending = new byte[threshold];
+        }
+        System.arraycopy(b, off, pending, pendingSize, len);
+        pendingSize += len;
+    }
+
+    private void decide(boolean compress) throws IOException {
+        if (compress) {
+            state = State.COMPRESSING;
+            response.setHeader("Content-Encoding", encoding.getToken());
+            response.addHeader("Vary", "Accept-Encoding");
+            deflater = deflaterPool.borrow();
+            if (encoding == ContentEncoding.GZIP) {
+                crc = new CRC32();
+                output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+            if (pendingSize > 0) {
+                compressInput(pending, 0, pendingSize);
+            }
+        }
+        else {
+            state = State.PASSTHROUGH;
+            CompressionMetrics.skipped();
+            if (declaredLength >= 0) {
+                response.setContentLengthLong(declaredLength);
+            }
+            if (pendingSize > 0) {
+                target.write(pending, 0, pendingSize);
+            }
+        }
+        pending = null;
+        pendingSize = 0;
+    }
+
+    private void compress(byte[] b, int off, int len) throws IOException {
+        compressInput(b, off, len);
+        writeOutput();
+    }
+
+    private void compressInput(byte[] b, int off, int len) {
+        long start = CompressionMetrics.currentCpuTime();
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        bytesIn += len;
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+        cpuTime += CompressionMetrics.currentCpuTime() - start;
+    }
+
+    private void deflate() {
+        int length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.NO_FLUSH);
+        output.write(deflateBuffer, 0, length);
+    }
+
+    private void writeTrailer() {
+        writeInt((int) crc.getValue());
+        writeInt((int) bytesIn);
+    }
+
+    private void writeInt(int value) {
+        output.write(value & 0xff);
+        output.write((value >> 8) & 0xff);
+        output.write((value >> 16) & 0xff);
+        output.write((value >> 24) & 0xff);
+    }
+
+    /**
+     * Всё накопленное за вызов сжатое содержимое уходит в контейнер одной записью
+     */
+    private void writeOutput() throws IOException {
+        if (output.size() == 0) {
+            return;
+        }
+        bytesOut += output.size();
+        target.write(output.array(), 0, output.size());
+        output.reset();
+    }
+
+    /**
+     * Буфер сжатых данных с доступом к массиву без копирования
+     */
+    private static class OutputBuffer extends ByteArrayOutputStream {
+
+        OutputBuffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package servlets.filters;
+
+import configurations.PropertiesConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Фильтр сжатия ответов API
+ * <p>Кодировка (gzip / deflate) выбирается по заголовку {@code Accept-Encoding};
+ * сжимаются только ответы не меньше {@code servlet.compression.threshold-bytes}.
+ * Уровень сжатия задаётся {@code servlet.compression.level}, экземпляры {@code Deflater}
+ * берутся из пулов {@link DeflaterPool}. Метрики - {@link CompressionMetrics}</p>
+ * <p>Пути {@code servlet.compression.excluded-paths} не сжимаются: изображения уже сжаты,
+ * а {@code Content-Length} и {@code Content-Range} их ответов считаются по исходным байтам</p>
+ * <p>Сервлеты должны начинать асинхронную обработку через {@code req.startAsync(req, resp)},
+ * чтобы асинхронный контекст использовал обёрнутый ответ.
+ * Тело синхронного ответа, не закрытое сервлетом, дописывается фильтром после цепочки;
+ * при исключении цепочки ресурсы сжатия освобождаются без записи</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@WebFilter(urlPatterns = "/api/*", asyncSupported = true)
+public class CompressionFilter implements Filter {
+
+    Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+
+    private static final boolean enabled = Boolean.parseBoolean(PropertiesConfiguration.getSetting(
+            "SERVLET_COMPRESSION_ENABLED", "servlet.compression.enabled", "true"));
+    private static final int threshold = PropertiesConfiguration.getIntSetting(
+            "SERVLET_COMPRESSION_THRESHOLD_BYTES", "servlet.compression.threshold-bytes", 1024);
+    private static final int level = PropertiesConfiguration.getIntSetting(
+            "SERVLET_COMPRESSION_LEVEL", "servlet.compression.level", 6);
+    private static final int poolSize = PropertiesConfiguration.getIntSetting(
+            "SERVLET_COMPRESSION_DEFLATER_POOL_SIZE", "servlet.compression.deflater-pool-size", 32);
+    private static final int bufferSize = PropertiesConfiguration.getIntSetting(
+            "SERVLET_IO_BUFFER_SIZE", "servlet.io.buffer-size", 8192);
+    private static final Set<String> excludedPaths = Arrays.stream(PropertiesConfiguration.getSetting(
+                    "SERVLET_COMPRESSION_EXCLUDED_PATHS", "servlet.compression.excluded-paths",
+                    "/api/v1/users/image,/api/v1/projects/image").split(","))
+            .map(String::trim)
+            .filter(path -> !path.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+
+    private DeflaterPool gzipPool;
+    private DeflaterPool deflatePool;
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        gzipPool = new DeflaterPool(level, true, poolSize);
+        deflatePool = new DeflaterPool(level, false, poolSize);
+        logger.info(String.format("Сжатие ответов: enabled=%s, threshold=%d, level=%d", enabled, threshold, level));
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!enabled || !(request instanceof HttpServletRequest httpRequest)
+                || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ContentEncoding encoding = ContentEncoding.negotiate(httpRequest.getHeader("Accept-Encoding"));
+        if (encoding == null || "HEAD".equals(httpRequest.getMethod())
+                || excludedPaths.contains(httpRequest.getRequestURI().substring(httpRequest.getContextPath().length()))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        DeflaterPool pool = encoding == ContentEncoding.GZIP ? gzipPool : deflatePool;
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(httpResponse, encoding, pool, threshold, bufferSize);
+        try {
+            chain.doFilter(request, wrapper);
+        }
+        catch (IOException | ServletException | RuntimeException e) {
+            if (!request.isAsyncStarted()) {
+                wrapper.abort();
+            }
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new ReleaseListener(wrapper));
+        }
+        else {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * Возвращает {@code Deflater} ответа в пул по завершении асинхронного запроса,
+     * в том числе когда отдача прервана ошибкой и поток тела не был закрыт
+     */
+    private static class ReleaseListener implements AsyncListener {
+
+        private final CompressingResponseWrapper wrapper;
+
+        ReleaseListener(CompressingResponseWrapper wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            wrapper.abort();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        gzipPool.close();
+        deflatePool.close();
+    }
+}
@@ -0,0 +1,83 @@
+package servlets.filters;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики сжатия ответов
+ * <p>Считаются сжатые и пропущенные ответы, объём данных до и после сжатия
+ * и процессорное время потоков, затраченное на {@code Deflater.deflate}</p>
+ *
+ * @see CompressionFilter
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompressionMetrics {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported();
+
+    private static final LongAdder compressedResponses = new LongAdder();
+    private static final LongAdder skippedResponses = new LongAdder();
+    private static final LongAdder bytesIn = new LongAdder();
+    private static final LongAdder bytesOut = new LongAdder();
+    private static final LongAdder cpuTimeNanos = new LongAdder();
+    private static final LongAdder deflatersCreated = new LongAdder();
+    private static final LongAdder deflatersReused = new LongAdder();
+
+    /**
+     * Процессорное время текущего потока
+     * <p>Если JVM его не поддерживает - астрономическое время</p>
+     *
+     * @return наносекунды
+     */
+    static long currentCpuTime() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    static void compressed(long in, long out, long cpuNanos) {
+        compressedResponses.increment();
+        bytesIn.add(in);
+        bytesOut.add(out);
+        cpuTimeNanos.add(cpuNanos);
+    }
+
+    static void skipped() {
+        skippedResponses.increment();
+    }
+
+    static void deflaterCreated() {
+        deflatersCreated.increment();
+    }
+
+    static void deflaterReused() {
+        deflatersReused.increment();
+    }
+
+    /**
+     * Снимок метрик
+     *
+     * @return {@code Map<String, Object>}
+     */
+    public static Map<String, Object> snapshot() {
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        long compressed = compressedResponses.sum();
+        long cpu = cpuTimeNanos.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("compressedResponses", compressed);
+        metrics.put("skippedResponses", skippedResponses.sum());
+        metrics.put("bytesIn", in);
+        metrics.put("bytesOut", out);
+        metrics.put("compressionRatio", out == 0 ? 0.0 : (double) in / out);
+        metrics.put("cpuTimeMillis", cpu / 1_000_000.0);
+        metrics.put("cpuTimeMicrosPerResponse", compressed == 0 ? 0.0 : cpu / 1_000.0 / compressed);
+        metrics.put("deflatersCreated", deflatersCreated.sum());
+        metrics.put("deflatersReused", deflatersReused.sum());
+        return metrics;
+    }
+}
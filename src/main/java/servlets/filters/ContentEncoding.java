@@ -0,0 +1,66 @@
+package servlets.filters;
+
+/**
+ * Поддерживаемые кодировки сжатия ответа
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Выбрать кодировку по заголовку {@code Accept-Encoding}
+     * <p>Предпочтение отдаётся gzip; кодировки с {@code q=0} не выбираются</p>
+     *
+     * @param acceptEncoding значение заголовка
+     * @return {@code ContentEncoding}, либо {@code null} если сжатие не поддерживается клиентом
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        ContentEncoding selected = null;
+        double selectedQuality = 0;
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    }
+                    catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            ContentEncoding encoding = switch (name) {
+                case "gzip", "x-gzip", "*" -> GZIP;
+                case "deflate" -> DEFLATE;
+                default -> null;
+            };
+            if (encoding != null && quality > 0
+                    && (quality > selectedQuality || quality == selectedQuality && encoding == GZIP)) {
+                selected = encoding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+}
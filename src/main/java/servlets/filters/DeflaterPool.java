@@ -0,0 +1,69 @@
+package servlets.filters;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Пул {@link Deflater}
+ * <p>{@code Deflater} держит нативный буфер zlib (около 256 КБ), поэтому создавать его
+ * на каждый ответ дорого. Экземпляры возвращаются в пул после {@link Deflater#reset()};
+ * если пул полон, лишний экземпляр освобождается через {@link Deflater#end()}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> pool;
+
+    /**
+     * @param level уровень сжатия
+     * @param nowrap {@code true} - «сырой» deflate без заголовка zlib (для gzip)
+     * @param capacity максимальное число свободных экземпляров в пуле
+     */
+    public DeflaterPool(int level, boolean nowrap, int capacity) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Взять {@code Deflater} из пула, либо создать новый
+     *
+     * @return {@code Deflater}
+     */
+    public Deflater borrow() {
+        Deflater deflater = pool.poll();
+        if (deflater != null) {
+            CompressionMetrics.deflaterReused();
+            return deflater;
+        }
+        CompressionMetrics.deflaterCreated();
+        return new Deflater(level, nowrap);
+    }
+
+    /**
+     * Вернуть {@code Deflater} в пул
+     *
+     * @param deflater экземпляр, полученный из {@link #borrow()}
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!pool.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Освободить все экземпляры пула
+     */
+    public void close() {
+        Deflater deflater;
+        while ((deflater = pool.poll()) != null) {
+            deflater.end();
+        }
+    }
+}
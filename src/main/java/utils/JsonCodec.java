@@ -0,0 +1,105 @@
+package utils;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import models.dtos.ErrorDto;
+import models.dtos.UserDto;
+import models.entities.Project;
+import models.entities.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий Json-кодек слоя сервлетов
+ * <p>Хранит единственный на приложение {@link ObjectMapper}
+ * и кэш {@link ObjectWriter} / {@link ObjectReader} по типу значения:
+ * сериализаторы и десериализаторы разрешаются один раз на класс, а не на каждый запрос.
+ * Ответы сериализуются writer-ом класса значения ({@link #writerForValue(Object)}).
+ * {@code ObjectMapper}, {@code ObjectWriter} и {@code ObjectReader} потокобезопасны
+ * после настройки</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonCodec {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .addMixIn(User.class, ImageReferenceMixIn.class)
+            .addMixIn(Project.class, ImageReferenceMixIn.class);
+
+    /**
+     * Ссылка и хэш изображения не принимаются из тела запроса:
+     * {@code imageUrl} из полученного ранее DTO молча пропускается,
+     * а хэш меняется только загрузкой изображения
+     */
+    @JsonIgnoreProperties(value = {"imageUrl", "imageHash"})
+    private abstract static class ImageReferenceMixIn {
+    }
+
+    private static final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private static final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public static final ObjectWriter ERROR_WRITER = writerFor(ErrorDto.class);
+
+    public static final ObjectReader USER_READER = readerFor(User.class);
+    public static final ObjectReader PROJECT_READER = readerFor(Project.class);
+    public static final ObjectReader USER_DTO_READER = readerFor(UserDto.class);
+
+    /**
+     * Общий {@code ObjectMapper}
+     * <p>Не должен перенастраиваться после запуска приложения</p>
+     *
+     * @return {@code ObjectMapper}
+     */
+    public static ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * {@code ObjectWriter} для типа; строится при первом обращении и кэшируется
+     *
+     * @param type тип значения
+     * @return {@code ObjectWriter}
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(mapper.constructType(type), mapper::writerFor);
+    }
+
+    /**
+     * {@code ObjectReader} для типа; строится при первом обращении и кэшируется
+     *
+     * @param type тип значения
+     * @return {@code ObjectReader}
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(mapper.constructType(type), mapper::readerFor);
+    }
+
+    /**
+     * {@code ObjectWriter} для класса значения
+     *
+     * @param value значение, может быть {@code null}
+     * @return {@code ObjectWriter}
+     */
+    public static ObjectWriter writerForValue(Object value) {
+        return writerFor(value == null ? Object.class : value.getClass());
+    }
+
+    /**
+     * Сериализовать значение writer-ом его класса
+     * <p>Для коллекций тип элементов определяется по значениям, как и у {@code ObjectMapper}</p>
+     *
+     * @param value значение
+     * @return {@code String}
+     */
+    public static String toJson(Object value) throws JsonProcessingException {
+        return writerForValue(value).writeValueAsString(value);
+    }
+}
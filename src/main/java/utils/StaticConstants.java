@@ -27,6 +27,7 @@ public class StaticConstants {
 
     public static final String UNEXPECTED_ERROR_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("UNEXPECTED_ERROR_EXCEPTION_MESSAGE");
     public static final String INTERNAL_SERVER_ERROR_MESSAGE = PropertiesConfiguration.getConstants().getProperty("INTERNAL_SERVER_ERROR_MESSAGE");
+    public static final String SERVICE_OVERLOADED_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("SERVICE_OVERLOADED_EXCEPTION_MESSAGE");
     public static final String STATIC_TEST_STRING = PropertiesConfiguration.getConstants().getProperty("STATIC_TEST_STRING");
     public static final String REQUEST_VALIDATION_ERROR_MESSAGE = PropertiesConfiguration.getConstants().getProperty("REQUEST_VALIDATION_ERROR_MESSAGE");
     public static final String ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("ILLEGAL_ARGUMENT_EXCEPTION_MESSAGE");
@@ -45,6 +46,8 @@ public class StaticConstants {
     public static final String FAILED_TO_CREATE_NEW_USER_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("FAILED_TO_CREATE_NEW_USER_EXCEPTION_MESSAGE");
     public static final String FAILED_TO_UPDATE_USER_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("FAILED_TO_UPDATE_USER_EXCEPTION_MESSAGE");
     public static final String USER_ALREADY_EXISTS_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("USER_ALREADY_EXISTS_EXCEPTION_MESSAGE");
+    public static final String REQUIRED_FIELD_IS_MISSING_MESSAGE = PropertiesConfiguration.getConstants().getProperty("REQUIRED_FIELD_IS_MISSING_MESSAGE");
+    public static final String DUPLICATE_VALUE_IN_REQUEST_MESSAGE = PropertiesConfiguration.getConstants().getProperty("DUPLICATE_VALUE_IN_REQUEST_MESSAGE");
 
     // Database
     public static final String DATABASE_OPERATION_NO_ROWS_AFFECTED_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("DATABASE_OPERATION_NO_ROWS_AFFECTED_EXCEPTION_MESSAGE");
@@ -55,4 +58,8 @@ public class StaticConstants {
     public static final String UNABLE_TO_LOAD_DB_DRIVER = PropertiesConfiguration.getConstants().getProperty("UNABLE_TO_LOAD_DB_DRIVER");
     public static final String PROJECT_USER_NOT_FOUND_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("PROJECT_USER_NOT_FOUND_EXCEPTION_MESSAGE");
 
+    // Image
+    public static final String IMAGE_NOT_FOUND_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("IMAGE_NOT_FOUND_EXCEPTION_MESSAGE");
+    public static final String UNSUPPORTED_IMAGE_EXCEPTION_MESSAGE = PropertiesConfiguration.getConstants().getProperty("UNSUPPORTED_IMAGE_EXCEPTION_MESSAGE");
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package utils.exceptions;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImageNotFoundException extends RuntimeException {
+    public ImageNotFoundException(String message) {
+        super(message);
+    }
+    public ImageNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package utils.exceptions;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class InvalidImageException extends RuntimeException {
+    public InvalidImageException(String message) {
+        super(message);
+    }
+    public InvalidImageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
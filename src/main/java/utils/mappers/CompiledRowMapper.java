@@ -0,0 +1,146 @@
+package utils.mappers;
+
+import utils.StaticConstants;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Маппер строк {@code ResultSet} с заранее вычисленными индексами колонок
+ * <p>Индексы колонок разрешаются один раз для каждой формы результата
+ * (набора меток и типов колонок {@code ResultSetMetaData}); скомпилированный маппер
+ * читает значения по индексу без поиска колонки по имени на каждой строке.
+ * Маппер привязывается к {@code ResultSet} через {@link #bind(ResultSet)} перед циклом по строкам</p>
+ * <p>Колонки, которых нет в проекции запроса ({@link utils.sqls.SqlColumns}),
+ * объявляются через {@link Columns#optional(String)} и маппятся в {@code null}</p>
+ *
+ * @param <T> тип результата
+ * @see UserMapper#ROWS
+ * @see ProjectMapper#ROWS
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public abstract class CompiledRowMapper<T> {
+
+    private final ConcurrentMap<String, RowMapper<T>> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Маппер для строк данного {@code ResultSet}
+     *
+     * @param resultSet результат запроса
+     * @return {@code RowMapper<T>} с индексами колонок этого результата
+     */
+    public RowMapper<T> bind(ResultSet resultSet) throws SQLException {
+        Objects.requireNonNull(resultSet, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
+
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String shape = shapeOf(metaData);
+        RowMapper<T> mapper = compiled.get(shape);
+        if (mapper == null) {
+            mapper = compile(new Columns(metaData));
+            RowMapper<T> existing = compiled.putIfAbsent(shape, mapper);
+            if (existing != null) {
+                mapper = existing;
+            }
+        }
+        return mapper;
+    }
+
+    /**
+     * Смаппить текущую строку
+     * <p>Для одиночных строк; в цикле по строкам используйте {@link #bind(ResultSet)}</p>
+     */
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        return bind(resultSet).map(resultSet);
+    }
+
+    /**
+     * Построить маппер для формы результата
+     *
+     * @param columns индексы колонок по меткам
+     * @return {@code RowMapper<T>}
+     */
+    protected abstract RowMapper<T> compile(Columns columns) throws SQLException;
+
+    private static String shapeOf(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        StringBuilder shape = new StringBuilder(count * 16);
+        for (int i = 1; i <= count; i++) {
+            shape.append(metaData.getColumnLabel(i)).append(':').append(metaData.getColumnType(i)).append(';');
+        }
+        return shape.toString();
+    }
+
+    protected static UUID getUuid(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getObject(index, UUID.class);
+    }
+
+    /**
+     * Строка колонки или {@code null}, если колонки нет в проекции
+     */
+    protected static String getStringOrNull(ResultSet resultSet, int index) throws SQLException {
+        return index == Columns.ABSENT ? null : resultSet.getString(index);
+    }
+
+    /**
+     * Байты колонки или {@code null}, если колонки нет в проекции
+     */
+    protected static byte[] getBytesOrNull(ResultSet resultSet, int index) throws SQLException {
+        return index == Columns.ABSENT ? null : resultSet.getBytes(index);
+    }
+
+    /**
+     * Дата колонки или текущая дата для {@code NULL}, как в мапперах по имени колонки
+     */
+    protected static Date getDateOrNow(ResultSet resultSet, int index) throws SQLException {
+        Timestamp timestamp = resultSet.getTimestamp(index);
+        return timestamp != null ? new Date(timestamp.getTime()) : new Date();
+    }
+
+    /**
+     * Индексы колонок формы результата по меткам (без учёта регистра);
+     * при повторе метки используется первая колонка, как в {@code ResultSet.findColumn}
+     */
+    protected static final class Columns {
+
+        /**
+         * Индекс колонки, отсутствующей в проекции
+         */
+        public static final int ABSENT = 0;
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        Columns(ResultSetMetaData metaData) throws SQLException {
+            for (int i = metaData.getColumnCount(); i >= 1; i--) {
+                indexes.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        public int require(String label) throws SQLException {
+            Integer index = indexes.get(label);
+            if (index == null) {
+                throw new SQLException(String.format("%s: %s", StaticConstants.ERROR_FETCHING_RESULT_SET_METADATA_EXCEPTION_MESSAGE, label));
+            }
+            return index;
+        }
+
+        /**
+         * Индекс колонки, которой может не быть в проекции запроса
+         *
+         * @return индекс или {@link #ABSENT}
+         */
+        public int optional(String label) {
+            return indexes.getOrDefault(label, ABSENT);
+        }
+    }
+}
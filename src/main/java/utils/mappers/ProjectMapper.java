@@ -3,12 +3,12 @@ package utils.mappers;
 import models.dtos.ProjectDto;
 import models.dtos.UserDto;
 import models.entities.Project;
+import models.enums.ImageOwner;
 import models.enums.ProjectStatus;
 import utils.StaticConstants;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,7 +33,7 @@ public class ProjectMapper<T> {
         projectDto.setDescription(project.getDescription());
         projectDto.setCreatedAt(project.getCreatedAt());
         projectDto.setUpdatedAt(project.getUpdatedAt());
-        projectDto.setImage(project.getImage());
+        projectDto.setImageUrl(ImageOwner.PROJECT.urlFor(project.getId(), project.getImageHash()));
         projectDto.setAdminId(project.getAdminId());
         projectDto.setProjectStatus(project.getProjectStatus());
 
@@ -59,7 +59,6 @@ public class ProjectMapper<T> {
             project.setDescription(projectDto.getDescription());
             project.setCreatedAt(projectDto.getCreatedAt());
             project.setUpdatedAt(projectDto.getUpdatedAt());
-            project.setImage(projectDto.getImage());
             project.setAdminId(projectDto.getAdminId());
             project.setProjectStatus(projectDto.getProjectStatus());
             project.setProjectUsers(users);
@@ -69,32 +68,51 @@ public class ProjectMapper<T> {
         return null;
     }
 
+    /**
+     * Маппер строк {@code projects} с индексами колонок, разрешёнными по форме результата
+     */
+    public static final CompiledRowMapper<Project> ROWS = new CompiledRowMapper<>() {
+        @Override
+        protected RowMapper<Project> compile(Columns columns) throws SQLException {
+            int id = columns.require("id");
+            int name = columns.require("name");
+            int description = columns.require("description");
+            int createdAt = columns.require("created_at");
+            int updatedAt = columns.require("updated_at");
+            int image = columns.optional("image");
+            int imageHash = columns.optional("image_hash");
+            int adminId = columns.require("admin_id");
+            int projectStatus = columns.require("project_status");
+
+            return rs -> {
+                Project project = new Project(
+                        getUuid(rs, id),
+                        rs.getString(name),
+                        rs.getString(description),
+                        getDateOrNow(rs, createdAt),
+                        getDateOrNow(rs, updatedAt),
+                        getBytesOrNull(rs, image),
+                        getUuid(rs, adminId),
+                        ProjectStatus.fromOrdinal(rs.getInt(projectStatus)));
+                project.setImageHash(getStringOrNull(rs, imageHash));
+                return project;
+            };
+        }
+    };
+
+    /**
+     * Смаппить текущую строку в {@code Project}
+     * <p>Для нескольких строк одного результата используйте {@code ROWS.bind(resultSet)}</p>
+     *
+     * @see #ROWS
+     */
     public static Project mapResultSetToProject(ResultSet rs) throws SQLException {
         if (rs == null) {
             throw new NullPointerException(StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         }
 
         try {
-            Project project = new Project(
-                    UUID.fromString(rs.getString("id")),
-                    rs.getString("name"),
-                    rs.getString("description"),
-                    rs.getTimestamp("created_at") != null ?
-                            new Date(rs
-                                    .getTimestamp("updated_at")
-                                    .getTime()) : new Date(),
-
-                    rs.getTimestamp("updated_at") != null ?
-                            new Date(rs
-                                    .getTimestamp("updated_at")
-                                    .getTime()) : new Date(),
-
-                    rs.getBytes("image"),
-                    UUID.fromString(rs.getString("admin_id")),
-                    ProjectStatus.values()[Integer.parseInt(rs.getString("project_status"))]
-            );
-
-            return project;
+            return ROWS.mapRow(rs);
         }
         catch (SQLException ex){
             throw new SQLException(StaticConstants.ERROR_FETCHING_RESULT_SET_METADATA_EXCEPTION_MESSAGE, ex.getMessage());
@@ -106,19 +124,7 @@ public class ProjectMapper<T> {
             throw new NullPointerException(StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         }
         try {
-            Project project = new Project(
-                    UUID.fromString(rs.getString("id")),
-                    rs.getString("name"),
-                    rs.getString("description"),
-                    rs.getTimestamp("created_at") != null ?
-                            new Date(rs.getTimestamp("created_at").getTime()) : new Date(),
-                    rs.getTimestamp("updated_at") != null ?
-                            new Date(rs.getTimestamp("updated_at").getTime()) : new Date(),
-                    rs.getBytes("image"),
-                    UUID.fromString(rs.getString("admin_id")),
-                    ProjectStatus.values()[Integer.parseInt(rs.getString("project_status"))]
-            );
-            return Optional.of(project);
+            return Optional.of(ROWS.mapRow(rs));
         }
         catch (SQLException ex) {
             throw new RuntimeException(
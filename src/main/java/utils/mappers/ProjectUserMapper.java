@@ -6,7 +6,6 @@ import utils.StaticConstants;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Утильный класс для маппинга {@code ResultSet} в {@code ProjectUsersDto}.
@@ -22,14 +21,23 @@ import java.util.UUID;
  */
 public class ProjectUserMapper {
 
+    /**
+     * Маппер строк {@code project_users} с индексами колонок, разрешёнными по форме результата
+     */
+    public static final CompiledRowMapper<ProjectUsersDto> ROWS = new CompiledRowMapper<>() {
+        @Override
+        protected RowMapper<ProjectUsersDto> compile(Columns columns) throws SQLException {
+            int userId = columns.require("user_id");
+            int projectId = columns.require("project_id");
+
+            return rs -> new ProjectUsersDto(getUuid(rs, userId), getUuid(rs, projectId));
+        }
+    };
+
     public static ProjectUsersDto mapResultSetToProjectUser(ResultSet rs) throws SQLException {
         Objects.requireNonNull(rs, StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         try {
-            ProjectUsersDto projectUser = new ProjectUsersDto(
-                    UUID.fromString(rs.getString("user_id")),
-                    UUID.fromString(rs.getString("project_id"))
-            );
-            return projectUser;
+            return ROWS.mapRow(rs);
         }
         catch (SQLException ex){
             throw new SQLException(StaticConstants.ERROR_FETCHING_RESULT_SET_METADATA_EXCEPTION_MESSAGE, ex.getMessage());
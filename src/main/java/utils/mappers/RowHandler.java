@@ -0,0 +1,15 @@
+package utils.mappers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Обработчик строки результата
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowHandler {
+    void accept(ResultSet resultSet) throws SQLException;
+}
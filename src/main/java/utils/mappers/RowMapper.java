@@ -0,0 +1,17 @@
+package utils.mappers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Маппер строки результата
+ *
+ * @param <T> тип результата
+ * @see CompiledRowMapper
+ * @author 4ndr33w
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+}
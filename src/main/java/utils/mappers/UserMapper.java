@@ -4,6 +4,7 @@ import models.dtos.ProjectDto;
 import models.dtos.UserDto;
 import models.entities.Project;
 import models.entities.User;
+import models.enums.ImageOwner;
 import models.enums.UserRoles;
 import utils.StaticConstants;
 import utils.exceptions.ResultSetMappingException;
@@ -11,9 +12,7 @@ import utils.exceptions.ResultSetMappingException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Утильный класс для маппинга пользователей
@@ -35,7 +34,7 @@ public class UserMapper {
         userDto.setFirstName(user.getFirstName());
         userDto.setLastName(user.getLastName());
         userDto.setPhoneNumber(user.getPhoneNumber());
-        userDto.setUserImage(user.getUserImage());
+        userDto.setImageUrl(ImageOwner.USER.urlFor(user.getId(), user.getImageHash()));
         userDto.setUserName(user.getUserName());
         userDto.setUserRole(user.getUserRole());
         userDto.setCreatedAt(user.getCreatedAt());
@@ -56,7 +55,6 @@ public class UserMapper {
         user.setFirstName(userDto.getFirstName());
         user.setLastName(userDto.getLastName());
         user.setPhoneNumber(userDto.getPhoneNumber());
-        user.setUserImage(userDto.getUserImage());
         user.setUserName(userDto.getUserName());
         user.setUserRole(userDto.getUserRole());
         user.setCreatedAt(userDto.getCreatedAt());
@@ -70,38 +68,59 @@ public class UserMapper {
         return user;
     }
 
+    /**
+     * Маппер строк {@code users} с индексами колонок, разрешёнными по форме результата
+     */
+    public static final CompiledRowMapper<User> ROWS = new CompiledRowMapper<>() {
+        @Override
+        protected RowMapper<User> compile(Columns columns) throws SQLException {
+            int id = columns.require("id");
+            int userName = columns.require("user_name");
+            int password = columns.optional("password");
+            int email = columns.require("email");
+            int firstName = columns.require("first_name");
+            int lastName = columns.require("last_name");
+            int phone = columns.require("phone");
+            int userStatus = columns.require("userstatus");
+            int image = columns.optional("image");
+            int imageHash = columns.optional("image_hash");
+            int createdAt = columns.require("created_at");
+            int updatedAt = columns.require("updated_at");
+            int lastLoginDate = columns.require("last_login_date");
+
+            return rs -> {
+                User user = new User(
+                        getUuid(rs, id),
+                        rs.getString(userName),
+                        getStringOrNull(rs, password),
+                        rs.getString(email),
+                        rs.getString(firstName),
+                        rs.getString(lastName),
+                        rs.getString(phone),
+                        UserRoles.fromOrdinal(rs.getInt(userStatus)),
+                        getBytesOrNull(rs, image),
+                        getDateOrNow(rs, createdAt),
+                        getDateOrNow(rs, updatedAt),
+                        getDateOrNow(rs, lastLoginDate));
+                user.setImageHash(getStringOrNull(rs, imageHash));
+                return user;
+            };
+        }
+    };
+
+    /**
+     * Смаппить текущую строку в {@code User}
+     * <p>Для нескольких строк одного результата используйте {@code ROWS.bind(resultSet)}</p>
+     *
+     * @see #ROWS
+     */
     public static User mapResultSetToUser(ResultSet rs) throws SQLException, ResultSetMappingException, NullPointerException {
 
         if(rs == null){
             throw new NullPointerException(StaticConstants.PARAMETER_IS_NULL_EXCEPTION_MESSAGE);
         }
         try {
-            return new User(
-                    UUID.fromString(rs.getString("id")),
-                    rs.getString("user_name"),
-                    rs.getString("password"),
-                    rs.getString("email"),
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("phone"),
-
-                    UserRoles.values()[Integer.parseInt(rs.getString("userstatus"))],
-
-                    rs.getBytes("image"),
-                    rs.getTimestamp("created_at") != null ?
-                            new Date(rs
-                                    .getTimestamp("updated_at")
-                                    .getTime()) : new Date(),
-
-                   rs.getTimestamp("updated_at") != null ?
-                            new Date(rs
-                                    .getTimestamp("updated_at")
-                                    .getTime()) : new Date(),
-                    rs.getTimestamp("last_login_date") != null ?
-                            new Date(rs
-                                    .getTimestamp("last_login_date")
-                                    .getTime()) : new Date()
-            );
+            return ROWS.mapRow(rs);
         }
         catch (Exception ex){
             throw new ResultSetMappingException(StaticConstants.ERROR_FETCHING_RESULT_SET_METADATA_EXCEPTION_MESSAGE, ex);
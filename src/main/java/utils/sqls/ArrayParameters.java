@@ -0,0 +1,110 @@
+package utils.sqls;
+
+import com.google.common.collect.Lists;
+import configurations.PropertiesConfiguration;
+import utils.mappers.CompiledRowMapper;
+import utils.mappers.RowHandler;
+import utils.mappers.RowMapper;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Утильный класс для запросов по коллекции идентификаторов
+ * <p>Идентификаторы передаются одним параметром-массивом ({@code = ANY(?::uuid[])}),
+ * поэтому текст запроса не зависит от размера коллекции: PostgreSQL переиспользует
+ * один подготовленный запрос, а лимит в 32767 параметров не достигается.
+ * Коллекции больше {@code jdbc.array-parameter.chunk-size} разбиваются на части,
+ * и тот же {@code PreparedStatement} выполняется для каждой части</p>
+ *
+ * @see SqlQueryPreparedStrings
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ArrayParameters {
+
+    private static final int chunkSize = PropertiesConfiguration.getIntSetting(
+            "JDBC_ARRAY_PARAMETER_CHUNK_SIZE", "jdbc.array-parameter.chunk-size", 5000);
+
+    public static int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Выполнить запрос с параметром-массивом {@code uuid[]} в первой позиции
+     * и собрать результат всех частей
+     *
+     * @param statement подготовленный запрос вида {@code ... = ANY(?::uuid[])}
+     * @param ids идентификаторы
+     * @param mapper маппер строки
+     * @return {@code List<T>}
+     */
+    public static <T> List<T> queryByIds(PreparedStatement statement, List<UUID> ids, RowMapper<T> mapper) throws SQLException {
+        List<T> result = new ArrayList<>();
+        forEachRowByIds(statement, ids, resultSet -> result.add(mapper.map(resultSet)));
+        return result;
+    }
+
+    /**
+     * Выполнить запрос с параметром-массивом {@code uuid[]} в первой позиции
+     * и собрать результат всех частей; маппер привязывается к каждому {@code ResultSet} один раз
+     *
+     * @param statement подготовленный запрос вида {@code ... = ANY(?::uuid[])}
+     * @param ids идентификаторы
+     * @param mapper маппер с индексами колонок
+     * @return {@code List<T>}
+     */
+    public static <T> List<T> queryByIds(PreparedStatement statement, List<UUID> ids, CompiledRowMapper<T> mapper) throws SQLException {
+        List<T> result = new ArrayList<>();
+        forEachResultByIds(statement, ids, resultSet -> {
+            RowMapper<T> rowMapper = mapper.bind(resultSet);
+            while (resultSet.next()) {
+                result.add(rowMapper.map(resultSet));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Выполнить запрос с параметром-массивом {@code uuid[]} в первой позиции
+     * для каждой части коллекции идентификаторов
+     *
+     * @param statement подготовленный запрос вида {@code ... = ANY(?::uuid[])}
+     * @param ids идентификаторы; повторы отбрасываются
+     * @param handler обработчик строки
+     */
+    public static void forEachRowByIds(PreparedStatement statement, List<UUID> ids, RowHandler handler) throws SQLException {
+        forEachResultByIds(statement, ids, resultSet -> {
+            while (resultSet.next()) {
+                handler.accept(resultSet);
+            }
+        });
+    }
+
+    /**
+     * Выполнить запрос для каждой части коллекции идентификаторов
+     *
+     * @param handler обработчик всего {@code ResultSet} части
+     */
+    public static void forEachResultByIds(PreparedStatement statement, List<UUID> ids, RowHandler handler) throws SQLException {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+
+        for (List<UUID> chunk : Lists.partition(distinctIds, chunkSize)) {
+            Array array = statement.getConnection().createArrayOf("uuid", chunk.toArray());
+            try {
+                statement.setArray(1, array);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    handler.accept(resultSet);
+                }
+            }
+            finally {
+                array.free();
+            }
+        }
+    }
+}
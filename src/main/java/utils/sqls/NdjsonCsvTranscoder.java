@@ -0,0 +1,83 @@
+package utils.sqls;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import utils.JsonCodec;
+import utils.exceptions.DataParsingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Потоковое преобразование NDJSON в CSV для {@code COPY ... FROM STDIN (FORMAT csv, HEADER true)}
+ * <p>Json-объекты читаются потоковым парсером по одному и сразу пишутся строкой CSV,
+ * поэтому память не зависит от размера входа. Колонки - поля {@code fields} в заданном порядке;
+ * прочие поля объекта пропускаются, отсутствующие и {@code null} записываются как {@code NULL}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class NdjsonCsvTranscoder {
+
+    /**
+     * Преобразовать поток NDJSON в CSV со строкой заголовка
+     *
+     * @param input NDJSON: Json-объекты, разделённые пробельными символами / переводами строк
+     * @param output получатель CSV
+     * @param fields поля объекта в порядке колонок
+     * @return количество строк данных
+     * @throws DataParsingException если вход не является последовательностью Json-объектов
+     */
+    public static long transcode(InputStream input, Writer output, List<String> fields) throws IOException {
+        writeRow(output, fields.toArray(new String[0]));
+
+        long rows = 0;
+        try (JsonParser parser = JsonCodec.mapper().getFactory().createParser(input)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new DataParsingException(String.format("NDJSON row %d is not a JSON object", rows + 1));
+                }
+                String[] values = new String[fields.size()];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int column = fields.indexOf(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (column >= 0 && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                        values[column] = parser.getText();
+                    }
+                    else {
+                        parser.skipChildren();
+                    }
+                }
+                writeRow(output, values);
+                rows++;
+            }
+        }
+        catch (JsonProcessingException e) {
+            throw new DataParsingException(String.format("NDJSON row %d: %s", rows + 1, e.getOriginalMessage()), e);
+        }
+        output.flush();
+        return rows;
+    }
+
+    /**
+     * Строка CSV: {@code null} - пустое значение без кавычек ({@code NULL} для {@code COPY}),
+     * остальные значения в кавычках, поэтому пустая строка остаётся пустой строкой
+     */
+    static void writeRow(Writer output, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                output.write(',');
+            }
+            if (values[i] != null) {
+                output.write('"');
+                output.write(values[i].replace("\"", "\"\""));
+                output.write('"');
+            }
+        }
+        output.write('\n');
+    }
+}
@@ -0,0 +1,119 @@
+package utils.sqls;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static utils.sqls.SqlStatement.*;
+
+/**
+ * Реестр SQL-запросов для {@code PreparedStatement}
+ * <p>Тексты запросов строятся один раз при загрузке класса
+ * по именам таблиц {@link SqlTables}
+ * и далее берутся по ключу {@link SqlStatement}.
+ * Один и тот же текст запроса на каждый вызов позволяет драйверу PostgreSQL
+ * после {@code jdbc.prepare-threshold} выполнений на соединении
+ * перейти на серверный подготовленный запрос из своего кэша
+ * ({@code jdbc.prepared-statement-cache.queries})
+ * и не разбирать / планировать запрос заново</p>
+ *
+ * @see SqlQueryPreparedStrings
+ * @see configurations.DataSourceConfiguration
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class PreparedStatementRegistry {
+
+    private static final String usersTable = SqlTables.USERS;
+    private static final String projectsTable = SqlTables.PROJECTS;
+    private static final String projectUsersTable = SqlTables.PROJECT_USERS;
+    private static final String imagesTable = SqlTables.IMAGES;
+
+    // временные таблицы импорта: видны только своему соединению и удаляются при commit / rollback
+    private static final String USERS_STAGING_TABLE = "users_import";
+    private static final String PROJECT_USERS_STAGING_TABLE = "project_users_import";
+
+    private static final Map<SqlStatement, String> statements = build();
+
+    /**
+     * Получить текст SQL-запроса
+     *
+     * @param statement ключ запроса
+     * @return {@code String}
+     */
+    public static String get(SqlStatement statement) {
+        return statements.get(statement);
+    }
+
+    /**
+     * Количество зарегистрированных запросов
+     *
+     * @return {@code int}
+     */
+    public static int size() {
+        return statements.size();
+    }
+
+    private static Map<SqlStatement, String> build() {
+        SqlQueryPreparedStrings strings = new SqlQueryPreparedStrings();
+        Map<SqlStatement, String> map = new EnumMap<>(SqlStatement.class);
+
+        map.put(USERS_FIND_ALL, strings.findAllQueryString(usersTable, SqlColumns.USERS));
+        map.put(USERS_FIND_ALL_AGGREGATED, strings.findAllUsersAggregatedString(usersTable, projectsTable, projectUsersTable));
+        map.put(USERS_FIND_BY_ID, strings.findByIdString(usersTable, SqlColumns.USERS));
+        map.put(USERS_FIND_ALL_BY_IDS, strings.findAllByIdsString(usersTable, SqlColumns.USERS));
+        map.put(USERS_FIND_FIRST_PAGE, strings.findFirstPageString(usersTable, SqlColumns.USERS));
+        map.put(USERS_FIND_PAGE_AFTER, strings.findPageAfterString(usersTable, SqlColumns.USERS));
+        map.put(USERS_CREATE, strings.createUserPreparedQueryString(usersTable));
+        map.put(USERS_CREATE_SKIP_CONFLICTS, strings.createUserSkipConflictsString(usersTable));
+        map.put(USERS_FIND_BY_USER_NAMES_OR_EMAILS, strings.findUsersByUserNamesOrEmailsString(
+                usersTable, SqlColumns.USERS));
+        map.put(USERS_UPDATE_BY_ID, strings.updateUsertByIdString(usersTable));
+        map.put(USERS_DELETE_BY_ID, strings.deleteByIdString(usersTable));
+        map.put(USERS_FIND_VERSION_BY_ID, strings.findUserVersionString(usersTable, projectsTable, projectUsersTable));
+        map.put(USERS_SET_IMAGE_HASH, strings.setImageHashString(usersTable));
+
+        map.put(PROJECTS_FIND_BY_ID, strings.findByIdString(projectsTable, SqlColumns.PROJECTS));
+        map.put(PROJECTS_FIND_ALL_BY_IDS, strings.findAllByIdsString(projectsTable, SqlColumns.PROJECTS));
+        map.put(PROJECTS_FIND_BY_ADMIN_ID, strings.findProjectsByAdminIdString(projectsTable, SqlColumns.PROJECTS));
+        map.put(PROJECTS_FIND_BY_ADMIN_IDS, strings.findProjectsByAdminsIdsString(projectsTable, SqlColumns.PROJECTS));
+        map.put(PROJECTS_FIND_BY_USER_ID, strings.findProjectsByUserIdString(projectUsersTable));
+        map.put(PROJECTS_FIND_MEMBERS_BY_PROJECT_IDS, strings.findProjectMembersByProjectIds(
+                projectUsersTable, usersTable, SqlColumns.users("u")));
+        map.put(PROJECTS_CREATE, strings.createProjectString(projectsTable));
+        map.put(PROJECTS_UPDATE_BY_ID, strings.updateProjectByIdString(projectsTable));
+        map.put(PROJECTS_DELETE_BY_ID, strings.deleteByIdString(projectsTable));
+        map.put(PROJECTS_FIND_VERSION_BY_ID, strings.findProjectVersionString(projectsTable, projectUsersTable));
+        map.put(PROJECTS_SET_IMAGE_HASH, strings.setImageHashString(projectsTable));
+
+        map.put(PROJECT_USERS_FIND_BY_USER_ID, strings.findProjectUsersByUserId(projectUsersTable));
+        map.put(PROJECT_USERS_FIND_BY_PROJECT_ID, strings.findProjectUsersByProjectId(projectUsersTable));
+        map.put(PROJECT_USERS_FIND_BY_USER_IDS, strings.findProjectUsersByUserIds(projectUsersTable));
+        map.put(PROJECT_USERS_FIND_BY_PROJECT_IDS, strings.findProjectUsersByProjectIds(projectUsersTable));
+        map.put(PROJECT_USERS_ADD, strings.addProjectUser(projectUsersTable));
+        map.put(PROJECT_USERS_ADD_IF_VALID, strings.addProjectUserIfValid(projectUsersTable, projectsTable, usersTable));
+        map.put(PROJECT_USERS_REMOVE, strings.removeProjectUser(projectUsersTable));
+
+        map.put(IMAGES_FIND_METADATA, strings.findImageMetadataString(imagesTable));
+        map.put(IMAGES_READ_RANGE, strings.readImageRangeString(imagesTable));
+        map.put(IMAGES_UPSERT, strings.upsertImageString(imagesTable));
+        map.put(IMAGES_DELETE, strings.deleteImageString(imagesTable));
+
+        map.put(IMPORT_USERS_CREATE_STAGING, strings.createUsersStagingString(USERS_STAGING_TABLE));
+        map.put(IMPORT_USERS_COPY, strings.copyUsersToStagingString(USERS_STAGING_TABLE));
+        map.put(IMPORT_USERS_MERGE, strings.mergeUsersFromStagingString(usersTable, USERS_STAGING_TABLE));
+        map.put(IMPORT_PROJECT_USERS_CREATE_STAGING, strings.createProjectUsersStagingString(PROJECT_USERS_STAGING_TABLE));
+        map.put(IMPORT_PROJECT_USERS_COPY, strings.copyProjectUsersToStagingString(PROJECT_USERS_STAGING_TABLE));
+        map.put(IMPORT_PROJECT_USERS_MERGE, strings.mergeProjectUsersFromStagingString(
+                projectUsersTable, projectsTable, usersTable, PROJECT_USERS_STAGING_TABLE));
+        map.put(IMPORT_SUPPRESS_ROW_NOTIFICATIONS, strings.suppressRowNotificationsString());
+        map.put(IMPORT_NOTIFY_ALL, strings.notifyInvalidateAllString());
+
+        for (SqlStatement statement : SqlStatement.values()) {
+            if (!map.containsKey(statement)) {
+                throw new IllegalStateException("SQL statement is not registered: " + statement);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
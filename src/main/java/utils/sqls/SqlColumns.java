@@ -0,0 +1,50 @@
+package utils.sqls;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Колонки, читаемые запросами пользователей / проектов вместо {@code SELECT *}
+ * <p>Один набор колонок для списков и для чтения одной записи: содержимое изображений хранится
+ * в {@code servlets.images}, строки читают только {@code image_hash} для ссылки в DTO.
+ * {@code password} не читается - DTO его не содержат</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SqlColumns {
+
+    private static final String[] USER_COLUMNS = {"id", "user_name", "first_name", "last_name", "email", "phone",
+            "created_at", "updated_at", "image_hash", "last_login_date", "userstatus"};
+    private static final String[] PROJECT_COLUMNS = {"id", "name", "description", "created_at", "updated_at",
+            "image_hash", "admin_id", "project_status"};
+
+    public static final String USERS = String.join(", ", USER_COLUMNS);
+    public static final String PROJECTS = String.join(", ", PROJECT_COLUMNS);
+
+    /**
+     * Колонки таблицы пользователей с псевдонимом таблицы
+     *
+     * @param alias псевдоним таблицы в запросе
+     * @return {@code String} вида {@code u.id, u.user_name, ...}
+     */
+    public static String users(String alias) {
+        return qualify(USER_COLUMNS, alias);
+    }
+
+    /**
+     * Колонки таблицы проектов с псевдонимом таблицы
+     *
+     * @param alias псевдоним таблицы в запросе
+     * @return {@code String} вида {@code p.id, p.name, ...}
+     */
+    public static String projects(String alias) {
+        return qualify(PROJECT_COLUMNS, alias);
+    }
+
+    private static String qualify(String[] columns, String alias) {
+        return Arrays.stream(columns)
+                .map(column -> alias + "." + column)
+                .collect(Collectors.joining(", "));
+    }
+}
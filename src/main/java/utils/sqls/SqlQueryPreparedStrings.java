@@ -1,6 +1,9 @@
 package utils.sqls;
 
 import models.entities.Project;
+import models.enums.ImageOwner;
+import models.enums.ProjectStatus;
+import models.enums.UserRoles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repositories.ProjectRepository;
@@ -9,6 +12,10 @@ import java.util.Arrays;
 import java.util.stream.Collectors;
 
 /**
+ * Утильный класс SQL-запросов для {@code PreparedStatement}
+ * <p>Запросы по коллекции идентификаторов принимают один параметр-массив
+ * ({@code = ANY(?::uuid[])}), см. {@link ArrayParameters}</p>
+ *
  * @author 4ndr33w
  * @version 1.0
  */
@@ -16,29 +23,76 @@ public class SqlQueryPreparedStrings {
 
     Logger logger = LoggerFactory.getLogger(SqlQueryPreparedStrings.class);
 
-    public String findAllQueryString(String tableName){
-        return "SELECT * FROM %s".formatted(tableName);
+    public String findAllQueryString(String tableName, String columns){
+        return "SELECT %s FROM %s".formatted(columns, tableName);
     }
 
     public String createUserPreparedQueryString(String tableName) {
 
         StringBuilder query = new StringBuilder();
 
-        String queryString = "INSERT INTO %s (user_name, first_name, last_name, email, password, phone, updated_at, image, last_login_date)  VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)".formatted(tableName).replace(";", " ");
+        String queryString = "INSERT INTO %s (user_name, first_name, last_name, email, password, phone, updated_at, last_login_date)  VALUES (?, ?, ?, ?, ?, ?, ?, ?)".formatted(tableName).replace(";", " ");
 
         query.append("INSERT INTO %s ".formatted(tableName));
-        query.append("(user_name, first_name, last_name, email, password, phone, updated_at, image, last_login_date) ");
-        query.append(" VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?);");
+        query.append("(user_name, first_name, last_name, email, password, phone, updated_at, last_login_date) ");
+        query.append(" VALUES (?, ?, ?, ?, ?, ?, ?, ?);");
 
         return queryString;
     }
 
+    /**
+     * Вставка пользователя для пакетного создания
+     * <p>Строка, нарушающая уникальность {@code user_name} / {@code email}, пропускается
+     * ({@code ON CONFLICT DO NOTHING}) вместо ошибки, прерывающей весь пакет.
+     * Текст остаётся простым {@code INSERT ... VALUES}, чтобы драйвер мог
+     * переписать пакет в многострочную вставку</p>
+     *
+     * @param tableName таблица пользователей
+     * @return {@code String}
+     */
+    public String createUserSkipConflictsString(String tableName) {
+        return "INSERT INTO %s (user_name, first_name, last_name, email, password, phone, updated_at, last_login_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING".formatted(tableName);
+    }
+
+    /**
+     * Пользователи с любым из логинов или email
+     *
+     * @param tableName таблица пользователей
+     * @param columns читаемые колонки
+     * @return {@code String} с параметрами {@code text[]} логинов и email
+     */
+    public String findUsersByUserNamesOrEmailsString(String tableName, String columns) {
+        return String.format("SELECT %s FROM %s WHERE user_name = ANY(?::text[]) OR email = ANY(?::text[]);", columns, tableName);
+    }
+
+    /**
+     * Первая страница keyset-пагинации: записи по возрастанию {@code id}
+     *
+     * @param tableName таблица
+     * @param columns читаемые колонки
+     * @return {@code String} с параметром {@code LIMIT ?}
+     */
+    public String findFirstPageString(String tableName, String columns) {
+        return String.format("SELECT %s FROM %s ORDER BY id LIMIT ?;", columns, tableName);
+    }
+
+    /**
+     * Следующая страница keyset-пагинации: записи с {@code id} больше курсора
+     *
+     * @param tableName таблица
+     * @param columns читаемые колонки
+     * @return {@code String} с параметрами {@code id > ?} и {@code LIMIT ?}
+     */
+    public String findPageAfterString(String tableName, String columns) {
+        return String.format("SELECT %s FROM %s WHERE id > ?::uuid ORDER BY id LIMIT ?;", columns, tableName);
+    }
+
     public String deleteByIdString(String tableName){
         return String.format("DELETE FROM %s WHERE id = ?::uuid;", tableName);
     }
 
-    public String findByIdString(String tableName){
-        return String.format("SELECT * FROM %s WHERE id = ?::uuid", tableName);
+    public String findByIdString(String tableName, String columns){
+        return String.format("SELECT %s FROM %s WHERE id = ?::uuid", columns, tableName);
     }
 
     public String updateUsertByIdString(String tableName) {
@@ -48,7 +102,6 @@ public class SqlQueryPreparedStrings {
         query.append("last_name = ?, ");
         query.append("phone = ?, ");
         query.append("updated_at = ?, ");
-        query.append("image = ?, ");
         query.append("last_login_date = ? ");
         query.append("WHERE id = ?::uuid;");
 
@@ -59,54 +112,34 @@ public class SqlQueryPreparedStrings {
 
         StringBuilder query = new StringBuilder();
         query.append(String.format("INSERT INTO %s", tableName));
-        query.append(" (name, description, created_at, updated_at, image, admin_id, project_status) ");
-        query.append(" VALUES (?, ?, ?, ?, ?, ?::uuid, ?);");
+        query.append(" (name, description, created_at, updated_at, admin_id, project_status) ");
+        query.append(" VALUES (?, ?, ?, ?, ?::uuid, ?);");
 
         return query.toString();
     }
 
-    public String findProjectsByAdminIdString(String tableName){
+    public String findProjectsByAdminIdString(String tableName, String columns){
 
-        return String.format("SELECT * FROM %s WHERE admin_id = ?::uuid;", tableName);
+        return String.format("SELECT %s FROM %s WHERE admin_id = ?::uuid;", columns, tableName);
     }
 
     public String findProjectsByUserIdString(String tableName){
         return String.format("SELECT * FROM %s WHERE user_id = ?::uuid;", tableName);
     }
 
-    public String findAllByIdsString(String tableName, int idCollectionSize) {
-
-        StringBuilder query = new StringBuilder();
-        query.append(String.format("SELECT * FROM %s WHERE id IN ( ", tableName));
-        for (int i = 0; i < idCollectionSize; i++) {
-            if (i == idCollectionSize - 1) {
-                query.append("?::uuid);");
-            } else {
-                query.append("?::uuid, ");
-            }
-        }
-        return query.toString();
+    public String findAllByIdsString(String tableName, String columns) {
+        return String.format("SELECT %s FROM %s WHERE id = ANY(?::uuid[]);", columns, tableName);
     }
 
-    public String findProjectsByAdminsIdsString(String tableName, int idCollectionSize) {
-
-        StringBuilder query = new StringBuilder();
-        query.append(String.format("SELECT * FROM %s WHERE admin_id IN ( ", tableName));
-        for (int i = 0; i < idCollectionSize; i++) {
-            if (i == idCollectionSize - 1) {
-                query.append("?::uuid);");
-            } else {
-                query.append("?::uuid, ");
-            }
-        }
-        return query.toString();
+    public String findProjectsByAdminsIdsString(String tableName, String columns) {
+        return String.format("SELECT %s FROM %s WHERE admin_id = ANY(?::uuid[]);", columns, tableName);
     }
 
     public String findProjectUsersByUserId(String tableName){
-        return String.format("SELECT * FROM %s WHERE user_id = ?::uuid;", tableName);
+        return String.format("SELECT project_id, user_id FROM %s WHERE user_id = ?::uuid;", tableName);
     }
     public String findProjectUsersByProjectId(String tableName){
-        return String.format("SELECT * FROM %s WHERE project_id = ?::uuid;", tableName);
+        return String.format("SELECT project_id, user_id FROM %s WHERE project_id = ?::uuid;", tableName);
     }
 
     public String removeProjectUser(String tableName) {
@@ -119,29 +152,170 @@ public class SqlQueryPreparedStrings {
         return String.format("INSERT INTO %s (project_id, user_id) VALUES (?::uuid, ?::uuid);", tableName);
     }
 
-    public String findProjectUsersByProjectIds(String tableName, int idCollectionSize) {
+    /**
+     * Добавление участника для пакетного изменения состава проекта
+     * <p>Строка вставляется, только если проект и пользователь существуют
+     * и пользователь не администратор проекта; существующая связь пропускается.
+     * Поэтому ни одна строка пакета не прерывает транзакцию ошибкой внешнего ключа</p>
+     *
+     * @param projectUsersTableName таблица связей
+     * @param projectsTableName таблица проектов
+     * @param usersTableName таблица пользователей
+     * @return {@code String} с параметрами {@code project_id}, {@code user_id}
+     */
+    public String addProjectUserIfValid(String projectUsersTableName, String projectsTableName, String usersTableName) {
+        StringBuilder query = new StringBuilder();
+        query.append(String.format("INSERT INTO %s (project_id, user_id) ", projectUsersTableName));
+        query.append(String.format("SELECT p.id, u.id FROM %s p ", projectsTableName));
+        query.append(String.format("JOIN %s u ON p.id = ?::uuid AND u.id = ?::uuid ", usersTableName));
+        query.append("WHERE p.admin_id IS DISTINCT FROM u.id ");
+        query.append("ON CONFLICT DO NOTHING;");
+        return query.toString();
+    }
+
+    public String findProjectUsersByProjectIds(String tableName) {
+        return String.format("SELECT project_id, user_id FROM %s WHERE project_id = ANY(?::uuid[]) ORDER BY created_at;", tableName);
+    }
+
+    public String findProjectUsersByUserIds(String tableName) {
+        return String.format("SELECT project_id, user_id FROM %s WHERE user_id = ANY(?::uuid[]);", tableName);
+    }
+
+    /**
+     * Все пользователи с проектами одним запросом: по строке Json {@code UserDto} на пользователя
+     * <p>Проекты пользователя (сначала те, где он администратор, затем те, где участник)
+     * и {@code id} участников каждого проекта собираются {@code LEFT JOIN LATERAL} + {@code json_agg}
+     * по индексам {@code projects(admin_id)}, {@code project_users(user_id, project_id)}
+     * и первичному ключу {@code project_users}.
+     * Поля совпадают с сериализацией {@code UserDto} / {@code ProjectDto} в {@link utils.JsonCodec}:
+     * даты - миллисекунды эпохи, перечисления - имена, {@code imageUrl} - как {@link ImageOwner#urlFor}</p>
+     *
+     * @param usersTable таблица пользователей
+     * @param projectsTable таблица проектов
+     * @param projectUsersTable таблица участников проектов
+     * @return {@code String} без параметров, одна колонка {@code text}
+     */
+    public String findAllUsersAggregatedString(String usersTable, String projectsTable, String projectUsersTable) {
+        String project = String.join(", ",
+                "'id', p.id",
+                "'name', p.name",
+                "'description', p.description",
+                "'createdAt', " + epochMillis("p.created_at"),
+                "'updatedAt', " + epochMillis("p.updated_at"),
+                "'imageUrl', " + imageUrl(ImageOwner.PROJECT, "p"),
+                "'adminId', p.admin_id",
+                "'projectStatus', " + enumName(ProjectStatus.values(), "p.project_status"),
+                "'projectUsersIds', m.ids");
+        String user = String.join(", ",
+                "'id', u.id",
+                "'userName', u.user_name",
+                "'email', u.email",
+                "'firstName', u.first_name",
+                "'lastName', u.last_name",
+                "'phoneNumber', u.phone",
+                "'userRole', " + enumName(UserRoles.values(), "u.userstatus"),
+                "'imageUrl', " + imageUrl(ImageOwner.USER, "u"),
+                "'createdAt', " + epochMillis("u.created_at"),
+                "'projects', up.projects");
+
+        StringBuilder query = new StringBuilder();
+        query.append(String.format("SELECT json_build_object(%s)::text FROM %s u ", user, usersTable));
+        query.append(String.format("LEFT JOIN LATERAL (SELECT COALESCE(json_agg(json_build_object(%s) ", project));
+        query.append("ORDER BY p.role, p.created_at), '[]'::json) AS projects FROM (");
+        query.append(String.format("SELECT 0 AS role, %s FROM %s a WHERE a.admin_id = u.id ",
+                SqlColumns.projects("a"), projectsTable));
+        query.append("UNION ALL ");
+        query.append(String.format("SELECT 1 AS role, %s FROM %s pu JOIN %s j ON j.id = pu.project_id WHERE pu.user_id = u.id",
+                SqlColumns.projects("j"), projectUsersTable, projectsTable));
+        query.append(") p ");
+        query.append(String.format("LEFT JOIN LATERAL (SELECT COALESCE(json_agg(pm.user_id ORDER BY pm.created_at), '[]'::json) AS ids "
+                + "FROM %s pm WHERE pm.project_id = p.id) m ON true", projectUsersTable));
+        query.append(") up ON true;");
+        return query.toString();
+    }
+
+    private static String epochMillis(String column) {
+        return String.format("floor(extract(epoch FROM %s) * 1000)::bigint", column);
+    }
+
+    private static String imageUrl(ImageOwner owner, String alias) {
+        return String.format("CASE WHEN %1$s.image_hash IS NOT NULL THEN '%2$s?id=' || %1$s.id || '&v=' || %1$s.image_hash END",
+                alias, owner.getPath());
+    }
+
+    private static String enumName(Enum<?>[] values, String ordinalColumn) {
+        return Arrays.stream(values)
+                .map(value -> "'" + value.name() + "'")
+                .collect(Collectors.joining(", ", "(ARRAY[", "])[" + ordinalColumn + " + 1]"));
+    }
+
+    /**
+     * SQL-запрос участников проектов одним JOIN по таблицам
+     * {@code project_users} и {@code users}
+     * <p>Каждая строка - колонки пользователя
+     * и {@code member_project_id} проекта, в котором он участвует</p>
+     *
+     * @param projectUsersTableName таблица связей проектов и пользователей
+     * @param usersTableName таблица пользователей
+     * @param userColumns колонки пользователя с псевдонимом {@code u}
+     * @return {@code String}
+     */
+    public String findProjectMembersByProjectIds(String projectUsersTableName, String usersTableName, String userColumns) {
         StringBuilder query = new StringBuilder();
-        query.append(String.format("SELECT project_id, user_id FROM %s WHERE project_id IN ( ", tableName));
-        for (int i = 0; i < idCollectionSize; i++) {
-            if (i == idCollectionSize - 1) {
-                query.append("?::uuid);");
-            } else {
-                query.append("?::uuid, ");
-            }
-        }
+        query.append(String.format("SELECT pu.project_id AS member_project_id, %s FROM %s pu ", userColumns, projectUsersTableName));
+        query.append(String.format("JOIN %s u ON u.id = pu.user_id ", usersTableName));
+        query.append("WHERE pu.project_id = ANY(?::uuid[]) ");
+        query.append("ORDER BY pu.project_id, pu.created_at;");
         return query.toString();
     }
 
-    public String findProjectUsersByUserIds(String tableName, int idCollectionSize) {
+    /**
+     * SQL-запрос версии пользователя для условного GET
+     * <p>Читаются только метки времени: строка пользователя, проекты, где он администратор
+     * или участник, и строки участников этих проектов.
+     * {@code last_modified} - самое позднее изменение, {@code row_count} - число строк соединения,
+     * меняющееся при удалении проекта или участника.
+     * Удаление участника обновляет {@code updated_at} проекта и удалённого пользователя
+     * (триггер {@code project_users}), поэтому {@code last_modified} после него тоже растёт</p>
+     *
+     * @param usersTableName таблица пользователей
+     * @param projectsTableName таблица проектов
+     * @param projectUsersTableName таблица связей проектов и пользователей
+     * @return {@code String} с параметром {@code id}
+     */
+    public String findUserVersionString(String usersTableName, String projectsTableName, String projectUsersTableName) {
         StringBuilder query = new StringBuilder();
-        query.append(String.format("SELECT project_id, user_id FROM %s WHERE user_id IN ( ", tableName));
-        for (int i = 0; i < idCollectionSize; i++) {
-            if (i == idCollectionSize - 1) {
-                query.append("?::uuid);");
-            } else {
-                query.append("?::uuid, ");
-            }
-        }
+        query.append("SELECT GREATEST(COALESCE(u.updated_at, u.created_at), ");
+        query.append("MAX(COALESCE(p.updated_at, p.created_at)), MAX(pm.updated_at)) AS last_modified, ");
+        query.append("COUNT(p.id) + COUNT(pm.user_id) AS row_count ");
+        query.append(String.format("FROM %s u ", usersTableName));
+        query.append(String.format("LEFT JOIN %s p ON p.admin_id = u.id ", projectsTableName));
+        query.append(String.format("OR p.id IN (SELECT project_id FROM %s WHERE user_id = u.id) ", projectUsersTableName));
+        query.append(String.format("LEFT JOIN %s pm ON pm.project_id = p.id ", projectUsersTableName));
+        query.append("WHERE u.id = ?::uuid ");
+        query.append("GROUP BY u.id;");
+        return query.toString();
+    }
+
+    /**
+     * SQL-запрос версии проекта для условного GET
+     * <p>{@code last_modified} - самое позднее изменение проекта и его участников,
+     * {@code row_count} - число участников.
+     * Удаление участника обновляет {@code updated_at} проекта (триггер {@code project_users}),
+     * иначе {@code If-Modified-Since} давал бы 304 после удаления</p>
+     *
+     * @param projectsTableName таблица проектов
+     * @param projectUsersTableName таблица связей проектов и пользователей
+     * @return {@code String} с параметром {@code id}
+     */
+    public String findProjectVersionString(String projectsTableName, String projectUsersTableName) {
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT GREATEST(COALESCE(p.updated_at, p.created_at), MAX(pu.updated_at)) AS last_modified, ");
+        query.append("COUNT(pu.user_id) AS row_count ");
+        query.append(String.format("FROM %s p ", projectsTableName));
+        query.append(String.format("LEFT JOIN %s pu ON pu.project_id = p.id ", projectUsersTableName));
+        query.append("WHERE p.id = ?::uuid ");
+        query.append("GROUP BY p.id;");
         return query.toString();
     }
 
@@ -151,10 +325,156 @@ public class SqlQueryPreparedStrings {
         query.append("name = ?, ");
         query.append("description = ?, ");
         query.append("updated_at = ?, ");
-        query.append("image = ?, ");
         query.append("project_status = ? ");
         query.append("WHERE id = ?::uuid;");
 
         return query.toString();
     }
+
+    /**
+     * Промежуточная таблица импорта пользователей
+     * <p>Временная, {@code ON COMMIT DROP}: существует только в транзакции импорта.
+     * Колонки текстовые и без ограничений, чтобы {@code COPY} не прерывался на отдельной строке</p>
+     *
+     * @param stagingTableName промежуточная таблица
+     * @return {@code String}
+     */
+    public String createUsersStagingString(String stagingTableName) {
+        return String.format("CREATE TEMP TABLE %s (user_name text, first_name text, last_name text, "
+                + "email text, password text, phone text) ON COMMIT DROP;", stagingTableName);
+    }
+
+    public String copyUsersToStagingString(String stagingTableName) {
+        return String.format("COPY %s (user_name, first_name, last_name, email, password, phone) "
+                + "FROM STDIN WITH (FORMAT csv, HEADER true, ENCODING 'UTF8')", stagingTableName);
+    }
+
+    /**
+     * Слияние промежуточной таблицы с таблицей пользователей
+     * <p>Строки без {@code user_name} / {@code email} / {@code password} отбрасываются;
+     * повторы логина / email - и с существующими пользователями, и внутри импорта -
+     * пропускаются {@code ON CONFLICT DO NOTHING}</p>
+     *
+     * @param usersTableName таблица пользователей
+     * @param stagingTableName промежуточная таблица
+     * @return {@code String}
+     */
+    public String mergeUsersFromStagingString(String usersTableName, String stagingTableName) {
+        StringBuilder query = new StringBuilder();
+        query.append(String.format("INSERT INTO %s ", usersTableName));
+        query.append("(user_name, first_name, last_name, email, password, phone, updated_at, last_login_date) ");
+        query.append("SELECT user_name, first_name, last_name, email, password, phone, now(), now() ");
+        query.append(String.format("FROM %s ", stagingTableName));
+        query.append("WHERE user_name <> '' AND email <> '' AND password <> '' ");
+        query.append("ON CONFLICT DO NOTHING;");
+        return query.toString();
+    }
+
+    public String createProjectUsersStagingString(String stagingTableName) {
+        return String.format("CREATE TEMP TABLE %s (project_id text, user_id text) ON COMMIT DROP;", stagingTableName);
+    }
+
+    public String copyProjectUsersToStagingString(String stagingTableName) {
+        return String.format("COPY %s (project_id, user_id) "
+                + "FROM STDIN WITH (FORMAT csv, HEADER true, ENCODING 'UTF8')", stagingTableName);
+    }
+
+    /**
+     * Слияние промежуточной таблицы со связями проектов и пользователей
+     * <p>Некорректные {@code uuid} приводятся к {@code NULL} через {@code CASE}
+     * (порядок вычисления {@code CASE} гарантирован, поэтому приведение не падает);
+     * строки со ссылками на несуществующие проекты / пользователей,
+     * администратор проекта в роли участника и существующие связи отбрасываются</p>
+     *
+     * @param projectUsersTableName таблица связей
+     * @param projectsTableName таблица проектов
+     * @param usersTableName таблица пользователей
+     * @param stagingTableName промежуточная таблица
+     * @return {@code String}
+     */
+    public String mergeProjectUsersFromStagingString(String projectUsersTableName, String projectsTableName,
+                                                     String usersTableName, String stagingTableName) {
+        String uuidPattern = "'^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'";
+
+        StringBuilder query = new StringBuilder();
+        query.append(String.format("INSERT INTO %s (project_id, user_id) ", projectUsersTableName));
+        query.append("SELECT p.id, u.id FROM (");
+        query.append(String.format("SELECT CASE WHEN trim(project_id) ~ %s THEN trim(project_id)::uuid END AS project_id, ", uuidPattern));
+        query.append(String.format("CASE WHEN trim(user_id) ~ %s THEN trim(user_id)::uuid END AS user_id ", uuidPattern));
+        query.append(String.format("FROM %s) s ", stagingTableName));
+        query.append(String.format("JOIN %s p ON p.id = s.project_id ", projectsTableName));
+        query.append(String.format("JOIN %s u ON u.id = s.user_id ", usersTableName));
+        query.append("WHERE p.admin_id IS DISTINCT FROM u.id ");
+        query.append("ON CONFLICT DO NOTHING;");
+        return query.toString();
+    }
+
+    /**
+     * Метаданные изображения без содержимого
+     *
+     * @param imagesTableName таблица изображений
+     * @return {@code String} с параметрами {@code owner_type}, {@code owner_id}
+     */
+    public String findImageMetadataString(String imagesTableName) {
+        return String.format("SELECT content_type, size, hash, updated_at FROM %s WHERE owner_type = ? AND owner_id = ?::uuid;",
+                imagesTableName);
+    }
+
+    /**
+     * Фрагмент содержимого изображения
+     * <p>{@code substring} по {@code bytea} с {@code STORAGE EXTERNAL} читает только нужные блоки TOAST.
+     * Условие по {@code hash} не даёт склеить в одном ответе фрагменты разных версий изображения</p>
+     *
+     * @param imagesTableName таблица изображений
+     * @return {@code String} с параметрами: начало (с 1), длина, {@code owner_type}, {@code owner_id}, {@code hash}
+     */
+    public String readImageRangeString(String imagesTableName) {
+        return String.format("SELECT substring(data from ? for ?) FROM %s WHERE owner_type = ? AND owner_id = ?::uuid AND hash = ?;",
+                imagesTableName);
+    }
+
+    public String upsertImageString(String imagesTableName) {
+        StringBuilder query = new StringBuilder();
+        query.append(String.format("INSERT INTO %s (owner_type, owner_id, content_type, size, hash, data, updated_at) ", imagesTableName));
+        query.append("VALUES (?, ?::uuid, ?, ?, ?, ?, now()) ");
+        query.append("ON CONFLICT (owner_type, owner_id) DO UPDATE SET ");
+        query.append("content_type = EXCLUDED.content_type, size = EXCLUDED.size, hash = EXCLUDED.hash, ");
+        query.append("data = EXCLUDED.data, updated_at = EXCLUDED.updated_at;");
+        return query.toString();
+    }
+
+    public String deleteImageString(String imagesTableName) {
+        return String.format("DELETE FROM %s WHERE owner_type = ? AND owner_id = ?::uuid;", imagesTableName);
+    }
+
+    /**
+     * Хэш изображения в строке владельца ({@code users} / {@code projects})
+     * <p>{@code NULL} - изображения нет. {@code updated_at} обновляет триггер таблицы</p>
+     *
+     * @param tableName таблица владельца
+     * @return {@code String} с параметрами {@code image_hash}, {@code id}
+     */
+    public String setImageHashString(String tableName) {
+        return String.format("UPDATE %s SET image_hash = ? WHERE id = ?::uuid;", tableName);
+    }
+
+    /**
+     * Отключить построчные уведомления инвалидации кэшей до конца транзакции
+     * <p>Проверяется в {@code servlets.notify_cache_invalidation} (schema.sql):
+     * вместо уведомления на каждую импортированную строку отправляется одно {@link #notifyInvalidateAllString()}</p>
+     *
+     * @return {@code String}
+     */
+    public String suppressRowNotificationsString() {
+        return "SELECT set_config('servlets.suppress_cache_notify', 'on', true);";
+    }
+
+    /**
+     * Уведомление о полной инвалидации кэшей; доставляется после фиксации транзакции
+     *
+     * @return {@code String}
+     */
+    public String notifyInvalidateAllString() {
+        return "SELECT pg_notify('servlets_cache_invalidation', 'all,IMPORT');";
+    }
 }
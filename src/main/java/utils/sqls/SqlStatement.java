@@ -0,0 +1,58 @@
+package utils.sqls;
+
+/**
+ * Ключи SQL-запросов реестра {@link PreparedStatementRegistry}
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public enum SqlStatement {
+
+    USERS_FIND_ALL,
+    USERS_FIND_ALL_AGGREGATED,
+    USERS_FIND_BY_ID,
+    USERS_FIND_ALL_BY_IDS,
+    USERS_FIND_FIRST_PAGE,
+    USERS_FIND_PAGE_AFTER,
+    USERS_CREATE,
+    USERS_CREATE_SKIP_CONFLICTS,
+    USERS_FIND_BY_USER_NAMES_OR_EMAILS,
+    USERS_UPDATE_BY_ID,
+    USERS_DELETE_BY_ID,
+    USERS_FIND_VERSION_BY_ID,
+    USERS_SET_IMAGE_HASH,
+
+    PROJECTS_FIND_BY_ID,
+    PROJECTS_FIND_ALL_BY_IDS,
+    PROJECTS_FIND_BY_ADMIN_ID,
+    PROJECTS_FIND_BY_ADMIN_IDS,
+    PROJECTS_FIND_BY_USER_ID,
+    PROJECTS_FIND_MEMBERS_BY_PROJECT_IDS,
+    PROJECTS_CREATE,
+    PROJECTS_UPDATE_BY_ID,
+    PROJECTS_DELETE_BY_ID,
+    PROJECTS_FIND_VERSION_BY_ID,
+    PROJECTS_SET_IMAGE_HASH,
+
+    PROJECT_USERS_FIND_BY_USER_ID,
+    PROJECT_USERS_FIND_BY_PROJECT_ID,
+    PROJECT_USERS_FIND_BY_USER_IDS,
+    PROJECT_USERS_FIND_BY_PROJECT_IDS,
+    PROJECT_USERS_ADD,
+    PROJECT_USERS_ADD_IF_VALID,
+    PROJECT_USERS_REMOVE,
+
+    IMAGES_FIND_METADATA,
+    IMAGES_READ_RANGE,
+    IMAGES_UPSERT,
+    IMAGES_DELETE,
+
+    IMPORT_USERS_CREATE_STAGING,
+    IMPORT_USERS_COPY,
+    IMPORT_USERS_MERGE,
+    IMPORT_PROJECT_USERS_CREATE_STAGING,
+    IMPORT_PROJECT_USERS_COPY,
+    IMPORT_PROJECT_USERS_MERGE,
+    IMPORT_SUPPRESS_ROW_NOTIFICATIONS,
+    IMPORT_NOTIFY_ALL
+}
@@ -0,0 +1,45 @@
+package utils.sqls;
+
+import configurations.PropertiesConfiguration;
+
+import java.util.Map;
+
+/**
+ * Имена таблиц приложения с учётом схемы {@code jdbc.default-schema}
+ * <p>Общие для текстов запросов {@link PreparedStatementRegistry}
+ * и скриптов миграций {@link configurations.SchemaMigrations}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SqlTables {
+
+    public static final String SCHEMA = PropertiesConfiguration.getSetting(
+            "JDBC_DEFAULT_SCHEMA", "jdbc.default-schema", "public");
+    public static final String USERS = qualify(PropertiesConfiguration.getSetting(
+            "JDBC_USERS_TABLE", "jdbc.users-table", "users"));
+    public static final String PROJECTS = qualify(PropertiesConfiguration.getSetting(
+            "JDBC_PROJECTS_TABLE", "jdbc.projects-table", "projects"));
+    public static final String PROJECT_USERS = qualify(PropertiesConfiguration.getSetting(
+            "JDBC_PROJECT_USERS_TABLE", "jdbc.project-users-table", "project_users"));
+    public static final String IMAGES = qualify(PropertiesConfiguration.getSetting(
+            "JDBC_IMAGES_TABLE", "jdbc.images-table", "images"));
+
+    /**
+     * Подстановки для скриптов миграций: {@code ${schema}}, {@code ${users_table}} и т.д.
+     *
+     * @return {@code Map<String, String>}
+     */
+    public static Map<String, String> placeholders() {
+        return Map.of(
+                "schema", SCHEMA,
+                "users_table", USERS,
+                "projects_table", PROJECTS,
+                "project_users_table", PROJECT_USERS,
+                "images_table", IMAGES);
+    }
+
+    private static String qualify(String table) {
+        return String.format("%s.%s", SCHEMA, table);
+    }
+}
@@ -1,4 +1,4 @@
 
 
-insert into servlets.users (user_name, first_name, last_name, email, password, phone, updated_at, image, last_login_date, userstatus)
-values ('Andr33w','Andrew','McFly','andrew@gmail.com','123','+1234567','05.05.2025 10:10:11',null,'05.05.2025 10:10:11',1);
\ No newline at end of file
+insert into servlets.users (user_name, first_name, last_name, email, password, phone, updated_at, last_login_date, userstatus)
+values ('Andr33w','Andrew','McFly','andrew@gmail.com','123','+1234567','05.05.2025 10:10:11','05.05.2025 10:10:11',1);
\ No newline at end of file
@@ -0,0 +1,79 @@
+-- Межузловая инвалидация кэшей: функция уведомления и триггеры всех трёх таблиц.
+-- Базы, созданные до её появления, имеют только триггеры BEFORE UPDATE,
+-- а следующие миграции переопределяют функции триггеров через notify_cache_invalidation.
+-- Скрипт идемпотентен: на базе, созданной актуальным schema.sql, он ничего не меняет
+
+CREATE OR REPLACE FUNCTION ${schema}.notify_cache_invalidation(entity text, operation text, id uuid, related_id uuid)
+RETURNS VOID AS $$
+BEGIN
+    IF current_setting('servlets.suppress_cache_notify', true) = 'on' THEN
+        RETURN;
+    END IF;
+    PERFORM pg_notify('servlets_cache_invalidation',
+        concat_ws(',', entity, operation, id::text, related_id::text));
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${schema}.update_projects_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM ${schema}.notify_cache_invalidation('projects', TG_OP, OLD.id, OLD.admin_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM ${schema}.notify_cache_invalidation('projects', TG_OP, NEW.id, NEW.admin_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${schema}.update_users_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM ${schema}.notify_cache_invalidation('users', TG_OP, OLD.id, NULL);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+        PERFORM ${schema}.notify_cache_invalidation('users', TG_OP, NEW.id, NULL);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${schema}.update_project_users_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM ${schema}.notify_cache_invalidation('project_users', TG_OP, OLD.project_id, OLD.user_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM ${schema}.notify_cache_invalidation('project_users', TG_OP, NEW.project_id, NEW.user_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- события триггеров расширяются: вставка и удаление тоже уведомляют
+DROP TRIGGER IF EXISTS update_projects_timestamp ON ${projects_table};
+CREATE TRIGGER update_projects_timestamp
+BEFORE INSERT OR UPDATE OR DELETE ON ${projects_table}
+FOR EACH ROW
+EXECUTE FUNCTION ${schema}.update_projects_timestamp();
+
+DROP TRIGGER IF EXISTS update_users_timestamp ON ${users_table};
+CREATE TRIGGER update_users_timestamp
+BEFORE UPDATE OR DELETE ON ${users_table}
+FOR EACH ROW
+EXECUTE FUNCTION ${schema}.update_users_timestamp();
+
+DROP TRIGGER IF EXISTS update_users_projects_timestamp ON ${project_users_table};
+CREATE TRIGGER update_users_projects_timestamp
+BEFORE INSERT OR UPDATE OR DELETE ON ${project_users_table}
+FOR EACH ROW
+EXECUTE FUNCTION ${schema}.update_project_users_timestamp();
@@ -0,0 +1,95 @@
+-- Содержимое изображений переносится из строк users / projects в таблицу images;
+-- в строках владельцев остаётся только image_hash (SHA-256 содержимого).
+-- Скрипт идемпотентен: на базе, созданной актуальным schema.sql, он ничего не меняет
+
+-- перенос не должен рассылать построчные уведомления инвалидации кэшей
+SELECT set_config('servlets.suppress_cache_notify', 'on', true);
+
+CREATE TABLE IF NOT EXISTS ${images_table}
+(
+    owner_type   text        not null,
+    owner_id     uuid        not null,
+    content_type text        not null,
+    size         bigint      not null,
+    hash         text        not null,
+    data         bytea       not null,
+    updated_at   timestamptz default now(),
+    PRIMARY KEY (owner_type, owner_id)
+);
+ALTER TABLE ${images_table} ALTER COLUMN data SET STORAGE EXTERNAL;
+
+ALTER TABLE ${users_table} ADD COLUMN IF NOT EXISTS image_hash text default null;
+ALTER TABLE ${projects_table} ADD COLUMN IF NOT EXISTS image_hash text default null;
+
+CREATE OR REPLACE FUNCTION ${schema}.image_content_type(data bytea)
+RETURNS text AS $$
+    SELECT CASE
+        WHEN substring(data from 1 for 8) = '\x89504e470d0a1a0a'::bytea THEN 'image/png'
+        WHEN substring(data from 1 for 3) = '\xffd8ff'::bytea THEN 'image/jpeg'
+        WHEN substring(data from 1 for 6) IN ('GIF87a'::bytea, 'GIF89a'::bytea) THEN 'image/gif'
+        WHEN substring(data from 1 for 4) = 'RIFF'::bytea AND substring(data from 9 for 4) = 'WEBP'::bytea THEN 'image/webp'
+        ELSE 'application/octet-stream'
+    END;
+$$ LANGUAGE sql IMMUTABLE;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_attribute
+               WHERE attrelid = '${users_table}'::regclass AND attname = 'image' AND NOT attisdropped) THEN
+        INSERT INTO ${images_table} (owner_type, owner_id, content_type, size, hash, data)
+        SELECT 'user', id, ${schema}.image_content_type(image), length(image), encode(sha256(image), 'hex'), image
+        FROM ${users_table} WHERE image IS NOT NULL
+        ON CONFLICT (owner_type, owner_id) DO NOTHING;
+        UPDATE ${users_table} SET image_hash = encode(sha256(image), 'hex') WHERE image IS NOT NULL;
+        ALTER TABLE ${users_table} DROP COLUMN image;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM pg_attribute
+               WHERE attrelid = '${projects_table}'::regclass AND attname = 'image' AND NOT attisdropped) THEN
+        INSERT INTO ${images_table} (owner_type, owner_id, content_type, size, hash, data)
+        SELECT 'project', id, ${schema}.image_content_type(image), length(image), encode(sha256(image), 'hex'), image
+        FROM ${projects_table} WHERE image IS NOT NULL
+        ON CONFLICT (owner_type, owner_id) DO NOTHING;
+        UPDATE ${projects_table} SET image_hash = encode(sha256(image), 'hex') WHERE image IS NOT NULL;
+        ALTER TABLE ${projects_table} DROP COLUMN image;
+    END IF;
+END;
+$$;
+
+DROP FUNCTION ${schema}.image_content_type(bytea);
+
+-- изображения удаляются вместе с владельцем
+CREATE OR REPLACE FUNCTION ${schema}.update_projects_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM ${images_table} WHERE owner_type = 'project' AND owner_id = OLD.id;
+        PERFORM ${schema}.notify_cache_invalidation('projects', TG_OP, OLD.id, OLD.admin_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM ${schema}.notify_cache_invalidation('projects', TG_OP, NEW.id, NEW.admin_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${schema}.update_users_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM ${images_table} WHERE owner_type = 'user' AND owner_id = OLD.id;
+        PERFORM ${schema}.notify_cache_invalidation('users', TG_OP, OLD.id, NULL);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+        PERFORM ${schema}.notify_cache_invalidation('users', TG_OP, NEW.id, NULL);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- прочие экземпляры приложения могли закэшировать DTO без imageUrl
+SELECT pg_notify('servlets_cache_invalidation', 'all,MIGRATION');
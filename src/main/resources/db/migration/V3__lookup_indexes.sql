@@ -0,0 +1,8 @@
+-- Индексы для поиска по внешним ключам:
+-- projects.admin_id - проекты администратора (PROJECTS_FIND_BY_ADMIN_ID / _IDS)
+-- и каскадное удаление проектов пользователя;
+-- project_users (user_id, project_id) - проекты участника (PROJECT_USERS_FIND_BY_USER_ID / _IDS,
+-- версия пользователя) и каскадное удаление связей пользователя.
+-- Первичный ключ (project_id, user_id) покрывает только поиск по project_id
+CREATE INDEX IF NOT EXISTS projects_admin_id_idx ON ${projects_table} (admin_id);
+CREATE INDEX IF NOT EXISTS project_users_user_id_project_id_idx ON ${project_users_table} (user_id, project_id);
@@ -0,0 +1,21 @@
+-- Удаление участника уменьшает число строк версии, но не сдвигает её last_modified:
+-- клиент с If-Modified-Since получал 304 со списком участников, в котором удалённый ещё есть.
+-- Теперь удаление связи обновляет updated_at проекта (версии проекта и всех его участников)
+-- и удалённого пользователя (проект пропадает из его версии).
+-- При каскадном удалении проекта или пользователя обновление уже удалённой строки ничего не меняет
+CREATE OR REPLACE FUNCTION ${schema}.update_project_users_timestamp()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        UPDATE ${projects_table} SET updated_at = NOW() WHERE id = OLD.project_id;
+        UPDATE ${users_table} SET updated_at = NOW() WHERE id = OLD.user_id;
+        PERFORM ${schema}.notify_cache_invalidation('project_users', TG_OP, OLD.project_id, OLD.user_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM ${schema}.notify_cache_invalidation('project_users', TG_OP, NEW.project_id, NEW.user_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -14,7 +14,7 @@ CREATE TABLE IF NOT EXISTS servlets.users
     phone         text,
     created_at    timestamptz default now(),
     updated_at    timestamptz,
-    image         bytea default null,
+    image_hash    text default null,
     last_login_date timestamptz,
     userstatus    integer     default 0
 );
@@ -26,7 +26,7 @@ CREATE TABLE IF NOT EXISTS servlets.projects
     description text,
     created_at  timestamptz default now(),
     updated_at  timestamptz,
-    image       bytea default null,
+    image_hash  text default null,
     admin_id    uuid,
     project_status    integer     default 0,
     FOREIGN KEY (admin_id) REFERENCES servlets.users(id) ON DELETE CASCADE
@@ -42,17 +42,67 @@ CREATE TABLE IF NOT EXISTS servlets.project_users (
     FOREIGN KEY (user_id) REFERENCES servlets.users(id) ON DELETE CASCADE
 );
 
+-- Поиск по внешним ключам (проекты администратора, проекты участника)
+-- и каскадное удаление пользователя; первичный ключ покрывает только project_id.
+-- Для существующих баз те же индексы создаёт db/migration/V3__lookup_indexes.sql
+CREATE INDEX IF NOT EXISTS projects_admin_id_idx ON servlets.projects (admin_id);
+CREATE INDEX IF NOT EXISTS project_users_user_id_project_id_idx ON servlets.project_users (user_id, project_id);
+
+/*-------------------------------------------------------*/
+-- Изображения пользователей и проектов хранятся отдельно от строк владельцев:
+-- списки не читают байты, а image_hash владельца (SHA-256) служит ETag и версией ссылки.
+-- STORAGE EXTERNAL - без сжатия TOAST (png / jpeg уже сжаты), чтобы substring()
+-- для запросов Range читал только нужные блоки
+CREATE TABLE IF NOT EXISTS servlets.images
+(
+    owner_type   text        not null,
+    owner_id     uuid        not null,
+    content_type text        not null,
+    size         bigint      not null,
+    hash         text        not null,
+    data         bytea       not null,
+    updated_at   timestamptz default now(),
+    PRIMARY KEY (owner_type, owner_id)
+);
+ALTER TABLE servlets.images ALTER COLUMN data SET STORAGE EXTERNAL;
+
+/*-------------------------------------------------------*/
+-- Межузловая инвалидация кэшей: каждое изменение строки отправляет
+-- pg_notify в канал servlets_cache_invalidation с полезной нагрузкой
+-- "<таблица>,<операция>,<id>[,<связанный id>]"; уведомления доставляются
+-- слушателям только после фиксации транзакции.
+-- Импорт (COPY) отключает построчные уведомления параметром транзакции
+-- servlets.suppress_cache_notify и отправляет одно уведомление "all,IMPORT"
+CREATE OR REPLACE FUNCTION servlets.notify_cache_invalidation(entity text, operation text, id uuid, related_id uuid)
+RETURNS VOID AS $$
+BEGIN
+    IF current_setting('servlets.suppress_cache_notify', true) = 'on' THEN
+        RETURN;
+    END IF;
+    PERFORM pg_notify('servlets_cache_invalidation',
+        concat_ws(',', entity, operation, id::text, related_id::text));
+END;
+$$ LANGUAGE plpgsql;
+
 /*-------------------------------------------------------*/
 CREATE OR REPLACE FUNCTION servlets.update_projects_timestamp()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = NOW();
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM servlets.images WHERE owner_type = 'project' AND owner_id = OLD.id;
+        PERFORM servlets.notify_cache_invalidation('projects', TG_OP, OLD.id, OLD.admin_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM servlets.notify_cache_invalidation('projects', TG_OP, NEW.id, NEW.admin_id);
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
 
 CREATE TRIGGER update_projects_timestamp
-BEFORE UPDATE ON servlets.projects
+BEFORE INSERT OR UPDATE OR DELETE ON servlets.projects
 FOR EACH ROW
 EXECUTE FUNCTION servlets.update_projects_timestamp();
 
@@ -61,13 +111,21 @@ EXECUTE FUNCTION servlets.update_projects_timestamp();
 CREATE OR REPLACE FUNCTION servlets.update_users_timestamp()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = NOW();
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM servlets.images WHERE owner_type = 'user' AND owner_id = OLD.id;
+        PERFORM servlets.notify_cache_invalidation('users', TG_OP, OLD.id, NULL);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+        PERFORM servlets.notify_cache_invalidation('users', TG_OP, NEW.id, NULL);
+    END IF;
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
 
 CREATE TRIGGER update_users_timestamp
-BEFORE UPDATE ON servlets.users
+BEFORE UPDATE OR DELETE ON servlets.users
 FOR EACH ROW
 EXECUTE FUNCTION servlets.update_users_timestamp();
 
@@ -75,12 +133,21 @@ EXECUTE FUNCTION servlets.update_users_timestamp();
 CREATE OR REPLACE FUNCTION servlets.update_project_users_timestamp()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = NOW();
+    IF TG_OP = 'DELETE' THEN
+        UPDATE servlets.projects SET updated_at = NOW() WHERE id = OLD.project_id;
+        UPDATE servlets.users SET updated_at = NOW() WHERE id = OLD.user_id;
+        PERFORM servlets.notify_cache_invalidation('project_users', TG_OP, OLD.project_id, OLD.user_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        NEW.updated_at = NOW();
+    END IF;
+    PERFORM servlets.notify_cache_invalidation('project_users', TG_OP, NEW.project_id, NEW.user_id);
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
 
 CREATE TRIGGER update_users_projects_timestamp
-BEFORE UPDATE ON servlets.project_users
+BEFORE INSERT OR UPDATE OR DELETE ON servlets.project_users
 FOR EACH ROW
 EXECUTE FUNCTION servlets.update_project_users_timestamp();
\ No newline at end of file
@@ -24,4 +24,19 @@ public class PropertiesConfigurationTest {
         assert expectedResult.equals(actualResult) : "The value is wrong";
 
     }
+
+    @Test
+    public void intSettingOutOfRangeTest(){
+        PropertiesConfiguration.getProperties().setProperty("test.int-setting", "4294967296");
+        try {
+            PropertiesConfiguration.getIntSetting("TEST_INT_SETTING", "test.int-setting", 1);
+            assert false : "The value must be rejected";
+        }
+        catch (IllegalStateException e) {
+            assert e.getMessage().contains("test.int-setting") : "The message is wrong";
+        }
+        finally {
+            PropertiesConfiguration.getProperties().remove("test.int-setting");
+        }
+    }
 }
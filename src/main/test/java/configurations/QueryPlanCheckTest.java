@@ -0,0 +1,44 @@
+package configurations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import utils.JsonCodec;
+import utils.sqls.SqlStatement;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class QueryPlanCheckTest {
+
+    @Test
+    public void jdbcParametersAreNumberedOutsideLiterals() {
+        assertEquals("SELECT id FROM t WHERE id = ANY($1::uuid[]) AND name = '?' AND age > $2",
+                QueryPlanCheck.toGenericPlanSql("SELECT id FROM t WHERE id = ANY(?::uuid[]) AND name = '?' AND age > ?"));
+    }
+
+    @Test
+    public void seqScansAreFoundInNestedPlans() throws Exception {
+        JsonNode plan = JsonCodec.mapper().readTree("""
+                [{"Plan": {"Node Type": "Hash Join", "Plans": [
+                    {"Node Type": "Seq Scan", "Relation Name": "project_users"},
+                    {"Node Type": "Hash", "Plans": [
+                        {"Node Type": "Index Scan", "Relation Name": "projects"}]}]}}]
+                """);
+
+        assertEquals(Set.of("project_users"), QueryPlanCheck.seqScanRelations(plan));
+    }
+
+    @Test
+    public void importAndFullTableStatementsAreSkipped() {
+        assertFalse(QueryPlanCheck.isChecked(SqlStatement.IMPORT_USERS_COPY));
+        assertFalse(QueryPlanCheck.isChecked(SqlStatement.USERS_FIND_ALL));
+        assertTrue(QueryPlanCheck.isChecked(SqlStatement.PROJECTS_FIND_BY_ADMIN_ID));
+    }
+}
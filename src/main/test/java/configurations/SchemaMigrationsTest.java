@@ -0,0 +1,156 @@
+package configurations;
+
+import org.junit.jupiter.api.Test;
+import utils.sqls.SqlTables;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SchemaMigrationsTest {
+
+    @Test
+    public void migrationsAreLoadedInVersionOrderWithTablesSubstituted() {
+        List<SchemaMigrations.Migration> migrations = SchemaMigrations.load(SqlTables.placeholders());
+
+        assertEquals(4, migrations.size());
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).getVersion());
+            assertFalse(migrations.get(i).getSql().contains("${"), migrations.get(i).getDescription());
+        }
+        assertEquals("cache_invalidation_triggers", migrations.get(0).getDescription());
+        assertEquals("lookup_indexes", migrations.get(2).getDescription());
+        assertTrue(migrations.get(2).getSql().contains("ON " + SqlTables.PROJECTS + " (admin_id)"));
+        assertTrue(migrations.get(2).getSql().contains("ON " + SqlTables.PROJECT_USERS + " (user_id, project_id)"));
+        assertEquals("bump_versions_on_member_removal", migrations.get(3).getDescription());
+    }
+
+    @Test
+    public void checksumDoesNotDependOnSchema() {
+        Map<String, String> other = Map.of(
+                "schema", "other",
+                "users_table", "other.users",
+                "projects_table", "other.projects",
+                "project_users_table", "other.project_users",
+                "images_table", "other.images");
+
+        List<SchemaMigrations.Migration> configured = SchemaMigrations.load(SqlTables.placeholders());
+        List<SchemaMigrations.Migration> moved = SchemaMigrations.load(other);
+
+        assertEquals(configured.get(2).getChecksum(), moved.get(2).getChecksum());
+        assertTrue(moved.get(2).getSql().contains("ON other.projects (admin_id)"));
+    }
+
+    /**
+     * Функции и триггеры базы, созданной schema.sql до миграций
+     */
+    private static final String BASELINE_ROUTINES = """
+            CREATE OR REPLACE FUNCTION servlets.update_projects_timestamp()
+            RETURNS TRIGGER AS $$
+            BEGIN
+                NEW.updated_at = NOW();
+                RETURN NEW;
+            END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE TRIGGER update_projects_timestamp
+            BEFORE UPDATE ON servlets.projects
+            FOR EACH ROW
+            EXECUTE FUNCTION servlets.update_projects_timestamp();
+
+            CREATE OR REPLACE FUNCTION servlets.update_users_timestamp()
+            RETURNS TRIGGER AS $$
+            BEGIN
+                NEW.updated_at = NOW();
+                RETURN NEW;
+            END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE TRIGGER update_users_timestamp
+            BEFORE UPDATE ON servlets.users
+            FOR EACH ROW
+            EXECUTE FUNCTION servlets.update_users_timestamp();
+
+            CREATE OR REPLACE FUNCTION servlets.update_project_users_timestamp()
+            RETURNS TRIGGER AS $$
+            BEGIN
+                NEW.updated_at = NOW();
+                RETURN NEW;
+            END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE TRIGGER update_users_projects_timestamp
+            BEFORE UPDATE ON servlets.project_users
+            FOR EACH ROW
+            EXECUTE FUNCTION servlets.update_project_users_timestamp();
+            """;
+
+    private static final Pattern ROUTINE = Pattern.compile(
+            "CREATE OR REPLACE FUNCTION\\s+([\\w.]+)\\s*\\(.*?\\$\\$(.*?)\\$\\$"
+                    + "|DROP FUNCTION\\s+([\\w.]+)"
+                    + "|CREATE TRIGGER\\s+(\\w+)\\s+(BEFORE .*?)\\s+ON\\s+([\\w.]+)\\s+FOR EACH ROW\\s+EXECUTE FUNCTION\\s+([\\w.]+)"
+                    + "|DROP TRIGGER IF EXISTS\\s+(\\w+)\\s+ON\\s+([\\w.]+)",
+            Pattern.DOTALL);
+
+    @Test
+    public void migratedBaselineSchemaHasCurrentFunctionsAndTriggers() throws Exception {
+        Map<String, String> migrated = new TreeMap<>();
+        apply(BASELINE_ROUTINES, migrated);
+        for (SchemaMigrations.Migration migration : SchemaMigrations.load(SqlTables.placeholders())) {
+            apply(migration.getSql(), migrated);
+        }
+
+        Map<String, String> current = new TreeMap<>();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("schema.sql")) {
+            apply(new String(input.readAllBytes(), StandardCharsets.UTF_8), current);
+        }
+
+        assertTrue(current.containsKey("function servlets.notify_cache_invalidation"));
+        assertEquals(current, migrated);
+    }
+
+    /**
+     * Применить к состоянию создание / удаление функций и триггеров скрипта в порядке следования
+     */
+    private static void apply(String sql, Map<String, String> state) {
+        Matcher matcher = ROUTINE.matcher(sql);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                state.put("function " + matcher.group(1), matcher.group(2).replaceAll("\\s+", " ").strip());
+            }
+            else if (matcher.group(3) != null) {
+                state.remove("function " + matcher.group(3));
+            }
+            else if (matcher.group(4) != null) {
+                state.put("trigger " + matcher.group(4) + " on " + matcher.group(6),
+                        matcher.group(5).replaceAll("\\s+", " ") + " " + matcher.group(7));
+            }
+            else {
+                state.remove("trigger " + matcher.group(8) + " on " + matcher.group(9));
+            }
+        }
+    }
+
+    @Test
+    public void substituteKeepsDollarQuotingAndRejectsUnknownPlaceholders() {
+        String sql = "DO $$ BEGIN PERFORM 1 FROM ${users_table}; END; $$;";
+
+        assertEquals("DO $$ BEGIN PERFORM 1 FROM s.users; END; $$;",
+                SchemaMigrations.substitute(sql, Map.of("users_table", "s.users")));
+        assertThrows(IllegalStateException.class,
+                () -> SchemaMigrations.substitute("SELECT * FROM ${unknown}", Map.of()));
+    }
+}
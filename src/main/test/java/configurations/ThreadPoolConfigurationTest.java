@@ -0,0 +1,176 @@
+package configurations;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ThreadPoolConfigurationTest {
+
+    @Test
+    public void boundedExecutorRejectsWhenQueueIsFull() throws InterruptedException {
+        ThreadPoolExecutor executor = ThreadPoolConfiguration.newBoundedExecutor("test-worker", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            started.await();
+            executor.execute(() -> { });
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        }
+        finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void boundedExecutorUsesNamedThreads() throws Exception {
+        ThreadPoolExecutor executor = ThreadPoolConfiguration.newBoundedExecutor("test-worker", 2, 10);
+        try {
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+
+            assertTrue(threadName.startsWith("test-worker-"));
+            assertEquals(2, executor.getMaximumPoolSize());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualExecutorIsLimitedBySemaphore() throws Exception {
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(
+                ThreadPoolConfiguration.newVirtualThreadExecutor("test-vt-"), 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[20];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleepQuietly(10);
+                    running.decrementAndGet();
+                    assertTrue(Thread.currentThread().isVirtual());
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+
+            assertTrue(maxRunning.get() <= 2);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void leaseHoldsPermitUntilClosed() throws Exception {
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(
+                ThreadPoolConfiguration.newVirtualThreadExecutor("test-vt-"), 1);
+        try {
+            ConcurrencyLimitedExecutor.Lease lease = executor.leaseAsync().get(10, TimeUnit.SECONDS);
+            lease.execute(() -> { });
+            CompletableFuture<Void> task = CompletableFuture.runAsync(() -> { }, executor);
+            CompletableFuture<ConcurrencyLimitedExecutor.Lease> next = executor.leaseAsync();
+
+            sleepQuietly(50);
+            assertFalse(task.isDone());
+            assertFalse(next.isDone());
+
+            lease.close();
+            lease.close();
+            task.get(10, TimeUnit.SECONDS);
+            next.get(10, TimeUnit.SECONDS).close();
+
+            assertEquals(1, executor.availablePermits());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void unitsOfWorkHoldingConnectionsDoNotStarveThePool() throws Exception {
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(
+                ThreadPoolConfiguration.newBoundedExecutor("test-worker", 2, 10), 2, 10);
+        try {
+            CompletableFuture<Void> blocked = new CompletableFuture<>();
+            CompletableFuture<?>[] units = new CompletableFuture<?>[2];
+            for (int i = 0; i < units.length; i++) {
+                units[i] = UnitOfWork.execute(executor, unitOfWork -> CompletableFuture
+                        .runAsync(() -> { }, unitOfWork.getExecutor())
+                        .thenCompose(ignored -> blocked)
+                        .thenRunAsync(() -> { }, unitOfWork.getExecutor()));
+            }
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[4];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = CompletableFuture.runAsync(() -> { }, executor);
+            }
+
+            sleepQuietly(50);
+            assertFalse(tasks[0].isDone());
+
+            blocked.complete(null);
+            CompletableFuture.allOf(units).get(10, TimeUnit.SECONDS);
+            CompletableFuture.allOf(tasks).get(10, TimeUnit.SECONDS);
+
+            assertEquals(2, executor.availablePermits());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void leaseIsRejectedWhenWaitingQueueIsFull() throws Exception {
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(
+                ThreadPoolConfiguration.newVirtualThreadExecutor("test-vt-"), 1, 1);
+        try {
+            ConcurrencyLimitedExecutor.Lease lease = executor.leaseAsync().get(10, TimeUnit.SECONDS);
+            CompletableFuture<ConcurrencyLimitedExecutor.Lease> waiting = executor.leaseAsync();
+
+            assertThrows(RejectedExecutionException.class, executor::leaseAsync);
+
+            lease.close();
+            waiting.get(10, TimeUnit.SECONDS).close();
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package configurations;
+
+import org.junit.jupiter.api.Test;
+import utils.exceptions.ProjectNotFoundException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class UnitOfWorkTest {
+
+    @Test
+    public void tasksOfOneUnitOfWorkNeverRunConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            UnitOfWork unitOfWork = new UnitOfWork(pool);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[50];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    running.decrementAndGet();
+                }, unitOfWork.getExecutor());
+            }
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, maxRunning.get());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void executeHoldsPermitUntilFinished() throws Exception {
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(Executors.newFixedThreadPool(2), 1);
+        try {
+            CompletableFuture<String> release = new CompletableFuture<>();
+            CompletableFuture<String> first = UnitOfWork.execute(executor, unitOfWork -> release);
+            CompletableFuture<String> second = UnitOfWork.execute(executor,
+                    unitOfWork -> CompletableFuture.supplyAsync(() -> "second", unitOfWork.getExecutor()));
+
+            assertEquals(0, executor.availablePermits());
+            assertFalse(second.isDone());
+
+            release.complete("first");
+
+            assertEquals("first", first.get(10, TimeUnit.SECONDS));
+            assertEquals("second", second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, executor.availablePermits());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void executeReturnsResultWhenNoConnectionWasBorrowed() throws Exception {
+        String result = UnitOfWork.execute(unitOfWork -> CompletableFuture.completedFuture("done"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    public void executePropagatesOriginalErrorAfterRollback() {
+        CompletableFuture<Object> result = UnitOfWork.execute(unitOfWork ->
+                CompletableFuture.supplyAsync(() -> {
+                    throw new ProjectNotFoundException("not found");
+                }, unitOfWork.getExecutor()));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(ProjectNotFoundException.class, e.getCause());
+        assertTrue(result.isCompletedExceptionally());
+    }
+}
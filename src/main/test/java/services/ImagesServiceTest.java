@@ -0,0 +1,90 @@
+package services;
+
+import models.dtos.ImageDto;
+import models.enums.ImageOwner;
+import org.junit.jupiter.api.Test;
+import repositories.interfaces.ImageRepository;
+import utils.exceptions.ImageNotFoundException;
+import utils.exceptions.InvalidImageException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ImagesServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @Test
+    public void contentTypeIsDetectedBySignature() {
+        assertEquals("image/png", ImagesService.detectContentType(PNG));
+        assertEquals("image/jpeg", ImagesService.detectContentType(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+        assertEquals("image/gif", ImagesService.detectContentType("GIF89a...".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals("image/webp", ImagesService.detectContentType("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(ImagesService.detectContentType("<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8)));
+        assertNull(ImagesService.detectContentType(new byte[0]));
+    }
+
+    @Test
+    public void hashIsSha256Hex() {
+        assertEquals("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+                ImagesService.hash("test".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void unsupportedContentIsRejectedBeforeRepository() {
+        ImageRepository repository = mock(ImageRepository.class);
+        ImagesService service = new ImagesService(repository);
+
+        assertThrows(InvalidImageException.class, () -> service.saveAsync(
+                ImageOwner.USER, UUID.randomUUID(), "<html></html>".getBytes(StandardCharsets.UTF_8)));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void missingImageFailsWithImageNotFound() {
+        ImagesService service = new ImagesService(repository());
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> service.getMetadataAsync(ImageOwner.PROJECT, UUID.randomUUID()).join());
+        assertInstanceOf(ImageNotFoundException.class, error.getCause());
+    }
+
+    @Test
+    public void changedImageFailsChunkRead() {
+        ImageDto image = new ImageDto(UUID.randomUUID(), "image/png", PNG.length, ImagesService.hash(PNG), null);
+        ImagesService service = new ImagesService(repository());
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> service.readRangeAsync(ImageOwner.USER, image, 0, PNG.length).join());
+        assertInstanceOf(ImageNotFoundException.class, error.getCause());
+    }
+
+    /**
+     * Репозиторий, у которого нет ни одного изображения
+     */
+    private static ImageRepository repository() {
+        ImageRepository repository = mock(ImageRepository.class);
+        when(repository.findMetadataAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(repository.readRangeAsync(any(), any(), anyString(), anyLong(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        return repository;
+    }
+}
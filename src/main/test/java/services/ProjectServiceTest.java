@@ -43,6 +43,16 @@ public class ProjectServiceTest extends Utils {
     @Mock private ProjectUserRepository projectUserRepository;
     @InjectMocks private services.ProjectsService projectService;
 
+    // Сервис выполняет операции в UnitOfWork и берёт репозитории через within(unitOfWork):
+    // у мока within возвращает null, поэтому привязка возвращает тот же мок.
+    // Моки не заимствуют соединение, единица работы выполняется в пуле репозиториев без БД
+    @Before
+    public void bindMocksToUnitOfWork() {
+        when(projectRepository.within(any())).thenReturn(projectRepository);
+        when(userRepository.within(any())).thenReturn(userRepository);
+        when(projectUserRepository.within(any())).thenReturn(projectUserRepository);
+    }
+
     //---------------------------------------------------------------
     // Get By User Id
     //---------------------------------------------------------------
@@ -61,6 +71,7 @@ public class ProjectServiceTest extends Utils {
         // Для этого отдельно был создан конструктор сервиса
         // Остальные тесты проходят нормально
         ProjectRepository repo = Mockito.mock(ProjectRepository.class);
+        when(repo.within(any())).thenReturn(repo);
         projectService = new ProjectsService(repo);
 
         when(repo.findByUserIdAsync(userId))
@@ -152,6 +163,7 @@ public class ProjectServiceTest extends Utils {
         // Для этого отдельно был создан конструктор сервиса
         // Остальные тесты проходят нормально
         ProjectRepository repo = Mockito.mock(ProjectRepository.class);
+        when(repo.within(any())).thenReturn(repo);
         projectService = new ProjectsService(repo);
 
         when(repo.findByAdminIdAsync(adminId))
@@ -187,6 +199,7 @@ public class ProjectServiceTest extends Utils {
         RuntimeException dbError = new RuntimeException("Database error");
 
         ProjectRepository repo = Mockito.mock(ProjectRepository.class);
+        when(repo.within(any())).thenReturn(repo);
         projectService = new ProjectsService(repo);
 
         when(projectRepository.findByAdminIdAsync(adminId))
@@ -0,0 +1,98 @@
+package services;
+
+import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+import models.entities.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repositories.interfaces.ProjectRepository;
+import repositories.interfaces.ProjectUserRepository;
+import repositories.interfaces.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ProjectsServiceMembersBatchTest {
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID adminId = UUID.randomUUID();
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectUserRepository projectUserRepository = mock(ProjectUserRepository.class);
+    private final ProjectsService service = new ProjectsService(projectRepository, userRepository, projectUserRepository);
+
+    @BeforeEach
+    public void bindMocksToUnitOfWork() {
+        when(projectRepository.within(any())).thenReturn(projectRepository);
+        when(userRepository.within(any())).thenReturn(userRepository);
+        when(projectUserRepository.within(any())).thenReturn(projectUserRepository);
+    }
+
+    @Test
+    public void membersAreAddedInOneBatchAndProjectIsLoadedOnce() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(projectUserRepository.addUsersToProjectAsync(projectId, List.of(first, second)))
+                .thenReturn(CompletableFuture.completedFuture(2));
+        when(projectRepository.findByIdAsync(projectId))
+                .thenReturn(CompletableFuture.completedFuture(project(List.of(first, second))));
+
+        ProjectDto project = service.addUsersToProjectAsync(projectId, List.of(first, second, first))
+                .get(10, TimeUnit.SECONDS);
+
+        verify(projectUserRepository).addUsersToProjectAsync(projectId, List.of(first, second));
+        verify(projectRepository, times(1)).findByIdAsync(projectId);
+        assertEquals(List.of(first, second), project.getProjectUsersIds());
+    }
+
+    @Test
+    public void projectAdminInBatchIsSkipped() throws Exception {
+        UUID member = UUID.randomUUID();
+        when(projectUserRepository.addUsersToProjectAsync(projectId, List.of(member, adminId)))
+                .thenReturn(CompletableFuture.completedFuture(1));
+        when(projectRepository.findByIdAsync(projectId))
+                .thenReturn(CompletableFuture.completedFuture(project(List.of(member))));
+
+        ProjectDto project = service.addUsersToProjectAsync(projectId, List.of(member, adminId))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(member), project.getProjectUsersIds());
+    }
+
+    @Test
+    public void emptyBatchIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.addUsersToProjectAsync(projectId, List.of()));
+
+        verify(projectUserRepository, times(0)).addUsersToProjectAsync(any(), anyList());
+        verifyNoInteractions(projectRepository);
+    }
+
+    private Project project(List<UUID> members) {
+        Project project = new Project();
+        project.setId(projectId);
+        project.setAdminId(adminId);
+        project.setProjectUsers(members.stream().map(id -> {
+            UserDto user = new UserDto();
+            user.setId(id);
+            return user;
+        }).toList());
+        return project;
+    }
+}
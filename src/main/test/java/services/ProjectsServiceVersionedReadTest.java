@@ -0,0 +1,102 @@
+package services;
+
+import configurations.CacheConfiguration;
+import models.dtos.ProjectDto;
+import models.dtos.VersionDto;
+import models.dtos.VersionedDto;
+import models.entities.Project;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repositories.interfaces.ProjectRepository;
+import repositories.interfaces.ProjectUserRepository;
+import repositories.interfaces.UserRepository;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тело из кэша отдаётся с версией, с которой оно было загружено,
+ * а тело старше версии, прочитанной для условного GET, загружается заново
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ProjectsServiceVersionedReadTest {
+
+    private static final VersionDto LOADED = new VersionDto(new Timestamp(1_000), 1);
+    private static final VersionDto UPDATED = new VersionDto(new Timestamp(2_000), 1);
+
+    private final UUID projectId = UUID.randomUUID();
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectUserRepository projectUserRepository = mock(ProjectUserRepository.class);
+    private final ProjectsService service = new ProjectsService(projectRepository, userRepository, projectUserRepository);
+
+    @BeforeEach
+    public void bindMocksToUnitOfWork() {
+        when(projectRepository.within(any())).thenReturn(projectRepository);
+        when(userRepository.within(any())).thenReturn(userRepository);
+        when(projectUserRepository.within(any())).thenReturn(projectUserRepository);
+    }
+
+    @AfterEach
+    public void forgetCachedProject() {
+        CacheConfiguration.getProjectCache().invalidate(projectId);
+    }
+
+    @Test
+    public void cachedProjectKeepsVersionItWasLoadedWith() throws Exception {
+        when(projectRepository.findVersionByIdAsync(projectId)).thenReturn(
+                CompletableFuture.completedFuture(LOADED),
+                CompletableFuture.completedFuture(UPDATED));
+        when(projectRepository.findByIdAsync(projectId)).thenReturn(
+                CompletableFuture.completedFuture(project("loaded")),
+                CompletableFuture.completedFuture(project("updated")));
+
+        VersionedDto<ProjectDto> first = service.getVersionedByIdAsync(projectId, LOADED).get(10, TimeUnit.SECONDS);
+        VersionedDto<ProjectDto> second = service.getVersionedByIdAsync(projectId, LOADED).get(10, TimeUnit.SECONDS);
+
+        assertEquals("loaded", second.getBody().getName());
+        assertSame(first.getVersion(), second.getVersion());
+        verify(projectRepository, times(1)).findByIdAsync(projectId);
+    }
+
+    @Test
+    public void cachedProjectOlderThanCurrentVersionIsReloaded() throws Exception {
+        when(projectRepository.findVersionByIdAsync(projectId)).thenReturn(
+                CompletableFuture.completedFuture(LOADED),
+                CompletableFuture.completedFuture(UPDATED));
+        when(projectRepository.findByIdAsync(projectId)).thenReturn(
+                CompletableFuture.completedFuture(project("loaded")),
+                CompletableFuture.completedFuture(project("updated")));
+
+        service.getVersionedByIdAsync(projectId, LOADED).get(10, TimeUnit.SECONDS);
+        // Проект изменён, уведомление об изменении до кэша ещё не дошло:
+        // условный GET читает новую версию, а в кэше тело предыдущей
+        VersionedDto<ProjectDto> served = service.getVersionedByIdAsync(projectId, UPDATED).get(10, TimeUnit.SECONDS);
+
+        assertEquals("updated", served.getBody().getName());
+        assertEquals(UPDATED.getEtag(), served.getVersion().getEtag());
+        verify(projectRepository, times(2)).findByIdAsync(projectId);
+    }
+
+    private Project project(String name) {
+        Project project = new Project();
+        project.setId(projectId);
+        project.setName(name);
+        project.setAdminId(UUID.randomUUID());
+        return project;
+    }
+}
@@ -0,0 +1,101 @@
+package services;
+
+import models.dtos.BulkResultDto;
+import models.dtos.BulkRowResultDto;
+import models.entities.User;
+import models.enums.BulkRowStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import repositories.interfaces.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class UsersServiceBulkTest {
+
+    @Test
+    public void invalidAndDuplicateRowsAreRejectedBeforeDatabase() {
+        List<User> users = new ArrayList<>();
+        users.add(user("Andr33w", "McFly@123.ru"));
+        users.add(user("Andr33w", "Other@123.ru"));
+        users.add(user("Doc", "McFly@123.ru"));
+        users.add(user(null, "Brown@123.ru"));
+        users.add(null);
+        BulkRowResultDto[] rows = new BulkRowResultDto[users.size()];
+
+        List<Integer> accepted = UsersService.validateBulkRows(users, rows);
+
+        assertEquals(List.of(0), accepted);
+        assertNull(rows[0]);
+        assertRow(rows[1], 1, BulkRowStatus.CONFLICT, "userName");
+        assertRow(rows[2], 2, BulkRowStatus.CONFLICT, "email");
+        assertRow(rows[3], 3, BulkRowStatus.INVALID, "userName");
+        assertRow(rows[4], 4, BulkRowStatus.INVALID, "user");
+    }
+
+    @Test
+    public void rowsSkippedByDatabaseAreReportedWithConflictingField() throws Exception {
+        UUID createdId = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>();
+        ids.add(createdId);
+        ids.add(null);
+        ids.add(null);
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.within(any())).thenReturn(repository);
+        when(repository.createBatchAsync(anyList())).thenReturn(CompletableFuture.completedFuture(ids));
+        when(repository.findByUserNamesOrEmailsAsync(anyList(), anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                user("Marty", "Existing@123.ru"),
+                user("Existing", "Brown@123.ru"))));
+
+        BulkResultDto result = new UsersService(repository).createBulkAsync(List.of(
+                        user("Andr33w", "McFly@123.ru"),
+                        user("Marty", "Marty@123.ru"),
+                        user("", "Empty@123.ru"),
+                        user("Doc", "Brown@123.ru")))
+                .get(10, TimeUnit.SECONDS);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).createBatchAsync(batch.capture());
+        assertEquals(3, batch.getValue().size());
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getRejected());
+        assertEquals(createdId, result.getRows().get(0).getId());
+        assertRow(result.getRows().get(1), 1, BulkRowStatus.CONFLICT, "userName");
+        assertRow(result.getRows().get(2), 2, BulkRowStatus.INVALID, "userName");
+        assertRow(result.getRows().get(3), 3, BulkRowStatus.CONFLICT, "email");
+    }
+
+    private static void assertRow(BulkRowResultDto row, int index, BulkRowStatus status, String field) {
+        assertNotNull(row);
+        assertEquals(index, row.getIndex());
+        assertEquals(status, row.getStatus());
+        assertEquals(field, row.getField());
+        assertNull(row.getId());
+    }
+
+    private static User user(String userName, String email) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(email);
+        user.setPassword("123");
+        return user;
+    }
+}
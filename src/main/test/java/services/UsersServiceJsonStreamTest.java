@@ -0,0 +1,74 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import repositories.interfaces.EntityCursor;
+import repositories.interfaces.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class UsersServiceJsonStreamTest {
+
+    @Test
+    public void aggregatedRowsArePassedToSinkAsIsAndCursorIsClosed() throws Exception {
+        EntityCursor<String> cursor = cursor(List.of("{\"id\":1}", "{\"id\":2}"), List.of("{\"id\":3}"));
+        List<List<String>> received = new ArrayList<>();
+
+        long count = new UsersService(repository(cursor))
+                .streamAllJsonAsync(2, batch -> {
+                    received.add(batch);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, count);
+        assertEquals(List.of(List.of("{\"id\":1}", "{\"id\":2}"), List.of("{\"id\":3}")), received);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void cursorIsClosedWhenSinkFails() throws Exception {
+        EntityCursor<String> cursor = cursor(List.of("{\"id\":1}"));
+
+        CompletableFuture<Long> streamed = new UsersService(repository(cursor))
+                .streamAllJsonAsync(1, batch -> CompletableFuture.failedFuture(new IllegalStateException("client gone")));
+
+        assertThrows(Exception.class, () -> streamed.get(10, TimeUnit.SECONDS));
+        verify(cursor).close();
+    }
+
+    /**
+     * Курсор, отдающий порции по очереди, затем пустую
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static EntityCursor<String> cursor(List<String>... batches) {
+        EntityCursor<String> cursor = mock(EntityCursor.class);
+        CompletableFuture<List<String>>[] rest = new CompletableFuture[batches.length];
+        for (int i = 1; i < batches.length; i++) {
+            rest[i - 1] = CompletableFuture.completedFuture(batches[i]);
+        }
+        rest[batches.length - 1] = CompletableFuture.completedFuture(List.of());
+        when(cursor.nextBatchAsync()).thenReturn(CompletableFuture.completedFuture(batches[0]), rest);
+        return cursor;
+    }
+
+    private static UserRepository repository(EntityCursor<String> cursor) {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.openAggregatedCursorAsync(anyInt())).thenReturn(CompletableFuture.completedFuture(cursor));
+        return repository;
+    }
+}
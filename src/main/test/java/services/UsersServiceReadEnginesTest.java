@@ -0,0 +1,165 @@
+package services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import models.dtos.ProjectDto;
+import models.dtos.ProjectUsersDto;
+import models.dtos.UserDto;
+import models.entities.Project;
+import models.entities.User;
+import models.enums.UserRoles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repositories.interfaces.EntityCursor;
+import repositories.interfaces.ProjectRepository;
+import repositories.interfaces.ProjectUserRepository;
+import repositories.interfaces.UserRepository;
+import utils.JsonCodec;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Потоковое чтение всех пользователей: композиция в сервисе и агрегирующий запрос
+ * отдают одинаковые значения, включая порядок проектов и {@code projectUsersIds}
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class UsersServiceReadEnginesTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectUserRepository projectUserRepository = mock(ProjectUserRepository.class);
+
+    @BeforeEach
+    public void bindMocksToUnitOfWork() {
+        when(userRepository.within(any())).thenReturn(userRepository);
+        when(projectRepository.within(any())).thenReturn(projectRepository);
+        when(projectUserRepository.within(any())).thenReturn(projectUserRepository);
+    }
+
+    @Test
+    public void composedEngineOrdersProjectsAndFillsMembersLikeAggregatedQuery() throws Exception {
+        User admin = user("admin");
+        User member = user("member");
+        UUID otherAdmin = UUID.randomUUID();
+        Project administeredLater = project(admin.getId(), 2_000);
+        Project administeredEarlier = project(admin.getId(), 1_000);
+        Project joinedLater = project(otherAdmin, 3_000);
+        Project joinedEarlier = project(otherAdmin, 500);
+        List<ProjectUsersDto> links = List.of(
+                link(member, administeredLater, 1),
+                link(admin, joinedLater, 2),
+                link(member, joinedLater, 3),
+                link(member, joinedEarlier, 4));
+
+        EntityCursor<User> cursor = cursor(List.of(admin, member));
+        when(userRepository.openCursorAsync(anyInt())).thenReturn(CompletableFuture.completedFuture(cursor));
+        when(projectRepository.findByAdminIdsAsync(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(administeredLater, administeredEarlier)));
+        when(projectRepository.findByProjectIdsAsync(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(administeredLater, joinedLater, joinedEarlier)));
+        when(projectUserRepository.findByUserIdsAsync(anyList())).thenReturn(CompletableFuture.completedFuture(links));
+        when(projectUserRepository.findByProjectIdsAsync(anyList())).thenReturn(CompletableFuture.completedFuture(links));
+
+        List<UserDto> received = new ArrayList<>();
+        new UsersService(userRepository, projectRepository, projectUserRepository)
+                .streamAllAsync(10, batch -> {
+                    received.addAll(batch);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, received.size());
+        List<ProjectDto> adminProjects = received.get(0).getProjects();
+        assertEquals(List.of(administeredEarlier.getId(), administeredLater.getId(), joinedLater.getId()),
+                adminProjects.stream().map(ProjectDto::getId).toList());
+        assertEquals(List.of(), adminProjects.get(0).getProjectUsersIds());
+        assertEquals(List.of(member.getId()), adminProjects.get(1).getProjectUsersIds());
+        assertEquals(List.of(admin.getId(), member.getId()), adminProjects.get(2).getProjectUsersIds());
+
+        List<ProjectDto> memberProjects = received.get(1).getProjects();
+        assertEquals(List.of(joinedEarlier.getId(), administeredLater.getId(), joinedLater.getId()),
+                memberProjects.stream().map(ProjectDto::getId).toList());
+        assertEquals(List.of(member.getId()), memberProjects.get(0).getProjectUsersIds());
+    }
+
+    /**
+     * Оба способа на одной БД (как и {@code UsersRepositoryTest}, требует настроенного {@code jdbc.url})
+     */
+    @Test
+    public void bothEnginesReturnSameJsonFromDatabase() throws Exception {
+        UsersService service = new UsersService();
+        Map<String, JsonNode> composed = new HashMap<>();
+        Map<String, JsonNode> aggregated = new HashMap<>();
+
+        service.streamAllAsync(100, batch -> {
+            for (UserDto user : batch) {
+                JsonNode json = JsonCodec.mapper().valueToTree(user);
+                composed.put(json.get("id").asText(), json);
+            }
+            return CompletableFuture.completedFuture(null);
+        }).get(30, TimeUnit.SECONDS);
+        service.streamAllJsonAsync(100, batch -> {
+            try {
+                for (String row : batch) {
+                    JsonNode json = JsonCodec.mapper().readTree(row);
+                    aggregated.put(json.get("id").asText(), json);
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }).get(30, TimeUnit.SECONDS);
+
+        assertFalse(composed.isEmpty());
+        assertEquals(composed, aggregated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityCursor<User> cursor(List<User> users) {
+        EntityCursor<User> cursor = mock(EntityCursor.class);
+        when(cursor.nextBatchAsync()).thenReturn(
+                CompletableFuture.completedFuture(users),
+                CompletableFuture.completedFuture(List.of()));
+        return cursor;
+    }
+
+    private static User user(String userName) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUserName(userName);
+        user.setUserRole(UserRoles.USER);
+        user.setCreatedAt(new Date(0));
+        return user;
+    }
+
+    private static Project project(UUID adminId, long createdAt) {
+        Project project = new Project();
+        project.setId(UUID.randomUUID());
+        project.setName("Project " + createdAt);
+        project.setAdminId(adminId);
+        project.setCreatedAt(new Date(createdAt));
+        project.setUpdatedAt(new Date(createdAt));
+        return project;
+    }
+
+    private static ProjectUsersDto link(User user, Project project, long createdAt) {
+        return new ProjectUsersDto(user.getId(), project.getId(), new Date(createdAt), new Date(createdAt));
+    }
+}
@@ -40,6 +40,12 @@ public class UsersServiceTest extends Utils{
     @Mock private UserRepository userRepository;
     @InjectMocks private UsersService userService;
 
+    // within(unitOfWork) у мока возвращает null - привязываем мок к единице работы
+    @Before
+    public void bindMocksToUnitOfWork() {
+        when(userRepository.within(any())).thenReturn(userRepository);
+    }
+
     //---------------------------------------------------------------
     // CreateTest
     //---------------------------------------------------------------
@@ -310,6 +316,7 @@ public class UsersServiceTest extends Utils{
         RuntimeException dbError = new RuntimeException("Database error");
 
         UserRepository repo = Mockito.mock(UserRepository.class);
+        when(repo.within(any())).thenReturn(repo);
         userService = new UsersService(repo);
 
 
@@ -0,0 +1,110 @@
+package services.caches;
+
+import configurations.CacheConfiguration;
+import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+import models.dtos.VersionedDto;
+import models.enums.ProjectStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CacheInvalidationListenerTest {
+
+    private final UUID adminId = UUID.randomUUID();
+    private final UUID memberId = UUID.randomUUID();
+    private final UUID outsiderId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    public void clearCaches() {
+        CacheInvalidation.invalidateAll();
+    }
+
+    @Test
+    public void membershipNotificationEvictsProjectAndItsUsers() throws Exception {
+        cacheAll();
+
+        CacheInvalidationListener.dispatch(String.join(",", "project_users", "DELETE", projectId.toString(), memberId.toString()));
+
+        cacheAll();
+        // проект, администратор и участник загружены заново, посторонний пользователь - из кэша
+        assertEquals(4 + 3, loads.get());
+    }
+
+    @Test
+    public void userDeleteNotificationEvictsReferencingEntries() throws Exception {
+        cacheAll();
+
+        CacheInvalidationListener.dispatch(String.join(",", "users", "DELETE", memberId.toString()));
+
+        cacheAll();
+        assertEquals(4 + 3, loads.get());
+    }
+
+    @Test
+    public void userUpdateNotificationEvictsOnlyThatUser() throws Exception {
+        cacheAll();
+
+        CacheInvalidationListener.dispatch(String.join(",", "users", "UPDATE", outsiderId.toString()));
+
+        cacheAll();
+        assertEquals(4 + 1, loads.get());
+    }
+
+    @Test
+    public void importNotificationEvictsEverything() throws Exception {
+        cacheAll();
+
+        CacheInvalidationListener.dispatch("all,IMPORT");
+
+        cacheAll();
+        assertEquals(4 + 4, loads.get());
+    }
+
+    @Test
+    public void malformedNotificationIsIgnored() throws Exception {
+        cacheAll();
+
+        CacheInvalidationListener.dispatch("users,UPDATE");
+        CacheInvalidationListener.dispatch("users,UPDATE,not-a-uuid");
+        CacheInvalidationListener.dispatch(null);
+
+        cacheAll();
+        assertEquals(4, loads.get());
+    }
+
+    private void cacheAll() throws Exception {
+        ProjectDto project = new ProjectDto(projectId, "Project", null, new Date(), new Date(), null,
+                adminId, ProjectStatus.values()[0], List.of(memberId));
+
+        CacheConfiguration.getProjectCache().get(projectId, () -> load(project)).get();
+        CacheConfiguration.getUserCache().get(adminId, () -> load(user(adminId, List.of(project)))).get();
+        CacheConfiguration.getUserCache().get(memberId, () -> load(user(memberId, List.of(project)))).get();
+        CacheConfiguration.getUserCache().get(outsiderId, () -> load(user(outsiderId, List.of()))).get();
+    }
+
+    private <T> CompletableFuture<VersionedDto<T>> load(T value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(new VersionedDto<>(value, null));
+    }
+
+    private static UserDto user(UUID id, List<ProjectDto> projects) {
+        UserDto user = new UserDto();
+        user.setId(id);
+        user.setProjects(projects);
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package services.caches;
+
+import org.junit.jupiter.api.Test;
+import utils.exceptions.UserNotFoundException;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ReadThroughCacheTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    public void concurrentMissesShareOneLoad() throws Exception {
+        ReadThroughCache<String> cache = new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> loading = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.get(id, () -> {
+            loads.incrementAndGet();
+            return loading;
+        });
+        CompletableFuture<String> second = cache.get(id, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertFalse(second.isDone());
+
+        loading.complete("user");
+
+        assertEquals("user", first.get());
+        assertEquals("user", second.get());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void failedLoadIsNotCached() throws Exception {
+        ReadThroughCache<String> cache = new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(1));
+
+        CompletableFuture<String> failed = cache.get(id, () -> CompletableFuture.failedFuture(new UserNotFoundException("not found")));
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(UserNotFoundException.class, e.getCause());
+
+        assertEquals("user", cache.get(id, () -> CompletableFuture.completedFuture("user")).get());
+    }
+
+    @Test
+    public void invalidateIfDropsMatchingAndInFlightEntries() throws Exception {
+        ReadThroughCache<String> cache = new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(1));
+        UUID other = UUID.randomUUID();
+        UUID inFlight = UUID.randomUUID();
+
+        cache.get(id, () -> CompletableFuture.completedFuture("stale")).get();
+        cache.get(other, () -> CompletableFuture.completedFuture("fresh")).get();
+        cache.get(inFlight, CompletableFuture::new);
+
+        cache.invalidateIf("stale"::equals);
+
+        assertEquals(1, cache.size());
+        assertEquals("reloaded", cache.get(id, () -> CompletableFuture.completedFuture("reloaded")).get());
+        assertEquals("fresh", cache.get(other, () -> CompletableFuture.completedFuture("reloaded")).get());
+    }
+
+    @Test
+    public void callerCannotCompleteCachedValue() throws Exception {
+        ReadThroughCache<String> cache = new ReadThroughCache<>("test", true, 100, Duration.ofMinutes(1));
+        CompletableFuture<String> loading = new CompletableFuture<>();
+
+        cache.get(id, () -> loading).complete("forged");
+        loading.complete("user");
+
+        assertEquals("user", cache.get(id, CompletableFuture::new).get());
+    }
+
+    @Test
+    public void disabledCacheAlwaysLoads() throws Exception {
+        ReadThroughCache<String> cache = new ReadThroughCache<>("test", false, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(id, () -> CompletableFuture.completedFuture("user" + loads.incrementAndGet())).get();
+        }
+
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
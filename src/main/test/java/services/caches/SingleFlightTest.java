@@ -0,0 +1,96 @@
+package services.caches;
+
+import org.junit.jupiter.api.Test;
+import utils.exceptions.NoProjectsFoundException;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SingleFlightTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    public void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<UUID, String> flight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> loading = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.execute(id, () -> {
+            loads.incrementAndGet();
+            return loading;
+        });
+        CompletableFuture<String> second = flight.execute(id, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        loading.complete("projects");
+
+        assertEquals("projects", first.get());
+        assertEquals("projects", second.get());
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    public void errorIsPropagatedToAllCallersAndNotRemembered() throws Exception {
+        SingleFlight<UUID, String> flight = new SingleFlight<>("test");
+        CompletableFuture<String> loading = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.execute(id, () -> loading);
+        CompletableFuture<String> second = flight.execute(id, CompletableFuture::new);
+        loading.completeExceptionally(new NoProjectsFoundException("not found"));
+
+        assertInstanceOf(NoProjectsFoundException.class, assertThrows(ExecutionException.class, first::get).getCause());
+        assertInstanceOf(NoProjectsFoundException.class, assertThrows(ExecutionException.class, second::get).getCause());
+        assertEquals("projects", flight.execute(id, () -> CompletableFuture.completedFuture("projects")).get());
+    }
+
+    @Test
+    public void completedResultIsNotCached() throws Exception {
+        SingleFlight<UUID, Integer> flight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute(id, () -> CompletableFuture.completedFuture(loads.incrementAndGet())).get();
+        flight.execute(id, () -> CompletableFuture.completedFuture(loads.incrementAndGet())).get();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void loaderExceptionFailsTheFlight() {
+        SingleFlight<UUID, String> flight = new SingleFlight<>("test");
+
+        CompletableFuture<String> result = flight.execute(id, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, result::get).getCause());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    public void callsAfterForgetStartNewLoad() throws Exception {
+        SingleFlight<UUID, String> flight = new SingleFlight<>("test");
+        CompletableFuture<String> stale = new CompletableFuture<>();
+
+        CompletableFuture<String> before = flight.execute(id, () -> stale);
+        flight.forgetAll();
+        CompletableFuture<String> after = flight.execute(id, () -> CompletableFuture.completedFuture("fresh"));
+        stale.complete("stale");
+
+        assertEquals("stale", before.get());
+        assertEquals("fresh", after.get());
+        assertEquals(0, flight.inFlight());
+    }
+}
@@ -0,0 +1,55 @@
+package servlets.abstractions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ByteRangeTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    public void parsesClosedOpenAndSuffixRanges() {
+        ByteRange closed = ByteRange.parse("bytes=0-499", SIZE);
+        assertEquals(0, closed.getFirst());
+        assertEquals(499, closed.getLast());
+        assertEquals(500, closed.length());
+        assertEquals("bytes 0-499/1000", closed.contentRange(SIZE));
+
+        ByteRange open = ByteRange.parse("bytes=900-", SIZE);
+        assertEquals(900, open.getFirst());
+        assertEquals(999, open.getLast());
+
+        ByteRange suffix = ByteRange.parse("bytes=-100", SIZE);
+        assertEquals(900, suffix.getFirst());
+        assertEquals(100, suffix.length());
+    }
+
+    @Test
+    public void clampsRangesPastTheEnd() {
+        assertEquals(999, ByteRange.parse("bytes=500-5000", SIZE).getLast());
+        assertEquals(0, ByteRange.parse("bytes=-5000", SIZE).getFirst());
+    }
+
+    @Test
+    public void rangeOutsideBodyIsUnsatisfiable() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", SIZE));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", SIZE));
+        assertEquals("bytes */1000", ByteRange.UNSATISFIABLE.contentRange(SIZE));
+    }
+
+    @Test
+    public void unsupportedOrMalformedRangeServesWholeBody() {
+        assertNull(ByteRange.parse(null, SIZE));
+        assertNull(ByteRange.parse("items=0-10", SIZE));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", SIZE));
+        assertNull(ByteRange.parse("bytes=10-5", SIZE));
+        assertNull(ByteRange.parse("bytes=abc-", SIZE));
+    }
+}
@@ -0,0 +1,80 @@
+package servlets.abstractions;
+
+import models.dtos.VersionDto;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ConditionalRequestsTest {
+
+    private static final Timestamp UPDATED_AT = Timestamp.valueOf("2025-03-01 12:30:45.123456");
+    private static final VersionDto VERSION = new VersionDto(UPDATED_AT, 3);
+
+    @Test
+    public void matchingEtagIsNotModified() {
+        assertTrue(ConditionalRequests.isNotModified(request(Map.of("If-None-Match", VERSION.getEtag())), VERSION));
+        assertTrue(ConditionalRequests.isNotModified(
+                request(Map.of("If-None-Match", "\"other\", " + VERSION.getEtag().substring(2))), VERSION));
+        assertTrue(ConditionalRequests.isNotModified(request(Map.of("If-None-Match", "*")), VERSION));
+    }
+
+    @Test
+    public void etagChangesWithMicrosecondsAndRowCount() {
+        Timestamp later = new Timestamp(UPDATED_AT.getTime());
+        later.setNanos(UPDATED_AT.getNanos() + 1000);
+
+        assertNotEquals(VERSION.getEtag(), new VersionDto(later, 3).getEtag());
+        assertNotEquals(VERSION.getEtag(), new VersionDto(UPDATED_AT, 2).getEtag());
+        assertFalse(ConditionalRequests.isNotModified(
+                request(Map.of("If-None-Match", new VersionDto(UPDATED_AT, 2).getEtag())), VERSION));
+    }
+
+    @Test
+    public void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        HttpServletRequest request = request(Map.of(
+                "If-None-Match", "W/\"stale\"",
+                "If-Modified-Since", VERSION.getLastModified() + 60_000));
+
+        assertFalse(ConditionalRequests.isNotModified(request, VERSION));
+    }
+
+    @Test
+    public void ifModifiedSinceComparesWholeSeconds() {
+        long lastModifiedSecond = VERSION.getLastModified() / 1000 * 1000;
+
+        assertTrue(ConditionalRequests.isNotModified(request(Map.of("If-Modified-Since", lastModifiedSecond)), VERSION));
+        assertFalse(ConditionalRequests.isNotModified(request(Map.of("If-Modified-Since", lastModifiedSecond - 1000)), VERSION));
+        assertFalse(ConditionalRequests.isNotModified(request(Map.of()), VERSION));
+    }
+
+    @Test
+    public void ifRangeUsesStrongComparison() {
+        String etag = "\"9f86d081\"";
+
+        assertTrue(ConditionalRequests.isRangeApplicable(request(Map.of()), etag, 0));
+        assertTrue(ConditionalRequests.isRangeApplicable(request(Map.of("If-Range", etag)), etag, 0));
+        assertFalse(ConditionalRequests.isRangeApplicable(request(Map.of("If-Range", "W/" + etag)), etag, 0));
+        assertFalse(ConditionalRequests.isRangeApplicable(request(Map.of("If-Range", "\"other\"")), etag, 0));
+    }
+
+    private static HttpServletRequest request(Map<String, Object> headers) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(anyString())).thenAnswer(invocation -> headers.get(invocation.<String>getArgument(0)));
+        when(request.getDateHeader(anyString())).thenAnswer(invocation -> headers.getOrDefault(invocation.<String>getArgument(0), -1L));
+        return request;
+    }
+}
@@ -0,0 +1,151 @@
+package servlets.abstractions;
+
+import models.entities.User;
+import org.junit.jupiter.api.Test;
+import utils.JsonCodec;
+import utils.exceptions.DataParsingException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonBodyReadListenerTest {
+
+    @Test
+    public void parsesBodyDeliveredInSmallChunks() throws Exception {
+        byte[] body = "{\"userName\":\"Andr33w\",\"email\":\"McFly@123.ru\",\"firstName\":\"Андрей\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        ChunkedInputStream inputStream = new ChunkedInputStream();
+        JsonBodyReadListener<User> listener = new JsonBodyReadListener<>(inputStream, JsonCodec.USER_READER, 4, 1024);
+
+        for (int i = 0; i < body.length; i += 3) {
+            inputStream.push(Arrays.copyOfRange(body, i, Math.min(i + 3, body.length)));
+            listener.onDataAvailable();
+            assertFalse(listener.result().isDone());
+        }
+        inputStream.finish();
+        listener.onAllDataRead();
+
+        User user = listener.result().get();
+        assertEquals("Andr33w", user.getUserName());
+        assertEquals("McFly@123.ru", user.getEmail());
+        assertEquals("Андрей", user.getFirstName());
+    }
+
+    @Test
+    public void parsesJsonArrayOfValues() throws Exception {
+        List<User> users = readValues("[{\"userName\":\"Andr33w\"}, {\"userName\":\"Doc\"}]");
+
+        assertEquals(List.of("Andr33w", "Doc"), users.stream().map(User::getUserName).toList());
+    }
+
+    @Test
+    public void parsesNewlineDelimitedValues() throws Exception {
+        List<User> users = readValues("{\"userName\":\"Andr33w\"}\n{\"userName\":\"Doc\"}\n\n{\"userName\":\"Marty\"}\n");
+
+        assertEquals(List.of("Andr33w", "Doc", "Marty"), users.stream().map(User::getUserName).toList());
+    }
+
+    private static List<User> readValues(String body) throws Exception {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ChunkedInputStream inputStream = new ChunkedInputStream();
+        JsonBodyReadListener<List<User>> listener = JsonBodyReadListener.forValues(inputStream, JsonCodec.USER_READER, 8, 1024);
+
+        for (int i = 0; i < bytes.length; i += 5) {
+            inputStream.push(Arrays.copyOfRange(bytes, i, Math.min(i + 5, bytes.length)));
+            listener.onDataAvailable();
+        }
+        inputStream.finish();
+        listener.onAllDataRead();
+
+        return listener.result().get();
+    }
+
+    @Test
+    public void failsOnMalformedBody() throws Exception {
+        ChunkedInputStream inputStream = new ChunkedInputStream();
+        JsonBodyReadListener<User> listener = new JsonBodyReadListener<>(inputStream, JsonCodec.USER_READER, 16, 1024);
+
+        inputStream.push("{\"userName\":}".getBytes(StandardCharsets.UTF_8));
+        listener.onDataAvailable();
+        inputStream.finish();
+        listener.onAllDataRead();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> listener.result().get());
+        assertInstanceOf(DataParsingException.class, e.getCause());
+    }
+
+    @Test
+    public void failsWhenBodyExceedsLimit() throws Exception {
+        ChunkedInputStream inputStream = new ChunkedInputStream();
+        JsonBodyReadListener<User> listener = new JsonBodyReadListener<>(inputStream, JsonCodec.USER_READER, 16, 8);
+
+        inputStream.push("{\"userName\":\"Andr33w\"}".getBytes(StandardCharsets.UTF_8));
+        listener.onDataAvailable();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> listener.result().get());
+        assertInstanceOf(DataParsingException.class, e.getCause());
+    }
+
+    /**
+     * Поток, отдающий данные порциями, как контейнер при медленном клиенте
+     */
+    private static class ChunkedInputStream extends ServletInputStream {
+
+        private byte[] chunk = new byte[0];
+        private int position;
+        private boolean finished;
+
+        void push(byte[] data) {
+            chunk = data;
+            position = 0;
+        }
+
+        void finish() {
+            finished = true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < chunk.length;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+
+        @Override
+        public int read() {
+            return isReady() ? chunk[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!isReady()) {
+                return 0;
+            }
+            int length = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, length);
+            position += length;
+            return length;
+        }
+    }
+}
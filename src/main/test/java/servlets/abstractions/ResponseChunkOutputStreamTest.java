@@ -0,0 +1,115 @@
+package servlets.abstractions;
+
+import org.junit.jupiter.api.Test;
+import utils.JsonCodec;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ResponseChunkOutputStreamTest {
+
+    @Test
+    public void smallBodyIsSentAsOneChunkWithContentLength() throws Exception {
+        FakeResponse response = new FakeResponse();
+        ResponseChunkOutputStream outputStream = new ResponseChunkOutputStream(response.asyncContext(), HttpServletResponse.SC_OK, 1024);
+
+        JsonCodec.writerForValue(List.of(1, 2, 3)).writeValue(outputStream, List.of(1, 2, 3));
+
+        assertTrue(outputStream.written().isDone());
+        assertEquals("[1,2,3]", response.body());
+        assertEquals(7, response.contentLength);
+        assertEquals(1, response.writes);
+        assertEquals(HttpServletResponse.SC_OK, response.status);
+    }
+
+    @Test
+    public void largeBodyIsSentInFixedSizeChunks() throws Exception {
+        FakeResponse response = new FakeResponse();
+        ResponseChunkOutputStream outputStream = new ResponseChunkOutputStream(response.asyncContext(), HttpServletResponse.SC_ACCEPTED, 16);
+        List<String> items = new ArrayList<>(Collections.nCopies(20, "item"));
+
+        JsonCodec.writerForValue(items).writeValue(outputStream, items);
+
+        assertTrue(outputStream.written().isDone());
+        assertEquals(JsonCodec.toJson(items), response.body());
+        assertNull(response.contentLength);
+        assertEquals((response.body().length() + 15) / 16, response.writes);
+        assertEquals(HttpServletResponse.SC_ACCEPTED, response.status);
+    }
+
+    /**
+     * Ответ контейнера, всегда готовый принимать данные
+     */
+    private static class FakeResponse {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private Integer contentLength;
+        private int status;
+        private int writes;
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    writeListener.onWritePossible();
+                }
+                catch (Exception e) {
+                    writeListener.onError(e);
+                }
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes++;
+                body.write(b, off, len);
+            }
+        };
+
+        String body() {
+            return body.toString(StandardCharsets.UTF_8);
+        }
+
+        AsyncContext asyncContext() throws IOException {
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            when(response.getOutputStream()).thenReturn(outputStream);
+            doAnswer(invocation -> contentLength = invocation.getArgument(0))
+                    .when(response).setContentLength(anyInt());
+            doAnswer(invocation -> status = invocation.getArgument(0))
+                    .when(response).setStatus(anyInt());
+            AsyncContext asyncContext = mock(AsyncContext.class);
+            when(asyncContext.getResponse()).thenReturn(response);
+            return asyncContext;
+        }
+    }
+}
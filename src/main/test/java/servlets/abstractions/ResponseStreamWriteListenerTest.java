@@ -0,0 +1,92 @@
+package servlets.abstractions;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ResponseStreamWriteListenerTest {
+
+    @Test
+    public void batchIsCompletedOnlyAfterSlowClientAcceptedIt() {
+        ThrottledOutputStream outputStream = new ThrottledOutputStream();
+        ResponseStreamWriteListener listener = new ResponseStreamWriteListener(outputStream, 4);
+
+        CompletableFuture<Void> first = listener.write("[{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        assertFalse(first.isDone());
+
+        outputStream.allow(1);
+        listener.onWritePossible();
+        assertFalse(first.isDone());
+
+        outputStream.allow(10);
+        listener.onWritePossible();
+        assertTrue(first.isDone());
+
+        CompletableFuture<Void> last = listener.write("]".getBytes(StandardCharsets.UTF_8));
+        assertTrue(last.isDone());
+        assertEquals("[{\"a\":1}]", outputStream.content());
+    }
+
+    @Test
+    public void pendingBatchesFailOnContainerError() {
+        ThrottledOutputStream outputStream = new ThrottledOutputStream();
+        ResponseStreamWriteListener listener = new ResponseStreamWriteListener(outputStream, 4);
+
+        CompletableFuture<Void> pending = listener.write("[1]".getBytes(StandardCharsets.UTF_8));
+        listener.onError(new IOException("connection reset"));
+
+        assertTrue(pending.isCompletedExceptionally());
+        assertTrue(listener.write("[2]".getBytes(StandardCharsets.UTF_8)).isCompletedExceptionally());
+    }
+
+    /**
+     * Поток, принимающий заданное число порций, как контейнер при медленном клиенте
+     */
+    private static class ThrottledOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private int allowedWrites;
+
+        void allow(int writes) {
+            allowedWrites = writes;
+        }
+
+        String content() {
+            return content.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isReady() {
+            return allowedWrites > 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            content.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            allowedWrites--;
+            content.write(b, off, len);
+        }
+    }
+}
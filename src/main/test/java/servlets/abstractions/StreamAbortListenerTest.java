@@ -0,0 +1,71 @@
+package servlets.abstractions;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.ServletOutputStream;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class StreamAbortListenerTest {
+
+    @Test
+    public void timeoutAbortsStreamAndCompletesContext() {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        StreamAbortListener listener = StreamAbortListener.register(asyncContext, "/api/v1/users/all");
+        JsonArrayResponseStream stream = new JsonArrayResponseStream(asyncContext, 16);
+        listener.aborted().whenComplete((ignored, error) -> stream.abort(error));
+
+        listener.onTimeout(new AsyncEvent(asyncContext));
+
+        verify(asyncContext).setTimeout(BaseServlet.STREAM_TIMEOUT);
+        verify(asyncContext).addListener(listener);
+        verify(asyncContext).complete();
+        assertTrue(listener.isAborted());
+        assertTrue(stream.isAborted());
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> stream.writeJsonBatch(List.of("{}")).get());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    public void errorFailsPendingWrite() {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        StreamAbortListener listener = new StreamAbortListener("/api/v1/users/image");
+        ResponseStreamWriteListener writer = new ResponseStreamWriteListener(mock(ServletOutputStream.class), 16);
+        CompletableFuture<Void> pending = writer.write(new byte[] {1, 2, 3});
+        listener.aborted().whenComplete((ignored, error) -> writer.abort(error));
+
+        listener.onError(new AsyncEvent(asyncContext, new IOException("connection reset")));
+
+        assertTrue(pending.isCompletedExceptionally());
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void normalCompletionDoesNotAbort() {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        StreamAbortListener listener = new StreamAbortListener("/api/v1/users/all");
+
+        listener.onComplete(new AsyncEvent(asyncContext));
+
+        assertTrue(listener.aborted().isDone());
+        assertFalse(listener.isAborted());
+    }
+}
@@ -0,0 +1,178 @@
+package servlets.filters;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompressingServletOutputStreamTest {
+
+    private static final byte[] LARGE_BODY = "{\"userName\":\"Andr33w\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL_BODY = "{\"userName\":\"Andr33w\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void bodyAboveThresholdIsGzipped() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.GZIP, 1024);
+
+        for (int i = 0; i < LARGE_BODY.length; i += 100) {
+            outputStream.write(LARGE_BODY, i, Math.min(100, LARGE_BODY.length - i));
+        }
+        outputStream.close();
+
+        assertEquals("gzip", response.headers.get("Content-Encoding"));
+        assertTrue(response.body.size() < LARGE_BODY.length);
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.body.toByteArray()))) {
+            assertEquals(new String(LARGE_BODY, StandardCharsets.UTF_8),
+                    new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void bodyAboveThresholdIsDeflated() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.DEFLATE, 1024);
+
+        outputStream.write(LARGE_BODY);
+        outputStream.close();
+
+        assertEquals("deflate", response.headers.get("Content-Encoding"));
+        try (InflaterInputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(response.body.toByteArray()))) {
+            assertEquals(new String(LARGE_BODY, StandardCharsets.UTF_8),
+                    new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void bodyBelowThresholdIsSentAsIsWithContentLength() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.GZIP, 1024);
+
+        outputStream.write(SMALL_BODY);
+        outputStream.close();
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertEquals(SMALL_BODY.length, response.contentLength);
+        assertEquals(new String(SMALL_BODY, StandardCharsets.UTF_8), response.body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void declaredLengthBelowThresholdSkipsBuffering() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.GZIP, 1024);
+
+        assertTrue(outputStream.declareContentLength(SMALL_BODY.length));
+        outputStream.write(SMALL_BODY);
+
+        assertEquals(1, response.writes);
+        assertEquals(SMALL_BODY.length, response.contentLength);
+    }
+
+    @Test
+    public void abortReturnsDeflaterToPoolOnce() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.GZIP, 1024);
+
+        outputStream.write(LARGE_BODY);
+        outputStream.abort();
+        outputStream.abort();
+        outputStream.close();
+
+        assertEquals(1, response.released);
+    }
+
+    @Test
+    public void abortAfterCloseDoesNothing() throws Exception {
+        FakeResponse response = new FakeResponse();
+        CompressingServletOutputStream outputStream = response.compressing(ContentEncoding.DEFLATE, 1024);
+
+        outputStream.write(LARGE_BODY);
+        outputStream.close();
+        outputStream.abort();
+
+        assertEquals(1, response.released);
+    }
+
+    @Test
+    public void negotiatesEncodingByQuality() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("deflate, gzip"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+        assertNull(ContentEncoding.negotiate("gzip;q=0, br"));
+        assertNull(ContentEncoding.negotiate(null));
+    }
+
+    /**
+     * Ответ контейнера, всегда готовый принимать данные
+     */
+    private static class FakeResponse {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final Map<String, String> headers = new HashMap<>();
+        private Long contentLength;
+        private int writes;
+        private int released;
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes++;
+                body.write(b, off, len);
+            }
+        };
+
+        CompressingServletOutputStream compressing(ContentEncoding encoding, int threshold) {
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            doAnswer(invocation -> headers.put(invocation.getArgument(0), invocation.getArgument(1)))
+                    .when(response).setHeader(anyString(), anyString());
+            doAnswer(invocation -> headers.put(invocation.getArgument(0), invocation.getArgument(1)))
+                    .when(response).addHeader(anyString(), anyString());
+            doAnswer(invocation -> contentLength = invocation.getArgument(0))
+                    .when(response).setContentLengthLong(anyLong());
+            DeflaterPool pool = new DeflaterPool(6, encoding == ContentEncoding.GZIP, 2) {
+                @Override
+                public void release(Deflater deflater) {
+                    released++;
+                    super.release(deflater);
+                }
+            };
+            return new CompressingServletOutputStream(outputStream, response, encoding, pool, threshold, 512);
+        }
+    }
+}
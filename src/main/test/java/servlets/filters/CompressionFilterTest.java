@@ -0,0 +1,94 @@
+package servlets.filters;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompressionFilterTest {
+
+    private static final byte[] SMALL_BODY = "{\"userName\":\"Andr33w\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LARGE_BODY = "{\"userName\":\"Andr33w\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @Test
+    public void unclosedSynchronousBodyBelowThresholdIsSent() throws Exception {
+        filter((request, response) -> response.getOutputStream().write(SMALL_BODY));
+
+        assertArrayEquals(SMALL_BODY, body.toByteArray());
+    }
+
+    @Test
+    public void unclosedSynchronousBodyAboveThresholdGetsGzipTrailer() throws Exception {
+        filter((request, response) -> response.getOutputStream().write(LARGE_BODY));
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertArrayEquals(LARGE_BODY, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void failedChainSendsNothing() {
+        ServletException error = assertThrows(ServletException.class, () -> filter((request, response) -> {
+            response.getOutputStream().write(SMALL_BODY);
+            throw new ServletException("servlet failed");
+        }));
+
+        assertEquals("servlet failed", error.getMessage());
+        assertEquals(0, body.size());
+    }
+
+    private void filter(FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getContextPath()).thenReturn("");
+        when(request.getRequestURI()).thenReturn("/api/v1/users");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+
+        CompressionFilter filter = new CompressionFilter();
+        filter.init(null);
+        try {
+            filter.doFilter(request, response, chain);
+        }
+        finally {
+            filter.destroy();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package testUtils;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * {@code ResultSet} поверх строк в памяти для бенчмарков мапперов
+ * <p>Обычная реализация без моков: вызовы стоят столько же, сколько чтение из массива,
+ * поэтому в замерах остаётся только работа маппера. Читает значения по индексу и по имени колонки
+ * так, как это делает драйвер PostgreSQL для {@code uuid}, {@code integer}, {@code timestamptz} и {@code bytea}.
+ * Создаётся один раз и перед каждым проходом возвращается в начало через {@link #rewind()}</p>
+ *
+ * @see SyntheticResultSet
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ArrayResultSet extends UnsupportedResultSet {
+
+    private final String[] labels;
+    private final int[] types;
+    private final Object[][] rows;
+    private final ResultSetMetaData metaData = new MetaData();
+    private int position = -1;
+    private boolean lastWasNull;
+    private boolean closed;
+
+    public ArrayResultSet(String[] labels, int[] types, List<Object[]> rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows.toArray(new Object[0][]);
+    }
+
+    /**
+     * Строки таблицы {@code users} в порядке колонок {@link SyntheticResultSet#USER_COLUMNS}
+     */
+    public static ArrayResultSet users(int count) {
+        return new ArrayResultSet(SyntheticResultSet.USER_COLUMNS, SyntheticResultSet.USER_TYPES,
+                SyntheticResultSet.userRows(count));
+    }
+
+    /**
+     * Вернуть курсор перед первой строкой
+     */
+    public ArrayResultSet rewind() {
+        position = -1;
+        closed = false;
+        return this;
+    }
+
+    @Override
+    public boolean next() {
+        return ++position < rows.length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return lastWasNull;
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(columnLabel)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Unknown column: " + columnLabel);
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        Object value = value(columnIndex);
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        return value(columnIndex);
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        return value(findColumn(columnLabel));
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        return type.cast(value(columnIndex));
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return type.cast(value(findColumn(columnLabel)));
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        return (byte[]) value(columnIndex);
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return getBytes(findColumn(columnLabel));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return (Timestamp) value(columnIndex);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return getTimestamp(findColumn(columnLabel));
+    }
+
+    private Object value(int columnIndex) throws SQLException {
+        if (position < 0 || position >= rows.length) {
+            throw new SQLException("ResultSet is not positioned on a row");
+        }
+        Object value = rows[position][columnIndex - 1];
+        lastWasNull = value == null;
+        return value;
+    }
+
+    private class MetaData extends UnsupportedMetaData {
+
+        @Override
+        public int getColumnCount() {
+            return labels.length;
+        }
+
+        @Override
+        public String getColumnLabel(int column) {
+            return labels[column - 1];
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return labels[column - 1];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return types[column - 1];
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package testUtils;
+
+import org.mockito.invocation.InvocationOnMock;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@code ResultSet} в памяти для тестов мапперов
+ * <p>Поддерживает чтение по имени и по индексу колонки так,
+ * как это делает драйвер PostgreSQL для {@code uuid}, {@code integer}, {@code timestamptz} и {@code bytea}.
+ * {@code ResultSet} и {@code ResultSetMetaData} - моки Mockito, читающие строки из памяти</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class SyntheticResultSet {
+
+    public static final String[] USER_COLUMNS = {
+            "id", "user_name", "first_name", "last_name", "email", "password", "phone",
+            "created_at", "updated_at", "image", "last_login_date", "userstatus"};
+    public static final int[] USER_TYPES = {
+            Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.BINARY, Types.TIMESTAMP, Types.INTEGER};
+
+    private final String[] labels;
+    private final int[] types;
+    private final List<Object[]> rows;
+    private int position = -1;
+
+    public SyntheticResultSet(String[] labels, int[] types, List<Object[]> rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows;
+    }
+
+    /**
+     * Строки таблицы {@code users} в порядке колонок {@link #USER_COLUMNS}
+     */
+    public static SyntheticResultSet users(int count) {
+        return new SyntheticResultSet(USER_COLUMNS, USER_TYPES, userRows(count));
+    }
+
+    /**
+     * Значения строк таблицы {@code users} в порядке колонок {@link #USER_COLUMNS}
+     */
+    public static List<Object[]> userRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{
+                    UUID.randomUUID(), "user" + i, "First" + i, "Last" + i, "user" + i + "@mail.ru", "password",
+                    "+7900000" + i, now, now, null, null, i % 2});
+        }
+        return rows;
+    }
+
+    /**
+     * Вернуть курсор перед первой строкой
+     */
+    public SyntheticResultSet rewind() {
+        position = -1;
+        return this;
+    }
+
+    public ResultSet resultSet() throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        when(metaData.getColumnLabel(anyInt())).thenAnswer(invocation -> labels[column(invocation) - 1]);
+        when(metaData.getColumnName(anyInt())).thenAnswer(invocation -> labels[column(invocation) - 1]);
+        when(metaData.getColumnType(anyInt())).thenAnswer(invocation -> types[column(invocation) - 1]);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenAnswer(invocation -> ++position < rows.size());
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.findColumn(anyString())).thenAnswer(invocation -> findColumn(invocation.getArgument(0)));
+        when(resultSet.getString(anyInt())).thenAnswer(this::string);
+        when(resultSet.getString(anyString())).thenAnswer(this::string);
+        when(resultSet.getInt(anyInt())).thenAnswer(this::integer);
+        when(resultSet.getInt(anyString())).thenAnswer(this::integer);
+        when(resultSet.getObject(anyInt())).thenAnswer(this::value);
+        when(resultSet.getObject(anyString())).thenAnswer(this::value);
+        doAnswer(this::typed).when(resultSet).getObject(anyInt(), any(Class.class));
+        doAnswer(this::typed).when(resultSet).getObject(anyString(), any(Class.class));
+        when(resultSet.getBytes(anyInt())).thenAnswer(this::value);
+        when(resultSet.getBytes(anyString())).thenAnswer(this::value);
+        when(resultSet.getTimestamp(anyInt())).thenAnswer(this::value);
+        when(resultSet.getTimestamp(anyString())).thenAnswer(this::value);
+        return resultSet;
+    }
+
+    private Object string(InvocationOnMock invocation) throws SQLException {
+        Object value = value(invocation);
+        return value != null ? value.toString() : null;
+    }
+
+    private Object integer(InvocationOnMock invocation) throws SQLException {
+        Object value = value(invocation);
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private Object typed(InvocationOnMock invocation) throws SQLException {
+        return invocation.<Class<?>>getArgument(1).cast(value(invocation));
+    }
+
+    private Object value(InvocationOnMock invocation) throws SQLException {
+        Object column = invocation.getArgument(0);
+        int index = column instanceof String label ? findColumn(label) : (Integer) column;
+        return rows.get(position)[index - 1];
+    }
+
+    private static int column(InvocationOnMock invocation) {
+        return invocation.getArgument(0);
+    }
+
+    private int findColumn(String label) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Unknown column: " + label);
+    }
+}
@@ -0,0 +1,81 @@
+package utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import models.dtos.UserDto;
+import models.entities.User;
+import utils.mappers.UserMapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Микробенчмарк сериализации ответа и разбора тела запроса:
+ * новый {@code ObjectMapper} на каждый запрос против общего {@link JsonCodec}
+ * <p>Ответы сериализуются так же, как в {@code BaseServlet}: writer-ом класса значения
+ * ({@link JsonCodec#writerForValue(Object)}), включая поиск writer-а на каждую операцию</p>
+ * <p>Для каждого варианта печатает среднее время и объём выделенной памяти на операцию.
+ * Запуск: {@code java -cp <test-classpath> utils.JsonCodecBenchmark [итераций]}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonCodecBenchmark {
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        UserDto dto = UserMapper.toDto(Utils.testUser1);
+        String body = JsonCodec.toJson(dto);
+        List<UserDto> list = List.of(dto, UserMapper.toDto(Utils.testUser2), UserMapper.toDto(Utils.testUser3));
+
+        run("write UserDto, new ObjectMapper", iterations, () ->
+                newMapper().writeValueAsString(dto));
+        run("write UserDto, JsonCodec", iterations, () ->
+                JsonCodec.toJson(dto));
+
+        run("write List<UserDto>, new ObjectMapper", iterations, () ->
+                newMapper().writeValueAsString(list));
+        run("write List<UserDto>, JsonCodec", iterations, () ->
+                JsonCodec.toJson(list));
+
+        run("read User, new ObjectMapper", iterations, () ->
+                newMapper().readValue(body, User.class));
+        run("read User, JsonCodec", iterations, () ->
+                JsonCodec.USER_READER.readValue(body));
+    }
+
+    private static ObjectMapper newMapper() {
+        return new ObjectMapper()
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    private interface Operation {
+        Object run() throws Exception;
+    }
+
+    private static void run(String name, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.run();
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-40s %10.0f ns/op %10d B/op%n",
+                name, (double) elapsed / iterations, allocated / iterations);
+    }
+}
@@ -0,0 +1,33 @@
+package utils;
+
+import models.dtos.UserDto;
+import models.entities.User;
+import org.junit.jupiter.api.Test;
+import utils.mappers.UserMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class JsonCodecTest {
+
+    @Test
+    public void writersAndReadersAreResolvedOnce() {
+        assertSame(JsonCodec.writerFor(UserDto.class), JsonCodec.writerForValue(UserMapper.toDto(Utils.testUser1)));
+        assertSame(JsonCodec.USER_READER, JsonCodec.readerFor(User.class));
+        assertSame(JsonCodec.writerFor(String.class), JsonCodec.writerFor(String.class));
+    }
+
+    @Test
+    public void sharedWriterProducesSameJsonAsMapper() throws Exception {
+        UserDto dto = UserMapper.toDto(Utils.testUser1);
+
+        assertEquals(JsonCodec.mapper().writeValueAsString(dto), JsonCodec.toJson(dto));
+
+        User user = JsonCodec.USER_READER.readValue(JsonCodec.toJson(dto));
+        assertEquals(dto.getUserName(), user.getUserName());
+    }
+}
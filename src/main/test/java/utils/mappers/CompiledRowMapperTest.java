@@ -0,0 +1,100 @@
+package utils.mappers;
+
+import models.entities.User;
+import models.enums.UserRoles;
+import org.junit.jupiter.api.Test;
+import testUtils.SyntheticResultSet;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class CompiledRowMapperTest {
+
+    @Test
+    public void mapsUserColumnsByIndex() throws Exception {
+        UUID id = UUID.randomUUID();
+        Timestamp createdAt = Timestamp.valueOf("2024-01-01 10:00:00");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{id, "Andr33w", "Андрей", "Last", "McFly@123.ru", "123", "+79001234567",
+                createdAt, null, null, null, 1});
+        ResultSet resultSet = new SyntheticResultSet(SyntheticResultSet.USER_COLUMNS, SyntheticResultSet.USER_TYPES, rows).resultSet();
+
+        assertTrue(resultSet.next());
+        User user = UserMapper.ROWS.bind(resultSet).map(resultSet);
+
+        assertEquals(id, user.getId());
+        assertEquals("Andr33w", user.getUserName());
+        assertEquals("McFly@123.ru", user.getEmail());
+        assertEquals("+79001234567", user.getPhoneNumber());
+        assertEquals(UserRoles.ADMIN, user.getUserRole());
+        assertEquals(createdAt.getTime(), user.getCreatedAt().getTime());
+    }
+
+    @Test
+    public void resultsOfSameShapeShareCompiledMapper() throws Exception {
+        ResultSet first = SyntheticResultSet.users(1).resultSet();
+        ResultSet second = SyntheticResultSet.users(2).resultSet();
+
+        assertSame(UserMapper.ROWS.bind(first), UserMapper.ROWS.bind(second));
+    }
+
+    @Test
+    public void joinedShapeResolvesOwnIndexes() throws Exception {
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{projectId, userId});
+        ResultSet resultSet = new SyntheticResultSet(
+                new String[]{"project_id", "user_id"}, new int[]{Types.OTHER, Types.OTHER}, rows).resultSet();
+
+        assertTrue(resultSet.next());
+        var projectUser = ProjectUserMapper.ROWS.mapRow(resultSet);
+
+        assertEquals(userId, projectUser.getUserId());
+        assertEquals(projectId, projectUser.getProjectId());
+    }
+
+    @Test
+    public void projectedRowMapsWithoutImageAndPassword() throws Exception {
+        UUID id = UUID.randomUUID();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{id, "Andr33w", "McFly@123.ru", null, null, null, 0, null, null, null});
+        ResultSet resultSet = new SyntheticResultSet(
+                new String[]{"id", "user_name", "email", "first_name", "last_name", "phone", "userstatus",
+                        "created_at", "updated_at", "last_login_date"},
+                new int[]{Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP},
+                rows).resultSet();
+
+        assertTrue(resultSet.next());
+        User user = UserMapper.ROWS.mapRow(resultSet);
+
+        assertEquals(id, user.getId());
+        assertEquals("McFly@123.ru", user.getEmail());
+        assertNull(user.getPassword());
+        assertNull(user.getUserImage());
+    }
+
+    @Test
+    public void missingColumnFailsOnBind() throws SQLException {
+        ResultSet resultSet = new SyntheticResultSet(
+                new String[]{"id"}, new int[]{Types.OTHER}, List.of()).resultSet();
+
+        assertThrows(SQLException.class, () -> ProjectMapper.ROWS.bind(resultSet));
+    }
+}
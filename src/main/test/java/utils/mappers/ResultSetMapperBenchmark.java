@@ -0,0 +1,91 @@
+package utils.mappers;
+
+import models.entities.User;
+import models.enums.UserRoles;
+import testUtils.ArrayResultSet;
+
+import java.lang.management.ManagementFactory;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Микробенчмарк маппинга строк {@code users}:
+ * чтение колонок по имени (прежний {@code UserMapper.mapResultSetToUser})
+ * против {@link UserMapper#ROWS} с индексами, разрешёнными один раз на {@code ResultSet}
+ * <p>Строки берутся из {@link ArrayResultSet} - обычной реализации {@code ResultSet} поверх массива,
+ * созданной один раз до замеров, поэтому измеряется только маппер.
+ * Для каждого варианта печатает строк в секунду и объём выделенной памяти на строку.
+ * Запуск: {@code java -cp <test-classpath> utils.mappers.ResultSetMapperBenchmark [строк] [повторов]}</p>
+ *
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ResultSetMapperBenchmark {
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        ArrayResultSet data = ArrayResultSet.users(rows);
+
+        run("by column name", data, rows, repeats, resultSet -> ResultSetMapperBenchmark::mapByName);
+        run("compiled, bound per ResultSet", data, rows, repeats, UserMapper.ROWS::bind);
+    }
+
+    private interface Binder {
+        RowMapper<User> bind(ResultSet resultSet) throws SQLException;
+    }
+
+    private static void run(String name, ArrayResultSet data, int rows, int repeats, Binder binder) throws Exception {
+        for (int i = 0; i < repeats; i++) {
+            mapAll(data, binder);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            mapAll(data, binder);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long mapped = (long) rows * repeats;
+
+        System.out.printf("%-40s %12.0f rows/s %10d B/row%n",
+                name, mapped * 1_000_000_000d / elapsed, allocated / mapped);
+    }
+
+    private static void mapAll(ArrayResultSet data, Binder binder) throws SQLException {
+        ResultSet resultSet = data.rewind();
+        RowMapper<User> mapper = binder.bind(resultSet);
+        while (resultSet.next()) {
+            sink = mapper.map(resultSet);
+        }
+    }
+
+    /**
+     * Маппинг в том виде, в котором он был до {@link CompiledRowMapper}
+     */
+    private static User mapByName(ResultSet rs) throws SQLException {
+        return new User(
+                UUID.fromString(rs.getString("id")),
+                rs.getString("user_name"),
+                rs.getString("password"),
+                rs.getString("email"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("phone"),
+                UserRoles.values()[Integer.parseInt(rs.getString("userstatus"))],
+                rs.getBytes("image"),
+                rs.getTimestamp("created_at") != null ? new Date(rs.getTimestamp("updated_at").getTime()) : new Date(),
+                rs.getTimestamp("updated_at") != null ? new Date(rs.getTimestamp("updated_at").getTime()) : new Date(),
+                rs.getTimestamp("last_login_date") != null ? new Date(rs.getTimestamp("last_login_date").getTime()) : new Date());
+    }
+}
@@ -0,0 +1,69 @@
+package utils.sqls;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class ArrayParametersTest {
+
+    @Test
+    public void largeIdCollectionIsSplitIntoChunksOfOneStatement() throws Exception {
+        List<Object[]> boundArrays = new ArrayList<>();
+        List<UUID> ids = IntStream.range(0, ArrayParameters.getChunkSize() * 2 + 1)
+                .mapToObj(i -> UUID.randomUUID())
+                .toList();
+
+        ArrayParameters.queryByIds(recordingStatement(boundArrays), ids, resultSet -> resultSet.getString(1));
+
+        assertEquals(3, boundArrays.size());
+        assertEquals(ArrayParameters.getChunkSize(), boundArrays.get(0).length);
+        assertEquals(1, boundArrays.get(2).length);
+    }
+
+    @Test
+    public void duplicateIdsAreBoundOnce() throws Exception {
+        List<Object[]> boundArrays = new ArrayList<>();
+        UUID id = UUID.randomUUID();
+
+        ArrayParameters.queryByIds(recordingStatement(boundArrays), List.of(id, id, id), resultSet -> resultSet.getString(1));
+
+        assertEquals(1, boundArrays.size());
+        assertEquals(1, boundArrays.get(0).length);
+    }
+
+    /**
+     * {@code PreparedStatement}, запоминающий массивы, переданные в {@code createArrayOf},
+     * и возвращающий пустой {@code ResultSet} на каждый запрос
+     */
+    private static PreparedStatement recordingStatement(List<Object[]> boundArrays) throws SQLException {
+        Array array = mock(Array.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createArrayOf(eq("uuid"), any())).thenAnswer(invocation -> {
+            boundArrays.add(invocation.getArgument(1));
+            return array;
+        });
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return statement;
+    }
+}
@@ -0,0 +1,58 @@
+package utils.sqls;
+
+import org.junit.jupiter.api.Test;
+import utils.exceptions.DataParsingException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class NdjsonCsvTranscoderTest {
+
+    private static final List<String> FIELDS = List.of("userName", "email", "phoneNumber");
+
+    @Test
+    public void objectsAreWrittenAsCsvRowsInFieldOrder() throws Exception {
+        StringWriter csv = new StringWriter();
+
+        long rows = NdjsonCsvTranscoder.transcode(input(
+                "{\"email\":\"McFly@123.ru\",\"userName\":\"Andr33w\",\"projects\":[{\"id\":1}]}\n"
+                        + "\n"
+                        + "{\"userName\":\"Doc \\\"Emmett\\\", Brown\",\"email\":\"\",\"phoneNumber\":null}\n"),
+                csv, FIELDS);
+
+        assertEquals(2, rows);
+        assertEquals("\"userName\",\"email\",\"phoneNumber\"\n"
+                + "\"Andr33w\",\"McFly@123.ru\",\n"
+                + "\"Doc \"\"Emmett\"\", Brown\",\"\",\n", csv.toString());
+    }
+
+    @Test
+    public void nonObjectRowIsRejected() {
+        StringWriter csv = new StringWriter();
+
+        assertThrows(DataParsingException.class, () ->
+                NdjsonCsvTranscoder.transcode(input("{\"userName\":\"Andr33w\"}\n[1, 2]\n"), csv, FIELDS));
+    }
+
+    @Test
+    public void malformedRowIsRejected() {
+        StringWriter csv = new StringWriter();
+
+        assertThrows(DataParsingException.class, () ->
+                NdjsonCsvTranscoder.transcode(input("{\"userName\":}\n"), csv, FIELDS));
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
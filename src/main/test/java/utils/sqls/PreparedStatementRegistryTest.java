@@ -0,0 +1,176 @@
+package utils.sqls;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import models.dtos.ProjectDto;
+import models.dtos.UserDto;
+import models.enums.ProjectStatus;
+import models.enums.UserRoles;
+import org.junit.jupiter.api.Test;
+import utils.JsonCodec;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 4ndr33w
+ * @version 1.0
+ */
+public class PreparedStatementRegistryTest {
+
+    @Test
+    public void everyStatementIsRegistered() {
+        assertEquals(SqlStatement.values().length, PreparedStatementRegistry.size());
+        for (SqlStatement statement : SqlStatement.values()) {
+            assertNotNull(PreparedStatementRegistry.get(statement), statement.name());
+        }
+    }
+
+    @Test
+    public void statementTextIsBuiltOnceForConfiguredTable() {
+        String sql = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_BY_ID);
+
+        assertEquals("SELECT " + SqlColumns.USERS + " FROM servlets.users WHERE id = ?::uuid", sql);
+        assertSame(sql, PreparedStatementRegistry.get(SqlStatement.USERS_FIND_BY_ID));
+    }
+
+    @Test
+    public void columnListsNeverReadImageOrPassword() {
+        for (String columns : List.of(SqlColumns.USERS, SqlColumns.PROJECTS, SqlColumns.users("u"), SqlColumns.projects("p"))) {
+            assertFalse(columns.matches("(?s).*\\bimage\\b.*"), columns);
+            assertFalse(columns.contains("password"), columns);
+        }
+    }
+
+    @Test
+    public void usersAndProjectsAreNeverReadWithSelectAll() {
+        for (SqlStatement statement : SqlStatement.values()) {
+            String sql = PreparedStatementRegistry.get(statement);
+            assertFalse(sql.contains("* FROM " + SqlTables.USERS + " "), statement.name());
+            assertFalse(sql.contains("* FROM " + SqlTables.PROJECTS + " "), statement.name());
+        }
+    }
+
+    @Test
+    public void aggregatedUsersQueryBuildsDtoJsonWithoutParameters() {
+        String sql = PreparedStatementRegistry.get(SqlStatement.USERS_FIND_ALL_AGGREGATED);
+
+        assertTrue(sql.contains("(ARRAY['USER', 'ADMIN'])[u.userstatus + 1]"));
+        assertTrue(sql.contains("(ARRAY['COMPLETED', 'SUSPENDED', 'FAILED', 'CANCELLED', 'ACTIVE', 'EXPIRED'])[p.project_status + 1]"));
+        assertTrue(sql.contains("'/api/v1/users/image?id=' || u.id || '&v=' || u.image_hash"));
+        assertTrue(sql.contains("LEFT JOIN LATERAL"));
+        String withoutLiterals = sql.replaceAll("'[^']*'", "''");
+        assertFalse(withoutLiterals.contains("?"));
+        assertFalse(withoutLiterals.matches("(?s).*\\bimage\\b.*"));
+        assertFalse(withoutLiterals.contains("password"));
+    }
+
+    @Test
+    public void aggregatedUsersQueryHasSameShapeAsJsonCodec() throws Exception {
+        ProjectDto project = new ProjectDto();
+        project.setId(UUID.randomUUID());
+        project.setName("Project");
+        project.setDescription("Description");
+        project.setCreatedAt(new Date());
+        project.setUpdatedAt(new Date());
+        project.setImageUrl("/api/v1/projects/image?id=1&v=2");
+        project.setAdminId(UUID.randomUUID());
+        project.setProjectStatus(ProjectStatus.ACTIVE);
+        project.setProjectUsersIds(List.of(UUID.randomUUID()));
+        UserDto user = new UserDto();
+        user.setId(UUID.randomUUID());
+        user.setUserName("Andr33w");
+        user.setEmail("McFly@123.ru");
+        user.setFirstName("Marty");
+        user.setLastName("McFly");
+        user.setPhoneNumber("+7");
+        user.setUserRole(UserRoles.USER);
+        user.setImageUrl("/api/v1/users/image?id=1&v=2");
+        user.setCreatedAt(new Date());
+        user.setProjects(List.of(project));
+
+        JsonNode userJson = JsonCodec.mapper().readTree(JsonCodec.toJson(user));
+        List<Map<String, String>> objects = jsonBuildObjects(PreparedStatementRegistry.get(SqlStatement.USERS_FIND_ALL_AGGREGATED));
+
+        assertEquals(2, objects.size());
+        assertSameShape(userJson, objects.get(0));
+        assertSameShape(userJson.get("projects").get(0), objects.get(1));
+    }
+
+    /**
+     * Ключи совпадают, даты - миллисекунды эпохи, перечисления - имена
+     */
+    private static void assertSameShape(JsonNode dto, Map<String, String> sql) {
+        assertEquals(new TreeSet<>(fieldNames(dto)), new TreeSet<>(sql.keySet()));
+        for (Map.Entry<String, String> field : sql.entrySet()) {
+            JsonNode value = dto.get(field.getKey());
+            if (value.isNumber()) {
+                assertTrue(field.getValue().startsWith("floor(extract(epoch FROM"), field.getKey());
+            }
+            else if (value.isTextual() && value.asText().matches("[A-Z_]+")) {
+                assertTrue(field.getValue().startsWith("(ARRAY['"), field.getKey());
+            }
+        }
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> iterator = node.fieldNames(); iterator.hasNext(); ) {
+            names.add(iterator.next());
+        }
+        return names;
+    }
+
+    /**
+     * Аргументы каждого {@code json_build_object(...)} запроса: ключ - выражение
+     */
+    private static List<Map<String, String>> jsonBuildObjects(String sql) {
+        List<Map<String, String>> objects = new ArrayList<>();
+        String call = "json_build_object(";
+        for (int start = sql.indexOf(call); start >= 0; start = sql.indexOf(call, start + 1)) {
+            List<String> arguments = new ArrayList<>();
+            int depth = 0;
+            boolean quoted = false;
+            int from = start + call.length();
+            for (int i = from; ; i++) {
+                char c = sql.charAt(i);
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                else if (quoted) {
+                    continue;
+                }
+                else if (c == '(') {
+                    depth++;
+                }
+                else if (c == ')' && depth > 0) {
+                    depth--;
+                }
+                else if (c == ')' || c == ',' && depth == 0) {
+                    arguments.add(sql.substring(from, i).strip());
+                    from = i + 1;
+                    if (c == ')') {
+                        break;
+                    }
+                }
+            }
+            Map<String, String> object = new LinkedHashMap<>();
+            for (int i = 0; i < arguments.size(); i += 2) {
+                object.put(arguments.get(i).replace("'", ""), arguments.get(i + 1));
+            }
+            objects.add(object);
+        }
+        return objects;
+    }
+}